@@ -1,7 +1,11 @@
 package org.folio.circulation;
 
+import static org.folio.circulation.support.http.client.HttpClientPools.PoolClass.BACKGROUND;
+import static org.folio.circulation.support.http.client.HttpClientPools.PoolClass.INTERACTIVE;
+
 import java.lang.invoke.MethodHandles;
 
+import org.folio.circulation.infrastructure.storage.feesandfines.FeeFineReferenceDataCache;
 import org.folio.circulation.resources.ChangeDueDateResource;
 import org.folio.circulation.resources.CheckInByBarcodeResource;
 import org.folio.circulation.resources.CheckOutByBarcodeResource;
@@ -20,6 +24,7 @@ import org.folio.circulation.resources.LoanCirculationRulesEngineResource;
 import org.folio.circulation.resources.LoanCollectionResource;
 import org.folio.circulation.resources.LostItemCirculationRulesEngineResource;
 import org.folio.circulation.resources.NoticeCirculationRulesEngineResource;
+import org.folio.circulation.resources.OutboundRequestMetricsResource;
 import org.folio.circulation.resources.OverdueFineCirculationRulesEngineResource;
 import org.folio.circulation.resources.OverrideCheckOutStrategy;
 import org.folio.circulation.resources.PickSlipsResource;
@@ -38,6 +43,14 @@ import org.folio.circulation.resources.handlers.LoanRelatedFeeFineClosedHandlerR
 import org.folio.circulation.resources.renewal.OverrideRenewalByBarcodeResource;
 import org.folio.circulation.resources.renewal.RenewByBarcodeResource;
 import org.folio.circulation.resources.renewal.RenewByIdResource;
+import org.folio.circulation.rules.RulesExecutionPool;
+import org.folio.circulation.services.EventPublishingQueue;
+import org.folio.circulation.services.LostItemFeeRefundService;
+import org.folio.circulation.support.http.client.HttpClientPools;
+import org.folio.circulation.support.http.client.OutboundCallTrace;
+import org.folio.circulation.support.http.client.OutboundResilience;
+import org.folio.circulation.support.http.server.AdmissionControl;
+import org.folio.circulation.support.http.server.WebContext;
 import org.folio.circulation.support.logging.Logging;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,8 +58,8 @@ import org.slf4j.LoggerFactory;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Promise;
 import io.vertx.core.http.HttpClient;
-import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpServer;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.Router;
 
 public class CirculationVerticle extends AbstractVerticle {
@@ -60,14 +73,37 @@ public class CirculationVerticle extends AbstractVerticle {
 
     log.info("Starting circulation module");
 
+    EventPublishingQueue.configure(vertx,
+      config().getJsonObject("eventPublishing", new JsonObject()));
+    RulesExecutionPool.configure(
+      config().getJsonObject("rulesExecution", new JsonObject()));
+    LostItemFeeRefundService.configure(
+      config().getJsonObject("lostItemFeeRefunds", new JsonObject()));
+    FeeFineReferenceDataCache.configure(
+      config().getJsonObject("feeFineReferenceData", new JsonObject()));
+    AdmissionControl.configure(
+      config().getJsonObject("admissionControl", new JsonObject()));
+    OutboundResilience.configure(
+      config().getJsonObject("outboundResilience", new JsonObject()));
+    OutboundCallTrace.configure(
+      config().getJsonObject("requestTracing", new JsonObject()));
+
     Router router = Router.router(vertx);
 
-    // bump up the connection pool size from the default value of 5
-    HttpClient client = vertx.createHttpClient(new HttpClientOptions().setMaxPoolSize(100));
+    final HttpClientPools httpClientPools = HttpClientPools.configure(vertx,
+      config().getJsonObject("httpClientPools", new JsonObject()));
+
+    // scheduled processing and reports use their own pool of connections
+    HttpClient client = httpClientPools.getClient(INTERACTIVE);
+    HttpClient backgroundClient = httpClientPools.getClient(BACKGROUND);
 
     this.server = vertx.createHttpServer();
 
+    // before any other handler, so that waiting to be admitted is included
+    router.route().handler(WebContext::recordArrival);
+
     new TenantActivationResource().register(router);
+    new OutboundRequestMetricsResource().register(router);
 
     new CheckOutByBarcodeResource("/circulation/check-out-by-barcode",
       client, new RegularCheckOutStrategy()).register(router);
@@ -85,11 +121,11 @@ public class CirculationVerticle extends AbstractVerticle {
     new RequestByInstanceIdResource(client).register(router);
 
     new RequestHoldShelfClearanceResource(
-      "/circulation/requests-reports/hold-shelf-clearance/:servicePointId", client)
+      "/circulation/requests-reports/hold-shelf-clearance/:servicePointId", backgroundClient)
       .register(router);
-    new ItemsInTransitResource("/inventory-reports/items-in-transit", client)
+    new ItemsInTransitResource("/inventory-reports/items-in-transit", backgroundClient)
       .register(router);
-    new PickSlipsResource("/circulation/pick-slips/:servicePointId", client)
+    new PickSlipsResource("/circulation/pick-slips/:servicePointId", backgroundClient)
       .register(router);
 
     new CirculationRulesResource("/circulation/rules", client)
@@ -115,20 +151,20 @@ public class CirculationVerticle extends AbstractVerticle {
       "/circulation/rules/notice-policy-all", client)
       .register(router);
 
-    new DueDateScheduledNoticeProcessingResource(client).register(router);
-    new DueDateNotRealTimeScheduledNoticeProcessingResource(client).register(router);
-    new RequestScheduledNoticeProcessingResource(client).register(router);
-    new FeeFineScheduledNoticeProcessingResource(client).register(router);
-    new ExpiredSessionProcessingResource(client).register(router);
-    new LoanAnonymizationResource(client).register(router);
+    new DueDateScheduledNoticeProcessingResource(backgroundClient).register(router);
+    new DueDateNotRealTimeScheduledNoticeProcessingResource(backgroundClient).register(router);
+    new RequestScheduledNoticeProcessingResource(backgroundClient).register(router);
+    new FeeFineScheduledNoticeProcessingResource(backgroundClient).register(router);
+    new ExpiredSessionProcessingResource(backgroundClient).register(router);
+    new LoanAnonymizationResource(backgroundClient).register(router);
     new DeclareLostResource(client).register(router);
-    new ScheduledAnonymizationProcessingResource(client).register(router);
+    new ScheduledAnonymizationProcessingResource(backgroundClient).register(router);
     new EndPatronActionSessionResource(client).register(router);
     new ClaimItemReturnedResource(client).register(router);
     new ChangeDueDateResource(client).register(router);
     new DeclareClaimedReturnedItemAsMissingResource(client).register(router);
-    new ScheduledAgeToLostResource(client).register(router);
-    new ScheduledAgeToLostFeeChargingResource(client).register(router);
+    new ScheduledAgeToLostResource(backgroundClient).register(router);
+    new ScheduledAgeToLostFeeChargingResource(backgroundClient).register(router);
 
     // Handlers
     new LoanRelatedFeeFineClosedHandlerResource(client).register(router);
@@ -1,10 +1,20 @@
 package org.folio.circulation;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.stream.Collectors.toList;
+import static org.apache.commons.collections4.ListUtils.partition;
 import static org.folio.circulation.infrastructure.storage.inventory.ItemRepository.noLocationMaterialTypeAndLoanTypeInstance;
+import static org.folio.circulation.support.AsyncCoordinationUtil.allResultsOf;
+import static org.folio.circulation.support.BoundedConcurrency.atMost;
+import static org.folio.circulation.support.results.Result.failed;
 import static org.folio.circulation.support.results.Result.succeeded;
 import static org.folio.circulation.support.results.ResultBinding.mapResult;
 
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 
 import org.folio.circulation.domain.Item;
@@ -12,11 +22,20 @@ import org.folio.circulation.domain.Loan;
 import org.folio.circulation.infrastructure.storage.inventory.ItemRepository;
 import org.folio.circulation.infrastructure.storage.loans.LoanRepository;
 import org.folio.circulation.resources.context.RenewalContext;
+import org.folio.circulation.support.BoundedConcurrency;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.http.client.Response;
 import org.folio.circulation.support.results.Result;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class StoreLoanAndItem {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final int LOANS_PER_BATCH = 50;
+  private static final BoundedConcurrency CONCURRENT_BATCHES = atMost(2);
+  private static final BoundedConcurrency CONCURRENT_SEPARATE_UPDATES = atMost(10);
+
   private final LoanRepository loanRepository;
   private final ItemRepository itemRepository;
 
@@ -45,6 +64,97 @@ public class StoreLoanAndItem {
       .thenComposeAsync(response -> loanRepository.updateLoan(loan));
   }
 
+  /**
+   * Updates the loans, and those of their items that have changed,
+   * storing the items in batches rather than separately for each loan
+   *
+   * Loan storage has no batch interface, so the loans in a batch are updated
+   * separately once their items have been stored. When a batch of items cannot
+   * be stored (e.g. one of them conflicts with a change made in storage),
+   * none of them are, and each loan in the batch is updated along with its item
+   * instead, so that only the loans whose records conflict fail.
+   *
+   * @param loans the loans to update
+   * @return the result of updating each loan, in the same order as the loans
+   */
+  public CompletableFuture<List<Result<Loan>>> updateLoansAndItemsInStorage(
+    Collection<Loan> loans) {
+
+    final List<List<Loan>> batches = partition(new ArrayList<>(loans), LOANS_PER_BATCH);
+
+    return allResultsOf(batches,
+      batch -> updateBatch(batch).thenApply(Result::succeeded), CONCURRENT_BATCHES)
+      .thenApply(batchResults -> resultsForEachLoan(batches, batchResults));
+  }
+
+  private CompletableFuture<List<Result<Loan>>> updateBatch(List<Loan> batch) {
+    return storeChangedItems(batch).thenCompose(result -> {
+      if (result.succeeded()) {
+        return allResultsOf(batch, this::updateLoan, CONCURRENT_SEPARATE_UPDATES);
+      }
+
+      log.warn("Failed to update items for batch of {} loans, " +
+        "updating each loan and its item separately: {}", batch.size(), result.cause());
+
+      return allResultsOf(batch, this::updateLoanAndItemInStorage,
+        CONCURRENT_SEPARATE_UPDATES);
+    });
+  }
+
+  private CompletableFuture<Result<Collection<Item>>> storeChangedItems(
+    List<Loan> batch) {
+
+    final List<Item> changedItems = batch.stream()
+      .filter(StoreLoanAndItem::hasItem)
+      .map(Loan::getItem)
+      .filter(Item::hasChanged)
+      .collect(toList());
+
+    return itemRepository.batchUpdate(changedItems);
+  }
+
+  private CompletableFuture<Result<Loan>> updateLoan(Loan loan) {
+    if (!hasItem(loan)) {
+      return completedFuture(succeeded(null));
+    }
+
+    return loanRepository.updateLoan(loan);
+  }
+
+  private static List<Result<Loan>> resultsForEachLoan(List<List<Loan>> batches,
+    List<Result<List<Result<Loan>>>> batchResults) {
+
+    final List<Result<Loan>> loanResults = new ArrayList<>();
+
+    for (int batchIndex = 0; batchIndex < batches.size(); batchIndex++) {
+      final List<Loan> batch = batches.get(batchIndex);
+      final Result<List<Result<Loan>>> batchResult = batchResults.get(batchIndex);
+
+      for (int loanIndex = 0; loanIndex < batch.size(); loanIndex++) {
+        final Result<Loan> loanResult = batchResult.failed()
+          ? failed(batchResult.cause())
+          : batchResult.value().get(loanIndex);
+
+        if (loanResult.failed()) {
+          log.warn("Failed to update loan {} and its item: {}",
+            idOf(batch.get(loanIndex)), loanResult.cause());
+        }
+
+        loanResults.add(loanResult);
+      }
+    }
+
+    return loanResults;
+  }
+
+  private static boolean hasItem(Loan loan) {
+    return loan != null && loan.getItem() != null;
+  }
+
+  private static String idOf(Loan loan) {
+    return Objects.isNull(loan) ? null : loan.getId();
+  }
+
   private CompletableFuture<Result<Response>> updateItem(Item item) {
     if (!item.hasChanged()) {
       return completedFuture(succeeded(null));
@@ -27,6 +27,7 @@ import static org.folio.circulation.domain.representations.LoanProperties.DECLAR
 import static org.folio.circulation.domain.representations.LoanProperties.DUE_DATE;
 import static org.folio.circulation.domain.representations.LoanProperties.ITEM_LOCATION_ID_AT_CHECKOUT;
 import static org.folio.circulation.domain.representations.LoanProperties.LOAN_POLICY_ID;
+import static org.folio.circulation.domain.representations.LoanProperties.LOST_ITEM_BILLING_STARTED_DATE;
 import static org.folio.circulation.domain.representations.LoanProperties.LOST_ITEM_HAS_BEEN_BILLED;
 import static org.folio.circulation.domain.representations.LoanProperties.LOST_ITEM_POLICY_ID;
 import static org.folio.circulation.domain.representations.LoanProperties.METADATA;
@@ -625,12 +626,29 @@ public class Loan implements ItemRelatedRecord, UserRelatedRecord {
     return this;
   }
 
+  /**
+   * Records that fees are about to be charged for the aged to lost item,
+   * so that billing can be resumed without charging the same fee twice
+   */
+  public Loan startLostItemBilling(DateTime billingStartedDate) {
+    writeByPath(representation, billingStartedDate, AGED_TO_LOST_DELAYED_BILLING,
+      LOST_ITEM_BILLING_STARTED_DATE);
+
+    return this;
+  }
+
+  public boolean hasLostItemBillingStarted() {
+    return getDateTimePropertyByPath(representation, AGED_TO_LOST_DELAYED_BILLING,
+      LOST_ITEM_BILLING_STARTED_DATE) != null;
+  }
+
   public void removeAgedToLostBillingInfo() {
     final JsonObject billingInfo = representation
       .getJsonObject(AGED_TO_LOST_DELAYED_BILLING);
 
     remove(billingInfo, LOST_ITEM_HAS_BEEN_BILLED);
     remove(billingInfo, DATE_LOST_ITEM_SHOULD_BE_BILLED);
+    remove(billingInfo, LOST_ITEM_BILLING_STARTED_DATE);
   }
 
   private void setAgedToLostDate(DateTime agedToLostDate) {
@@ -18,6 +18,8 @@ import java.util.stream.Collectors;
 import org.folio.circulation.support.results.Result;
 import org.folio.circulation.support.http.client.Response;
 import org.folio.circulation.support.http.client.ResponseInterpreter;
+import org.folio.circulation.support.http.server.HttpResponse;
+import org.folio.circulation.support.http.server.StreamingJsonHttpResponse;
 
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
@@ -43,7 +45,7 @@ public class MultipleRecords<T> {
     String recordsPropertyName) {
 
     return new ResponseInterpreter<MultipleRecords<T>>()
-      .flatMapOn(200, r -> from(r.getJson(), mapper, recordsPropertyName))
+      .flatMapOn(200, r -> succeeded(r.mapRecords(recordsPropertyName, mapper)))
       .apply(response);
   }
 
@@ -122,6 +124,21 @@ public class MultipleRecords<T> {
       .put(TOTAL_RECORDS_PROPERTY_NAME, totalRecords);
   }
 
+  /**
+   * Creates a response that writes each record as it is mapped,
+   * instead of building the whole collection representation up front
+   * @param mapper function to map each record to it's representation
+   * @param recordsPropertyName name of the array property containing the records
+   * @return response that streams the records and total record count
+   */
+  public HttpResponse asStreamingJsonResponse(
+    Function<T, JsonObject> mapper,
+    String recordsPropertyName) {
+
+    return StreamingJsonHttpResponse.ok(recordsPropertyName, getRecords(),
+      mapper, totalRecords);
+  }
+
   public Collection<T> getRecords() {
     return records;
   }
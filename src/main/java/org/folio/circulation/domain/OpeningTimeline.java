@@ -0,0 +1,139 @@
+package org.folio.circulation.domain;
+
+import static org.joda.time.DateTimeConstants.MILLIS_PER_MINUTE;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import org.joda.time.DateTime;
+
+/**
+ * The periods a service point is open, held as a sorted array of open intervals
+ * together with the number of open minutes before each interval, so that
+ * the open minutes between any two times take two binary searches to find
+ * rather than walking every opening day and hour.
+ */
+public class OpeningTimeline {
+  /** start of each open interval, in milliseconds since the epoch */
+  private final long[] starts;
+  /** end of each open interval, in milliseconds since the epoch */
+  private final long[] ends;
+  /** open minutes in all of the intervals before each interval */
+  private final long[] minutesBefore;
+
+  private OpeningTimeline(long[] starts, long[] ends) {
+    this.starts = starts;
+    this.ends = ends;
+    this.minutesBefore = new long[starts.length + 1];
+
+    for (int i = 0; i < starts.length; i++) {
+      minutesBefore[i + 1] = minutesBefore[i] + minutesBetween(starts[i], ends[i]);
+    }
+  }
+
+  /**
+   * Overlapping opening hours are combined into a single interval,
+   * opening hours that end before they start are ignored
+   * @param openingDays days the service point is open
+   * @return timeline of all of the opening hours of the days
+   */
+  public static OpeningTimeline from(Collection<OpeningDay> openingDays) {
+    final List<long[]> intervals = new ArrayList<>();
+
+    for (OpeningDay openingDay : openingDays) {
+      final DateTime datePart = openingDay.getDayWithTimeZone();
+
+      if (datePart == null) {
+        continue;
+      }
+
+      for (OpeningHour openingHour : openingDay.getOpeningHour()) {
+        if (openingHour.getStartTime() == null || openingHour.getEndTime() == null) {
+          continue;
+        }
+
+        final long start = datePart.withTime(openingHour.getStartTime()).getMillis();
+        final long end = datePart.withTime(openingHour.getEndTime()).getMillis();
+
+        if (end > start) {
+          intervals.add(new long[] { start, end });
+        }
+      }
+    }
+
+    intervals.sort(Comparator.comparingLong(interval -> interval[0]));
+
+    final List<long[]> combined = new ArrayList<>();
+
+    for (long[] interval : intervals) {
+      final long[] previous = combined.isEmpty() ? null : combined.get(combined.size() - 1);
+
+      if (previous != null && interval[0] <= previous[1]) {
+        previous[1] = Math.max(previous[1], interval[1]);
+      }
+      else {
+        combined.add(interval);
+      }
+    }
+
+    return new OpeningTimeline(
+      combined.stream().mapToLong(interval -> interval[0]).toArray(),
+      combined.stream().mapToLong(interval -> interval[1]).toArray());
+  }
+
+  /**
+   * Minutes are counted separately for each interval and any part
+   * of a minute is ignored
+   * @return number of minutes the service point is open between the two times
+   */
+  public int openMinutesBetween(DateTime from, DateTime to) {
+    final long fromMillis = from.getMillis();
+    final long toMillis = to.getMillis();
+
+    // first interval that ends after from
+    final int first = firstIndexAfter(ends, fromMillis);
+    // last interval that starts before to
+    final int last = firstIndexAtOrAfter(starts, toMillis) - 1;
+
+    if (toMillis <= fromMillis || first > last) {
+      return 0;
+    }
+
+    if (first == last) {
+      return (int) minutesBetween(Math.max(starts[first], fromMillis),
+        Math.min(ends[first], toMillis));
+    }
+
+    return (int) (minutesBetween(Math.max(starts[first], fromMillis), ends[first])
+      + minutesBefore[last] - minutesBefore[first + 1]
+      + minutesBetween(starts[last], Math.min(ends[last], toMillis)));
+  }
+
+  private static int firstIndexAfter(long[] sorted, long value) {
+    int low = 0;
+    int high = sorted.length;
+
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+
+      if (sorted[middle] > value) {
+        high = middle;
+      }
+      else {
+        low = middle + 1;
+      }
+    }
+
+    return low;
+  }
+
+  private static int firstIndexAtOrAfter(long[] sorted, long value) {
+    return firstIndexAfter(sorted, value - 1);
+  }
+
+  private static long minutesBetween(long start, long end) {
+    return end > start ? (end - start) / MILLIS_PER_MINUTE : 0;
+  }
+}
@@ -1,10 +1,8 @@
 package org.folio.circulation.domain;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
-import static org.apache.commons.lang3.ObjectUtils.allNotNull;
 import static org.folio.circulation.support.results.Result.succeeded;
 import static org.folio.circulation.support.results.ResultBinding.flatMapResult;
-import static org.joda.time.DateTimeConstants.MINUTES_PER_HOUR;
 import static org.joda.time.DateTimeZone.UTC;
 import static org.joda.time.Minutes.minutesBetween;
 
@@ -17,7 +15,6 @@ import org.folio.circulation.infrastructure.storage.CalendarRepository;
 import org.folio.circulation.support.results.Result;
 import org.joda.time.DateTime;
 import org.joda.time.LocalDateTime;
-import org.joda.time.Period;
 
 public class OverduePeriodCalculatorService {
   private static final int ZERO_MINUTES = 0;
@@ -65,63 +62,15 @@ public class OverduePeriodCalculatorService {
     DateTime dueDate = loan.getDueDate();
     String itemLocationPrimaryServicePoint = getItemLocationPrimaryServicePoint(loan).toString();
     return calendarRepository
-      .fetchOpeningDaysBetweenDates(itemLocationPrimaryServicePoint, dueDate, returnDate, false)
-      .thenApply(r -> r.next(openingDays -> getOpeningDaysDurationMinutes(
-        openingDays, dueDate.toLocalDateTime(), returnDate.toLocalDateTime())));
+      .fetchOpeningTimeline(itemLocationPrimaryServicePoint, dueDate, returnDate)
+      .thenApply(r -> r.map(timeline -> timeline.openMinutesBetween(dueDate, returnDate)));
   }
 
   Result<Integer> getOpeningDaysDurationMinutes(
     Collection<OpeningDay> openingDays, LocalDateTime dueDate, LocalDateTime returnDate) {
 
-    return succeeded(
-      openingDays.stream()
-        .mapToInt(day -> getOpeningDayDurationMinutes(day, dueDate, returnDate))
-        .sum());
-  }
-
-  private int getOpeningDayDurationMinutes(
-    OpeningDay openingDay, LocalDateTime dueDate, LocalDateTime systemTime) {
-
-    DateTime datePart = openingDay.getDayWithTimeZone();
-
-    return openingDay.getOpeningHour()
-      .stream()
-      .mapToInt(openingHour -> getOpeningHourDurationMinutes(
-        openingHour, datePart, dueDate, systemTime))
-      .sum();
-  }
-
-  private int getOpeningHourDurationMinutes(OpeningHour openingHour,
-    DateTime datePart, LocalDateTime dueDate, LocalDateTime returnDate) {
-
-    if (allNotNull(datePart, dueDate, openingHour.getStartTime(), openingHour.getEndTime())) {
-
-      LocalDateTime startTime =  datePart.withTime(openingHour.getStartTime())
-        .withZone(UTC).toLocalDateTime();
-      LocalDateTime endTime = datePart.withTime(openingHour.getEndTime())
-        .withZone(UTC).toLocalDateTime();
-
-      if (dueDate.isAfter(startTime) && dueDate.isBefore(endTime)) {
-        startTime = dueDate;
-      }
-
-      if (returnDate.isAfter(startTime) && returnDate.isBefore(endTime)) {
-        endTime = returnDate;
-      }
-
-      if (endTime.isAfter(startTime) && endTime.isAfter(dueDate)
-        && startTime.isBefore(returnDate)) {
-
-        return calculateDiffInMinutes(startTime, endTime);
-      }
-    }
-
-    return ZERO_MINUTES;
-  }
-
-  private int calculateDiffInMinutes(LocalDateTime start, LocalDateTime end) {
-    Period period = new Period(start, end);
-    return period.getHours() * MINUTES_PER_HOUR + period.getMinutes();
+    return succeeded(OpeningTimeline.from(openingDays)
+      .openMinutesBetween(dueDate.toDateTime(UTC), returnDate.toDateTime(UTC)));
   }
 
   Result<Integer> adjustOverdueWithGracePeriod(Loan loan, int overdueMinutes) {
@@ -3,13 +3,13 @@ package org.folio.circulation.domain.notice.schedule;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.stream.Collectors.toList;
 import static org.folio.circulation.domain.notice.schedule.DueDateScheduledNoticeHandler.REQUIRED_RECORD_TYPES;
-import static org.folio.circulation.support.AsyncCoordinationUtil.allOf;
 import static org.folio.circulation.support.AsyncCoordinationUtil.allResultsOf;
 import static org.folio.circulation.support.results.Result.succeeded;
 import static org.folio.circulation.support.results.ResultBinding.mapResult;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.folio.circulation.domain.Loan;
@@ -22,6 +22,7 @@ import org.folio.circulation.domain.notice.PatronNoticeService;
 import org.folio.circulation.domain.notice.TemplateContextUtil;
 import org.folio.circulation.infrastructure.storage.loans.LoanPolicyRepository;
 import org.folio.circulation.infrastructure.storage.notices.PatronNoticePolicyRepository;
+import org.folio.circulation.rules.CirculationRuleMatch;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.results.Result;
@@ -129,18 +130,29 @@ public class DueDateNotRealTimeScheduledNoticeHandler {
       .put("user", TemplateContextUtil.createUserContext(user))
       .put("loans", new JsonArray(loanContexts));
 
-    return allOf(relevantNotices, pair -> noticePolicyRepository.lookupPolicyId(
-      pair.getRight().getLoan().getItem(), pair.getRight().getLoan().getUser())
-      .thenApply(r -> r.map(policy -> NoticeLogContextItem.from(pair.getRight().getLoan())
-        .withNoticePolicyId(policy.getPolicyId())
-        .withTriggeringEvent(pair.getLeft().getTriggeringEvent().getRepresentation())
-        .withTemplateId(pair.getLeft().getConfiguration().getTemplateId()))))
+    List<Loan> relevantLoans = relevantNotices.stream()
+      .map(pair -> pair.getRight().getLoan())
+      .collect(toList());
+
+    return noticePolicyRepository.lookupPolicyIds(relevantLoans)
+      .thenApply(r -> r.map(policies -> IntStream.range(0, relevantNotices.size())
+        .mapToObj(index -> toNoticeLogContextItem(relevantNotices.get(index), policies.get(index)))
+        .collect(toList())))
       .thenApply(r -> r.map(items -> new NoticeLogContext().withUser(user).withItems(items)))
       .thenCompose(r -> r.after(logContext -> patronNoticeService.acceptScheduledNoticeEvent(
         scheduledNotice.getConfiguration(), user.getId(), noticeContext, logContext)))
       .thenApply(mapResult(v -> noticeGroup));
   }
 
+  private NoticeLogContextItem toNoticeLogContextItem(
+    Pair<ScheduledNotice, LoanAndRelatedRecords> noticeWithContext, CirculationRuleMatch policy) {
+
+    return NoticeLogContextItem.from(noticeWithContext.getRight().getLoan())
+      .withNoticePolicyId(policy.getPolicyId())
+      .withTriggeringEvent(noticeWithContext.getLeft().getTriggeringEvent().getRepresentation())
+      .withTemplateId(noticeWithContext.getLeft().getConfiguration().getTemplateId());
+  }
+
   private boolean noticeIsRelevant(Pair<ScheduledNotice, LoanAndRelatedRecords> noticeWithContext) {
     ScheduledNotice notice = noticeWithContext.getLeft();
     Loan loan = noticeWithContext.getRight().getLoan();
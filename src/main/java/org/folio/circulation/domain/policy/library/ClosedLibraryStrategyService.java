@@ -63,7 +63,8 @@ public class ClosedLibraryStrategyService {
     Loan loan, LoanPolicy loanPolicy, DateTimeZone timeZone) {
 
     LocalDate requestedDate = loan.getDueDate().withZone(timeZone).toLocalDate();
-    return calendarRepository.lookupOpeningDays(requestedDate, loan.getCheckoutServicePointId())
+    return calendarRepository.lookupOpeningDays(requestedDate,
+        loan.getCheckoutServicePointId(), timeZone)
       .thenApply(r -> r.next(openingDays -> applyStrategy(loan, loanPolicy, openingDays, timeZone)));
   }
 
@@ -2,63 +2,93 @@ package org.folio.circulation.domain.policy.library;
 
 import java.util.List;
 
-import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.apache.commons.lang3.tuple.Pair;
 import org.joda.time.DateTime;
 
+/**
+ * The open and closed intervals of a service point, in order. The start and
+ * end of each interval are also held in arrays, so that the interval containing
+ * a date can be found by binary search rather than by walking every interval.
+ */
 class LibraryTimetable {
-  private final LibraryInterval head;
-  private final LibraryInterval tail;
-
-  private static LibraryInterval findInterval(DateTime dateTime, LibraryInterval head) {
-    for (LibraryInterval node = head; node != null; node = node.getNext()) {
-      if (node.getInterval().contains(dateTime)) {
-        return node;
-      }
-    }
-    return null;
-  }
-
-  private static Pair<LibraryInterval, LibraryInterval> getHeadAndTail(List<LibraryInterval> intervalList) {
-    if (intervalList.isEmpty()) {
-      return new ImmutablePair<>(null, null);
-    }
-
-    LibraryInterval head = intervalList.get(0);
-    LibraryInterval prevNode = head;
-    for (LibraryInterval currNode : intervalList) {
-      prevNode.setNext(currNode);
-      currNode.setPrevious(prevNode);
-      prevNode = currNode;
-    }
-    return new ImmutablePair<>(head, prevNode);
-  }
+  private final LibraryInterval[] intervals;
+  /** start of each interval, in milliseconds since the epoch */
+  private final long[] starts;
+  /** end of each interval, in milliseconds since the epoch */
+  private final long[] ends;
+  /** overlapping or out of order intervals cannot be binary searched */
+  private final boolean searchable;
 
   LibraryTimetable(LibraryInterval head) {
-    this.head = head;
-    this.tail = head;
+    this(List.of(head));
   }
 
   LibraryTimetable() {
-    this.head = null;
-    this.tail = null;
+    this(List.of());
   }
 
   LibraryTimetable(List<LibraryInterval> intervalList) {
-    Pair<LibraryInterval, LibraryInterval> headAndTail = getHeadAndTail(intervalList);
-    this.head = headAndTail.getKey();
-    this.tail = headAndTail.getValue();
+    this.intervals = intervalList.toArray(new LibraryInterval[0]);
+    this.starts = new long[intervals.length];
+    this.ends = new long[intervals.length];
+
+    boolean inOrder = true;
+
+    for (int i = 0; i < intervals.length; i++) {
+      starts[i] = intervals[i].getInterval().getStartMillis();
+      ends[i] = intervals[i].getInterval().getEndMillis();
+
+      if (i > 0) {
+        intervals[i - 1].setNext(intervals[i]);
+        intervals[i].setPrevious(intervals[i - 1]);
+
+        inOrder = inOrder && ends[i - 1] <= starts[i];
+      }
+    }
+
+    this.searchable = inOrder;
   }
 
   LibraryInterval findInterval(DateTime dateTime) {
-    return findInterval(dateTime, head);
+    final long instant = dateTime.getMillis();
+
+    if (!searchable) {
+      for (LibraryInterval interval : intervals) {
+        if (interval.getInterval().contains(instant)) {
+          return interval;
+        }
+      }
+      return null;
+    }
+
+    // last interval that starts at or before the instant
+    final int index = lastIndexAtOrBefore(starts, instant);
+
+    return index >= 0 && instant < ends[index] ? intervals[index] : null;
   }
 
   LibraryInterval getTail() {
-    return tail;
+    return intervals.length == 0 ? null : intervals[intervals.length - 1];
   }
 
   LibraryInterval getHead() {
-    return head;
+    return intervals.length == 0 ? null : intervals[0];
+  }
+
+  private static int lastIndexAtOrBefore(long[] sorted, long value) {
+    int low = 0;
+    int high = sorted.length;
+
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+
+      if (sorted[middle] > value) {
+        high = middle;
+      }
+      else {
+        low = middle + 1;
+      }
+    }
+
+    return low - 1;
   }
 }
@@ -10,12 +10,23 @@ import org.joda.time.LocalTime;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.stream.Collectors;
 
 public class LibraryTimetableConverter {
 
+  /**
+   * Timetables for each time zone, by the opening days they were converted from.
+   * Opening days are cached for each service point and date, so a timetable
+   * is reused for as long as its opening days are, and can be collected after
+   */
+  private static final Map<AdjacentOpeningDays, Map<DateTimeZone, LibraryTimetable>> timetables
+    = new WeakHashMap<>();
+
   private LibraryTimetableConverter() {
   }
 
@@ -24,6 +35,15 @@ public class LibraryTimetableConverter {
     if (adjacentOpeningDays == null) {
       return new LibraryTimetable();
     }
+    synchronized (timetables) {
+      return timetables.computeIfAbsent(adjacentOpeningDays, days -> new HashMap<>())
+        .computeIfAbsent(zone, z -> buildLibraryTimetable(adjacentOpeningDays, z));
+    }
+  }
+
+  private static LibraryTimetable buildLibraryTimetable(
+    AdjacentOpeningDays adjacentOpeningDays, DateTimeZone zone) {
+
     List<OpeningDay> openingDays = new ArrayList<>();
     openingDays.add(adjacentOpeningDays.getPreviousDay());
     openingDays.add(adjacentOpeningDays.getRequestedDay());
@@ -32,6 +32,7 @@ public class LoanProperties {
   public static final String AGED_TO_LOST_DELAYED_BILLING = "agedToLostDelayedBilling";
   public static final String LOST_ITEM_HAS_BEEN_BILLED = "lostItemHasBeenBilled";
   public static final String DATE_LOST_ITEM_SHOULD_BE_BILLED = "dateLostItemShouldBeBilled";
+  public static final String LOST_ITEM_BILLING_STARTED_DATE = "lostItemBillingStartedDate";
   public static final String METADATA = "metadata";
   public static final String UPDATED_BY_USER_ID = "updatedByUserId";
 }
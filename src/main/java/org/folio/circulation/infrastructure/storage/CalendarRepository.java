@@ -12,6 +12,7 @@ import java.util.concurrent.CompletableFuture;
 import org.folio.circulation.AdjacentOpeningDays;
 import org.folio.circulation.domain.MultipleRecords;
 import org.folio.circulation.domain.OpeningDay;
+import org.folio.circulation.domain.OpeningTimeline;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.FetchSingleRecord;
@@ -31,10 +32,12 @@ public class CalendarRepository {
   private static final String OPENING_DAYS = "openingDays";
   private static final String PATH_PARAM_WITH_QUERY = "%s/calculateopening?requestedDate=%s";
 
+  private final String tenantId;
   private final CollectionResourceClient calendarClient;
   private final ConfigurationRepository configurationRepository;
 
   public CalendarRepository(Clients clients) {
+    this.tenantId = clients.getTenantId();
     this.calendarClient = clients.calendarStorageClient();
     this.configurationRepository = new ConfigurationRepository(clients);
   }
@@ -51,17 +54,57 @@ public class CalendarRepository {
       .fetch(path);
   }
 
+  /**
+   * Opening days are cached until the end of the current day in the time zone
+   * given, so the calendar is only fetched once a day for each date
+   */
+  public CompletableFuture<Result<AdjacentOpeningDays>> lookupOpeningDays(
+    LocalDate requestedDate, String servicePointId, DateTimeZone zone) {
+
+    return OpeningDaysCache.getInstance().getOpeningDays(tenantId, servicePointId,
+      requestedDate, zone, () -> lookupOpeningDays(requestedDate, servicePointId));
+  }
+
   public CompletableFuture<Result<Collection<OpeningDay>>> fetchOpeningDaysBetweenDates(
     String servicePointId, DateTime startDate, DateTime endDate, boolean includeClosedDays) {
 
+    return fetchOpeningPeriods(servicePointId, startDate.toLocalDate(),
+      endDate.toLocalDate().plusDays(1), includeClosedDays)
+      .thenCombineAsync(configurationRepository.findTimeZoneConfiguration(),
+        Result.combined(this::getOpeningDaysFromOpeningPeriods));
+  }
+
+  /**
+   * Timelines are cached, so the calendar is only fetched when the cached
+   * timeline is too old or does not cover the dates between start and end
+   */
+  public CompletableFuture<Result<OpeningTimeline>> fetchOpeningTimeline(
+    String servicePointId, DateTime startDate, DateTime endDate) {
+
+    return configurationRepository.findTimeZoneConfiguration()
+      .thenCompose(r -> r.after(zone -> OpeningTimelineCache.getInstance()
+        .getTimeline(tenantId, servicePointId, zone, startDate.toLocalDate(),
+          endDate.toLocalDate().plusDays(1), (firstDate, lastDate) ->
+            fetchOpeningTimeline(servicePointId, firstDate, lastDate, zone))));
+  }
+
+  private CompletableFuture<Result<OpeningTimeline>> fetchOpeningTimeline(
+    String servicePointId, LocalDate startDate, LocalDate endDate, DateTimeZone zone) {
+
+    return fetchOpeningPeriods(servicePointId, startDate, endDate, false)
+      .thenApply(r -> r.next(response -> getOpeningDaysFromOpeningPeriods(response, zone)))
+      .thenApply(r -> r.map(OpeningTimeline::from));
+  }
+
+  private CompletableFuture<Result<Response>> fetchOpeningPeriods(
+    String servicePointId, LocalDate startDate, LocalDate endDate,
+    boolean includeClosedDays) {
+
     String params = String.format(
       "servicePointId=%s&startDate=%s&endDate=%s&includeClosedDays=%s&limit=%d",
-      servicePointId, startDate.toLocalDate(), endDate.toLocalDate().plusDays(1),
-      includeClosedDays, 10000);
+      servicePointId, startDate, endDate, includeClosedDays, 10000);
 
-    return calendarClient.getManyWithRawQueryStringParameters(params)
-      .thenCombineAsync(configurationRepository.findTimeZoneConfiguration(),
-        Result.combined(this::getOpeningDaysFromOpeningPeriods));
+    return calendarClient.getManyWithRawQueryStringParameters(params);
   }
 
   private Result<Collection<OpeningDay>> getOpeningDaysFromOpeningPeriods(
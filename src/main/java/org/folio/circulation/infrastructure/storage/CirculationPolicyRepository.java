@@ -1,10 +1,12 @@
 package org.folio.circulation.infrastructure.storage;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.stream.Collectors.toList;
 import static org.folio.circulation.rules.RulesExecutionParameters.forItem;
 import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
 
 import java.lang.invoke.MethodHandles;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import org.folio.circulation.domain.Item;
@@ -85,6 +87,32 @@ public abstract class CirculationPolicyRepository<T> {
     return getPolicyAndMatch(forItem(item, user));
   }
 
+  /**
+   * Looks up the policy ID for the item and user of each loan,
+   * applying the circulation rules to all of them at once
+   *
+   * @return the matches in the same order as the loans
+   */
+  public CompletableFuture<Result<List<CirculationRuleMatch>>> lookupPolicyIds(
+    List<Loan> loans) {
+
+    final List<Item> items = loans.stream().map(Loan::getItem).collect(toList());
+
+    if (items.stream().anyMatch(Item::isNotFound)) {
+      return completedFuture(failedDueToServerError(
+        "Unable to apply circulation rules for unknown item"));
+    }
+
+    if (items.stream().anyMatch(Item::doesNotHaveHolding)) {
+      return completedFuture(failedDueToServerError(
+        "Unable to apply circulation rules for unknown holding"));
+    }
+
+    return getPolicyAndMatches(loans.stream()
+      .map(loan -> forItem(loan.getItem(), loan.getUser()))
+      .collect(toList()));
+  }
+
   protected abstract String getPolicyNotFoundErrorMessage(String policyId);
 
   protected abstract Result<T> toPolicy(JsonObject representation, AppliedRuleConditions ruleConditionsEntity);
@@ -93,4 +121,7 @@ public abstract class CirculationPolicyRepository<T> {
 
   protected abstract CompletableFuture<Result<CirculationRuleMatch>> getPolicyAndMatch(
     RulesExecutionParameters rulesExecutionParameters);
+
+  protected abstract CompletableFuture<Result<List<CirculationRuleMatch>>> getPolicyAndMatches(
+    List<RulesExecutionParameters> rulesExecutionParameters);
 }
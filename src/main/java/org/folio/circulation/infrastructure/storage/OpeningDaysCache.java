@@ -0,0 +1,109 @@
+package org.folio.circulation.infrastructure.storage;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.folio.circulation.AdjacentOpeningDays;
+import org.folio.circulation.support.results.Result;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+
+/**
+ * Keeps the opening days adjacent to a requested date for each service point
+ * in memory, as every check out or renewal at a service point with the same
+ * due date gets the same opening days from the calendar.
+ *
+ * Opening days are kept until the end of the day they were fetched on,
+ * in the time zone of the tenant. Lookups for the same service point and
+ * date whilst the calendar is being fetched share the same fetch. Failed
+ * lookups are not kept.
+ */
+public final class OpeningDaysCache {
+  private static final OpeningDaysCache instance = new OpeningDaysCache();
+
+  /** opening days by service point ID and requested date for each tenantId */
+  private final Map<String, Map<Pair<String, LocalDate>, CachedOpeningDays>> tenantCaches
+    = new ConcurrentHashMap<>();
+
+  OpeningDaysCache() { }
+
+  public static OpeningDaysCache getInstance() {
+    return instance;
+  }
+
+  /**
+   * Completely drop the cache, all opening days are fetched from the calendar
+   * the next time they are needed
+   */
+  public void dropCache() {
+    tenantCaches.clear();
+  }
+
+  CompletableFuture<Result<AdjacentOpeningDays>> getOpeningDays(String tenantId,
+    String servicePointId, LocalDate requestedDate, DateTimeZone zone,
+    Supplier<CompletableFuture<Result<AdjacentOpeningDays>>> fetcher) {
+
+    final Map<Pair<String, LocalDate>, CachedOpeningDays> cache = tenantCache(tenantId);
+    final Pair<String, LocalDate> key = Pair.of(servicePointId, requestedDate);
+    final long now = System.currentTimeMillis();
+
+    final CompletableFuture<Result<AdjacentOpeningDays>> fetched = new CompletableFuture<>();
+
+    final CachedOpeningDays cached = cache.compute(key, (k, existing) ->
+      existing != null && existing.isCurrent(now)
+        ? existing
+        : new CachedOpeningDays(fetched, endOfDay(now, zone)));
+
+    if (cached.openingDays != fetched) {
+      return cached.openingDays;
+    }
+
+    // only clear out old opening days when fetching, rather than on every lookup
+    cache.values().removeIf(openingDays -> !openingDays.isCurrent(now));
+
+    // the fetch is started outside of the map, as it could complete straight away
+    fetcher.get().whenComplete((result, error) -> {
+      if (error != null || result.failed()) {
+        cache.remove(key, cached);
+      }
+
+      if (error != null) {
+        fetched.completeExceptionally(error);
+      }
+      else {
+        fetched.complete(result);
+      }
+    });
+
+    return fetched;
+  }
+
+  private Map<Pair<String, LocalDate>, CachedOpeningDays> tenantCache(String tenantId) {
+    return tenantCaches.computeIfAbsent(tenantId, id -> new ConcurrentHashMap<>());
+  }
+
+  private static long endOfDay(long now, DateTimeZone zone) {
+    return new DateTime(now, zone).plusDays(1).withTimeAtStartOfDay().getMillis();
+  }
+
+  private static class CachedOpeningDays {
+    private final CompletableFuture<Result<AdjacentOpeningDays>> openingDays;
+    /** System.currentTimeMillis() after which the opening days are fetched again */
+    private final long expiresAt;
+
+    private CachedOpeningDays(CompletableFuture<Result<AdjacentOpeningDays>> openingDays,
+      long expiresAt) {
+
+      this.openingDays = openingDays;
+      this.expiresAt = expiresAt;
+    }
+
+    private boolean isCurrent(long now) {
+      return expiresAt > now;
+    }
+  }
+}
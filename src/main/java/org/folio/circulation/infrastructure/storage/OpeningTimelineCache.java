@@ -0,0 +1,139 @@
+package org.folio.circulation.infrastructure.storage;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.results.Result.succeeded;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+import org.folio.circulation.domain.OpeningTimeline;
+import org.folio.circulation.support.results.Result;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+
+/**
+ * Keeps the opening timeline of each service point for each tenant in memory,
+ * so that the calendar does not need to be fetched every time overdue minutes
+ * are calculated.
+ *
+ * A timeline is fetched again when it is older than the maximum age, does not
+ * cover all of the dates needed or was built using a different time zone.
+ * When the dates are not covered, the dates of the previous timeline are fetched
+ * as well, so that the cached timeline grows to cover the due dates in use.
+ */
+public final class OpeningTimelineCache {
+  private static final OpeningTimelineCache instance = new OpeningTimelineCache(60_000);
+
+  /** opening hours are also fetched for this many days after the dates needed */
+  private static final int DAYS_FETCHED_AHEAD = 7;
+
+  /** after this time a timeline is fetched from the calendar again */
+  private final long maximumAgeInMilliseconds;
+  /** cached timelines by service point ID for each tenantId */
+  private final Map<String, Map<String, CachedTimeline>> tenantCaches
+    = new ConcurrentHashMap<>();
+
+  OpeningTimelineCache(long maximumAgeInMilliseconds) {
+    this.maximumAgeInMilliseconds = maximumAgeInMilliseconds;
+  }
+
+  public static OpeningTimelineCache getInstance() {
+    return instance;
+  }
+
+  /**
+   * Completely drop the cache, every timeline is fetched from the calendar
+   * the next time it is needed
+   */
+  public void dropCache() {
+    tenantCaches.clear();
+  }
+
+  /**
+   * Drop the timeline of a single service point, for example when
+   * its calendar has been changed
+   */
+  public void invalidate(String tenantId, String servicePointId) {
+    tenantCache(tenantId).remove(servicePointId);
+  }
+
+  /**
+   * @param firstDate first date needed, passed as the start date to the calendar
+   * @param lastDate last date needed, passed as the end date to the calendar
+   * @param fetcher fetches the timeline between two dates from the calendar
+   */
+  CompletableFuture<Result<OpeningTimeline>> getTimeline(String tenantId,
+    String servicePointId, DateTimeZone zone, LocalDate firstDate, LocalDate lastDate,
+    BiFunction<LocalDate, LocalDate, CompletableFuture<Result<OpeningTimeline>>> fetcher) {
+
+    final Map<String, CachedTimeline> cache = tenantCache(tenantId);
+    final CachedTimeline cached = cache.get(servicePointId);
+    final long now = System.currentTimeMillis();
+
+    final boolean reusable = cached != null && cached.isCurrent(now)
+      && cached.zone.equals(zone);
+
+    if (reusable && cached.covers(firstDate, lastDate)) {
+      return completedFuture(succeeded(cached.timeline));
+    }
+
+    LocalDate fetchFrom = firstDate;
+    LocalDate fetchTo = lastDate.plusDays(DAYS_FETCHED_AHEAD);
+
+    if (reusable) {
+      fetchFrom = min(fetchFrom, cached.firstDate);
+      fetchTo = max(fetchTo, cached.lastDate);
+    }
+
+    final LocalDate from = fetchFrom;
+    final LocalDate to = fetchTo;
+
+    return fetcher.apply(from, to)
+      .thenApply(r -> r.map(timeline -> {
+        cache.put(servicePointId, new CachedTimeline(timeline, zone, from, to, now));
+
+        return timeline;
+      }));
+  }
+
+  private Map<String, CachedTimeline> tenantCache(String tenantId) {
+    return tenantCaches.computeIfAbsent(tenantId, id -> new ConcurrentHashMap<>());
+  }
+
+  private static LocalDate min(LocalDate first, LocalDate second) {
+    return first.isBefore(second) ? first : second;
+  }
+
+  private static LocalDate max(LocalDate first, LocalDate second) {
+    return first.isAfter(second) ? first : second;
+  }
+
+  private class CachedTimeline {
+    private final OpeningTimeline timeline;
+    private final DateTimeZone zone;
+    private final LocalDate firstDate;
+    private final LocalDate lastDate;
+    /** System.currentTimeMillis() of when the timeline was fetched */
+    private final long fetchedAt;
+
+    private CachedTimeline(OpeningTimeline timeline, DateTimeZone zone,
+      LocalDate firstDate, LocalDate lastDate, long fetchedAt) {
+
+      this.timeline = timeline;
+      this.zone = zone;
+      this.firstDate = firstDate;
+      this.lastDate = lastDate;
+      this.fetchedAt = fetchedAt;
+    }
+
+    private boolean isCurrent(long now) {
+      return fetchedAt + maximumAgeInMilliseconds > now;
+    }
+
+    private boolean covers(LocalDate first, LocalDate last) {
+      return !first.isBefore(firstDate) && !last.isAfter(lastDate);
+    }
+  }
+}
@@ -1,7 +1,8 @@
 package org.folio.circulation.infrastructure.storage.feesandfines;
 
 import static java.util.Objects.isNull;
-import static java.util.concurrent.CompletableFuture.allOf;
+import static org.folio.circulation.support.AsyncCoordinationUtil.allOf;
+import static org.folio.circulation.support.BoundedConcurrency.atMost;
 import static org.folio.circulation.support.results.Result.ofAsync;
 import static org.folio.circulation.support.results.Result.succeeded;
 import static org.folio.circulation.support.http.ResponseMapping.forwardOnFailure;
@@ -12,6 +13,7 @@ import java.util.concurrent.CompletableFuture;
 
 import org.folio.circulation.domain.FeeFineAction;
 import org.folio.circulation.domain.representations.StoredFeeFineAction;
+import org.folio.circulation.support.BoundedConcurrency;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.FetchSingleRecord;
@@ -20,6 +22,8 @@ import org.folio.circulation.support.http.client.ResponseInterpreter;
 import org.folio.circulation.support.results.CommonFailures;
 
 public class FeeFineActionRepository {
+  private static final BoundedConcurrency CONCURRENT_ACTIONS_TO_CREATE = atMost(10);
+
   private final CollectionResourceClient feeFineActionsStorageClient;
 
   public FeeFineActionRepository(Clients clients) {
@@ -48,13 +52,15 @@ public class FeeFineActionRepository {
       .fetch(id);
   }
 
+  /**
+   * Storage only accepts a single action per request, so the actions are
+   * created with a bounded number in progress at once
+   */
   public CompletableFuture<Result<Void>> createAll(
     Collection<StoredFeeFineAction> feeFineActions) {
 
-    return allOf(feeFineActions.stream()
-      .map(this::create)
-      .toArray(CompletableFuture[]::new))
-      .thenApply(Result::succeeded)
+    return allOf(feeFineActions, this::create, CONCURRENT_ACTIONS_TO_CREATE)
+      .thenApply(r -> r.<Void>map(actions -> null))
       .exceptionally(CommonFailures::failedDueToServerError);
   }
 }
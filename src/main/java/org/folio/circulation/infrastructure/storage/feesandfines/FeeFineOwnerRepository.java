@@ -20,8 +20,10 @@ public class FeeFineOwnerRepository {
   public static final String SERVICE_POINT_OWNER_KEY = "servicePointOwner";
 
   private final FindWithMultipleCqlIndexValues<FeeFineOwner> feeFineOwnersFetcher;
+  private final String tenantId;
 
   public FeeFineOwnerRepository(Clients clients) {
+    tenantId = clients.getTenantId();
     feeFineOwnersFetcher = findWithMultipleCqlIndexValues(clients.feeFineOwnerStorageClient(),
       "owners", FeeFineOwner::from);
   }
@@ -38,6 +40,13 @@ public class FeeFineOwnerRepository {
   public CompletableFuture<Result<Collection<FeeFineOwner>>> findOwnersForServicePoints(
     Collection<String> servicePointIds) {
 
+    return FeeFineReferenceDataCache.getInstance().getOwnersForServicePoints(tenantId,
+      servicePointIds, this::fetchOwnersForServicePoints);
+  }
+
+  private CompletableFuture<Result<Collection<FeeFineOwner>>> fetchOwnersForServicePoints(
+    Collection<String> servicePointIds) {
+
     return feeFineOwnersFetcher.find(MultipleCqlIndexValuesCriteria.builder()
       .indexName(SERVICE_POINT_OWNER_KEY)
       .indexOperator(CqlQuery::matchAny)
@@ -0,0 +1,232 @@
+package org.folio.circulation.infrastructure.storage.feesandfines;
+
+import static org.folio.circulation.support.results.Result.succeeded;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.folio.circulation.domain.FeeFine;
+import org.folio.circulation.domain.FeeFineOwner;
+import org.folio.circulation.support.results.Result;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Keeps the fee/fine owner of each service point and the automatic fee/fine types
+ * for each tenant in memory, as these are needed every time a fee or fine is charged
+ * and are very rarely changed.
+ *
+ * Service points without an owner and types that do not exist are kept as well,
+ * for a shorter time, so that they are not fetched again for every loan.
+ * Lookups for the same service point or type whilst it is being fetched share
+ * the same fetch. Failed lookups are not kept.
+ */
+public final class FeeFineReferenceDataCache {
+  private static final long DEFAULT_TIME_TO_LIVE_SECONDS = 300;
+  private static final long DEFAULT_NOT_FOUND_TIME_TO_LIVE_SECONDS = 30;
+
+  private static final FeeFineReferenceDataCache instance = new FeeFineReferenceDataCache(
+    TimeUnit.SECONDS.toMillis(DEFAULT_TIME_TO_LIVE_SECONDS),
+    TimeUnit.SECONDS.toMillis(DEFAULT_NOT_FOUND_TIME_TO_LIVE_SECONDS));
+
+  /** owners by service point ID for each tenantId */
+  private final Map<String, Map<String, CachedRecord<FeeFineOwner>>> owners
+    = new ConcurrentHashMap<>();
+  /** automatic fee/fine types by type for each tenantId */
+  private final Map<String, Map<String, CachedRecord<FeeFine>>> automaticFeeFines
+    = new ConcurrentHashMap<>();
+
+  private volatile long timeToLiveInMilliseconds;
+  private volatile long notFoundTimeToLiveInMilliseconds;
+
+  FeeFineReferenceDataCache(long timeToLiveInMilliseconds,
+    long notFoundTimeToLiveInMilliseconds) {
+
+    this.timeToLiveInMilliseconds = timeToLiveInMilliseconds;
+    this.notFoundTimeToLiveInMilliseconds = notFoundTimeToLiveInMilliseconds;
+  }
+
+  public static FeeFineReferenceDataCache getInstance() {
+    return instance;
+  }
+
+  public static void configure(JsonObject configuration) {
+    instance.timeToLiveInMilliseconds = TimeUnit.SECONDS.toMillis(configuration.getLong(
+      "timeToLiveSeconds", DEFAULT_TIME_TO_LIVE_SECONDS));
+    instance.notFoundTimeToLiveInMilliseconds = TimeUnit.SECONDS.toMillis(configuration.getLong(
+      "notFoundTimeToLiveSeconds", DEFAULT_NOT_FOUND_TIME_TO_LIVE_SECONDS));
+  }
+
+  /**
+   * Completely drop the cache, all owners and fee/fine types are fetched from
+   * storage the next time they are needed
+   */
+  public void dropCache() {
+    owners.clear();
+    automaticFeeFines.clear();
+  }
+
+  /**
+   * Drop the owner of a single service point, for example when the service points
+   * of an owner have been changed
+   */
+  public void invalidate(String tenantId, String servicePointId) {
+    tenantCache(owners, tenantId).remove(servicePointId);
+  }
+
+  /**
+   * @param fetcher fetches the owners of the service points which are not cached
+   * @return the distinct owners of the service points, service points without
+   * an owner are ignored
+   */
+  CompletableFuture<Result<Collection<FeeFineOwner>>> getOwnersForServicePoints(
+    String tenantId, Collection<String> servicePointIds,
+    Function<Collection<String>, CompletableFuture<Result<Collection<FeeFineOwner>>>> fetcher) {
+
+    return get(tenantCache(owners, tenantId), servicePointIds, FeeFineOwner::getId,
+      missing -> fetcher.apply(missing)
+        .thenApply(r -> r.map(found -> ownersByServicePoint(found, missing))));
+  }
+
+  /**
+   * @param fetcher fetches the automatic fee/fine types which are not cached
+   * @return the automatic fee/fine types that exist
+   */
+  CompletableFuture<Result<Collection<FeeFine>>> getAutomaticFeeFines(String tenantId,
+    Collection<String> types,
+    Function<Collection<String>, CompletableFuture<Result<Collection<FeeFine>>>> fetcher) {
+
+    return get(tenantCache(automaticFeeFines, tenantId), types, FeeFine::getId,
+      missing -> fetcher.apply(missing)
+        .thenApply(r -> r.map(FeeFineReferenceDataCache::feeFinesByType)));
+  }
+
+  private <T> CompletableFuture<Result<Collection<T>>> get(
+    Map<String, CachedRecord<T>> cache, Collection<String> keys,
+    Function<T, String> idMapper,
+    Function<Collection<String>, CompletableFuture<Result<Map<String, T>>>> fetcher) {
+
+    final long now = System.currentTimeMillis();
+
+    final Map<String, CompletableFuture<Result<T>>> lookups = new LinkedHashMap<>();
+    final Map<String, CachedRecord<T>> claimed = new HashMap<>();
+
+    for (String key : new LinkedHashSet<>(keys)) {
+      final CachedRecord<T> fetching = new CachedRecord<>();
+
+      final CachedRecord<T> cached = cache.compute(key, (k, existing) ->
+        existing != null && existing.isCurrent(now) ? existing : fetching);
+
+      if (cached == fetching) {
+        claimed.put(key, fetching);
+      }
+
+      lookups.put(key, cached.record);
+    }
+
+    if (!claimed.isEmpty()) {
+      // only clear out old records when fetching, rather than on every lookup
+      cache.values().removeIf(record -> !record.isCurrent(now));
+
+      fetchClaimed(cache, claimed, fetcher);
+    }
+
+    return CompletableFuture.allOf(lookups.values().toArray(CompletableFuture[]::new))
+      .thenApply(notUsed -> lookups.values().stream()
+        .map(CompletableFuture::join)
+        .collect(Collectors.toList()))
+      .thenApply(results -> Result.combineAll(results))
+      .thenApply(r -> r.map(records -> distinctRecords(records, idMapper)));
+  }
+
+  private <T> void fetchClaimed(Map<String, CachedRecord<T>> cache,
+    Map<String, CachedRecord<T>> claimed,
+    Function<Collection<String>, CompletableFuture<Result<Map<String, T>>>> fetcher) {
+
+    // the fetch is started outside of the map, as it could complete straight away
+    fetcher.apply(claimed.keySet()).whenComplete((result, error) ->
+      claimed.forEach((key, cached) -> {
+        if (error != null || result.failed()) {
+          cache.remove(key, cached);
+        }
+
+        if (error != null) {
+          cached.record.completeExceptionally(error);
+        }
+        else if (result.failed()) {
+          cached.record.complete(Result.failed(result.cause()));
+        }
+        else {
+          final T record = result.value().get(key);
+
+          cached.expiresAt = System.currentTimeMillis() + (record != null
+            ? timeToLiveInMilliseconds
+            : notFoundTimeToLiveInMilliseconds);
+
+          cached.record.complete(succeeded(record));
+        }
+      }));
+  }
+
+  private static Map<String, FeeFineOwner> ownersByServicePoint(
+    Collection<FeeFineOwner> found, Collection<String> servicePointIds) {
+
+    final Map<String, FeeFineOwner> servicePointToOwner = new HashMap<>();
+
+    found.forEach(owner -> owner.getServicePoints().stream()
+      .filter(servicePointIds::contains)
+      .forEach(servicePointId -> servicePointToOwner.putIfAbsent(servicePointId, owner)));
+
+    return servicePointToOwner;
+  }
+
+  private static Map<String, FeeFine> feeFinesByType(Collection<FeeFine> found) {
+    final Map<String, FeeFine> typeToFeeFine = new HashMap<>();
+
+    found.forEach(feeFine -> typeToFeeFine.putIfAbsent(feeFine.getFeeFineType(), feeFine));
+
+    return typeToFeeFine;
+  }
+
+  private static <T> Collection<T> distinctRecords(List<T> records,
+    Function<T, String> idMapper) {
+
+    // the same owner can be fetched separately for each of its service points
+    final Map<String, T> recordsById = new LinkedHashMap<>();
+
+    records.stream()
+      .filter(Objects::nonNull)
+      .forEach(record -> recordsById.putIfAbsent(idMapper.apply(record), record));
+
+    return new ArrayList<>(recordsById.values());
+  }
+
+  private static <T> Map<String, CachedRecord<T>> tenantCache(
+    Map<String, Map<String, CachedRecord<T>>> caches, String tenantId) {
+
+    return caches.computeIfAbsent(tenantId, id -> new ConcurrentHashMap<>());
+  }
+
+  private static class CachedRecord<T> {
+    /** completes with null when the record does not exist */
+    private final CompletableFuture<Result<T>> record = new CompletableFuture<>();
+    /** System.currentTimeMillis() after which the record is fetched again,
+     * records being fetched are current until then */
+    private volatile long expiresAt = Long.MAX_VALUE;
+
+    private boolean isCurrent(long now) {
+      return expiresAt > now;
+    }
+  }
+}
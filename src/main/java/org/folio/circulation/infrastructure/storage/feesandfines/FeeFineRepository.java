@@ -19,13 +19,17 @@ import org.folio.circulation.support.http.client.ResponseInterpreter;
 
 public class FeeFineRepository {
   private final CollectionResourceClient feeFineStorageClient;
+  private final String tenantId;
 
   public FeeFineRepository(Clients clients) {
+    tenantId = clients.getTenantId();
     feeFineStorageClient = clients.feeFineStorageClient();
   }
 
   public CompletableFuture<Result<FeeFine>> getFeeFine(String type, boolean automatic) {
-    return getFeeFines(Collections.singleton(type), automatic)
+    final Collection<String> types = Collections.singleton(type);
+
+    return (automatic ? getAutomaticFeeFines(types) : getFeeFines(types, false))
       .thenApply(r -> r.map(col -> col.stream().findFirst().orElse(null)));
   }
 
@@ -42,7 +46,8 @@ public class FeeFineRepository {
   }
 
   public CompletableFuture<Result<Collection<FeeFine>>> getAutomaticFeeFines(Collection<String> types) {
-    return getFeeFines(types, true);
+    return FeeFineReferenceDataCache.getInstance().getAutomaticFeeFines(tenantId, types,
+      missingTypes -> getFeeFines(missingTypes, true));
   }
 
   private Result<MultipleRecords<FeeFine>> mapResponseToFeeFines(Response response) {
@@ -10,6 +10,8 @@ import static org.folio.circulation.support.results.ResultBinding.flatMapResult;
 import static org.folio.circulation.support.results.ResultBinding.mapResult;
 import static org.folio.circulation.support.fetching.MultipleCqlIndexValuesCriteria.byIndex;
 import static org.folio.circulation.support.fetching.RecordFetching.findWithMultipleCqlIndexValues;
+import static org.folio.circulation.support.http.ResponseMapping.forwardOnFailure;
+import static org.folio.circulation.support.http.client.NamedQueryParameter.namedParameter;
 import static org.folio.circulation.support.utils.CollectionUtil.map;
 
 import java.lang.invoke.MethodHandles;
@@ -40,10 +42,12 @@ import org.folio.circulation.support.fetching.RecordFetching;
 import org.folio.circulation.support.http.client.CqlQuery;
 import org.folio.circulation.support.http.client.PageLimit;
 import org.folio.circulation.support.http.client.Response;
+import org.folio.circulation.support.http.client.ResponseInterpreter;
 import org.folio.circulation.support.results.CommonFailures;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -52,6 +56,7 @@ public class ItemRepository {
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
   private final CollectionResourceClient itemsClient;
+  private final CollectionResourceClient itemsBatchClient;
   private final CollectionResourceClient holdingsClient;
   private final CollectionResourceClient instancesClient;
   private final CollectionResourceClient loanTypesClient;
@@ -67,7 +72,8 @@ public class ItemRepository {
   public ItemRepository(org.folio.circulation.support.Clients clients,
     boolean fetchLocation, boolean fetchMaterialType, boolean fetchLoanType) {
 
-    this(new Clients(clients.itemsStorage(), clients.holdingsStorage(),
+    this(new Clients(clients.itemsStorage(), clients.itemsBatchStorage(),
+      clients.holdingsStorage(),
       clients.instancesStorage(), clients.loanTypesStorage()), LocationRepository.using(clients),
       new MaterialTypeRepository(clients), new ServicePointRepository(clients),
       fetchLocation, fetchMaterialType, fetchLoanType);
@@ -78,6 +84,7 @@ public class ItemRepository {
     boolean fetchLocation, boolean fetchMaterialType, boolean fetchLoanType) {
 
     this.itemsClient = clients.getItemsClient();
+    this.itemsBatchClient = clients.getItemsBatchClient();
     this.holdingsClient = clients.getHoldingsClient();
     this.instancesClient = clients.getInstancesClient();
     this.loanTypesClient = clients.getLoanTypesClient();
@@ -121,6 +128,29 @@ public class ItemRepository {
     return itemsClient.put(item.getItemId(), item.getItem());
   }
 
+  public CompletableFuture<Result<Collection<Item>>> batchUpdate(
+    Collection<Item> items) {
+
+    if (items == null || items.isEmpty()) {
+      return completedFuture(succeeded(items));
+    }
+
+    final ResponseInterpreter<Collection<Item>> interpreter =
+      new ResponseInterpreter<Collection<Item>>()
+        .on(201, Result.of(() -> items))
+        .otherwise(forwardOnFailure());
+
+    final JsonArray storageItems = new JsonArray(items.stream()
+      .map(Item::getItem)
+      .collect(Collectors.toList()));
+
+    // the items already exist, so storage must replace rather than create them
+    return itemsBatchClient.post(
+        new JsonObject().put(ITEMS_COLLECTION_PROPERTY_NAME, storageItems),
+        namedParameter("upsert", "true"))
+      .thenApply(interpreter::flatMap);
+  }
+
   private CompletableFuture<Result<Item>> fetchMaterialType(Result<Item> result) {
     return fetchMaterialType
       ? result.combineAfter(materialTypeRepository::getFor, Item::withMaterialType)
@@ -420,6 +450,7 @@ public class ItemRepository {
   @Getter
   private static class Clients {
     private final CollectionResourceClient itemsClient;
+    private final CollectionResourceClient itemsBatchClient;
     private final CollectionResourceClient holdingsClient;
     private final CollectionResourceClient instancesClient;
     private final CollectionResourceClient loanTypesClient;
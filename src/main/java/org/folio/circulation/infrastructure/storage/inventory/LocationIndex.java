@@ -0,0 +1,259 @@
+package org.folio.circulation.infrastructure.storage.inventory;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.function.Function.identity;
+import static org.folio.circulation.support.CqlSortBy.ascending;
+import static org.folio.circulation.support.fetching.RecordFetching.findWithCqlQuery;
+import static org.folio.circulation.support.fetching.RecordFetching.findWithMultipleCqlIndexValues;
+import static org.folio.circulation.support.http.client.CqlQuery.greaterThan;
+import static org.folio.circulation.support.http.client.CqlQuery.hasValue;
+import static org.folio.circulation.support.http.client.PageLimit.limit;
+import static org.folio.circulation.support.json.JsonPropertyFetcher.getNestedStringProperty;
+import static org.folio.circulation.support.results.Result.succeeded;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.folio.circulation.domain.Location;
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.support.CollectionResourceClient;
+import org.folio.circulation.support.FindWithCqlQuery;
+import org.folio.circulation.support.FindWithMultipleCqlIndexValues;
+import org.folio.circulation.support.http.client.CqlQuery;
+import org.folio.circulation.support.results.Result;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Keeps the location records for each tenant in memory, so that the institution,
+ * campus, library and primary service point of a location can be found without
+ * fetching the location from storage every time.
+ *
+ * All of a tenant's locations are fetched from storage, a page at a time,
+ * the first time a location is needed for that tenant. Once the refresh interval
+ * has passed, only the locations that have been changed since the most recent
+ * change already indexed are fetched, and replace those in the index.
+ * Locations that are still not in the index (e.g. created since the last refresh)
+ * are fetched by ID. Deleted locations remain in the index until it is dropped.
+ */
+public final class LocationIndex {
+  private static final String LOCATIONS = "locations";
+  private static final String UPDATED_DATE = "metadata.updatedDate";
+
+  private static final LocationIndex instance = new LocationIndex(60_000, 1000);
+
+  /** after this time, changes to locations are fetched from storage */
+  private final long refreshIntervalInMilliseconds;
+  private final int pageSize;
+  private final Map<String, TenantLocations> tenantIndexes = new ConcurrentHashMap<>();
+
+  LocationIndex(long refreshIntervalInMilliseconds, int pageSize) {
+    this.refreshIntervalInMilliseconds = refreshIntervalInMilliseconds;
+    this.pageSize = pageSize;
+  }
+
+  public static LocationIndex getInstance() {
+    return instance;
+  }
+
+  /**
+   * Completely drop the index, every location is fetched from storage
+   * the next time one is needed
+   */
+  public void dropIndex() {
+    tenantIndexes.clear();
+  }
+
+  public CompletableFuture<Result<Location>> getLocation(String tenantId,
+    CollectionResourceClient locationsStorageClient, String locationId) {
+
+    return getLocations(tenantId, locationsStorageClient, Set.of(locationId))
+      .thenApply(r -> r.map(locations -> locations.get(locationId)));
+  }
+
+  public CompletableFuture<Result<Map<String, Location>>> getLocations(String tenantId,
+    CollectionResourceClient locationsStorageClient, Collection<String> locationIds) {
+
+    return getLocations(tenantId, locationIds,
+      findWithCqlQuery(locationsStorageClient, LOCATIONS, identity()),
+      findWithMultipleCqlIndexValues(locationsStorageClient, LOCATIONS, Location::from));
+  }
+
+  /**
+   * @return the locations that could be found, by location ID,
+   * locations that do not exist are not included
+   */
+  CompletableFuture<Result<Map<String, Location>>> getLocations(String tenantId,
+    Collection<String> locationIds, FindWithCqlQuery<JsonObject> pageFetcher,
+    FindWithMultipleCqlIndexValues<Location> idFetcher) {
+
+    final TenantLocations tenantLocations = tenantIndexes.computeIfAbsent(
+      tenantId, id -> new TenantLocations());
+
+    return tenantLocations.refreshIfNeeded(pageFetcher)
+      .thenCompose(r -> r.after(notUsed ->
+        findLocations(tenantLocations, locationIds, idFetcher)));
+  }
+
+  private CompletableFuture<Result<Map<String, Location>>> findLocations(
+    TenantLocations tenantLocations, Collection<String> locationIds,
+    FindWithMultipleCqlIndexValues<Location> idFetcher) {
+
+    final Map<String, Location> found = new HashMap<>();
+    final Set<String> notIndexed = new HashSet<>();
+
+    locationIds.stream()
+      .filter(StringUtils::isNotBlank)
+      .forEach(locationId -> {
+        final Location location = tenantLocations.locations.get(locationId);
+
+        if (location != null) {
+          found.put(locationId, location);
+        }
+        else {
+          notIndexed.add(locationId);
+        }
+      });
+
+    if (notIndexed.isEmpty()) {
+      return completedFuture(succeeded(found));
+    }
+
+    return idFetcher.findByIds(notIndexed)
+      .thenApply(r -> r.map(fetched -> {
+        tenantLocations.index(fetched.getRecords());
+
+        fetched.getRecords().forEach(location -> found.put(location.getId(), location));
+
+        return found;
+      }));
+  }
+
+  /**
+   * Adds locations that have been fetched from storage elsewhere to the index,
+   * replacing any that are already indexed
+   */
+  public void index(String tenantId, Collection<Location> locations) {
+    tenantIndexes.computeIfAbsent(tenantId, id -> new TenantLocations())
+      .index(locations);
+  }
+
+  private class TenantLocations {
+    private final Map<String, Location> locations = new ConcurrentHashMap<>();
+    /** the most recent change to any of the indexed locations, null until loaded */
+    private String latestUpdatedDate;
+    /** System.currentTimeMillis() of the last load or refresh, 0 until loaded */
+    private long refreshedAt;
+    private boolean loaded;
+    private CompletableFuture<Result<Void>> inProgress;
+
+    /**
+     * Loads all of the locations the first time, and then fetches changes
+     * once the refresh interval has passed. Only one load or refresh is made
+     * at a time, concurrent requests wait for it to complete
+     */
+    private synchronized CompletableFuture<Result<Void>> refreshIfNeeded(
+      FindWithCqlQuery<JsonObject> pageFetcher) {
+
+      if (inProgress != null) {
+        return inProgress;
+      }
+
+      final long now = System.currentTimeMillis();
+
+      if (loaded && now - refreshedAt < refreshIntervalInMilliseconds) {
+        return completedFuture(succeeded(null));
+      }
+
+      // a failed load is attempted again next time
+      final Result<CqlQuery> changedLocations = loaded && latestUpdatedDate != null
+        ? greaterThan(UPDATED_DATE, latestUpdatedDate)
+        : hasValue("id");
+
+      final CompletableFuture<Result<Void>> refresh
+        = fetchPagesAfter(null, changedLocations, pageFetcher)
+          .thenApply(r -> r.next(notUsed -> {
+            refreshed(now);
+            return succeeded(notUsed);
+          }));
+
+      if (!refresh.isDone()) {
+        inProgress = refresh;
+        refresh.whenComplete((result, error) -> finished());
+      }
+
+      return refresh;
+    }
+
+    private synchronized void refreshed(long at) {
+      loaded = true;
+      refreshedAt = at;
+    }
+
+    private synchronized void finished() {
+      inProgress = null;
+    }
+
+    /**
+     * Fetches the pages of locations matching the query, ordered by ID,
+     * starting with the location after the last ID
+     */
+    private CompletableFuture<Result<Void>> fetchPagesAfter(String lastId,
+      Result<CqlQuery> query, FindWithCqlQuery<JsonObject> pageFetcher) {
+
+      final Result<CqlQuery> pageQuery = lastId == null
+        ? query
+        : query.combine(greaterThan("id", lastId), CqlQuery::and);
+
+      return pageFetcher.findByQuery(pageQuery.map(q -> q.sortBy(ascending("id"))),
+          limit(pageSize))
+        .thenCompose(r -> r.after(page -> {
+          indexRepresentations(page);
+
+          if (page.getRecords().size() < pageSize) {
+            return completedFuture(succeeded(null));
+          }
+
+          return fetchPagesAfter(lastIdIn(page), query, pageFetcher);
+        }));
+    }
+
+    private void indexRepresentations(MultipleRecords<JsonObject> page) {
+      index(page.mapRecords(Location::from).getRecords());
+
+      page.getRecords().stream()
+        .map(representation -> getNestedStringProperty(representation,
+          "metadata", "updatedDate"))
+        .filter(Objects::nonNull)
+        .forEach(this::changedAt);
+    }
+
+    private synchronized void changedAt(String updatedDate) {
+      if (latestUpdatedDate == null || updatedDate.compareTo(latestUpdatedDate) > 0) {
+        latestUpdatedDate = updatedDate;
+      }
+    }
+
+    private void index(Collection<Location> fetched) {
+      fetched.stream()
+        .filter(location -> location.getId() != null)
+        .forEach(location -> locations.put(location.getId(), location));
+    }
+
+    private String lastIdIn(MultipleRecords<JsonObject> page) {
+      return page.getRecords().stream()
+        .map(representation -> representation.getString("id"))
+        .filter(Objects::nonNull)
+        .max(Comparator.naturalOrder())
+        .orElse(null);
+    }
+  }
+}
@@ -21,7 +21,6 @@ import java.util.stream.Stream;
 import org.apache.commons.lang3.StringUtils;
 import org.folio.circulation.domain.Item;
 import org.folio.circulation.domain.Location;
-import org.folio.circulation.domain.MultipleRecords;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.FindWithMultipleCqlIndexValues;
@@ -31,16 +30,19 @@ import org.folio.circulation.support.results.Result;
 import io.vertx.core.json.JsonObject;
 
 public class LocationRepository {
+  private final String tenantId;
   private final CollectionResourceClient locationsStorageClient;
   private final CollectionResourceClient institutionsStorageClient;
   private final CollectionResourceClient campusesStorageClient;
   private final CollectionResourceClient librariesStorageClient;
 
-  private LocationRepository(CollectionResourceClient locationsStorageClient,
+  private LocationRepository(String tenantId,
+    CollectionResourceClient locationsStorageClient,
     CollectionResourceClient institutionsStorageClient,
     CollectionResourceClient campusesStorageClient,
     CollectionResourceClient librariesStorageClient) {
 
+    this.tenantId = tenantId;
     this.locationsStorageClient = locationsStorageClient;
     this.institutionsStorageClient = institutionsStorageClient;
     this.campusesStorageClient = campusesStorageClient;
@@ -49,6 +51,7 @@ public class LocationRepository {
 
   public static LocationRepository using(Clients clients) {
     return new LocationRepository(
+      clients.getTenantId(),
       clients.locationsStorage(),
       clients.institutionsStorage(),
       clients.campusesStorage(),
@@ -72,10 +75,8 @@ public class LocationRepository {
       return ofAsync(() -> null);
     }
 
-    return SingleRecordFetcher.json(locationsStorageClient, "location",
-      response -> succeeded(null))
-      .fetch(id)
-      .thenApply(r -> r.map(Location::from));
+    return LocationIndex.getInstance()
+      .getLocation(tenantId, locationsStorageClient, id);
   }
 
   public CompletableFuture<Result<Map<String, Location>>> getAllItemLocations(
@@ -86,12 +87,9 @@ public class LocationRepository {
       .filter(StringUtils::isNotBlank)
       .collect(Collectors.toSet());
 
-    final FindWithMultipleCqlIndexValues<Location> fetcher
-      = findWithMultipleCqlIndexValues(locationsStorageClient, "locations", Location::from);
-
-    return fetcher.findByIds(locationIds)
-      .thenCompose(this::loadLibrariesForLocations)
-      .thenApply(mapResult(sds -> sds.toMap(Location::getId)));
+    return LocationIndex.getInstance()
+      .getLocations(tenantId, locationsStorageClient, locationIds)
+      .thenCompose(r -> r.after(this::loadLibrariesForLocations));
   }
 
   private CompletableFuture<Result<Location>> loadLibrary(Location location) {
@@ -124,14 +122,14 @@ public class LocationRepository {
       .thenApply(r -> r.map(location::withInstitutionRepresentation));
   }
 
-  private CompletableFuture<Result<MultipleRecords<Location>>> loadLibrariesForLocations(
-          Result<MultipleRecords<Location>> multipleRecordsResult) {
-
-    return multipleRecordsResult.combineAfter(
-      locations -> getLibraries(locations.getRecords()), (locations, libraries) ->
-        locations.mapRecords(location -> location.withLibraryRepresentation(
-          libraries.getOrDefault(location.getLibraryId(),null))));
+  private CompletableFuture<Result<Map<String, Location>>> loadLibrariesForLocations(
+    Map<String, Location> locations) {
 
+    return getLibraries(locations.values())
+      .thenApply(mapResult(libraries -> locations.values().stream()
+        .map(location -> location.withLibraryRepresentation(
+          libraries.getOrDefault(location.getLibraryId(), null)))
+        .collect(Collectors.toMap(Location::getId, identity()))));
   }
 
   public CompletableFuture<Result<Map<String, JsonObject>>> getLibraries(
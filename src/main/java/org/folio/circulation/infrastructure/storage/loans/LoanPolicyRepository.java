@@ -174,4 +174,11 @@ public class LoanPolicyRepository extends CirculationPolicyRepository<LoanPolicy
 
     return circulationRulesProcessor.getLoanPolicyAndMatch(rulesExecutionParameters);
   }
+
+  @Override
+  protected CompletableFuture<Result<List<CirculationRuleMatch>>> getPolicyAndMatches(
+    List<RulesExecutionParameters> rulesExecutionParameters) {
+
+    return circulationRulesProcessor.getLoanPolicyAndMatches(rulesExecutionParameters);
+  }
 }
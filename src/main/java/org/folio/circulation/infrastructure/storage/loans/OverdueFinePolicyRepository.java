@@ -7,6 +7,7 @@ import static org.folio.circulation.support.results.Result.succeeded;
 import static org.folio.circulation.support.results.ResultBinding.mapResult;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
@@ -116,4 +117,11 @@ public class OverdueFinePolicyRepository extends CirculationPolicyRepository<Ove
 
     return circulationRulesProcessor.getOverduePolicyAndMatch(rulesExecutionParameters);
   }
+
+  @Override
+  protected CompletableFuture<Result<List<CirculationRuleMatch>>> getPolicyAndMatches(
+    List<RulesExecutionParameters> rulesExecutionParameters) {
+
+    return circulationRulesProcessor.getOverduePolicyAndMatches(rulesExecutionParameters);
+  }
 }
@@ -1,5 +1,6 @@
 package org.folio.circulation.infrastructure.storage.notices;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
@@ -50,4 +51,11 @@ public class PatronNoticePolicyRepository extends CirculationPolicyRepository<Pa
 
     return circulationRulesProcessor.getNoticePolicyAndMatch(rulesExecutionParameters);
   }
+
+  @Override
+  protected CompletableFuture<Result<List<CirculationRuleMatch>>> getPolicyAndMatches(
+    List<RulesExecutionParameters> rulesExecutionParameters) {
+
+    return circulationRulesProcessor.getNoticePolicyAndMatches(rulesExecutionParameters);
+  }
 }
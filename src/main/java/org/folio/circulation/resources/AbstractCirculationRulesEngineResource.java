@@ -4,9 +4,12 @@ import static org.folio.circulation.rules.RulesExecutionParameters.forRequest;
 import static org.folio.circulation.support.results.Result.succeeded;
 
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.folio.circulation.rules.CirculationRuleMatch;
 import org.folio.circulation.rules.CirculationRulesProcessor;
@@ -21,10 +24,12 @@ import org.slf4j.LoggerFactory;
 
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.DecodeException;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.BodyHandler;
 import lombok.val;
 
 /**
@@ -39,26 +44,41 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
   public static final String LOCATION_ID_NAME = "location_id";
   public static final String LOAN_TYPE_ID_NAME = "loan_type_id";
 
+  private static final String UUID_REGEX = "^[a-fA-F0-9]{8}-[a-fA-F0-9]{4}-[1-5][a-fA-F0-9]{3}-[89abAB][a-fA-F0-9]{3}-[a-fA-F0-9]{12}$";
+  private static final String BATCH_PARAMETERS_NAME = "parameters";
+  private static final int MAXIMUM_BATCH_SIZE = 1000;
+  private static final int MAXIMUM_COMBINATIONS = 10000;
+  /** names of the id lists in the request body of the batch path beneath applyAllPath,
+   * in the order the combinations are generated */
+  private static final List<String> COMBINATION_NAMES = List.of(ITEM_TYPE_ID_NAME + "s",
+    LOAN_TYPE_ID_NAME + "s", PATRON_TYPE_ID_NAME + "s", LOCATION_ID_NAME + "s");
+
   private final String applyPath;
   private final String applyAllPath;
 
   private final GetSinglePolicy singlePolicyGetter;
   private final GetAllPolicies allPoliciesGetter;
+  private final GetPolicyForEach policyForEachGetter;
+  private final GetAllPoliciesForEach allPoliciesForEachGetter;
 
   /**
-   * Create a circulation rules engine that listens at applyPath and applyAllPath.
+   * Create a circulation rules engine that listens at applyPath, applyAllPath
+   * and the batch paths beneath both of them.
    * @param applyPath  URL path for circulation rules triggering that returns the first match
    * @param applyAllPath  URL path for circulation rules triggering that returns all matches
    * @param client  the HttpClient to use for requests via Okapi
    */
   AbstractCirculationRulesEngineResource(String applyPath, String applyAllPath, HttpClient client,
-    GetSinglePolicy getSinglePolicy, GetAllPolicies getAllPolicies) {
+    GetSinglePolicy getSinglePolicy, GetAllPolicies getAllPolicies,
+    GetPolicyForEach getPolicyForEach, GetAllPoliciesForEach getAllPoliciesForEach) {
 
     super(client);
     this.applyPath = applyPath;
     this.applyAllPath = applyAllPath;
     this.allPoliciesGetter = getAllPolicies;
     this.singlePolicyGetter = getSinglePolicy;
+    this.policyForEachGetter = getPolicyForEach;
+    this.allPoliciesForEachGetter = getAllPoliciesForEach;
   }
 
   /**
@@ -69,18 +89,31 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
   public void register(Router router) {
     router.get(applyPath   ).handler(this::apply);
     router.get(applyAllPath).handler(this::applyAll);
+
+    router.post(batchPath()).handler(BodyHandler.create());
+    router.post(batchPath()).handler(this::applyBatch);
+
+    router.post(allBatchPath()).handler(BodyHandler.create());
+    router.post(allBatchPath()).handler(this::applyAllForEachCombination);
+  }
+
+  private String batchPath() {
+    return applyPath + "/batch";
+  }
+
+  private String allBatchPath() {
+    return applyAllPath + "/batch";
   }
 
   private boolean invalidUuid(HttpServerRequest request, String paramName) {
-    final String regex = "^[a-fA-F0-9]{8}-[a-fA-F0-9]{4}-[1-5][a-fA-F0-9]{3}-[89abAB][a-fA-F0-9]{3}-[a-fA-F0-9]{12}$";
     String uuid = request.getParam(paramName);
     if (uuid == null) {
       ClientErrorResponse.badRequest(request.response(), "required query parameter missing: " + paramName);
       return true;
     }
-    if (! uuid.matches(regex)) {
+    if (! uuid.matches(UUID_REGEX)) {
       ClientErrorResponse.badRequest(request.response(), "invalid uuid format of " + paramName +
-          ", expecting " + regex + " but it is " + uuid);
+          ", expecting " + UUID_REGEX + " but it is " + uuid);
       return true;
     }
     return false;
@@ -91,15 +124,18 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
   }
 
   private CompletableFuture<Result<JsonObject>> buildJsonResult(CirculationRuleMatch entity) {
+    return CompletableFuture.completedFuture(succeeded(toJson(entity)));
+  }
+
+  private JsonObject toJson(CirculationRuleMatch entity) {
     JsonObject appliedRuleConditions = new JsonObject()
       .put("materialTypeMatch", entity.getAppliedRuleConditions().isItemTypePresent())
       .put("loanTypeMatch", entity.getAppliedRuleConditions().isLoanTypePresent())
       .put("patronGroupMatch", entity.getAppliedRuleConditions().isPatronGroupPresent());
 
-    return CompletableFuture.completedFuture(succeeded(new JsonObject()
+    return new JsonObject()
       .put(getPolicyIdKey(), entity.getPolicyId())
-      .put("appliedRuleConditions", appliedRuleConditions)
-    ));
+      .put("appliedRuleConditions", appliedRuleConditions);
   }
 
   private void applyAll(RoutingContext routingContext) {
@@ -130,6 +166,195 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
       .thenAccept(context::writeResultToHttpResponse);
   }
 
+  /**
+   * Applies the rules to each set of parameters in the request body,
+   * responding with the matches in the same order
+   */
+  private void applyBatch(RoutingContext routingContext) {
+    final WebContext context = new WebContext(routingContext);
+    final JsonObject body = bodyAsJson(routingContext);
+
+    if (body == null) {
+      return;
+    }
+
+    final Object batch = body.getValue(BATCH_PARAMETERS_NAME);
+    final String invalidBatchReason = invalidBatchReason(batch);
+
+    if (invalidBatchReason != null) {
+      ClientErrorResponse.badRequest(routingContext.response(), invalidBatchReason);
+      return;
+    }
+
+    final List<RulesExecutionParameters> parameters = ((JsonArray) batch).stream()
+      .map(JsonObject.class::cast)
+      .map(RulesExecutionParameters::forBatchEntry)
+      .collect(Collectors.toList());
+
+    final Clients clients = Clients.create(context, client);
+
+    policyForEachGetter.getPolicyIdAndRuleMatches(clients.circulationRulesProcessor(), parameters)
+      .thenApply(r -> r.map(this::buildJsonResult))
+      .thenApply(r -> r.map(JsonHttpResponse::ok))
+      .thenAccept(context::writeResultToHttpResponse);
+  }
+
+  private JsonObject buildJsonResult(List<CirculationRuleMatch> matches) {
+    return new JsonObject().put("results", new JsonArray(matches.stream()
+      .map(this::toJson)
+      .collect(Collectors.toList())));
+  }
+
+  /**
+   * Applies the rules to every combination of the item types, loan types,
+   * patron types and locations in the request body, responding with all
+   * of the matches for each combination
+   */
+  private void applyAllForEachCombination(RoutingContext routingContext) {
+    final WebContext context = new WebContext(routingContext);
+    final JsonObject body = bodyAsJson(routingContext);
+
+    if (body == null) {
+      return;
+    }
+
+    final String invalidCombinationsReason = invalidCombinationsReason(body);
+
+    if (invalidCombinationsReason != null) {
+      ClientErrorResponse.badRequest(routingContext.response(), invalidCombinationsReason);
+      return;
+    }
+
+    final List<JsonObject> combinations = combinations(body);
+
+    final List<RulesExecutionParameters> parameters = combinations.stream()
+      .map(RulesExecutionParameters::forBatchEntry)
+      .collect(Collectors.toList());
+
+    final Clients clients = Clients.create(context, client);
+
+    allPoliciesForEachGetter.getPolicies(clients.circulationRulesProcessor(), parameters)
+      .thenApply(r -> r.map(matches -> buildJsonResult(combinations, matches)))
+      .thenApply(r -> r.map(JsonHttpResponse::ok))
+      .thenAccept(context::writeResultToHttpResponse);
+  }
+
+  private static List<JsonObject> combinations(JsonObject body) {
+    List<JsonObject> combinations = List.of(new JsonObject());
+
+    for (String name : COMBINATION_NAMES) {
+      final List<JsonObject> extended = new ArrayList<>();
+      final JsonArray ids = body.getJsonArray(name);
+      // the parameter name of a single id, e.g. item_type_id for item_type_ids
+      final String idName = name.substring(0, name.length() - 1);
+
+      combinations.forEach(combination -> ids.stream()
+        .map(String.class::cast)
+        .forEach(id -> extended.add(combination.copy().put(idName, id))));
+
+      combinations = extended;
+    }
+
+    return combinations;
+  }
+
+  private static JsonObject buildJsonResult(List<JsonObject> combinations,
+    List<JsonArray> matches) {
+
+    final JsonArray results = new JsonArray();
+
+    for (int index = 0; index < combinations.size(); index++) {
+      results.add(combinations.get(index).copy()
+        .put("circulationRuleMatches", matches.get(index)));
+    }
+
+    return new JsonObject().put("results", results);
+  }
+
+  /**
+   * @return the request body, or null after responding that the request
+   * is invalid when the body is missing or is not a JSON object
+   */
+  private static JsonObject bodyAsJson(RoutingContext routingContext) {
+    JsonObject body;
+
+    try {
+      body = routingContext.getBodyAsJson();
+    }
+    catch (DecodeException | ClassCastException e) {
+      body = null;
+    }
+
+    if (body == null) {
+      ClientErrorResponse.badRequest(routingContext.response(),
+        "request body must be a JSON object");
+    }
+
+    return body;
+  }
+
+  private static String invalidCombinationsReason(JsonObject body) {
+    long numberOfCombinations = 1;
+
+    for (String name : COMBINATION_NAMES) {
+      final Object ids = body == null ? null : body.getValue(name);
+
+      if (!(ids instanceof JsonArray) || ((JsonArray) ids).isEmpty()) {
+        return "required property missing: " + name;
+      }
+
+      for (Object uuid : (JsonArray) ids) {
+        if (!(uuid instanceof String) || !((String) uuid).matches(UUID_REGEX)) {
+          return String.format("invalid uuid format in %s, expecting %s but it is %s",
+            name, UUID_REGEX, uuid);
+        }
+      }
+
+      numberOfCombinations *= ((JsonArray) ids).size();
+    }
+
+    if (numberOfCombinations > MAXIMUM_COMBINATIONS) {
+      return String.format("at most %s combinations can be applied at once, but there are %s",
+        MAXIMUM_COMBINATIONS, numberOfCombinations);
+    }
+
+    return null;
+  }
+
+  private static String invalidBatchReason(Object parameters) {
+    if (!(parameters instanceof JsonArray)) {
+      return "required property missing: " + BATCH_PARAMETERS_NAME;
+    }
+
+    final JsonArray batch = (JsonArray) parameters;
+
+    if (batch.size() > MAXIMUM_BATCH_SIZE) {
+      return String.format("at most %s sets of parameters can be applied at once, but there are %s",
+        MAXIMUM_BATCH_SIZE, batch.size());
+    }
+
+    for (int index = 0; index < batch.size(); index++) {
+      final Object entry = batch.getValue(index);
+
+      if (!(entry instanceof JsonObject)) {
+        return String.format("parameters at index %s must be an object", index);
+      }
+
+      for (String name : List.of(ITEM_TYPE_ID_NAME, LOAN_TYPE_ID_NAME,
+        PATRON_TYPE_ID_NAME, LOCATION_ID_NAME)) {
+
+        final Object uuid = ((JsonObject) entry).getValue(name);
+
+        if (!(uuid instanceof String) || !((String) uuid).matches(UUID_REGEX)) {
+          return String.format("invalid uuid format of %s in parameters at index %s, " +
+            "expecting %s but it is %s", name, index, UUID_REGEX, uuid);
+        }
+      }
+    }
+
+    return null;
+  }
+
   private boolean invalidApplyParameters(HttpServerRequest request) {
     return
         invalidUuid(request, ITEM_TYPE_ID_NAME) ||
@@ -146,9 +371,21 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
       CirculationRulesProcessor rulesProcessor, RulesExecutionParameters rulesExecutionParameters);
   }
 
+  @FunctionalInterface
+  protected interface GetPolicyForEach {
+    CompletableFuture<Result<List<CirculationRuleMatch>>> getPolicyIdAndRuleMatches(
+      CirculationRulesProcessor rulesProcessor, List<RulesExecutionParameters> rulesExecutionParameters);
+  }
+
   @FunctionalInterface
   protected interface GetAllPolicies {
     CompletableFuture<Result<JsonArray>> getPolicies(
       CirculationRulesProcessor rulesProcessor, RulesExecutionParameters rulesExecutionParameters);
   }
+
+  @FunctionalInterface
+  protected interface GetAllPoliciesForEach {
+    CompletableFuture<Result<List<JsonArray>>> getPolicies(
+      CirculationRulesProcessor rulesProcessor, List<RulesExecutionParameters> rulesExecutionParameters);
+  }
 }
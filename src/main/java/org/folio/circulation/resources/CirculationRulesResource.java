@@ -5,6 +5,7 @@ import static java.util.stream.Collectors.mapping;
 import static java.util.stream.Collectors.toSet;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 import static org.apache.commons.lang3.exception.ExceptionUtils.getStackTrace;
+import static org.folio.circulation.support.http.server.ClientErrorResponse.badRequest;
 import static org.folio.circulation.support.http.server.JsonHttpResponse.ok;
 import static org.folio.circulation.support.http.server.JsonHttpResponse.unprocessableEntity;
 import static org.folio.circulation.support.http.server.NoContentResponse.noContent;
@@ -25,14 +26,17 @@ import org.apache.commons.collections4.MapUtils;
 import org.folio.circulation.domain.MultipleRecords;
 import org.folio.circulation.rules.CirculationRulesException;
 import org.folio.circulation.rules.CirculationRulesParser;
+import org.folio.circulation.rules.RulesIndex;
 import org.folio.circulation.rules.Text2Drools;
 import org.folio.circulation.rules.cache.CirculationRulesCache;
+import org.folio.circulation.services.CirculationRulesImpactAnalysis;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.ForwardOnFailure;
 import org.folio.circulation.support.http.client.PageLimit;
 import org.folio.circulation.support.http.client.Response;
 import org.folio.circulation.support.http.server.ForwardResponse;
+import org.folio.circulation.support.http.server.JsonHttpResponse;
 import org.folio.circulation.support.http.server.WebContext;
 import org.folio.circulation.support.results.Result;
 import org.slf4j.Logger;
@@ -75,6 +79,8 @@ public class CirculationRulesResource extends Resource {
     router.put(rootPath).handler(BodyHandler.create());
     router.get(rootPath).handler(this::get);
     router.put(rootPath).handler(this::put);
+    router.post(rootPath + "/impact-analysis").handler(BodyHandler.create());
+    router.post(rootPath + "/impact-analysis").handler(this::analyseImpact);
   }
 
   private void get(RoutingContext routingContext) {
@@ -155,6 +161,42 @@ public class CirculationRulesResource extends Resource {
     CirculationRulesCache.getInstance().clearCache(webContext.getTenantId());
   }
 
+  /**
+   * Reports which open loans and requests would have a different policy applied
+   * if the rules in the body replaced the current rules, nothing is saved
+   */
+  //Cannot combine exception catching as cannot resolve overloaded method for error
+  @SuppressWarnings("squid:S2147")
+  private void analyseImpact(RoutingContext routingContext) {
+    final WebContext context = new WebContext(routingContext);
+    final Clients clients = Clients.create(context, client);
+
+    final RulesIndex candidateRules;
+    try {
+      final JsonObject body = routingContext.getBodyAsJson();
+
+      if (body == null || body.getString("rulesAsText") == null) {
+        badRequest(routingContext.response(), "required property missing: rulesAsText");
+        return;
+      }
+
+      candidateRules = Text2Drools.index(body.getString("rulesAsText"));
+    } catch (CirculationRulesException e) {
+      processingError(routingContext.response(), e);
+      return;
+    } catch (DecodeException e) {
+      decodingError(routingContext.response(), e);
+      return;
+    } catch (Exception e) {
+      internalError(routingContext.response(), getStackTrace(e));
+      return;
+    }
+
+    new CirculationRulesImpactAnalysis(clients).analyse(candidateRules)
+      .thenApply(r -> r.map(JsonHttpResponse::ok))
+      .thenAccept(context::writeResultToHttpResponse);
+  }
+
   private Result<Response> failWhenResponseOtherThanNoContent(Result<Response> result) {
     return result.failWhen(
       response -> of(() -> response.getStatusCode() != 204),
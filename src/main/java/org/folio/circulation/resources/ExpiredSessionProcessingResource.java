@@ -1,6 +1,7 @@
 package org.folio.circulation.resources;
 
 import static org.folio.circulation.domain.notice.session.PatronActionType.ALL;
+import static org.folio.circulation.support.http.server.AdmissionControl.RequestClass.BATCH;
 import static org.folio.circulation.support.results.AsynchronousResultBindings.safelyInitialise;
 
 import java.util.List;
@@ -34,7 +35,7 @@ public class ExpiredSessionProcessingResource extends Resource {
   @Override
   public void register(Router router) {
     RouteRegistration routeRegistration = new RouteRegistration(
-      "/circulation/notice-session-expiration-by-timeout", router);
+      "/circulation/notice-session-expiration-by-timeout", router, BATCH);
 
     routeRegistration.create(this::process);
   }
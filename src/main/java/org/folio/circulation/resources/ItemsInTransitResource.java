@@ -4,6 +4,7 @@ import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.folio.circulation.domain.ItemStatus.IN_TRANSIT;
 import static org.folio.circulation.domain.RequestStatus.openStates;
 import static org.folio.circulation.support.AsyncCoordinationUtil.allOf;
+import static org.folio.circulation.support.BoundedConcurrency.atMost;
 import static org.folio.circulation.support.CqlSortBy.ascending;
 import static org.folio.circulation.support.results.Result.of;
 import static org.folio.circulation.support.results.Result.succeeded;
@@ -17,7 +18,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
 import org.folio.circulation.domain.InTransitReportEntry;
@@ -33,18 +33,18 @@ import org.folio.circulation.infrastructure.storage.inventory.ItemReportReposito
 import org.folio.circulation.infrastructure.storage.inventory.ItemRepository;
 import org.folio.circulation.infrastructure.storage.users.PatronGroupRepository;
 import org.folio.circulation.infrastructure.storage.users.UserRepository;
+import org.folio.circulation.support.BoundedConcurrency;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.FindWithMultipleCqlIndexValues;
 import org.folio.circulation.support.GetManyRecordsClient;
 import org.folio.circulation.support.results.Result;
 import org.folio.circulation.support.RouteRegistration;
 import org.folio.circulation.support.http.client.CqlQuery;
-import org.folio.circulation.support.http.server.JsonHttpResponse;
+import org.folio.circulation.support.http.server.HttpResponse;
+import org.folio.circulation.support.http.server.StreamingJsonHttpResponse;
 import org.folio.circulation.support.http.server.WebContext;
 
 import io.vertx.core.http.HttpClient;
-import io.vertx.core.json.JsonArray;
-import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 
@@ -52,6 +52,7 @@ import io.vertx.ext.web.RoutingContext;
 public class ItemsInTransitResource extends Resource {
 
   private static final String ITEM_ID = "itemId";
+  private static final BoundedConcurrency CONCURRENT_ITEMS_TO_FETCH = atMost(10);
   private final String rootPath;
 
   public ItemsInTransitResource(String rootPath, HttpClient client) {
@@ -86,8 +87,7 @@ public class ItemsInTransitResource extends Resource {
           sortByCheckinServicePointComparator)))
       .thenComposeAsync(r -> findRequestsByItemsIds(requestsStorageClient, itemRepository,
         servicePointRepository, userRepository, patronGroupRepository, r.value()))
-      .thenApply(this::mapResultToJson)
-      .thenApply(r -> r.map(JsonHttpResponse::ok))
+      .thenApply(r -> r.map(this::toItemsResponse))
       .thenAccept(context::writeResultToHttpResponse);
   }
 
@@ -99,7 +99,8 @@ public class ItemsInTransitResource extends Resource {
       .flatMap(resultListOfItem -> resultListOfItem.value().getRecords().stream())
       .collect(Collectors.toList());
 
-    return allOf(items, item -> fetchRelatedRecords(itemRepository, servicePointRepository, item))
+    return allOf(items, item -> fetchRelatedRecords(itemRepository, servicePointRepository, item),
+      CONCURRENT_ITEMS_TO_FETCH)
     .thenApply(resultItem -> mapToInTransitReportEntries(resultItem.value()));
   }
 
@@ -229,16 +230,11 @@ public class ItemsInTransitResource extends Resource {
     return CompletableFuture.completedFuture(Result.succeeded(inTransitReportEntryList));
   }
 
-  private Result<JsonObject> mapResultToJson
-    (Result<List<InTransitReportEntry>> inTransitReportEntry) {
+  private HttpResponse toItemsResponse(List<InTransitReportEntry> inTransitReportEntries) {
+    final ItemReportRepresentation itemReportRepresentation = new ItemReportRepresentation();
 
-    return inTransitReportEntry.map(resultList -> resultList
-      .stream().map(itemAndRelatedRecord -> new ItemReportRepresentation()
-        .createItemReport(itemAndRelatedRecord))
-      .collect(Collector.of(JsonArray::new, JsonArray::add, JsonArray::add)))
-      .next(jsonArray -> Result.succeeded(new JsonObject()
-        .put("items", jsonArray)
-        .put("totalRecords", jsonArray.size())));
+    return StreamingJsonHttpResponse.ok("items", inTransitReportEntries,
+      itemReportRepresentation::createItemReport, inTransitReportEntries.size());
   }
 
   private Comparator<InTransitReportEntry> sortByCheckinServicePointComparator() {
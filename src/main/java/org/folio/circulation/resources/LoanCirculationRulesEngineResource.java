@@ -13,7 +13,9 @@ public class LoanCirculationRulesEngineResource extends AbstractCirculationRules
   public LoanCirculationRulesEngineResource(String applyPath, String applyAllPath, HttpClient client) {
     super(applyPath, applyAllPath, client,
       CirculationRulesProcessor::getLoanPolicyAndMatch,
-      CirculationRulesProcessor::getLoanPolicies);
+      CirculationRulesProcessor::getLoanPolicies,
+      CirculationRulesProcessor::getLoanPolicyAndMatches,
+      CirculationRulesProcessor::getLoanPoliciesForEach);
   }
 
   @Override
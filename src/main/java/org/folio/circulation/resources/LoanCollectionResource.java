@@ -261,8 +261,7 @@ public class LoanCollectionResource extends CollectionResource {
       .thenCompose(multiLoanRecordsResult ->
         multiLoanRecordsResult.after(patronGroupRepository::findPatronGroupsByIds))
       .thenApply(multipleLoanRecordsResult -> multipleLoanRecordsResult.map(loans ->
-        loans.asJson(loanRepresentation::extendedLoan, "loans")))
-      .thenApply(r -> r.map(JsonHttpResponse::ok))
+        loans.asStreamingJsonResponse(loanRepresentation::extendedLoan, "loans")))
       .thenAccept(context::writeResultToHttpResponse);
   }
 
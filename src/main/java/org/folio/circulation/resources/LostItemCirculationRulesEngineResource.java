@@ -9,7 +9,9 @@ public class LostItemCirculationRulesEngineResource extends AbstractCirculationR
   public LostItemCirculationRulesEngineResource(String applyPath, String applyAllPath, HttpClient client) {
     super(applyPath, applyAllPath, client,
       CirculationRulesProcessor::getLostItemPolicyAndMatch,
-      CirculationRulesProcessor::getLostItemPolicies);
+      CirculationRulesProcessor::getLostItemPolicies,
+      CirculationRulesProcessor::getLostItemPolicyAndMatches,
+      CirculationRulesProcessor::getLostItemPoliciesForEach);
   }
 
   @Override
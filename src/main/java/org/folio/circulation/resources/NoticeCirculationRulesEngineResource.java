@@ -13,7 +13,9 @@ public class NoticeCirculationRulesEngineResource extends AbstractCirculationRul
   public NoticeCirculationRulesEngineResource(String applyPath, String applyAllPath, HttpClient client) {
     super(applyPath, applyAllPath, client,
       CirculationRulesProcessor::getNoticePolicyAndMatch,
-      CirculationRulesProcessor::getNoticePolicies);
+      CirculationRulesProcessor::getNoticePolicies,
+      CirculationRulesProcessor::getNoticePolicyAndMatches,
+      CirculationRulesProcessor::getNoticePoliciesForEach);
   }
 
   @Override
@@ -0,0 +1,263 @@
+package org.folio.circulation.resources;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+import org.folio.circulation.rules.RulesExecutionPool;
+import org.folio.circulation.services.EventPublishingQueue;
+import org.folio.circulation.support.http.client.HttpClientPool;
+import org.folio.circulation.support.http.client.HttpClientPools;
+import org.folio.circulation.support.http.client.OutboundRequestHistograms;
+import org.folio.circulation.support.http.client.OutboundResilience;
+import org.folio.circulation.support.http.server.AdmissionControl;
+
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Metrics for requests to other modules and for the work queued within
+ * the module, for scraping directly from the module (rather than via Okapi)
+ */
+public class OutboundRequestMetricsResource {
+  private static final String PROMETHEUS_TEXT_FORMAT = "text/plain; version=0.0.4";
+
+  public void register(Router router) {
+    router.get("/admin/metrics").handler(this::get);
+  }
+
+  private void get(RoutingContext routingContext) {
+    final StringBuilder text = new StringBuilder(
+      OutboundRequestHistograms.getInstance().toPrometheusText());
+
+    writeEventPublishingMetrics(text);
+    writeRulesExecutionMetrics(text);
+    writeHttpClientPoolMetrics(text);
+    writeAdmissionControlMetrics(text);
+    writeOutboundResilienceMetrics(text);
+
+    routingContext.response()
+      .setStatusCode(200)
+      .putHeader("content-type", PROMETHEUS_TEXT_FORMAT)
+      .end(text.toString());
+  }
+
+  private static void writeEventPublishingMetrics(StringBuilder text) {
+    final EventPublishingQueue.Metrics metrics
+      = EventPublishingQueue.getInstance().getMetrics();
+
+    writeMetric(text, "circulation_event_queue_depth", "gauge",
+      "Events waiting to be published to pub-sub", metrics.getQueueDepth());
+
+    writeMetric(text, "circulation_events_published_total", "counter",
+      "Events published to pub-sub", metrics.getPublished());
+
+    writeMetric(text, "circulation_events_failed_total", "counter",
+      "Events that could not be published after all attempts", metrics.getFailed());
+
+    writeMetric(text, "circulation_event_retries_total", "counter",
+      "Attempts to publish an event again after it failed", metrics.getRetried());
+
+    writeMetric(text, "circulation_events_discarded_total", "counter",
+      "Events discarded because the queue was full", metrics.getDiscarded());
+
+    writeMetric(text, "circulation_events_published_immediately_total", "counter",
+      "Events published without being queued because the queue was full",
+      metrics.getPublishedImmediately());
+
+    writeMetric(text, "circulation_event_average_latency_seconds", "gauge",
+      "Average time from queueing an event to it being published",
+      seconds(metrics.getAverageLatencyMilliseconds()));
+
+    writeMetric(text, "circulation_event_maximum_latency_seconds", "gauge",
+      "Longest time from queueing an event to it being published",
+      seconds(metrics.getMaximumLatencyMilliseconds()));
+  }
+
+  private static void writeRulesExecutionMetrics(StringBuilder text) {
+    final RulesExecutionPool.Metrics metrics
+      = RulesExecutionPool.getInstance().getMetrics();
+
+    writeMetric(text, "circulation_rules_execution_queue_depth", "gauge",
+      "Rules executions waiting for a thread", metrics.getQueueDepth());
+
+    writeMetric(text, "circulation_rules_executions_active", "gauge",
+      "Rules executions in progress", metrics.getActive());
+
+    writeMetric(text, "circulation_rules_executions_completed_total", "counter",
+      "Rules executions completed", metrics.getCompleted());
+
+    writeMetric(text, "circulation_rules_executions_rejected_total", "counter",
+      "Rules executions rejected because the queue was full", metrics.getRejected());
+
+    writeMetric(text, "circulation_rules_execution_average_queueing_seconds", "gauge",
+      "Average time a rules execution waited for a thread",
+      seconds(metrics.getAverageQueueingMilliseconds()));
+
+    writeMetric(text, "circulation_rules_execution_maximum_queueing_seconds", "gauge",
+      "Longest time a rules execution waited for a thread",
+      seconds(metrics.getMaximumQueueingMilliseconds()));
+
+    writeMetric(text, "circulation_rules_execution_average_seconds", "gauge",
+      "Average time taken to execute the rules",
+      seconds(metrics.getAverageExecutionMilliseconds()));
+
+    writeMetric(text, "circulation_rules_execution_maximum_seconds", "gauge",
+      "Longest time taken to execute the rules",
+      seconds(metrics.getMaximumExecutionMilliseconds()));
+  }
+
+  private static void writeHttpClientPoolMetrics(StringBuilder text) {
+    final HttpClientPools pools = HttpClientPools.getInstance();
+
+    if (pools == null) {
+      return;
+    }
+
+    final List<HttpClientPool.Metrics> metrics = pools.getMetrics();
+
+    writeMetrics(text, "circulation_http_client_pool_capacity", "gauge",
+      "Requests that can be in progress at once using the pool", "pool",
+      metrics, HttpClientPool.Metrics::getName, HttpClientPool.Metrics::getCapacity);
+
+    writeMetrics(text, "circulation_http_client_pool_in_use", "gauge",
+      "Requests in progress using the pool", "pool",
+      metrics, HttpClientPool.Metrics::getName, HttpClientPool.Metrics::getInUse);
+
+    writeMetrics(text, "circulation_http_client_pool_waiting", "gauge",
+      "Requests waiting for the pool", "pool",
+      metrics, HttpClientPool.Metrics::getName, HttpClientPool.Metrics::getWaiting);
+
+    writeMetrics(text, "circulation_http_client_pool_requests_total", "counter",
+      "Requests made using the pool", "pool",
+      metrics, HttpClientPool.Metrics::getName, HttpClientPool.Metrics::getRequests);
+
+    writeMetrics(text, "circulation_http_client_pool_rejected_total", "counter",
+      "Requests rejected because too many were waiting for the pool", "pool",
+      metrics, HttpClientPool.Metrics::getName, HttpClientPool.Metrics::getRejected);
+
+    writeMetrics(text, "circulation_http_client_pool_average_acquire_seconds", "gauge",
+      "Average time a request waited for the pool", "pool",
+      metrics, HttpClientPool.Metrics::getName,
+      pool -> seconds(pool.getAverageAcquireMilliseconds()));
+
+    writeMetrics(text, "circulation_http_client_pool_maximum_acquire_seconds", "gauge",
+      "Longest time a request waited for the pool", "pool",
+      metrics, HttpClientPool.Metrics::getName,
+      pool -> seconds(pool.getMaximumAcquireMilliseconds()));
+  }
+
+  private static void writeAdmissionControlMetrics(StringBuilder text) {
+    final List<AdmissionControl.Metrics> metrics
+      = AdmissionControl.getInstance().getMetrics();
+
+    writeMetrics(text, "circulation_admission_maximum_concurrent_requests", "gauge",
+      "Requests of the class that can be in progress at once, unlimited when less than 1",
+      "class", metrics, AdmissionControl.Metrics::getRequestClass,
+      AdmissionControl.Metrics::getMaximumConcurrentRequests);
+
+    writeMetrics(text, "circulation_admission_in_progress", "gauge",
+      "Requests of the class in progress", "class",
+      metrics, AdmissionControl.Metrics::getRequestClass,
+      AdmissionControl.Metrics::getInProgress);
+
+    writeMetrics(text, "circulation_admission_queued", "gauge",
+      "Requests of the class waiting to be admitted", "class",
+      metrics, AdmissionControl.Metrics::getRequestClass,
+      AdmissionControl.Metrics::getQueued);
+
+    writeMetrics(text, "circulation_admission_admitted_total", "counter",
+      "Requests of the class admitted", "class",
+      metrics, AdmissionControl.Metrics::getRequestClass,
+      AdmissionControl.Metrics::getAdmitted);
+
+    writeMetrics(text, "circulation_admission_rejected_total", "counter",
+      "Requests of the class rejected because too many were waiting", "class",
+      metrics, AdmissionControl.Metrics::getRequestClass,
+      AdmissionControl.Metrics::getRejected);
+  }
+
+  private static void writeOutboundResilienceMetrics(StringBuilder text) {
+    final List<OutboundResilience.Metrics> metrics
+      = OutboundResilience.getInstance().getMetrics();
+
+    writeMetrics(text, "circulation_outbound_circuit_state", "gauge",
+      "State of the circuit breaker for the module, 0 closed, 1 open, 2 half open",
+      "path", metrics, OutboundResilience.Metrics::getModulePath,
+      module -> circuitStateValue(module.getState()));
+
+    writeMetrics(text, "circulation_outbound_requests_total", "counter",
+      "Requests sent to the module", "path",
+      metrics, OutboundResilience.Metrics::getModulePath,
+      OutboundResilience.Metrics::getRequests);
+
+    writeMetrics(text, "circulation_outbound_failures_total", "counter",
+      "Requests to the module that failed or timed out", "path",
+      metrics, OutboundResilience.Metrics::getModulePath,
+      OutboundResilience.Metrics::getFailures);
+
+    writeMetrics(text, "circulation_outbound_retries_total", "counter",
+      "Requests sent to the module again after they failed", "path",
+      metrics, OutboundResilience.Metrics::getModulePath,
+      OutboundResilience.Metrics::getRetries);
+
+    writeMetrics(text, "circulation_outbound_hedged_total", "counter",
+      "Requests sent to the module again because they were slow", "path",
+      metrics, OutboundResilience.Metrics::getModulePath,
+      OutboundResilience.Metrics::getHedged);
+
+    writeMetrics(text, "circulation_outbound_short_circuited_total", "counter",
+      "Requests not sent to the module because its circuit was open", "path",
+      metrics, OutboundResilience.Metrics::getModulePath,
+      OutboundResilience.Metrics::getShortCircuited);
+  }
+
+  private static int circuitStateValue(String state) {
+    switch (state) {
+      case "OPEN":
+        return 1;
+      case "HALF_OPEN":
+        return 2;
+      default:
+        return 0;
+    }
+  }
+
+  private static void writeMetric(StringBuilder text, String name, String type,
+    String help, Object value) {
+
+    writeHeader(text, name, type, help);
+
+    text.append(name).append(' ').append(value).append('\n');
+  }
+
+  /**
+   * Writes a sample for each of the metrics, labelled to tell them apart
+   */
+  private static <T> void writeMetrics(StringBuilder text, String name, String type,
+    String help, String labelName, List<T> metrics, Function<T, String> label,
+    Function<T, Object> value) {
+
+    writeHeader(text, name, type, help);
+
+    metrics.forEach(metric -> text.append(name)
+      .append('{').append(labelName).append("=\"")
+      .append(escapeLabelValue(label.apply(metric))).append("\"} ")
+      .append(value.apply(metric)).append('\n'));
+  }
+
+  private static void writeHeader(StringBuilder text, String name, String type,
+    String help) {
+
+    text.append("# HELP ").append(name).append(' ').append(help).append('\n')
+      .append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private static String escapeLabelValue(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"");
+  }
+
+  private static String seconds(long milliseconds) {
+    return String.format(Locale.ROOT, "%.3f", milliseconds / 1000.0);
+  }
+}
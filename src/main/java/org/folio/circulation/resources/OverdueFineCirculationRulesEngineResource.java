@@ -10,7 +10,9 @@ public class OverdueFineCirculationRulesEngineResource extends AbstractCirculati
   public OverdueFineCirculationRulesEngineResource(String applyPath, String applyAllPath, HttpClient client) {
     super(applyPath, applyAllPath, client,
       CirculationRulesProcessor::getOverduePolicyAndMatch,
-      CirculationRulesProcessor::getOverduePolicies);
+      CirculationRulesProcessor::getOverduePolicies,
+      CirculationRulesProcessor::getOverduePolicyAndMatches,
+      CirculationRulesProcessor::getOverduePoliciesForEach);
   }
 
   @Override
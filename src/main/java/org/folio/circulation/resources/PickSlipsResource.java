@@ -13,18 +13,17 @@ import static org.folio.circulation.support.fetching.RecordFetching.findWithMult
 import static org.folio.circulation.support.http.client.CqlQuery.exactMatch;
 
 import java.util.Collection;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.folio.circulation.infrastructure.storage.users.AddressTypeRepository;
 import org.folio.circulation.domain.Item;
 import org.folio.circulation.domain.ItemStatus;
 import org.folio.circulation.domain.Location;
+import org.folio.circulation.infrastructure.storage.inventory.LocationIndex;
 import org.folio.circulation.infrastructure.storage.inventory.LocationRepository;
 import org.folio.circulation.domain.MultipleRecords;
 import org.folio.circulation.domain.Request;
@@ -39,11 +38,11 @@ import org.folio.circulation.support.results.Result;
 import org.folio.circulation.support.RouteRegistration;
 import org.folio.circulation.support.http.client.CqlQuery;
 import org.folio.circulation.support.http.client.PageLimit;
-import org.folio.circulation.support.http.server.JsonHttpResponse;
+import org.folio.circulation.support.http.server.HttpResponse;
+import org.folio.circulation.support.http.server.StreamingJsonHttpResponse;
 import org.folio.circulation.support.http.server.WebContext;
 
 import io.vertx.core.http.HttpClient;
-import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 
@@ -55,7 +54,6 @@ public class PickSlipsResource extends Resource {
   private static final String PICK_SLIPS_KEY = "pickSlips";
   private static final String STATUS_NAME_KEY = "status.name";
   private static final String REQUEST_TYPE_KEY = "requestType";
-  private static final String TOTAL_RECORDS_KEY = "totalRecords";
   private static final String SERVICE_POINT_ID_PARAM = "servicePointId";
   private static final String EFFECTIVE_LOCATION_ID_KEY = "effectiveLocationId";
   private static final String PRIMARY_SERVICE_POINT_KEY = "primaryServicePoint";
@@ -92,8 +90,7 @@ public class PickSlipsResource extends Resource {
       .thenComposeAsync(r -> r.after(userRepository::findUsersForRequests))
       .thenComposeAsync(r -> r.after(addressTypeRepository::findAddressTypesForRequests))
       .thenComposeAsync(r -> r.after(servicePointRepository::findServicePointsForRequests))
-      .thenApply(flatMapResult(this::mapResultToJson))
-      .thenApply(r -> r.map(JsonHttpResponse::ok))
+      .thenApply(r -> r.map(this::toPickSlipsResponse))
       .thenAccept(context::writeResultToHttpResponse);
   }
 
@@ -101,7 +98,17 @@ public class PickSlipsResource extends Resource {
     UUID servicePointId, Clients clients) {
 
     return findWithCqlQuery(clients.locationsStorage(), LOCATIONS_KEY, Location::from)
-      .findByQuery(exactMatch(PRIMARY_SERVICE_POINT_KEY, servicePointId.toString()), LOCATIONS_LIMIT);
+      .findByQuery(exactMatch(PRIMARY_SERVICE_POINT_KEY, servicePointId.toString()), LOCATIONS_LIMIT)
+      .thenApply(r -> r.map(locations -> indexLocations(locations, clients)));
+  }
+
+  private MultipleRecords<Location> indexLocations(MultipleRecords<Location> locations,
+    Clients clients) {
+
+    // the index cannot find locations by service point, but later lookups by ID can use these
+    LocationIndex.getInstance().index(clients.getTenantId(), locations.getRecords());
+
+    return locations;
   }
 
   private CompletableFuture<Result<Collection<Item>>> fetchPagedItemsForLocations(
@@ -196,16 +203,11 @@ public class PickSlipsResource extends Resource {
     ));
   }
 
-  private Result<JsonObject> mapResultToJson(MultipleRecords<Request> requests) {
-    List<JsonObject> representations = requests.getRecords().stream()
-      .map(TemplateContextUtil::createStaffSlipContext)
-      .collect(Collectors.toList());
-
-    JsonObject jsonRepresentations = new JsonObject()
-      .put(PICK_SLIPS_KEY, representations)
-      .put(TOTAL_RECORDS_KEY, representations.size());
+  private HttpResponse toPickSlipsResponse(MultipleRecords<Request> requests) {
+    final Collection<Request> records = requests.getRecords();
 
-    return succeeded(jsonRepresentations);
+    return StreamingJsonHttpResponse.ok(PICK_SLIPS_KEY, records,
+      TemplateContextUtil::createStaffSlipContext, records.size());
   }
 
 }
@@ -13,7 +13,9 @@ public class RequestCirculationRulesEngineResource extends AbstractCirculationRu
   public RequestCirculationRulesEngineResource(String applyPath, String applyAllPath, HttpClient client) {
     super(applyPath, applyAllPath, client,
       CirculationRulesProcessor::getRequestPolicyAndMatch,
-      CirculationRulesProcessor::getRequestPolicies);
+      CirculationRulesProcessor::getRequestPolicies,
+      CirculationRulesProcessor::getRequestPolicyAndMatches,
+      CirculationRulesProcessor::getRequestPoliciesForEach);
   }
 
   @Override
@@ -233,9 +233,8 @@ public class RequestCollectionResource extends CollectionResource {
     final RequestRepresentation requestRepresentation = new RequestRepresentation();
 
     requestRepository.findBy(routingContext.request().query())
-      .thenApply(r -> r.map(requests ->
-        requests.asJson(requestRepresentation::extendedRepresentation, "requests")))
-      .thenApply(r -> r.map(JsonHttpResponse::ok))
+      .thenApply(r -> r.map(requests -> requests.asStreamingJsonResponse(
+        requestRepresentation::extendedRepresentation, "requests")))
       .thenAccept(context::writeResultToHttpResponse);
   }
 
@@ -5,6 +5,7 @@ import static org.folio.circulation.domain.RequestStatus.CLOSED_CANCELLED;
 import static org.folio.circulation.domain.RequestStatus.CLOSED_PICKUP_EXPIRED;
 import static org.folio.circulation.domain.RequestStatus.OPEN_AWAITING_PICKUP;
 import static org.folio.circulation.support.AsyncCoordinationUtil.allOf;
+import static org.folio.circulation.support.BoundedConcurrency.atMost;
 import static org.folio.circulation.support.CqlSortBy.descending;
 import static org.folio.circulation.support.http.client.CqlQuery.exactMatch;
 import static org.folio.circulation.support.http.client.CqlQuery.exactMatchAny;
@@ -29,6 +30,7 @@ import org.folio.circulation.domain.MultipleRecords;
 import org.folio.circulation.infrastructure.storage.inventory.ItemReportRepository;
 import org.folio.circulation.domain.Request;
 import org.folio.circulation.domain.RequestRepresentation;
+import org.folio.circulation.support.BoundedConcurrency;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.GetManyRecordsClient;
 import org.folio.circulation.infrastructure.storage.inventory.ItemRepository;
@@ -37,12 +39,11 @@ import org.folio.circulation.support.RouteRegistration;
 import org.folio.circulation.support.http.client.CqlQuery;
 import org.folio.circulation.support.http.client.PageLimit;
 import org.folio.circulation.support.http.client.Response;
-import org.folio.circulation.support.http.server.JsonHttpResponse;
+import org.folio.circulation.support.http.server.HttpResponse;
+import org.folio.circulation.support.http.server.StreamingJsonHttpResponse;
 import org.folio.circulation.support.http.server.WebContext;
 
 import io.vertx.core.http.HttpClient;
-import io.vertx.core.json.JsonArray;
-import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 
@@ -58,12 +59,17 @@ public class RequestHoldShelfClearanceResource extends Resource {
    * Default limit value on a query
    */
   private static final int PAGE_REQUEST_LIMIT = 1;
+
+  /**
+   * Maximum number of items fetched at the same time
+   */
+  private static final BoundedConcurrency CONCURRENT_ITEMS_TO_FETCH = atMost(10);
+
   private static final String SERVICE_POINT_ID_PARAM = "servicePointId";
   private static final String ITEM_ID_KEY = "itemId";
   private static final String REQUESTS_KEY = "requests";
   private static final String STATUS_KEY = "status";
   private static final String STATUS_NAME_KEY = "status.name";
-  private static final String TOTAL_RECORDS_KEY = "totalRecords";
   private static final String REQUEST_CLOSED_DATE_KEY = "awaitingPickupRequestClosedDate";
 
   private final String rootPath;
@@ -96,8 +102,7 @@ public class RequestHoldShelfClearanceResource extends Resource {
       .thenComposeAsync(r -> findExpiredOrCancelledRequestByItemIds(requestsStorage, r.value()))
       .thenApply(r -> findExpiredOrCancelledRequestByServicePoint(servicePointId, r.value()))
       .thenCompose(r -> fetchItemToRequest(r, itemRepository))
-      .thenApply(this::mapResultToJson)
-      .thenApply(r -> r.map(JsonHttpResponse::ok))
+      .thenApply(r -> r.map(this::toRequestsResponse))
       .thenAccept(context::writeResultToHttpResponse);
   }
 
@@ -238,21 +243,15 @@ public class RequestHoldShelfClearanceResource extends Resource {
     Result<List<Request>> requestsResult, ItemRepository itemRepository) {
 
     return requestsResult.after(
-      requests -> allOf(requests, request -> fetchItem(itemRepository, request)));
+      requests -> allOf(requests, request -> fetchItem(itemRepository, request),
+        CONCURRENT_ITEMS_TO_FETCH));
   }
 
-  private Result<JsonObject> mapResultToJson(Result<List<Request>> requestsResult) {
-    return requestsResult.map(this::toRequestsResponse);
-  }
-
-  private JsonObject toRequestsResponse(List<Request> requests) {
-    final List<JsonObject> requestsRepresentations = requests.stream()
-      .map(request -> new RequestRepresentation().extendedRepresentation(request))
-      .collect(Collectors.toList());
+  private HttpResponse toRequestsResponse(List<Request> requests) {
+    final RequestRepresentation requestRepresentation = new RequestRepresentation();
 
-    return new JsonObject()
-      .put(REQUESTS_KEY, new JsonArray(requestsRepresentations))
-      .put(TOTAL_RECORDS_KEY, requestsRepresentations.size());
+    return StreamingJsonHttpResponse.ok(REQUESTS_KEY, requests,
+      requestRepresentation::extendedRepresentation, requests.size());
   }
 
   private CompletableFuture<Result<Request>> fetchItem(ItemRepository itemRepository, Request request) {
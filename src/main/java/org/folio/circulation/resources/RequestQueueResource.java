@@ -60,9 +60,8 @@ public class RequestQueueResource extends Resource {
     requestQueueRepository.get(itemId)
       .thenApply(r -> r.map(requestQueue -> new MultipleRecords<>(
         requestQueue.getRequests(), requestQueue.size())))
-      .thenApply(r -> r.map(requests ->
-        requests.asJson(requestRepresentation::extendedRepresentation, "requests")))
-      .thenApply(r -> r.map(JsonHttpResponse::ok))
+      .thenApply(r -> r.map(requests -> requests.asStreamingJsonResponse(
+        requestRepresentation::extendedRepresentation, "requests")))
       .thenAccept(context::writeResultToHttpResponse);
   }
 
@@ -100,10 +99,8 @@ public class RequestQueueResource extends Resource {
 
   private Result<ReorderRequestContext> publishReorderedQueue(EventPublisher eventPublisher, Result<ReorderRequestContext> reorderRequestContext) {
     reorderRequestContext.after(r -> {
-      CompletableFuture.runAsync(() -> {
-        List<Request> reordered = r.getReorderRequestToRequestMap().values().stream().filter(Request::hasChangedPosition).collect(Collectors.toList());
-        eventPublisher.publishLogRecord(mapToRequestLogEventJson(reordered), LogEventType.REQUEST_REORDERED);
-      });
+      List<Request> reordered = r.getReorderRequestToRequestMap().values().stream().filter(Request::hasChangedPosition).collect(Collectors.toList());
+      eventPublisher.publishLogRecord(mapToRequestLogEventJson(reordered), LogEventType.REQUEST_REORDERED);
       return null;
     });
     return reorderRequestContext;
@@ -1,5 +1,6 @@
 package org.folio.circulation.resources;
 
+import static org.folio.circulation.support.http.server.AdmissionControl.RequestClass.BATCH;
 import static org.folio.circulation.support.results.AsynchronousResultBindings.safelyInitialise;
 
 import org.folio.circulation.domain.anonymization.LoanAnonymization;
@@ -28,7 +29,7 @@ public class ScheduledAnonymizationProcessingResource extends Resource {
 
   @Override
   public void register(Router router) {
-    new RouteRegistration("/circulation/scheduled-anonymize-processing", router)
+    new RouteRegistration("/circulation/scheduled-anonymize-processing", router, BATCH)
     .create(this::scheduledAnonymizeLoans);
   }
 
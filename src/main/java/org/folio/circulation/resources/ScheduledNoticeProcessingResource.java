@@ -1,5 +1,6 @@
 package org.folio.circulation.resources;
 
+import static org.folio.circulation.support.http.server.AdmissionControl.RequestClass.BATCH;
 import static org.folio.circulation.support.results.AsynchronousResultBindings.safelyInitialise;
 
 import java.util.concurrent.CompletableFuture;
@@ -30,7 +31,8 @@ public abstract class ScheduledNoticeProcessingResource extends Resource {
 
   @Override
   public void register(Router router) {
-    RouteRegistration routeRegistration = new RouteRegistration(rootPath, router);
+    RouteRegistration routeRegistration = new RouteRegistration(rootPath,
+      router, BATCH);
 
     routeRegistration.create(this::process);
   }
@@ -1,11 +1,12 @@
 package org.folio.circulation.resources.agedtolost;
 
 import static org.folio.circulation.support.Clients.create;
+import static org.folio.circulation.support.http.server.AdmissionControl.RequestClass.BATCH;
+import static org.folio.circulation.support.http.server.JsonHttpResponse.ok;
 
 import org.folio.circulation.resources.Resource;
 import org.folio.circulation.services.agedtolost.ChargeLostFeesWhenAgedToLostService;
 import org.folio.circulation.support.RouteRegistration;
-import org.folio.circulation.support.http.server.NoContentResponse;
 import org.folio.circulation.support.http.server.WebContext;
 
 import io.vertx.core.http.HttpClient;
@@ -19,7 +20,8 @@ public class ScheduledAgeToLostFeeChargingResource extends Resource {
 
   @Override
   public void register(Router router) {
-    new RouteRegistration("/circulation/scheduled-age-to-lost-fee-charging", router)
+    new RouteRegistration("/circulation/scheduled-age-to-lost-fee-charging",
+      router, BATCH)
       .create(this::scheduledAgeToLostFeeCharging);
   }
 
@@ -29,7 +31,7 @@ public class ScheduledAgeToLostFeeChargingResource extends Resource {
       new ChargeLostFeesWhenAgedToLostService(create(context, client));
 
     chargingService.chargeFees()
-      .thenApply(r -> r.toFixedValue(NoContentResponse::noContent))
+      .thenApply(r -> r.map(statistics -> ok(statistics.toJson())))
       .thenAccept(context::writeResultToHttpResponse);
   }
 }
@@ -1,6 +1,7 @@
 package org.folio.circulation.resources.agedtolost;
 
 import static org.folio.circulation.support.Clients.create;
+import static org.folio.circulation.support.http.server.AdmissionControl.RequestClass.BATCH;
 
 import org.folio.circulation.resources.Resource;
 import org.folio.circulation.services.agedtolost.MarkOverdueLoansAsAgedLostService;
@@ -19,7 +20,7 @@ public class ScheduledAgeToLostResource extends Resource {
 
   @Override
   public void register(Router router) {
-    new RouteRegistration("/circulation/scheduled-age-to-lost", router)
+    new RouteRegistration("/circulation/scheduled-age-to-lost", router, BATCH)
       .create(this::scheduledAgeToLost);
   }
 
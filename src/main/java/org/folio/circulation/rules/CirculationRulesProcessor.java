@@ -1,28 +1,29 @@
 package org.folio.circulation.rules;
 
-import static org.folio.circulation.support.results.Result.combined;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import static org.folio.circulation.support.results.Result.failed;
 import static org.folio.circulation.support.results.Result.ofAsync;
 import static org.folio.circulation.support.results.Result.succeeded;
-import static org.slf4j.LoggerFactory.getLogger;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.folio.circulation.domain.Location;
+import org.folio.circulation.infrastructure.storage.inventory.LocationIndex;
 import org.folio.circulation.rules.cache.CirculationRulesCache;
 import org.folio.circulation.support.CollectionResourceClient;
-import org.folio.circulation.support.FetchSingleRecord;
 import org.folio.circulation.support.ServerErrorFailure;
 import org.folio.circulation.support.results.Result;
-import org.slf4j.Logger;
 
 import io.vertx.core.json.JsonArray;
 import lombok.val;
 
 public class CirculationRulesProcessor {
-  private static final Logger log = getLogger(CirculationRulesProcessor.class);
-
   private final String tenantId;
   private final CollectionResourceClient circulationRulesStorage;
   private final CollectionResourceClient locationStorageClient;
@@ -42,8 +43,7 @@ public class CirculationRulesProcessor {
   }
 
   public CompletableFuture<Result<JsonArray>> getLoanPolicies(RulesExecutionParameters params) {
-    return triggerRules(params,
-      (drools, newParams) -> drools.loanPolicies(newParams.toMap(), newParams.getLocation()));
+    return executeRules(params, ExecutableRules::determineLoanPolicies);
   }
 
   public CompletableFuture<Result<CirculationRuleMatch>> getLostItemPolicyAndMatch(
@@ -53,8 +53,7 @@ public class CirculationRulesProcessor {
   }
 
   public CompletableFuture<Result<JsonArray>> getLostItemPolicies(RulesExecutionParameters params) {
-    return triggerRules(params,
-      (drools, newParams) -> drools.lostItemPolicies(newParams.toMap(), newParams.getLocation()));
+    return executeRules(params, ExecutableRules::determineLostItemPolicies);
   }
 
   public CompletableFuture<Result<CirculationRuleMatch>> getNoticePolicyAndMatch(
@@ -64,8 +63,7 @@ public class CirculationRulesProcessor {
   }
 
   public CompletableFuture<Result<JsonArray>> getNoticePolicies(RulesExecutionParameters params) {
-    return triggerRules(params,
-      (drools, newParams) -> drools.noticePolicies(newParams.toMap(), newParams.getLocation()));
+    return executeRules(params, ExecutableRules::determineNoticePolicies);
   }
 
   public CompletableFuture<Result<CirculationRuleMatch>> getOverduePolicyAndMatch(
@@ -75,8 +73,7 @@ public class CirculationRulesProcessor {
   }
 
   public CompletableFuture<Result<JsonArray>> getOverduePolicies(RulesExecutionParameters params) {
-    return triggerRules(params,
-      (drools, newParams) -> drools.overduePolicies(newParams.toMap(), newParams.getLocation()));
+    return executeRules(params, ExecutableRules::determineOverduePolicies);
   }
 
   public CompletableFuture<Result<CirculationRuleMatch>> getRequestPolicyAndMatch(
@@ -86,21 +83,67 @@ public class CirculationRulesProcessor {
   }
 
   public CompletableFuture<Result<JsonArray>> getRequestPolicies(RulesExecutionParameters params) {
-    return triggerRules(params,
-      (drools, newParams) -> drools.requestPolicies(newParams.toMap(), newParams.getLocation()));
+    return executeRules(params, ExecutableRules::determineRequestPolicies);
   }
 
-  private <T> CompletableFuture<Result<T>> triggerRules(RulesExecutionParameters params,
-    BiFunction<Drools, RulesExecutionParameters, T> droolsFunction) {
+  public CompletableFuture<Result<List<CirculationRuleMatch>>> getLoanPolicyAndMatches(
+    List<RulesExecutionParameters> params) {
 
-    val rulesFuture = CirculationRulesCache.getInstance()
-      .getDrools(tenantId, circulationRulesStorage);
+    return executeRulesForEach(params, ExecutableRules::determineLoanPolicy);
+  }
+
+  public CompletableFuture<Result<List<JsonArray>>> getLoanPoliciesForEach(
+    List<RulesExecutionParameters> params) {
+
+    return executeRulesForEach(params, ExecutableRules::determineLoanPolicies);
+  }
+
+  public CompletableFuture<Result<List<CirculationRuleMatch>>> getLostItemPolicyAndMatches(
+    List<RulesExecutionParameters> params) {
 
-    return fetchLocation(params).thenCombine(rulesFuture, combined(
-      (newParams, drools) -> {
-        log.info("Applying circulation rules with parameters: {}", newParams);
-        return succeeded(droolsFunction.apply(drools, newParams));
-      }));
+    return executeRulesForEach(params, ExecutableRules::determineLostItemPolicy);
+  }
+
+  public CompletableFuture<Result<List<JsonArray>>> getLostItemPoliciesForEach(
+    List<RulesExecutionParameters> params) {
+
+    return executeRulesForEach(params, ExecutableRules::determineLostItemPolicies);
+  }
+
+  public CompletableFuture<Result<List<CirculationRuleMatch>>> getNoticePolicyAndMatches(
+    List<RulesExecutionParameters> params) {
+
+    return executeRulesForEach(params, ExecutableRules::determineNoticePolicy);
+  }
+
+  public CompletableFuture<Result<List<JsonArray>>> getNoticePoliciesForEach(
+    List<RulesExecutionParameters> params) {
+
+    return executeRulesForEach(params, ExecutableRules::determineNoticePolicies);
+  }
+
+  public CompletableFuture<Result<List<CirculationRuleMatch>>> getOverduePolicyAndMatches(
+    List<RulesExecutionParameters> params) {
+
+    return executeRulesForEach(params, ExecutableRules::determineOverduePolicy);
+  }
+
+  public CompletableFuture<Result<List<JsonArray>>> getOverduePoliciesForEach(
+    List<RulesExecutionParameters> params) {
+
+    return executeRulesForEach(params, ExecutableRules::determineOverduePolicies);
+  }
+
+  public CompletableFuture<Result<List<CirculationRuleMatch>>> getRequestPolicyAndMatches(
+    List<RulesExecutionParameters> params) {
+
+    return executeRulesForEach(params, ExecutableRules::determineRequestPolicy);
+  }
+
+  public CompletableFuture<Result<List<JsonArray>>> getRequestPoliciesForEach(
+    List<RulesExecutionParameters> params) {
+
+    return executeRulesForEach(params, ExecutableRules::determineRequestPolicies);
   }
 
   private <T> CompletableFuture<Result<T>> executeRules(RulesExecutionParameters params,
@@ -110,8 +153,74 @@ public class CirculationRulesProcessor {
       .getExecutableRules(tenantId, circulationRulesStorage);
 
     return fetchLocation(params)
-      .thenCombine(rulesFuture, combined((parametersWithLocation, rules) ->
-        rulesExecutor.apply(rules, parametersWithLocation)));
+      .thenCombine(rulesFuture, (parametersResult, rulesResult) ->
+        parametersResult.combine(rulesResult, Pair::of))
+      .thenCompose(r -> r.after(parametersAndRules -> rulesExecutionPool().execute(
+        () -> rulesExecutor.apply(parametersAndRules.getRight(),
+          parametersAndRules.getLeft()))));
+  }
+
+  /**
+   * Applies the rules to each of the parameters, using the same version of the rules
+   * for all of them and fetching all of the locations needed in a single request
+   *
+   * @return the matches in the same order as the parameters,
+   * or the first failure if the rules cannot be applied to any of them
+   */
+  private <T> CompletableFuture<Result<List<T>>> executeRulesForEach(
+    List<RulesExecutionParameters> params,
+    BiFunction<ExecutableRules, RulesExecutionParameters, Result<T>> rulesExecutor) {
+
+    val rulesFuture = CirculationRulesCache.getInstance()
+      .getExecutableRules(tenantId, circulationRulesStorage);
+
+    return fetchLocations(params)
+      .thenCombine(rulesFuture, (parametersResult, rulesResult) ->
+        parametersResult.combine(rulesResult, Pair::of))
+      .thenCompose(r -> r.after(parametersAndRules -> rulesExecutionPool().execute(
+        () -> Result.combineAll(parametersAndRules.getLeft().stream()
+          .map(parametersWithLocation -> rulesExecutor.apply(
+            parametersAndRules.getRight(), parametersWithLocation))
+          .collect(toList())))));
+  }
+
+  private static RulesExecutionPool rulesExecutionPool() {
+    return RulesExecutionPool.getInstance();
+  }
+
+  private CompletableFuture<Result<List<RulesExecutionParameters>>> fetchLocations(
+    List<RulesExecutionParameters> params) {
+
+    final Set<String> locationIds = params.stream()
+      .filter(parameters -> parameters.getLocation() == null)
+      .map(RulesExecutionParameters::getLocationId)
+      .collect(toSet());
+
+    if (locationIds.isEmpty()) {
+      return ofAsync(() -> params);
+    }
+
+    return LocationIndex.getInstance()
+      .getLocations(tenantId, locationStorageClient, locationIds)
+      .thenApply(r -> r.next(locations -> Result.combineAll(params.stream()
+        .map(parameters -> withLocation(parameters, locations))
+        .collect(toList()))));
+  }
+
+  private static Result<RulesExecutionParameters> withLocation(
+    RulesExecutionParameters params, Map<String, Location> locations) {
+
+    if (params.getLocation() != null) {
+      return succeeded(params);
+    }
+
+    final Location location = locations.get(params.getLocationId());
+
+    if (location == null) {
+      return failed(new ServerErrorFailure("Can`t find location"));
+    }
+
+    return succeeded(params.withLocation(location));
   }
 
   private CompletableFuture<Result<RulesExecutionParameters>> fetchLocation(RulesExecutionParameters params) {
@@ -119,11 +228,10 @@ public class CirculationRulesProcessor {
       return ofAsync(() -> params);
     }
 
-    return FetchSingleRecord.<Location>forRecord("location")
-      .using(locationStorageClient)
-      .mapTo(Location::from)
-      .whenNotFound(failed(new ServerErrorFailure("Can`t find location")))
-      .fetch(params.getLocationId())
-      .thenApply(r -> r.map(params::withLocation));
+    return LocationIndex.getInstance()
+      .getLocation(tenantId, locationStorageClient, params.getLocationId())
+      .thenApply(r -> r.next(location -> location == null
+        ? failed(new ServerErrorFailure("Can`t find location"))
+        : succeeded(params.withLocation(location))));
   }
 }
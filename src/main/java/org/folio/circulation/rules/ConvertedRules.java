@@ -0,0 +1,34 @@
+package org.folio.circulation.rules;
+
+import java.util.Map;
+
+/**
+ * Circulation rules converted from FOLIO text format, ready to be compiled
+ */
+public class ConvertedRules {
+  /** Drools package text by package name, in the order of the rules */
+  private final Map<String, String> packages;
+  /** the line each package starts on, by package name */
+  private final Map<String, Integer> packageFirstLines;
+  private final RulesIndex index;
+
+  ConvertedRules(Map<String, String> packages, Map<String, Integer> packageFirstLines,
+    RulesIndex index) {
+
+    this.packages = packages;
+    this.packageFirstLines = packageFirstLines;
+    this.index = index;
+  }
+
+  public Map<String, String> getPackages() {
+    return packages;
+  }
+
+  public Map<String, Integer> getPackageFirstLines() {
+    return packageFirstLines;
+  }
+
+  public RulesIndex getIndex() {
+    return index;
+  }
+}
@@ -7,12 +7,14 @@ import static org.folio.circulation.resources.AbstractCirculationRulesEngineReso
 import static org.folio.circulation.support.json.JsonPropertyWriter.write;
 
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.drools.core.definitions.rule.impl.RuleImpl;
 import org.drools.core.event.DefaultAgendaEventListener;
 import org.folio.circulation.domain.Location;
+import org.kie.api.KieBase;
 import org.kie.api.KieServices;
 import org.kie.api.builder.KieBuilder;
 import org.kie.api.builder.KieFileSystem;
@@ -32,7 +34,9 @@ public class Drools {
   // https://docs.jboss.org/drools/release/6.2.0.CR1/drools-docs/html/ch19.html
   // http://www.deepakgaikwad.net/index.php/2016/05/16/drools-tutorial-beginners.html
 
-  private final KieContainer kieContainer;
+  private final KieBase kieBase;
+  /** the line each package of rules starts on, by package name */
+  private final Map<String, Integer> packageFirstLines;
 
   /**
    * Create the Drools kieSession based on a String containing a drools file.
@@ -47,7 +51,20 @@ public class Drools {
     if (kieBuilder.getResults().hasMessages(Level.ERROR)) {
       throw new IllegalArgumentException("Drools build errors:\n" + kieBuilder.getResults().toString());
     }
-    kieContainer = kieServices.newKieContainer(kieServices.getRepository().getDefaultReleaseId());
+    KieContainer kieContainer = kieServices.newKieContainer(
+      kieServices.getRepository().getDefaultReleaseId());
+    kieBase = kieContainer.getKieBase();
+    packageFirstLines = Map.of();
+  }
+
+  /**
+   * Create the Drools kieSession based on rules that have already been compiled.
+   * @param kieBase the compiled circulation rules
+   * @param packageFirstLines the line each package of rules starts on
+   */
+  Drools(KieBase kieBase, Map<String, Integer> packageFirstLines) {
+    this.kieBase = kieBase;
+    this.packageFirstLines = packageFirstLines;
   }
 
   private KieSession createSession(MultiMap params, Location location, Match match) {
@@ -56,7 +73,7 @@ public class Drools {
     String patronGroupId = params.get(PATRON_TYPE_ID_NAME);
     String locationId = params.get(LOCATION_ID_NAME);
 
-    KieSession kieSession = kieContainer.newKieSession();
+    KieSession kieSession = kieBase.newKieSession();
     kieSession.setGlobal("match", match);
     kieSession.insert(new ItemType(itemTypeId));
     kieSession.insert(new LoanType(loanTypeId));
@@ -76,7 +93,7 @@ public class Drools {
    * @return CirculationRuleMatch object with the name of the loan policy and rule conditions
    */
   public CirculationRuleMatch loanPolicy(MultiMap params, Location location) {
-    final var match = new Match();
+    final var match = new Match(packageFirstLines);
     final KieSession kieSession = createSession(params, location, match);
     final RuleEventListener ruleEventListener = new RuleEventListener();
 
@@ -100,7 +117,7 @@ public class Drools {
    * @return matches, each match has a loanPolicyId and a circulationRuleLine field
    */
   public JsonArray loanPolicies(MultiMap params, Location location) {
-    final var match = new Match();
+    final var match = new Match(packageFirstLines);
     final KieSession kieSession = createSession(params, location, match);
 
     JsonArray array = new JsonArray();
@@ -125,7 +142,7 @@ public class Drools {
    * @return CirculationRuleMatch object with the name of the loan policy and rule conditions
    */
   public CirculationRuleMatch requestPolicy(MultiMap params, Location location) {
-    final var match = new Match();
+    final var match = new Match(packageFirstLines);
     final KieSession kieSession = createSession(params, location, match);
 
     kieSession.fireAllRules();
@@ -143,7 +160,7 @@ public class Drools {
    * @return matches, each match has a requestPolicyId and a circulationRuleLine field
    */
   public JsonArray requestPolicies(MultiMap params, Location location) {
-    final var match = new Match();
+    final var match = new Match(packageFirstLines);
     final KieSession kieSession = createSession(params, location, match);
 
     JsonArray array = new JsonArray();
@@ -169,7 +186,7 @@ public class Drools {
    * @return CirculationRuleMatch object with the name of the loan policy and rule conditions
    */
   public CirculationRuleMatch noticePolicy(MultiMap params, Location location) {
-    final var match = new Match();
+    final var match = new Match(packageFirstLines);
     final KieSession kieSession = createSession(params, location, match);
 
     kieSession.fireAllRules();
@@ -187,7 +204,7 @@ public class Drools {
    * @return matches, each match has a noticePolicyId and a circulationRuleLine field
    */
   public JsonArray noticePolicies(MultiMap params, Location location) {
-    final var match = new Match();
+    final var match = new Match(packageFirstLines);
     final KieSession kieSession = createSession(params, location, match);
 
     JsonArray array = new JsonArray();
@@ -213,7 +230,7 @@ public class Drools {
    * @return CirculationRuleMatch object with the name of the loan policy and rule conditions
    */
   public CirculationRuleMatch overduePolicy(MultiMap params, Location location) {
-    final var match = new Match();
+    final var match = new Match(packageFirstLines);
     final KieSession kieSession = createSession(params, location, match);
 
     kieSession.fireAllRules();
@@ -231,7 +248,7 @@ public class Drools {
    * @return matches, each match has a overduePolicyId and a circulationRuleLine field
    */
   public JsonArray overduePolicies(MultiMap params, Location location) {
-    final var match = new Match();
+    final var match = new Match(packageFirstLines);
     final KieSession kieSession = createSession(params, location, match);
 
     JsonArray array = new JsonArray();
@@ -256,7 +273,7 @@ public class Drools {
    * @return CirculationRuleMatch object with the name of the loan policy and rule conditions
    */
   public CirculationRuleMatch lostItemPolicy(MultiMap params, Location location) {
-    final var match = new Match();
+    final var match = new Match(packageFirstLines);
     final KieSession kieSession = createSession(params, location, match);
 
     kieSession.fireAllRules();
@@ -274,7 +291,7 @@ public class Drools {
    * @return matches, each match has a lostItemPolicyId and a circulationRuleLine field
    */
   public JsonArray lostItemPolicies(MultiMap params, Location location) {
-    final var match = new Match();
+    final var match = new Match(packageFirstLines);
     final KieSession kieSession = createSession(params, location, match);
 
     JsonArray array = new JsonArray();
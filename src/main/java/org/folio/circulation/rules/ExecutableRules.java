@@ -3,6 +3,7 @@ package org.folio.circulation.rules;
 import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.folio.circulation.support.results.Result.of;
+import static org.folio.circulation.support.results.Result.succeeded;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.lang.invoke.MethodHandles;
@@ -16,6 +17,7 @@ import org.folio.circulation.support.results.Result;
 import org.slf4j.Logger;
 
 import io.vertx.core.MultiMap;
+import io.vertx.core.json.JsonArray;
 import lombok.Getter;
 
 public class ExecutableRules {
@@ -24,10 +26,13 @@ public class ExecutableRules {
   @Getter()
   private final String text;
   private final Drools drools;
+  @Getter()
+  private final RulesIndex index;
 
-  public ExecutableRules(String text, Drools drools) {
+  public ExecutableRules(String text, Drools drools, RulesIndex index) {
     this.text = text;
     this.drools = drools;
+    this.index = index;
   }
 
   public Result<CirculationRuleMatch> determineLoanPolicy(RulesExecutionParameters parameters) {
@@ -50,11 +55,43 @@ public class ExecutableRules {
     return determinePolicy(parameters, drools::overduePolicy, "overdude policy");
   }
 
+  public Result<JsonArray> determineLoanPolicies(RulesExecutionParameters parameters) {
+    return determinePolicies(parameters, index::loanPolicies);
+  }
+
+  public Result<JsonArray> determineRequestPolicies(RulesExecutionParameters parameters) {
+    return determinePolicies(parameters, index::requestPolicies);
+  }
+
+  public Result<JsonArray> determineNoticePolicies(RulesExecutionParameters parameters) {
+    return determinePolicies(parameters, index::noticePolicies);
+  }
+
+  public Result<JsonArray> determineLostItemPolicies(RulesExecutionParameters parameters) {
+    return determinePolicies(parameters, index::lostItemPolicies);
+  }
+
+  public Result<JsonArray> determineOverduePolicies(RulesExecutionParameters parameters) {
+    return determinePolicies(parameters, index::overduePolicies);
+  }
+
+  private Result<JsonArray> determinePolicies(RulesExecutionParameters parameters,
+    BiFunction<MultiMap, Location, JsonArray> indexExecutor) {
+
+    // called for each combination in a batch, so only logged when debugging
+    if (log.isDebugEnabled()) {
+      log.debug("Applying circulation rules with parameters: {}", parameters);
+    }
+
+    return succeeded(indexExecutor.apply(parameters.toMap(), parameters.getLocation()));
+  }
+
   private Result<CirculationRuleMatch> determinePolicy(RulesExecutionParameters parameters,
     BiFunction<MultiMap, Location, CirculationRuleMatch> droolsExecutor, String policyType) {
 
-    if (log.isInfoEnabled()) {
-      log.info("Executing circulation rules: `{}` with parameters: `{}` to determine {}",
+    // the rules are logged for each set of parameters, which can be many per request
+    if (log.isDebugEnabled()) {
+      log.debug("Executing circulation rules: `{}` with parameters: `{}` to determine {}",
         text, parameters, policyType);
     }
 
@@ -0,0 +1,123 @@
+package org.folio.circulation.rules;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.kie.api.io.ResourceType;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.KnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderFactory;
+import org.kie.internal.definition.KnowledgePackage;
+import org.kie.internal.io.ResourceFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles the Drools packages of circulation rules, only compiling
+ * the packages that have changed since the previous compilation.
+ *
+ * Each top level line of the rules, together with the lines indented beneath it,
+ * is a package named after the hash of its rules
+ * (see {@link Text2Drools#convertToPackages}).
+ * The compiled packages are kept, and when the rules are compiled again
+ * a package with exactly the same text is reused rather than being compiled again.
+ * Packages are copied by Drools when they are added to a second knowledge base,
+ * so rules compiled previously can still be used whilst the new rules are built.
+ */
+public class IncrementalDroolsCompiler {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  /** compiled packages from the previous compilation by package name */
+  private Map<String, CompiledPackage> compiledPackages = new HashMap<>();
+
+  /**
+   * @param rules Drools package text by package name and the line each starts on
+   * @return Drools for all of the packages
+   * @throws IllegalArgumentException when a package cannot be compiled
+   */
+  public synchronized Drools compile(ConvertedRules rules) {
+    final Map<String, String> packages = rules.getPackages();
+    final Map<String, CompiledPackage> compiled = new LinkedHashMap<>();
+    final Map<String, String> changed = new LinkedHashMap<>();
+
+    packages.forEach((name, text) -> {
+      final CompiledPackage previous = compiledPackages.get(name);
+
+      if (previous != null && previous.text.equals(text)) {
+        compiled.put(name, previous);
+      }
+      else {
+        changed.put(name, text);
+      }
+    });
+
+    if (!changed.isEmpty()) {
+      compileChanged(changed).forEach(compiledPackage ->
+        compiled.put(compiledPackage.knowledgePackage.getName(), compiledPackage));
+    }
+
+    log.info("Compiled {} of {} circulation rules packages, reused {}",
+      changed.size(), packages.size(), packages.size() - changed.size());
+
+    final List<KnowledgePackage> knowledgePackages = new ArrayList<>();
+
+    packages.keySet().forEach(name ->
+      knowledgePackages.add(compiled.get(name).knowledgePackage));
+
+    final KnowledgeBase knowledgeBase = KnowledgeBaseFactory.newKnowledgeBase();
+
+    knowledgeBase.addKnowledgePackages(knowledgePackages);
+
+    // only keep the packages that are still part of the rules
+    compiledPackages = compiled;
+
+    return new Drools(knowledgeBase, rules.getPackageFirstLines());
+  }
+
+  synchronized KnowledgePackage getCompiledPackage(String name) {
+    final CompiledPackage compiledPackage = compiledPackages.get(name);
+
+    return compiledPackage == null ? null : compiledPackage.knowledgePackage;
+  }
+
+  /**
+   * All of the changed packages are compiled together, as most of the time
+   * taken to compile is setting up the compiler rather than the rules themselves
+   */
+  private static List<CompiledPackage> compileChanged(Map<String, String> changed) {
+    final KnowledgeBuilder builder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+
+    changed.values().forEach(text -> builder.add(
+      ResourceFactory.newByteArrayResource(text.getBytes(UTF_8)), ResourceType.DRL));
+
+    if (builder.hasErrors()) {
+      throw new IllegalArgumentException("Drools build errors:\n" + builder.getErrors());
+    }
+
+    final List<CompiledPackage> compiled = new ArrayList<>();
+
+    builder.getKnowledgePackages().forEach(knowledgePackage -> {
+      compiled.add(new CompiledPackage(changed.get(knowledgePackage.getName()),
+        knowledgePackage));
+    });
+
+    return compiled;
+  }
+
+  private static class CompiledPackage {
+    private final String text;
+    private final KnowledgePackage knowledgePackage;
+
+    private CompiledPackage(String text, KnowledgePackage knowledgePackage) {
+      this.text = text;
+      this.knowledgePackage = knowledgePackage;
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package org.folio.circulation.rules;
 
+import java.util.Map;
+
 /**
  * Store the result of a rule match.
  */
@@ -22,4 +24,26 @@ public class Match {
   /** line number of the matching rule */
   @SuppressWarnings("squid:ClassVariableVisibilityCheck")  // Drools directly uses public fields
   public int lineNumber;
+
+  /** the line each package of rules starts on, by package name */
+  private final Map<String, Integer> packageFirstLines;
+
+  public Match() {
+    this(Map.of());
+  }
+
+  Match(Map<String, Integer> packageFirstLines) {
+    this.packageFirstLines = packageFirstLines;
+  }
+
+  /**
+   * Used by rules that are compiled separately for each block of lines,
+   * so that they do not change when lines are added or removed before them
+   * @param packageName the package of the rule
+   * @param lineInPackage the line of the rule, relative to the first line of the package
+   * @return line number of the rule in the circulation rules
+   */
+  public int lineOf(String packageName, int lineInPackage) {
+    return packageFirstLines.get(packageName) + lineInPackage;
+  }
 }
@@ -12,13 +12,16 @@ import org.folio.circulation.domain.User;
 import org.folio.circulation.support.http.server.WebContext;
 
 import io.vertx.core.MultiMap;
+import io.vertx.core.json.JsonObject;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 import lombok.With;
 
 @Getter
 @ToString
+@EqualsAndHashCode
 @AllArgsConstructor
 public final class RulesExecutionParameters {
   private final String loanTypeId;
@@ -26,6 +29,7 @@ public final class RulesExecutionParameters {
   private final String materialTypeId;
   private final String patronGroupId;
   @With
+  @EqualsAndHashCode.Exclude
   private final Location location;
 
   public MultiMap toMap() {
@@ -46,4 +50,10 @@ public final class RulesExecutionParameters {
       context.getStringParameter(LOCATION_ID_NAME), context.getStringParameter(ITEM_TYPE_ID_NAME),
       context.getStringParameter(PATRON_TYPE_ID_NAME), null);
   }
+
+  public static RulesExecutionParameters forBatchEntry(JsonObject entry) {
+    return new RulesExecutionParameters(entry.getString(LOAN_TYPE_ID_NAME),
+      entry.getString(LOCATION_ID_NAME), entry.getString(ITEM_TYPE_ID_NAME),
+      entry.getString(PATRON_TYPE_ID_NAME), null);
+  }
 }
@@ -0,0 +1,287 @@
+package org.folio.circulation.rules;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.results.Result.failed;
+
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.folio.circulation.support.ServerErrorFailure;
+import org.folio.circulation.support.results.Result;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Compiles and evaluates circulation rules on a dedicated pool of threads
+ *
+ * Compiling the rules can take several seconds, and evaluating them is CPU bound,
+ * so neither is run on the event loop thread that fetched the rules or the
+ * locations, where it would hold up every other request handled by that thread.
+ *
+ * Work waiting for a thread is queued up to the capacity of the pool,
+ * beyond that it fails straight away rather than waiting indefinitely.
+ *
+ * The outcome of the work is handed back to the Vert.x context that submitted it,
+ * so that whatever follows (e.g. fetching policies) continues on its event loop.
+ */
+public class RulesExecutionPool {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final int DEFAULT_POOL_SIZE = Math.max(2,
+    Runtime.getRuntime().availableProcessors());
+  private static final int DEFAULT_CAPACITY = 1000;
+  private static final long DEFAULT_SLOW_EXECUTION_MILLISECONDS = 5000;
+
+  private static volatile RulesExecutionPool instance = fromConfiguration(new JsonObject());
+
+  private final ThreadPoolExecutor executor;
+  private final long slowExecutionMilliseconds;
+
+  private final AtomicLong completed = new AtomicLong();
+  private final AtomicLong rejected = new AtomicLong();
+  private final AtomicLong totalQueueingMilliseconds = new AtomicLong();
+  private final LongAccumulator maximumQueueingMilliseconds = new LongAccumulator(Math::max, 0);
+  private final AtomicLong totalExecutionMilliseconds = new AtomicLong();
+  private final LongAccumulator maximumExecutionMilliseconds = new LongAccumulator(Math::max, 0);
+
+  RulesExecutionPool(int poolSize, int capacity, long slowExecutionMilliseconds) {
+    if (poolSize < 1 || capacity < 1) {
+      throw new IllegalArgumentException(String.format(
+        "Invalid circulation rules execution pool settings: pool size %s, capacity %s",
+        poolSize, capacity));
+    }
+
+    this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(capacity), new RulesThreadFactory());
+
+    this.slowExecutionMilliseconds = slowExecutionMilliseconds;
+  }
+
+  public static RulesExecutionPool getInstance() {
+    return instance;
+  }
+
+  /**
+   * Replaces the pool with one using the settings in the configuration,
+   * any setting that is not present uses the default value
+   *
+   * Work already given to the previous pool is still completed by it
+   */
+  public static void configure(JsonObject configuration) {
+    final RulesExecutionPool previous = instance;
+
+    instance = fromConfiguration(configuration);
+
+    previous.executor.shutdown();
+  }
+
+  private static RulesExecutionPool fromConfiguration(JsonObject configuration) {
+    return new RulesExecutionPool(
+      configuration.getInteger("poolSize", DEFAULT_POOL_SIZE),
+      configuration.getInteger("capacity", DEFAULT_CAPACITY),
+      configuration.getLong("slowExecutionMilliseconds",
+        DEFAULT_SLOW_EXECUTION_MILLISECONDS));
+  }
+
+  /**
+   * Runs the work on a thread from the pool
+   *
+   * @return a future that completes on the caller's context (when there is one)
+   * with the result of the work, with a failed
+   * result if there is no room in the pool's queue, or exceptionally if the
+   * work throws an exception
+   */
+  public <T> CompletableFuture<Result<T>> execute(Supplier<Result<T>> work) {
+    final CompletableFuture<Result<T>> future = new CompletableFuture<>();
+    final long queuedAt = System.nanoTime();
+    final Context context = Vertx.currentContext();
+
+    try {
+      executor.execute(() -> run(work, future, context, queuedAt));
+    }
+    catch (RejectedExecutionException e) {
+      rejected.incrementAndGet();
+
+      log.warn("Circulation rules execution pool is full, {} tasks are waiting",
+        executor.getQueue().size());
+
+      return completedFuture(failed(new ServerErrorFailure(
+        "Too many circulation rules evaluations are waiting to be run")));
+    }
+
+    return future;
+  }
+
+  private <T> void run(Supplier<Result<T>> work,
+    CompletableFuture<Result<T>> future, Context context, long queuedAt) {
+
+    final long startedAt = System.nanoTime();
+
+    Result<T> result = null;
+    Exception exception = null;
+
+    try {
+      result = work.get();
+    }
+    catch (Exception e) {
+      exception = e;
+    }
+    finally {
+      recordTimings(queuedAt, startedAt, System.nanoTime());
+    }
+
+    complete(future, context, result, exception);
+  }
+
+  private static <T> void complete(CompletableFuture<Result<T>> future,
+    Context context, Result<T> result, Exception exception) {
+
+    if (context == null) {
+      completeNow(future, result, exception);
+    }
+    else {
+      context.runOnContext(notUsed -> completeNow(future, result, exception));
+    }
+  }
+
+  private static <T> void completeNow(CompletableFuture<Result<T>> future,
+    Result<T> result, Exception exception) {
+
+    if (exception == null) {
+      future.complete(result);
+    }
+    else {
+      future.completeExceptionally(exception);
+    }
+  }
+
+  private void recordTimings(long queuedAt, long startedAt, long finishedAt) {
+    final long queueing = (startedAt - queuedAt) / 1_000_000;
+    final long execution = (finishedAt - startedAt) / 1_000_000;
+
+    completed.incrementAndGet();
+    totalQueueingMilliseconds.addAndGet(queueing);
+    maximumQueueingMilliseconds.accumulate(queueing);
+    totalExecutionMilliseconds.addAndGet(execution);
+    maximumExecutionMilliseconds.accumulate(execution);
+
+    if (execution > slowExecutionMilliseconds) {
+      log.warn("Circulation rules took {} ms to run after waiting {} ms",
+        execution, queueing);
+    }
+  }
+
+  public Metrics getMetrics() {
+    final long completedCount = completed.get();
+
+    return new Metrics(executor.getQueue().size(), executor.getActiveCount(),
+      completedCount, rejected.get(),
+      average(totalQueueingMilliseconds.get(), completedCount),
+      maximumQueueingMilliseconds.get(),
+      average(totalExecutionMilliseconds.get(), completedCount),
+      maximumExecutionMilliseconds.get());
+  }
+
+  private static long average(long total, long count) {
+    return count == 0 ? 0 : total / count;
+  }
+
+  private static class RulesThreadFactory implements ThreadFactory {
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      final Thread thread = new Thread(runnable,
+        "circulation-rules-" + threadCount.incrementAndGet());
+
+      thread.setDaemon(true);
+
+      return thread;
+    }
+  }
+
+  public static class Metrics {
+    private final int queueDepth;
+    private final int active;
+    private final long completed;
+    private final long rejected;
+    private final long averageQueueingMilliseconds;
+    private final long maximumQueueingMilliseconds;
+    private final long averageExecutionMilliseconds;
+    private final long maximumExecutionMilliseconds;
+
+    private Metrics(int queueDepth, int active, long completed, long rejected,
+      long averageQueueingMilliseconds, long maximumQueueingMilliseconds,
+      long averageExecutionMilliseconds, long maximumExecutionMilliseconds) {
+
+      this.queueDepth = queueDepth;
+      this.active = active;
+      this.completed = completed;
+      this.rejected = rejected;
+      this.averageQueueingMilliseconds = averageQueueingMilliseconds;
+      this.maximumQueueingMilliseconds = maximumQueueingMilliseconds;
+      this.averageExecutionMilliseconds = averageExecutionMilliseconds;
+      this.maximumExecutionMilliseconds = maximumExecutionMilliseconds;
+    }
+
+    public int getQueueDepth() {
+      return queueDepth;
+    }
+
+    public int getActive() {
+      return active;
+    }
+
+    public long getCompleted() {
+      return completed;
+    }
+
+    public long getRejected() {
+      return rejected;
+    }
+
+    public long getAverageQueueingMilliseconds() {
+      return averageQueueingMilliseconds;
+    }
+
+    public long getMaximumQueueingMilliseconds() {
+      return maximumQueueingMilliseconds;
+    }
+
+    public long getAverageExecutionMilliseconds() {
+      return averageExecutionMilliseconds;
+    }
+
+    public long getMaximumExecutionMilliseconds() {
+      return maximumExecutionMilliseconds;
+    }
+
+    @Override
+    public String toString() {
+      return new ToStringBuilder(this)
+        .append("queueDepth", queueDepth)
+        .append("active", active)
+        .append("completed", completed)
+        .append("rejected", rejected)
+        .append("averageQueueingMilliseconds", averageQueueingMilliseconds)
+        .append("maximumQueueingMilliseconds", maximumQueueingMilliseconds)
+        .append("averageExecutionMilliseconds", averageExecutionMilliseconds)
+        .append("maximumExecutionMilliseconds", maximumExecutionMilliseconds)
+        .toString();
+    }
+  }
+}
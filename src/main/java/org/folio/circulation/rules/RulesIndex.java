@@ -0,0 +1,253 @@
+package org.folio.circulation.rules;
+
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.ITEM_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOAN_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOCATION_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.PATRON_TYPE_ID_NAME;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.folio.circulation.domain.Location;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Finds every rule line that matches a set of parameters, in the same order
+ * Drools fires them, without creating a Drools session.
+ *
+ * For each criterium type the index holds, for every id mentioned in the rules,
+ * the set of lines whose conditions for that type are met by the id, and the set
+ * of lines met by any other id. The lines matching a set of parameters are the
+ * intersection of the seven sets for the ids in the parameters.
+ */
+public class RulesIndex {
+  /** criterium type letters, in the order of the ids passed to matchingLines */
+  private static final String[] CRITERIUM_TYPES = {"t", "a", "b", "c", "s", "m", "g"};
+
+  /** lines in decreasing salience, the position of a line is its bit in the sets */
+  private final List<Line> lines;
+  private final List<CriteriumIndex> criteriumIndexes = new ArrayList<>();
+
+  RulesIndex(List<Line> lines) {
+    this.lines = new ArrayList<>(lines);
+    this.lines.sort(Comparator.comparingInt((Line line) -> line.salience).reversed());
+
+    for (String criteriumType : CRITERIUM_TYPES) {
+      criteriumIndexes.add(new CriteriumIndex(criteriumType, this.lines));
+    }
+  }
+
+  /**
+   * Return all loan policies in the order they match.
+   * @param params request params
+   * @param location - location with institution, library and campus
+   * @return matches, each match has a loanPolicyId and a circulationRuleLine field
+   */
+  public JsonArray loanPolicies(MultiMap params, Location location) {
+    return policies(params, location, "l", "loanPolicyId");
+  }
+
+  /**
+   * Return all request policies in the order they match.
+   * @param params request params
+   * @param location - location with institution, library and campus
+   * @return matches, each match has a requestPolicyId and a circulationRuleLine field
+   */
+  public JsonArray requestPolicies(MultiMap params, Location location) {
+    return policies(params, location, "r", "requestPolicyId");
+  }
+
+  /**
+   * Return all notice policies in the order they match.
+   * @param params request params
+   * @param location - location with institution, library and campus
+   * @return matches, each match has a noticePolicyId and a circulationRuleLine field
+   */
+  public JsonArray noticePolicies(MultiMap params, Location location) {
+    return policies(params, location, "n", "noticePolicyId");
+  }
+
+  /**
+   * Return all overdue fine policies in the order they match.
+   * @param params request params
+   * @param location - location with institution, library and campus
+   * @return matches, each match has a overduePolicyId and a circulationRuleLine field
+   */
+  public JsonArray overduePolicies(MultiMap params, Location location) {
+    return policies(params, location, "o", "overduePolicyId");
+  }
+
+  /**
+   * Return all lost item fee policies in the order they match.
+   * @param params request params
+   * @param location - location with institution, library and campus
+   * @return matches, each match has a lostItemPolicyId and a circulationRuleLine field
+   */
+  public JsonArray lostItemPolicies(MultiMap params, Location location) {
+    return policies(params, location, "i", "lostItemPolicyId");
+  }
+
+  /**
+   * Return the policies that will be applied, those of the matching line
+   * with the highest priority.
+   * @param params request params
+   * @param location - location with institution, library and campus
+   * @return policy id by policy type letter (l, r, n, o or i)
+   */
+  public Map<String, String> appliedPolicies(MultiMap params, Location location) {
+    final int first = matchingLines(params, location).nextSetBit(0);
+
+    return first < 0 ? Map.of() : Collections.unmodifiableMap(lines.get(first).policies);
+  }
+
+  private JsonArray policies(MultiMap params, Location location,
+    String policyType, String policyIdKey) {
+
+    final BitSet matching = matchingLines(params, location);
+
+    final JsonArray array = new JsonArray();
+
+    for (int i = matching.nextSetBit(0); i >= 0; i = matching.nextSetBit(i + 1)) {
+      final Line line = lines.get(i);
+
+      array.add(new JsonObject()
+        .put(policyIdKey, line.policies.get(policyType))
+        .put("circulationRuleLine", line.lineNumber));
+    }
+
+    return array;
+  }
+
+  private BitSet matchingLines(MultiMap params, Location location) {
+    return matchingLines(params.get(LOAN_TYPE_ID_NAME),
+      location.getInstitutionId(), location.getCampusId(), location.getLibraryId(),
+      params.get(LOCATION_ID_NAME), params.get(ITEM_TYPE_ID_NAME),
+      params.get(PATRON_TYPE_ID_NAME));
+  }
+
+  /**
+   * @param ids one id for each criterium type, in the order of CRITERIUM_TYPES
+   */
+  private BitSet matchingLines(String... ids) {
+    final BitSet matching = new BitSet(lines.size());
+
+    matching.set(0, lines.size());
+
+    for (int i = 0; i < ids.length; i++) {
+      matching.and(criteriumIndexes.get(i).linesMatching(ids[i]));
+    }
+
+    return matching;
+  }
+
+  private static class CriteriumIndex {
+    private final Map<String, BitSet> linesById = new HashMap<>();
+    private final BitSet linesForOtherIds = new BitSet();
+
+    private CriteriumIndex(String criteriumType, List<Line> lines) {
+      final Set<String> mentionedIds = new HashSet<>();
+
+      lines.forEach(line -> line.conditions(criteriumType)
+        .forEach(condition -> mentionedIds.addAll(condition.ids)));
+
+      mentionedIds.forEach(id -> linesById.put(id, new BitSet(lines.size())));
+
+      for (int i = 0; i < lines.size(); i++) {
+        final List<Condition> conditions = lines.get(i).conditions(criteriumType);
+
+        if (conditions.stream().allMatch(condition -> condition.isMetBy(null))) {
+          linesForOtherIds.set(i);
+        }
+
+        for (Map.Entry<String, BitSet> entry : linesById.entrySet()) {
+          final String id = entry.getKey();
+
+          if (conditions.stream().allMatch(condition -> condition.isMetBy(id))) {
+            entry.getValue().set(i);
+          }
+        }
+      }
+    }
+
+    private BitSet linesMatching(String id) {
+      return id == null ? linesForOtherIds : linesById.getOrDefault(id, linesForOtherIds);
+    }
+  }
+
+  /**
+   * A rule line with all of the conditions leading to it, including those
+   * of the lines it is indented beneath
+   */
+  static class Line {
+    private final int lineNumber;
+    private final int salience;
+    private final List<Condition> conditions;
+    /** policy id by policy type letter */
+    private final Map<String, String> policies;
+
+    Line(int lineNumber, int salience, List<Condition> conditions,
+      Map<String, String> policies) {
+
+      this.lineNumber = lineNumber;
+      this.salience = salience;
+      this.conditions = new ArrayList<>(conditions);
+      this.policies = new HashMap<>(policies);
+    }
+
+    private List<Condition> conditions(String criteriumType) {
+      final List<Condition> conditionsOfType = new ArrayList<>();
+
+      conditions.stream()
+        .filter(condition -> condition.criteriumType.equals(criteriumType))
+        .forEach(conditionsOfType::add);
+
+      return conditionsOfType;
+    }
+  }
+
+  /**
+   * A single criterium of a rule line, either matching all ids,
+   * the listed ids or, when negated, any id except the listed ones
+   */
+  static class Condition {
+    private final String criteriumType;
+    private final boolean negated;
+    /** empty when the condition matches all ids */
+    private final Set<String> ids;
+
+    private Condition(String criteriumType, boolean negated, Set<String> ids) {
+      this.criteriumType = criteriumType;
+      this.negated = negated;
+      this.ids = new HashSet<>(ids);
+    }
+
+    static Condition all(String criteriumType) {
+      return new Condition(criteriumType, true, Set.of());
+    }
+
+    static Condition anyOf(String criteriumType, Set<String> ids) {
+      return new Condition(criteriumType, false, ids);
+    }
+
+    static Condition noneOf(String criteriumType, Set<String> ids) {
+      return new Condition(criteriumType, true, ids);
+    }
+
+    /**
+     * A missing id (null) does not equal any listed id, the same as in Drools
+     */
+    private boolean isMetBy(String id) {
+      return negated != (id != null && ids.contains(id));
+    }
+  }
+}
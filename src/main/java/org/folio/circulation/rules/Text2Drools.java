@@ -3,8 +3,11 @@ package org.folio.circulation.rules;
 import static java.util.Collections.emptySet;
 import static org.apache.commons.text.StringEscapeUtils.escapeJava;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +35,8 @@ import org.folio.circulation.rules.CirculationRulesParser.PolicyContext;
 import org.folio.circulation.rules.CirculationRulesParser.SevenCriteriumLettersContext;
 import org.folio.circulation.rules.CirculationRulesParser.ThreePrioritiesContext;
 import org.folio.circulation.rules.CirculationRulesParser.TwoPrioritiesContext;
+import org.folio.circulation.rules.RulesIndex.Condition;
+import org.folio.circulation.rules.RulesIndex.Line;
 
 /**
  * Convert a circulation rules text in FOLIO format into a drools rules text.
@@ -78,13 +83,23 @@ public class Text2Drools extends CirculationRulesBaseListener {
 
   */
 
+  /** stands for the package name in a block's rules, until the name is known */
+  private static final String PACKAGE_NAME_PLACEHOLDER = "%PACKAGE%";
+
   private static final Matcher defaultMatcher = new Matcher(0, emptySet(), 0, null);
 
-  private final StringBuilder drools = new StringBuilder(
-      "package circulationrules\n" +
-      "import org.folio.circulation.rules.*\n" +
-      "global Match match\n" +
-      "\n");
+  private final StringBuilder drools = new StringBuilder(packageHeader("circulationrules"));
+
+  /** the same rules as the drools text, split into a package for each top level block */
+  private final Map<String, String> packages = new LinkedHashMap<>();
+  /** the line each package's block starts on, by package name */
+  private final Map<String, Integer> packageFirstLines = new HashMap<>();
+  /** rules of the current top level block, with lines relative to its first line */
+  private StringBuilder currentBlock;
+  private int currentBlockFirstLine;
+
+  /** the same rules as the drools text, for building a RulesIndex */
+  private final List<Line> lines = new ArrayList<>();
 
   private final LinkedList<Matcher> stack = new LinkedList<>();
   private final String[] policyTypes = {"l", "r", "n", "o", "i"};
@@ -125,7 +140,90 @@ public class Text2Drools extends CirculationRulesBaseListener {
     return getDroolsRepresentation(text, text2drools);
   }
 
+  /**
+   * Convert circulation rules from FOLIO text format into an index
+   * for finding all of the lines that match.
+   * @param text String with a circulation rules file in FOLIO syntax.
+   * @return index of the rule lines
+   */
+  public static RulesIndex index(String text) {
+    Text2Drools text2drools = new Text2Drools((policyType, policies, token) -> {});
+    walk(text, text2drools);
+
+    return new RulesIndex(text2drools.lines);
+  }
+
+  /**
+   * Convert circulation rules from FOLIO text format into Drools packages,
+   * one for each top level line and the lines indented beneath it,
+   * and an index for finding all of the lines that match.
+   *
+   * A package is named after the hash of its rules, and the rules refer to their
+   * lines relative to the start of the block (see {@link Match#lineOf}),
+   * so a package only changes when the lines in the block or the priorities change,
+   * and unchanged packages can be reused from a previous conversion
+   * even when lines have been added or removed elsewhere.
+   * @param text String with a circulation rules file in FOLIO syntax.
+   * @return Drools packages, the line each starts on and index of the rule lines
+   */
+  public static ConvertedRules convertToPackages(String text) {
+    Text2Drools text2drools = new Text2Drools((policyType, policies, token) -> {});
+    walk(text, text2drools);
+    text2drools.finishBlock();
+
+    return new ConvertedRules(text2drools.packages, text2drools.packageFirstLines,
+      new RulesIndex(text2drools.lines));
+  }
+
+  private static String packageHeader(String packageName) {
+    return "package " + packageName + "\n" +
+      "import org.folio.circulation.rules.*\n" +
+      "global Match match\n" +
+      "\n";
+  }
+
+  private void startBlock(int line) {
+    finishBlock();
+
+    currentBlock = new StringBuilder();
+    currentBlockFirstLine = line;
+  }
+
+  /**
+   * Adds the rules of the current block as a package, named by the hash
+   * of the rules, a block without any policies does not generate any rules
+   */
+  private void finishBlock() {
+    if (currentBlock == null || currentBlock.length() == 0) {
+      return;
+    }
+
+    final String rules = currentBlock.toString();
+    final String hashedName = "circulationrules.block"
+      + Integer.toHexString(rules.hashCode());
+
+    // blocks with the same rules, or the same hash, still need different packages
+    String packageName = hashedName;
+
+    for (int occurrence = 2; packages.containsKey(packageName); occurrence++) {
+      packageName = hashedName + "_" + occurrence;
+    }
+
+    packages.put(packageName, packageHeader(packageName)
+      + rules.replace(PACKAGE_NAME_PLACEHOLDER, packageName));
+
+    packageFirstLines.put(packageName, currentBlockFirstLine);
+
+    currentBlock = null;
+  }
+
   private static String getDroolsRepresentation(String text, Text2Drools text2drools) {
+    walk(text, text2drools);
+
+    return text2drools.drools.toString();
+  }
+
+  private static void walk(String text, Text2Drools text2drools) {
     CharStream input = CharStreams.fromString(text);
     CirculationRulesLexer lexer = new CirculationRulesLexer(input);
     CommonTokenStream tokens = new CommonTokenStream(lexer);
@@ -135,8 +233,6 @@ public class Text2Drools extends CirculationRulesBaseListener {
     CirculationRulesFileContext entryPoint = parser.circulationRulesFile();
     ParseTreeWalker walker = new ParseTreeWalker();
     walker.walk(text2drools, entryPoint);
-
-    return text2drools.drools.toString();
   }
 
   /**
@@ -250,6 +346,7 @@ public class Text2Drools extends CirculationRulesBaseListener {
 
     // Generate fallback rule
     popObsoleteMatchers();
+    startBlock(token.getLine());
     generateRule(ctx.policies());
   }
 
@@ -291,6 +388,10 @@ public class Text2Drools extends CirculationRulesBaseListener {
   public void exitExpr(ExprContext expr) {
     popObsoleteMatchers();
 
+    if (stack.isEmpty()) {
+      startBlock(expr.getStart().getLine());
+    }
+
     Matcher previousMatcher = stack.peek();
 
     if (previousMatcher == null) {
@@ -316,21 +417,50 @@ public class Text2Drools extends CirculationRulesBaseListener {
     }
 
     int line = policies.getStart().getLine();
-    drools.append("rule \"line ").append(line).append("\"\n");
-    drools.append("  salience ").append(getSalience(line)).append("\n");
-    drools.append("  when\n");
-    stack.descendingIterator().forEachRemaining(matcher -> drools.append(matcher.drools));
-    drools.append("  then\n");
+    int salience = getSalience(line);
+    List<Condition> conditions = new ArrayList<>();
+    Map<String, String> policyIds = new HashMap<>();
+    StringBuilder when = new StringBuilder();
+    StringBuilder then = new StringBuilder();
+
+    stack.descendingIterator().forEachRemaining(matcher -> {
+      when.append(matcher.drools);
+      conditions.addAll(matcher.conditions);
+    });
 
     for (PolicyContext policy : policies.policy()) {
-      drools.append(policyMatchString(policy));
-      appendQuotedString(drools, policy.NAME().getText());
-      drools.append(";\n");
+      then.append(policyMatchString(policy));
+      appendQuotedString(then, policy.NAME().getText());
+      then.append(";\n");
+      policyIds.put(policy.POLICY_TYPE().getText(), policy.NAME().getText());
     }
 
-    drools.append("    match.lineNumber = ").append(line).append(";\n");
-    drools.append("    drools.halt();\n");
-    drools.append("end\n\n");
+    drools.append(rule("line " + line, String.valueOf(salience),
+      String.valueOf(line), when, then));
+
+    // the line number and the salience are worked out when the rules are executed
+    final int lineInBlock = line - currentBlockFirstLine;
+    final String blockLineNumber = "match.lineOf(\"" + PACKAGE_NAME_PLACEHOLDER
+      + "\", " + lineInBlock + ")";
+
+    currentBlock.append(rule("block line " + lineInBlock,
+      getBlockSalience(blockLineNumber), blockLineNumber, when, then));
+
+    lines.add(new Line(line, salience, conditions, policyIds));
+  }
+
+  private static String rule(String name, String salience, String lineNumber,
+    CharSequence when, CharSequence then) {
+
+    return "rule \"" + name + "\"\n" +
+      "  salience " + salience + "\n" +
+      "  when\n" +
+      when +
+      "  then\n" +
+      then +
+      "    match.lineNumber = " + lineNumber + ";\n" +
+      "    drools.halt();\n" +
+      "end\n\n";
   }
 
   private static String policyMatchString(PolicyContext policy) {
@@ -351,16 +481,26 @@ public class Text2Drools extends CirculationRulesBaseListener {
   }
 
   private int getSalience(int line) {
-    int salience = line;
-    if (priority[2] == PriorityType.FIRST_LINE) {
-      salience = 10000000 - line;
-    }
+    return getCriteriaSalience() + (priority[2] == PriorityType.FIRST_LINE
+      ? 10000000 - line
+      : line);
+  }
 
+  /**
+   * The same salience as {@link #getSalience(int)}, as a Drools expression
+   * using a line number expression
+   */
+  private String getBlockSalience(String lineNumber) {
+    return priority[2] == PriorityType.FIRST_LINE
+      ? "(" + (getCriteriaSalience() + 10000000) + " - " + lineNumber + ")"
+      : "(" + getCriteriaSalience() + " + " + lineNumber + ")";
+  }
+
+  private int getCriteriaSalience() {
     Matcher matcher = stack.peek();
-    salience += priority(matcher, priority[1]) *  10000000;
-    salience += priority(matcher, priority[0]) * 100000000;
 
-    return salience;
+    return priority(matcher, priority[1]) * 10000000
+      + priority(matcher, priority[0]) * 100000000;
   }
 
   private static int priority(Matcher matcher, PriorityType type) {
@@ -408,6 +548,7 @@ public class Text2Drools extends CirculationRulesBaseListener {
 
     if (criteriumContext.all() != null) {
       matcher.drools.append("() // all\n");
+      matcher.conditions.add(Condition.all(criteriumTypeLetter));
       return;
     }
 
@@ -418,6 +559,12 @@ public class Text2Drools extends CirculationRulesBaseListener {
       not = true;
     }
 
+    Set<String> ids = new LinkedHashSet<>();
+    criteriumContext.NAME().forEach(name -> ids.add(name.getText()));
+    matcher.conditions.add(not
+      ? Condition.noneOf(criteriumTypeLetter, ids)
+      : Condition.anyOf(criteriumTypeLetter, ids));
+
     if (criteriumContext.NAME().size() == 1) {
       matcher.drools.append(not ? "(id != " : "(id == " );
       appendQuotedString(matcher.drools, criteriumContext.NAME(0).getText());
@@ -474,6 +621,7 @@ public class Text2Drools extends CirculationRulesBaseListener {
     Set<String> criteriaUsed = new HashSet<>(4);
     int maxCriteriumPriority;
     StringBuilder drools;
+    List<Condition> conditions = new ArrayList<>();
 
     public Matcher(int indentation, Set<String> criteriaUsed,
       int maxCriteriumPriority, StringBuilder drools) {
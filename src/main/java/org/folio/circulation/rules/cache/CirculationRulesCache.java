@@ -8,12 +8,18 @@ import static org.folio.circulation.support.results.Result.succeeded;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.lang.invoke.MethodHandles;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.folio.circulation.rules.ConvertedRules;
 import org.folio.circulation.rules.Drools;
 import org.folio.circulation.rules.ExecutableRules;
+import org.folio.circulation.rules.IncrementalDroolsCompiler;
+import org.folio.circulation.rules.RulesExecutionPool;
+import org.folio.circulation.rules.RulesIndex;
 import org.folio.circulation.rules.Text2Drools;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.ServerErrorFailure;
@@ -106,22 +112,62 @@ public final class CirculationRulesCache {
           return ofAsync(() -> rules);
         }
 
-        rules.rulesAsText = rulesAsText;
-        rules.rulesAsDrools = Text2Drools.convert(rulesAsText);
+        return RulesExecutionPool.getInstance()
+          .execute(() -> compileRules(rules, rulesAsText));
+      }));
+  }
 
-        log.info("rulesAsDrools = {}", rules.rulesAsDrools);
-        rules.drools = new Drools(rules.rulesAsDrools);
+  /**
+   * Converts and compiles the rules, only replacing the cached rules
+   * once they have been compiled successfully. Only the blocks of rules that
+   * have changed since the rules were last compiled are compiled again.
+   */
+  private Result<Rules> compileRules(Rules rules, String rulesAsText) {
+    final long startTime = System.currentTimeMillis();
+    final long allocatedBefore = allocatedBytes();
 
-        return ofAsync(() -> rules);
-      }));
+    final ConvertedRules convertedRules = Text2Drools.convertToPackages(rulesAsText);
+    final Drools drools = rules.compiler.compile(convertedRules);
+
+    rules.index = convertedRules.getIndex();
+    rules.drools = drools;
+    rules.rulesAsText = rulesAsText;
+
+    log.info("Compiled circulation rules in {} ms, allocating {} bytes",
+      System.currentTimeMillis() - startTime, allocatedBytes() - allocatedBefore);
+
+    return succeeded(rules);
+  }
+
+  /**
+   * @return bytes allocated by the current thread, 0 when this JVM cannot measure it
+   */
+  private static long allocatedBytes() {
+    final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    if (threads instanceof com.sun.management.ThreadMXBean) {
+      final com.sun.management.ThreadMXBean hotspotThreads =
+        (com.sun.management.ThreadMXBean) threads;
+
+      if (hotspotThreads.isThreadAllocatedMemorySupported()
+        && hotspotThreads.isThreadAllocatedMemoryEnabled()) {
+
+        return hotspotThreads.getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+    }
+
+    return 0;
   }
 
   public CompletableFuture<Result<ExecutableRules>> getExecutableRules(String tenantId,
     CollectionResourceClient circulationRulesClient) {
 
     return getDrools(tenantId, circulationRulesClient)
-      .thenApply(r -> r.map(drools ->
-        new ExecutableRules(rulesMap.get(tenantId).rulesAsText, drools)));
+      .thenApply(r -> r.map(drools -> {
+        final Rules rules = rulesMap.get(tenantId);
+
+        return new ExecutableRules(rules.rulesAsText, drools, rules.index);
+      }));
   }
 
   public CompletableFuture<Result<Drools>> getDrools(String tenantId,
@@ -153,8 +199,10 @@ public final class CirculationRulesCache {
 
   private class Rules {
     private volatile String rulesAsText = "";
-    private volatile String rulesAsDrools = "";
     private volatile Drools drools;
+    private volatile RulesIndex index;
+    /** keeps the compiled blocks of rules, so that only changed blocks are compiled */
+    private final IncrementalDroolsCompiler compiler = new IncrementalDroolsCompiler();
     /** System.currentTimeMillis() of the last load/reload of the rules from the storage */
     private volatile long reloadTimestamp;
     private volatile boolean reloadInitiated = false;
@@ -0,0 +1,396 @@
+package org.folio.circulation.services;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.AsyncCoordinationUtil.allOf;
+import static org.folio.circulation.support.BoundedConcurrency.atMost;
+import static org.folio.circulation.support.CqlSortBy.ascending;
+import static org.folio.circulation.support.fetching.RecordFetching.findWithMultipleCqlIndexValues;
+import static org.folio.circulation.support.http.client.CqlQuery.exactMatch;
+import static org.folio.circulation.support.http.client.CqlQuery.exactMatchAny;
+import static org.folio.circulation.support.http.client.CqlQuery.greaterThan;
+import static org.folio.circulation.support.http.client.PageLimit.limit;
+import static org.folio.circulation.support.json.JsonPropertyFetcher.getProperty;
+import static org.folio.circulation.support.results.Result.succeeded;
+import static org.folio.circulation.support.results.ResultBinding.mapResult;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.tuple.Triple;
+import org.folio.circulation.domain.Item;
+import org.folio.circulation.domain.Location;
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.domain.RequestStatus;
+import org.folio.circulation.domain.User;
+import org.folio.circulation.infrastructure.storage.inventory.LocationIndex;
+import org.folio.circulation.infrastructure.storage.users.UserRepository;
+import org.folio.circulation.rules.ExecutableRules;
+import org.folio.circulation.rules.RulesExecutionParameters;
+import org.folio.circulation.rules.RulesExecutionPool;
+import org.folio.circulation.rules.RulesIndex;
+import org.folio.circulation.rules.cache.CirculationRulesCache;
+import org.folio.circulation.support.BoundedConcurrency;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.CollectionResourceClient;
+import org.folio.circulation.support.http.client.CqlQuery;
+import org.folio.circulation.support.results.Result;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Works out which open loans and open requests would have a different policy
+ * applied if the circulation rules were replaced by candidate rules
+ *
+ * Open loans and requests are fetched one page at a time and collapsed into the
+ * distinct sets of parameters the rules are applied to, counting how many loans
+ * and requests share each set. Each set is then evaluated only once against both
+ * the current and the candidate rules, in chunks on the rules execution pool.
+ */
+public class CirculationRulesImpactAnalysis {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final int DEFAULT_PAGE_SIZE = 1000;
+  private static final int PARAMETERS_PER_EVALUATION = 250;
+  /** leaves the rest of the rules execution pool for loans and requests */
+  private static final BoundedConcurrency CONCURRENT_EVALUATIONS = atMost(2);
+
+  /** name used in the analysis for each policy type letter */
+  private static final Map<String, String> POLICY_TYPES = Map.of(
+    "l", "loanPolicy",
+    "r", "requestPolicy",
+    "n", "noticePolicy",
+    "o", "overdueFinePolicy",
+    "i", "lostItemPolicy");
+
+  private static final List<String> POLICY_TYPE_ORDER = List.of("l", "r", "n", "o", "i");
+
+  private final String tenantId;
+  private final CollectionResourceClient loansStorageClient;
+  private final CollectionResourceClient requestsStorageClient;
+  private final CollectionResourceClient itemsStorageClient;
+  private final CollectionResourceClient locationsStorageClient;
+  private final CollectionResourceClient circulationRulesStorageClient;
+  private final UserRepository userRepository;
+  private final int pageSize;
+
+  public CirculationRulesImpactAnalysis(Clients clients, int pageSize) {
+    this.tenantId = clients.getTenantId();
+    this.loansStorageClient = clients.loansStorage();
+    this.requestsStorageClient = clients.requestsStorage();
+    this.itemsStorageClient = clients.itemsStorage();
+    this.locationsStorageClient = clients.locationsStorage();
+    this.circulationRulesStorageClient = clients.circulationRulesStorage();
+    this.userRepository = new UserRepository(clients);
+    this.pageSize = pageSize;
+  }
+
+  public CirculationRulesImpactAnalysis(Clients clients) {
+    this(clients, DEFAULT_PAGE_SIZE);
+  }
+
+  /**
+   * @param candidateRules the rules that would replace the current rules
+   * @return summary of the open loans and requests that would have
+   * a different policy applied, grouped by policy type, current policy
+   * and candidate policy
+   */
+  public CompletableFuture<Result<JsonObject>> analyse(RulesIndex candidateRules) {
+    final ParameterTally tally = new ParameterTally();
+
+    final CompletableFuture<Result<RulesIndex>> currentRules = CirculationRulesCache
+      .getInstance().getExecutableRules(tenantId, circulationRulesStorageClient)
+      .thenApply(mapResult(ExecutableRules::getIndex));
+
+    final CompletableFuture<Result<Void>> loans = tallyAll(RecordType.LOAN,
+      loansStorageClient, exactMatch("status.name", "Open"), tally);
+
+    final CompletableFuture<Result<Void>> requests = tallyAll(RecordType.REQUEST,
+      requestsStorageClient, exactMatchAny("status", RequestStatus.openStates()), tally);
+
+    return loans
+      .thenCombine(requests, (loansResult, requestsResult) ->
+        loansResult.combine(requestsResult, (l, r) -> tally))
+      .thenCompose(r -> r.after(this::fetchLocations))
+      .thenCombine(currentRules, (locationsResult, currentRulesResult) ->
+        locationsResult.combine(currentRulesResult, (locations, current) ->
+          evaluateInChunks(tally, locations, current, candidateRules)))
+      .thenCompose(r -> r.after(changes -> changes))
+      .thenApply(mapResult(changes -> toJson(tally, changes)));
+  }
+
+  private CompletableFuture<Result<Void>> tallyAll(RecordType type,
+    CollectionResourceClient client, Result<CqlQuery> openQuery, ParameterTally tally) {
+
+    return tallyPages(type, client, openQuery, tally,
+      fetchPage(client, type, openQuery, null), 1);
+  }
+
+  /**
+   * The next page is fetched whilst the current page is being tallied
+   */
+  private CompletableFuture<Result<Void>> tallyPages(RecordType type,
+    CollectionResourceClient client, Result<CqlQuery> openQuery, ParameterTally tally,
+    CompletableFuture<Result<MultipleRecords<JsonObject>>> pageFetch, int pageNumber) {
+
+    return pageFetch.thenCompose(r -> r.after(page -> {
+      if (page.isEmpty()) {
+        return completedFuture(succeeded(null));
+      }
+
+      final CompletableFuture<Result<MultipleRecords<JsonObject>>> nextPageFetch =
+        page.getRecords().size() < pageSize
+          ? completedFuture(succeeded(MultipleRecords.empty()))
+          : fetchPage(client, type, openQuery, lastIdOf(page));
+
+      log.debug("Tallying {} open {} records on page {} for rules impact analysis",
+        page.getRecords().size(), type.recordsPropertyName, pageNumber);
+
+      return tallyPage(type, page, tally)
+        .thenCompose(tallied -> tallied.after(v -> tallyPages(type, client,
+          openQuery, tally, nextPageFetch, pageNumber + 1)));
+    }));
+  }
+
+  /**
+   * Pages are found using the id of the last record on the previous page,
+   * rather than an offset, which gets slower the further through the records it is
+   */
+  private CompletableFuture<Result<MultipleRecords<JsonObject>>> fetchPage(
+    CollectionResourceClient client, RecordType type, Result<CqlQuery> openQuery,
+    String lastId) {
+
+    final Result<CqlQuery> query = lastId == null
+      ? openQuery
+      : openQuery.combine(greaterThan("id", lastId), CqlQuery::and);
+
+    return query.map(q -> q.sortBy(ascending("id")))
+      .after(q -> client.getMany(q, limit(pageSize)))
+      .thenApply(r -> r.next(response -> MultipleRecords.from(response,
+        record -> record, type.recordsPropertyName)));
+  }
+
+  private CompletableFuture<Result<Void>> tallyPage(RecordType type,
+    MultipleRecords<JsonObject> page, ParameterTally tally) {
+
+    final Set<String> itemIds = page.getRecords().stream()
+      .map(record -> getProperty(record, "itemId"))
+      .collect(Collectors.toSet());
+
+    final Set<String> userIds = page.getRecords().stream()
+      .map(record -> getProperty(record, type.userIdPropertyName))
+      .collect(Collectors.toSet());
+
+    final CompletableFuture<Result<Map<String, Item>>> items =
+      findWithMultipleCqlIndexValues(itemsStorageClient, "items", Item::from)
+        .findByIds(itemIds)
+        .thenApply(mapResult(records -> records.toMap(Item::getItemId)));
+
+    return items
+      .thenCombine(userRepository.getUsersForUserIds(userIds),
+        (itemsResult, usersResult) -> itemsResult.combine(usersResult,
+          (itemsById, usersById) -> {
+            page.getRecords().forEach(record -> tally.add(type,
+              itemsById.get(getProperty(record, "itemId")),
+              usersById.get(getProperty(record, type.userIdPropertyName))));
+
+            return null;
+          }));
+  }
+
+  private CompletableFuture<Result<Map<String, Location>>> fetchLocations(
+    ParameterTally tally) {
+
+    final Set<String> locationIds = tally.usage.keySet().stream()
+      .map(RulesExecutionParameters::getLocationId)
+      .collect(Collectors.toSet());
+
+    return LocationIndex.getInstance()
+      .getLocations(tenantId, locationsStorageClient, locationIds);
+  }
+
+  private CompletableFuture<Result<Map<Triple<String, String, String>, Usage>>> evaluateInChunks(
+    ParameterTally tally, Map<String, Location> locations, RulesIndex currentRules,
+    RulesIndex candidateRules) {
+
+    final List<Map.Entry<RulesExecutionParameters, Usage>> entries =
+      new ArrayList<>(tally.usage.entrySet());
+
+    final List<List<Map.Entry<RulesExecutionParameters, Usage>>> chunks = new ArrayList<>();
+
+    for (int start = 0; start < entries.size(); start += PARAMETERS_PER_EVALUATION) {
+      chunks.add(entries.subList(start,
+        Math.min(entries.size(), start + PARAMETERS_PER_EVALUATION)));
+    }
+
+    log.info("Evaluating {} distinct sets of parameters in {} chunks for rules impact analysis",
+      entries.size(), chunks.size());
+
+    return allOf(chunks, chunk -> RulesExecutionPool.getInstance().execute(
+      () -> succeeded(evaluate(chunk, tally, locations, currentRules, candidateRules))),
+      CONCURRENT_EVALUATIONS)
+      .thenApply(mapResult(CirculationRulesImpactAnalysis::mergeChanges));
+  }
+
+  /**
+   * @return usage by policy type, current policy id and candidate policy id,
+   * only for the policies that are different
+   */
+  private static Map<Triple<String, String, String>, Usage> evaluate(
+    List<Map.Entry<RulesExecutionParameters, Usage>> chunk, ParameterTally tally,
+    Map<String, Location> locations, RulesIndex currentRules, RulesIndex candidateRules) {
+
+    final Map<Triple<String, String, String>, Usage> changes = new HashMap<>();
+
+    for (Map.Entry<RulesExecutionParameters, Usage> entry : chunk) {
+      final RulesExecutionParameters parameters = entry.getKey();
+      final Location location = locations.get(parameters.getLocationId());
+
+      if (location == null) {
+        tally.notAnalysed(entry.getValue());
+        continue;
+      }
+
+      final Map<String, String> current = currentRules.appliedPolicies(
+        parameters.toMap(), location);
+
+      final Map<String, String> candidate = candidateRules.appliedPolicies(
+        parameters.toMap(), location);
+
+      for (String policyType : POLICY_TYPE_ORDER) {
+        final String currentPolicyId = current.get(policyType);
+        final String candidatePolicyId = candidate.get(policyType);
+
+        if (!Objects.equals(currentPolicyId, candidatePolicyId)) {
+          changes.computeIfAbsent(Triple.of(policyType, currentPolicyId, candidatePolicyId),
+            key -> new Usage()).add(entry.getValue());
+        }
+      }
+    }
+
+    return changes;
+  }
+
+  private static Map<Triple<String, String, String>, Usage> mergeChanges(
+    List<Map<Triple<String, String, String>, Usage>> chunkChanges) {
+
+    final Map<Triple<String, String, String>, Usage> changes = new HashMap<>();
+
+    chunkChanges.forEach(chunk -> chunk.forEach((change, usage) ->
+      changes.computeIfAbsent(change, key -> new Usage()).add(usage)));
+
+    return changes;
+  }
+
+  private static JsonObject toJson(ParameterTally tally,
+    Map<Triple<String, String, String>, Usage> changes) {
+
+    final JsonArray policyChanges = new JsonArray();
+
+    changes.entrySet().stream()
+      .sorted(Comparator.comparing(
+          (Map.Entry<Triple<String, String, String>, Usage> entry) ->
+            POLICY_TYPE_ORDER.indexOf(entry.getKey().getLeft()))
+        .thenComparing(entry -> -entry.getValue().total()))
+      .forEach(entry -> policyChanges.add(new JsonObject()
+        .put("policyType", POLICY_TYPES.get(entry.getKey().getLeft()))
+        .put("currentPolicyId", entry.getKey().getMiddle())
+        .put("candidatePolicyId", entry.getKey().getRight())
+        .put("openLoans", entry.getValue().loans)
+        .put("openRequests", entry.getValue().requests)));
+
+    return new JsonObject()
+      .put("openLoans", tally.total.loans)
+      .put("openRequests", tally.total.requests)
+      .put("distinctParameters", tally.usage.size())
+      .put("notAnalysed", new JsonObject()
+        .put("openLoans", tally.notAnalysed.loans)
+        .put("openRequests", tally.notAnalysed.requests))
+      .put("policyChanges", policyChanges);
+  }
+
+  private static String lastIdOf(MultipleRecords<JsonObject> page) {
+    final List<JsonObject> records = new ArrayList<>(page.getRecords());
+
+    return getProperty(records.get(records.size() - 1), "id");
+  }
+
+  private enum RecordType {
+    LOAN("loans", "userId"),
+    REQUEST("requests", "requesterId");
+
+    private final String recordsPropertyName;
+    private final String userIdPropertyName;
+
+    RecordType(String recordsPropertyName, String userIdPropertyName) {
+      this.recordsPropertyName = recordsPropertyName;
+      this.userIdPropertyName = userIdPropertyName;
+    }
+  }
+
+  /**
+   * How many of the open loans and requests share the same parameters,
+   * loans and requests are tallied from different threads
+   */
+  private static class ParameterTally {
+    private final Map<RulesExecutionParameters, Usage> usage = new HashMap<>();
+    private final Usage total = new Usage();
+    private final Usage notAnalysed = new Usage();
+
+    private synchronized void add(RecordType type, Item item, User user) {
+      final Usage recordUsage = Usage.of(type);
+
+      total.add(recordUsage);
+
+      // the item or user no longer exists, so the rules cannot be applied
+      if (item == null || user == null) {
+        notAnalysed.add(recordUsage);
+        return;
+      }
+
+      usage.computeIfAbsent(RulesExecutionParameters.forItem(item, user),
+        parameters -> new Usage()).add(recordUsage);
+    }
+
+    private synchronized void notAnalysed(Usage parametersUsage) {
+      notAnalysed.add(parametersUsage);
+    }
+  }
+
+  private static class Usage {
+    private long loans;
+    private long requests;
+
+    private static Usage of(RecordType type) {
+      final Usage usage = new Usage();
+
+      if (type == RecordType.LOAN) {
+        usage.loans = 1;
+      }
+      else {
+        usage.requests = 1;
+      }
+
+      return usage;
+    }
+
+    private void add(Usage other) {
+      loans += other.loans;
+      requests += other.requests;
+    }
+
+    private long total() {
+      return loans + requests;
+    }
+  }
+}
@@ -51,13 +51,15 @@ public class EventPublisher {
     "Failed to publish {} event: loan is null";
 
   private final PubSubPublishingService pubSubPublishingService;
+  private final EventPublishingQueue publishingQueue;
 
   public EventPublisher(RoutingContext routingContext) {
-    pubSubPublishingService = new PubSubPublishingService(routingContext);
+    this(new PubSubPublishingService(routingContext));
   }
 
   public EventPublisher(PubSubPublishingService pubSubPublishingService) {
     this.pubSubPublishingService = pubSubPublishingService;
+    this.publishingQueue = EventPublishingQueue.getInstance();
   }
 
   public CompletableFuture<Result<LoanAndRelatedRecords>> publishItemCheckedOutEvent(
@@ -72,10 +74,9 @@ public class EventPublisher {
       write(payloadJsonObject, DUE_DATE_FIELD, loan.getDueDate());
 
       JsonObject logEventPayload = mapToCheckOutLogEventJson(loanAndRelatedRecords);
-      CompletableFuture.runAsync(() -> pubSubPublishingService.publishEvent(LOG_RECORD.name(), logEventPayload.encode()));
+      publish(LOG_RECORD.name(), logEventPayload.encode());
 
-      return pubSubPublishingService.publishEvent(ITEM_CHECKED_OUT.name(), payloadJsonObject.encode())
-        .thenApply(r -> succeeded(loanAndRelatedRecords));
+      publish(ITEM_CHECKED_OUT.name(), payloadJsonObject.encode());
     }
     else {
       logger.error(FAILED_TO_PUBLISH_LOG_TEMPLATE, ITEM_CHECKED_OUT.name());
@@ -96,12 +97,9 @@ public class EventPublisher {
       write(payloadJsonObject, RETURN_DATE_FIELD, loan.getReturnDate());
 
       JsonObject logEventPayload = mapToCheckInLogEventJson(checkInContext);
-      CompletableFuture.runAsync(() -> pubSubPublishingService.publishEvent(LOG_RECORD.name(), logEventPayload.encode()));
+      publish(LOG_RECORD.name(), logEventPayload.encode());
 
-      return
-        pubSubPublishingService.publishEvent(ITEM_CHECKED_IN.name(),
-        payloadJsonObject.encode())
-        .thenApply(r -> succeeded(checkInContext));
+      publish(ITEM_CHECKED_IN.name(), payloadJsonObject.encode());
     }
     else {
       logger.error(FAILED_TO_PUBLISH_LOG_TEMPLATE, ITEM_CHECKED_IN.name());
@@ -128,14 +126,15 @@ public class EventPublisher {
 
     LoanLogContext loanLogContext = LoanLogContext.from(loan)
       .withDescription(String.format("Additional information: %s", loan.getActionComment()));
-    CompletableFuture.runAsync(() -> publishLogRecord(loanLogContext.asJson(), LOAN));
+    publishLogRecord(loanLogContext.asJson(), LOAN);
 
     JsonObject payloadJson = new JsonObject();
     write(payloadJson, USER_ID_FIELD, loan.getUserId());
     write(payloadJson, LOAN_ID_FIELD, loan.getId());
 
-    return pubSubPublishingService.publishEvent(eventName, payloadJson.encode())
-      .thenApply(r -> succeeded(loan));
+    publish(eventName, payloadJson.encode());
+
+    return completedFuture(succeeded(loan));
   }
 
   private CompletableFuture<Result<Loan>> publishDueDateChangedEvent(Loan loan) {
@@ -150,11 +149,11 @@ public class EventPublisher {
           .withAction(LogContextActionResolver.resolveAction(loan.getAction()))
           .withDescription(String.format("New due date: %s (from %s)",
             loan.getDueDate(), loan.getOriginalDueDate()));
-        CompletableFuture.runAsync(() -> publishLogRecord(loanLogContext.asJson(), LOAN));
+        publishLogRecord(loanLogContext.asJson(), LOAN);
+
+      publish(LOAN_DUE_DATE_CHANGED.name(), payloadJsonObject.encode());
 
-      return pubSubPublishingService.publishEvent(LOAN_DUE_DATE_CHANGED.name(),
-        payloadJsonObject.encode())
-        .thenApply(r -> succeeded(loan));
+      return completedFuture(succeeded(loan));
     }
     else {
       logger.error(FAILED_TO_PUBLISH_LOG_TEMPLATE, LOAN_DUE_DATE_CHANGED.name());
@@ -181,7 +180,7 @@ public class EventPublisher {
       .withAction(LogContextActionResolver.resolveAction(renewalContext.getLoan().getAction()))
       .withDescription(String.format("New due date: %s (from %s)", renewalContext.getLoan().getDueDate(),
         renewalContext.getLoanBeforeRenewal().getDueDate()));
-    CompletableFuture.runAsync(() -> publishLogRecord(loanLogContext.asJson(), LOAN));
+    publishLogRecord(loanLogContext.asJson(), LOAN);
 
     publishDueDateChangedEvent(renewalContext.getLoan());
 
@@ -214,9 +213,10 @@ public class EventPublisher {
   }
 
   public CompletableFuture<Result<Loan>> publishMarkedAsMissingLoanEvent(Loan loan) {
-    return publishLogRecord(LoanLogContext.from(loan)
-      .withDescription(String.format("Additional information: %s", loan.getActionComment())).asJson(), LOAN)
-      .thenApply(r -> r.map(v -> loan));
+    publishLogRecord(LoanLogContext.from(loan)
+      .withDescription(String.format("Additional information: %s", loan.getActionComment())).asJson(), LOAN);
+
+    return completedFuture(succeeded(loan));
   }
 
   public CompletableFuture<Result<LoanAnonymizationRecords>> publishAnonymizeEvents(LoanAnonymizationRecords records) {
@@ -236,12 +236,21 @@ public class EventPublisher {
 
   public CompletableFuture<Result<Void>> publishLogRecord(JsonObject context, LogEventType payloadType) {
     write(context, LOG_EVENT_TYPE.value(), payloadType.value());
-    return pubSubPublishingService.publishEvent(LOG_RECORD.name(), context.encode())
-      .thenApply(r -> succeeded(null));
+    publish(LOG_RECORD.name(), context.encode());
+
+    return completedFuture(succeeded(null));
+  }
+
+  /**
+   * Queues the event to be published, without waiting for it to be published,
+   * the queue logs any event that cannot be published
+   */
+  private void publish(String eventType, String payload) {
+    publishingQueue.publish(pubSubPublishingService, eventType, payload);
   }
 
   public RequestAndRelatedRecords publishLogRecordAsync(RequestAndRelatedRecords requestAndRelatedRecords, Request originalRequest, LogEventType logEventType) {
-    CompletableFuture.runAsync(() -> publishLogRecord(mapToRequestLogEventJson(originalRequest, requestAndRelatedRecords.getRequest()), logEventType));
+    publishLogRecord(mapToRequestLogEventJson(originalRequest, requestAndRelatedRecords.getRequest()), logEventType);
     return requestAndRelatedRecords;
   }
 }
@@ -0,0 +1,445 @@
+package org.folio.circulation.services;
+
+import static org.folio.circulation.support.utils.SchedulingUtil.runLater;
+import static org.folio.circulation.support.utils.SchedulingUtil.runOnContext;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Queues events to be published to pub-sub, so that they are published in batches
+ * separately from the processing of the request that produced them
+ *
+ * Pub-sub only accepts a single event per request, so the events in a batch are
+ * published at the same time and the next batch is started once they have all
+ * completed. A batch is started as soon as there are enough events to fill it,
+ * or once the linger time has passed since the first event was queued.
+ * Events that could not be published are attempted again within their batch
+ * after an increasing delay, until they have been attempted the maximum number
+ * of times. The next batch waits for those attempts, so that an event is never
+ * published after events that were queued after its batch (e.g. a check out
+ * after the check in of the same loan).
+ *
+ * Batches, linger timers and retries run on the Vert.x context the queue was
+ * configured with, so that events are published from an event loop.
+ */
+public class EventPublishingQueue {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final int DEFAULT_BATCH_SIZE = 20;
+  private static final long DEFAULT_LINGER_MILLISECONDS = 5;
+  private static final int DEFAULT_CAPACITY = 10000;
+  private static final int DEFAULT_MAXIMUM_ATTEMPTS = 3;
+  private static final long DEFAULT_FIRST_RETRY_DELAY_MILLISECONDS = 100;
+
+  private static volatile EventPublishingQueue instance = fromConfiguration(null,
+    new JsonObject());
+
+  public enum OverflowPolicy {
+    /** the event is published straight away, without being queued */
+    PUBLISH_IMMEDIATELY,
+    /** the event that has been queued the longest is discarded to make room */
+    DISCARD_OLDEST,
+    /** the event being queued is discarded */
+    DISCARD_NEWEST
+  }
+
+  private enum Phase { IDLE, LINGERING, PUBLISHING }
+
+  private final int batchSize;
+  private final Duration linger;
+  private final int capacity;
+  private final OverflowPolicy overflowPolicy;
+  private final int maximumAttempts;
+  private final Duration firstRetryDelay;
+  private final Context context;
+
+  private final Deque<QueuedEvent> queue = new ArrayDeque<>();
+  private Phase phase = Phase.IDLE;
+  private long lingerGeneration = 0;
+
+  private final AtomicLong published = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong retried = new AtomicLong();
+  private final AtomicLong discarded = new AtomicLong();
+  private final AtomicLong publishedImmediately = new AtomicLong();
+  private final AtomicLong totalLatencyMilliseconds = new AtomicLong();
+  private final LongAccumulator maximumLatencyMilliseconds = new LongAccumulator(Math::max, 0);
+
+  /**
+   * @param context the context to publish events on, when null (e.g. before
+   * the module has started) events are published on a single separate thread
+   */
+  EventPublishingQueue(int batchSize, Duration linger, int capacity,
+    OverflowPolicy overflowPolicy, int maximumAttempts, Duration firstRetryDelay,
+    Context context) {
+
+    if (batchSize < 1 || capacity < batchSize || maximumAttempts < 1) {
+      throw new IllegalArgumentException(String.format(
+        "Invalid event publishing queue settings: batch size %s, capacity %s, " +
+          "maximum attempts %s", batchSize, capacity, maximumAttempts));
+    }
+
+    this.batchSize = batchSize;
+    this.linger = linger;
+    this.capacity = capacity;
+    this.overflowPolicy = overflowPolicy;
+    this.maximumAttempts = maximumAttempts;
+    this.firstRetryDelay = firstRetryDelay;
+    this.context = context;
+  }
+
+  public static EventPublishingQueue getInstance() {
+    return instance;
+  }
+
+  /**
+   * Replaces the queue with one using the settings in the configuration,
+   * any setting that is not present uses the default value
+   *
+   * Should only be used during start up, before any events are published
+   */
+  public static void configure(Vertx vertx, JsonObject configuration) {
+    instance = fromConfiguration(vertx.getOrCreateContext(), configuration);
+  }
+
+  private static EventPublishingQueue fromConfiguration(Context context,
+    JsonObject configuration) {
+
+    return new EventPublishingQueue(
+      configuration.getInteger("batchSize", DEFAULT_BATCH_SIZE),
+      Duration.ofMillis(configuration.getLong("lingerMilliseconds",
+        DEFAULT_LINGER_MILLISECONDS)),
+      configuration.getInteger("capacity", DEFAULT_CAPACITY),
+      OverflowPolicy.valueOf(configuration.getString("overflowPolicy",
+        OverflowPolicy.PUBLISH_IMMEDIATELY.name())),
+      configuration.getInteger("maximumAttempts", DEFAULT_MAXIMUM_ATTEMPTS),
+      Duration.ofMillis(configuration.getLong("firstRetryDelayMilliseconds",
+        DEFAULT_FIRST_RETRY_DELAY_MILLISECONDS)), context);
+  }
+
+  /**
+   * Queues the event to be published using the publishing service
+   *
+   * @return a future that completes with true once the event has been published,
+   * false if the event was discarded, or exceptionally if publishing failed
+   * after all attempts
+   */
+  public CompletableFuture<Boolean> publish(PubSubPublishingService publishingService,
+    String eventType, String payload) {
+
+    final QueuedEvent event = new QueuedEvent(publishingService, eventType, payload);
+
+    enqueue(event);
+
+    return event.completion;
+  }
+
+  public Metrics getMetrics() {
+    final long publishedCount = published.get();
+
+    return new Metrics(queueDepth(), publishedCount, failed.get(), retried.get(),
+      discarded.get(), publishedImmediately.get(),
+      publishedCount == 0 ? 0 : totalLatencyMilliseconds.get() / publishedCount,
+      maximumLatencyMilliseconds.get());
+  }
+
+  private synchronized int queueDepth() {
+    return queue.size();
+  }
+
+  private void enqueue(QueuedEvent event) {
+    final boolean queued;
+    final boolean startBatch;
+
+    synchronized (this) {
+      queued = makeRoomFor(event);
+
+      if (queued) {
+        queue.add(event);
+      }
+
+      startBatch = queued && scheduleBatch();
+    }
+
+    if (!queued && overflowPolicy == OverflowPolicy.PUBLISH_IMMEDIATELY) {
+      publishedImmediately.incrementAndGet();
+      attempt(event);
+    }
+
+    if (startBatch) {
+      runOnContext(context, this::publishNextBatch);
+    }
+  }
+
+  /**
+   * @return whether the event can be queued
+   */
+  private boolean makeRoomFor(QueuedEvent event) {
+    if (queue.size() < capacity) {
+      return true;
+    }
+
+    switch (overflowPolicy) {
+      case DISCARD_OLDEST:
+        discard(queue.poll());
+        return true;
+      case DISCARD_NEWEST:
+        discard(event);
+        return false;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * @return whether a batch should be started now
+   */
+  private boolean scheduleBatch() {
+    if (phase == Phase.PUBLISHING) {
+      return false;
+    }
+
+    if (queue.size() >= batchSize) {
+      phase = Phase.PUBLISHING;
+      lingerGeneration++;
+      return true;
+    }
+
+    if (phase == Phase.IDLE) {
+      phase = Phase.LINGERING;
+
+      final long generation = ++lingerGeneration;
+
+      runLater(context, linger.toMillis(), () -> lingerExpired(generation));
+    }
+
+    return false;
+  }
+
+  private void lingerExpired(long generation) {
+    synchronized (this) {
+      if (phase != Phase.LINGERING || generation != lingerGeneration) {
+        return;
+      }
+
+      phase = Phase.PUBLISHING;
+    }
+
+    publishNextBatch();
+  }
+
+  private void publishNextBatch() {
+    final List<QueuedEvent> batch = takeBatch();
+    final long start = System.nanoTime();
+
+    CompletableFuture.allOf(batch.stream()
+      .map(this::attempt)
+      .toArray(CompletableFuture[]::new))
+      .whenComplete((notUsed, throwable) -> {
+        log.debug("Published batch of {} events in {} ms", batch.size(),
+          (System.nanoTime() - start) / 1_000_000);
+
+        batchCompleted();
+      });
+  }
+
+  private synchronized List<QueuedEvent> takeBatch() {
+    final List<QueuedEvent> batch = new ArrayList<>(batchSize);
+
+    while (batch.size() < batchSize && !queue.isEmpty()) {
+      batch.add(queue.poll());
+    }
+
+    return batch;
+  }
+
+  private void batchCompleted() {
+    synchronized (this) {
+      if (queue.isEmpty()) {
+        phase = Phase.IDLE;
+        return;
+      }
+    }
+
+    // remaining events have already waited for the previous batch
+    runOnContext(context, this::publishNextBatch);
+  }
+
+  /**
+   * @return a future that completes once the event has been published,
+   * or every attempt to publish it has failed
+   */
+  private CompletableFuture<Void> attempt(QueuedEvent event) {
+    event.attempts++;
+
+    CompletableFuture<Boolean> attempt;
+
+    try {
+      attempt = event.publishingService.publishEvent(event.eventType, event.payload);
+    }
+    catch (Exception e) {
+      attempt = CompletableFuture.failedFuture(e);
+    }
+
+    return attempt.handle((result, throwable) -> {
+      if (throwable == null) {
+        published(event);
+
+        return CompletableFuture.<Void>completedFuture(null);
+      }
+
+      return failedAttempt(event, throwable);
+    })
+    .thenCompose(Function.identity());
+  }
+
+  private void published(QueuedEvent event) {
+    final long latency = (System.nanoTime() - event.queuedAt) / 1_000_000;
+
+    published.incrementAndGet();
+    totalLatencyMilliseconds.addAndGet(latency);
+    maximumLatencyMilliseconds.accumulate(latency);
+
+    event.completion.complete(true);
+  }
+
+  private CompletableFuture<Void> failedAttempt(QueuedEvent event, Throwable throwable) {
+    if (event.attempts < maximumAttempts) {
+      final long delay = firstRetryDelay.toMillis() << (event.attempts - 1);
+
+      log.warn("Failed to publish {} event (attempt {} of {}), retrying in {} ms",
+        event.eventType, event.attempts, maximumAttempts, delay);
+
+      retried.incrementAndGet();
+
+      final CompletableFuture<Void> nextAttempts = new CompletableFuture<>();
+
+      runLater(context, delay, () -> attempt(event)
+        .whenComplete((notUsed, error) -> nextAttempts.complete(null)));
+
+      return nextAttempts;
+    }
+
+    log.error("Failed to publish {} event after {} attempts, payload: {}",
+      event.eventType, event.attempts, event.payload, throwable);
+
+    failed.incrementAndGet();
+    event.completion.completeExceptionally(throwable);
+
+    return CompletableFuture.completedFuture(null);
+  }
+
+  private void discard(QueuedEvent event) {
+    log.warn("Event publishing queue is full, discarding {} event, payload: {}",
+      event.eventType, event.payload);
+
+    discarded.incrementAndGet();
+    event.completion.complete(false);
+  }
+
+  private static class QueuedEvent {
+    private final PubSubPublishingService publishingService;
+    private final String eventType;
+    private final String payload;
+    private final long queuedAt;
+    private final CompletableFuture<Boolean> completion = new CompletableFuture<>();
+    private int attempts = 0;
+
+    private QueuedEvent(PubSubPublishingService publishingService,
+      String eventType, String payload) {
+
+      this.publishingService = publishingService;
+      this.eventType = eventType;
+      this.payload = payload;
+      this.queuedAt = System.nanoTime();
+    }
+  }
+
+  public static class Metrics {
+    private final int queueDepth;
+    private final long published;
+    private final long failed;
+    private final long retried;
+    private final long discarded;
+    private final long publishedImmediately;
+    private final long averageLatencyMilliseconds;
+    private final long maximumLatencyMilliseconds;
+
+    private Metrics(int queueDepth, long published, long failed, long retried,
+      long discarded, long publishedImmediately, long averageLatencyMilliseconds,
+      long maximumLatencyMilliseconds) {
+
+      this.queueDepth = queueDepth;
+      this.published = published;
+      this.failed = failed;
+      this.retried = retried;
+      this.discarded = discarded;
+      this.publishedImmediately = publishedImmediately;
+      this.averageLatencyMilliseconds = averageLatencyMilliseconds;
+      this.maximumLatencyMilliseconds = maximumLatencyMilliseconds;
+    }
+
+    public int getQueueDepth() {
+      return queueDepth;
+    }
+
+    public long getPublished() {
+      return published;
+    }
+
+    public long getFailed() {
+      return failed;
+    }
+
+    public long getRetried() {
+      return retried;
+    }
+
+    public long getDiscarded() {
+      return discarded;
+    }
+
+    public long getPublishedImmediately() {
+      return publishedImmediately;
+    }
+
+    public long getAverageLatencyMilliseconds() {
+      return averageLatencyMilliseconds;
+    }
+
+    public long getMaximumLatencyMilliseconds() {
+      return maximumLatencyMilliseconds;
+    }
+
+    @Override
+    public String toString() {
+      return new ToStringBuilder(this)
+        .append("queueDepth", queueDepth)
+        .append("published", published)
+        .append("failed", failed)
+        .append("retried", retried)
+        .append("discarded", discarded)
+        .append("publishedImmediately", publishedImmediately)
+        .append("averageLatencyMilliseconds", averageLatencyMilliseconds)
+        .append("maximumLatencyMilliseconds", maximumLatencyMilliseconds)
+        .toString();
+    }
+  }
+}
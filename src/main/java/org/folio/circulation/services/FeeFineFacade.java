@@ -1,15 +1,26 @@
 package org.folio.circulation.services;
 
+import static java.util.Collections.emptyMap;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.folio.circulation.domain.representations.StoredFeeFineAction.StoredFeeFineActionBuilder;
 import static org.folio.circulation.services.feefine.FeeRefundProcessor.createLostItemFeeRefundProcessor;
 import static org.folio.circulation.support.AsyncCoordinationUtil.allOf;
+import static org.folio.circulation.support.AsyncCoordinationUtil.allResultsOf;
+import static org.folio.circulation.support.BoundedConcurrency.atMost;
+import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
 import static org.folio.circulation.support.results.Result.failed;
 import static org.folio.circulation.support.results.Result.succeeded;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.folio.circulation.domain.Account;
 import org.folio.circulation.domain.ServicePoint;
@@ -24,6 +35,7 @@ import org.folio.circulation.services.feefine.AccountRefundContext;
 import org.folio.circulation.services.feefine.FeeRefundProcessor;
 import org.folio.circulation.services.support.CreateAccountCommand;
 import org.folio.circulation.services.support.RefundAccountCommand;
+import org.folio.circulation.support.BoundedConcurrency;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.ServerErrorFailure;
 import org.folio.circulation.support.results.CommonFailures;
@@ -32,6 +44,9 @@ import org.folio.circulation.support.results.Result;
 import lombok.val;
 
 public class FeeFineFacade {
+  private static final BoundedConcurrency CONCURRENT_ACCOUNTS_TO_CREATE = atMost(20);
+  private static final BoundedConcurrency CONCURRENT_REFUND_RECORDS_TO_SAVE = atMost(10);
+
   private final AccountRepository accountRepository;
   private final FeeFineActionRepository feeFineActionRepository;
   private final UserRepository userRepository;
@@ -46,70 +61,204 @@ public class FeeFineFacade {
     this.lostItemRefundProcessor = createLostItemFeeRefundProcessor();
   }
 
+  /**
+   * Creates the accounts, e.g. the lost item fee and processing fee when an item
+   * is declared lost, the staff users and service points of the commands are
+   * fetched once for all of the accounts, rather than once for each account
+   */
   public CompletableFuture<Result<Void>> createAccounts(
     Collection<CreateAccountCommand> accountAndActions) {
 
-    return allOf(accountAndActions, this::createAccount)
+    final List<CreateAccountCommand> commands = new ArrayList<>(accountAndActions);
+
+    return fetchLookups(commands)
+      .thenCompose(r -> r.after(lookups -> allOf(commands,
+        command -> createAccount(command, lookups))))
       .thenApply(r -> r.<Void>map(list -> null))
       .exceptionally(CommonFailures::failedDueToServerError);
   }
 
-  private CompletableFuture<Result<Void>> createAccount(CreateAccountCommand creation) {
-    final StoredAccount account = new StoredAccount(
+  /**
+   * Creates the accounts for many loans together. Accounts created by
+   * an automated process (e.g. aging to lost) do not need a staff user or
+   * service point, so nothing is fetched for them.
+   *
+   * Storage only accepts a single account or action per request, so accounts
+   * are created with a bounded number in progress at once
+   *
+   * @return the result of creating the accounts of each loan, by loan ID,
+   * a failure for one loan does not stop the accounts of other loans from
+   * being created
+   */
+  public CompletableFuture<Result<Map<String, Result<Void>>>> createAccountsForLoans(
+    Collection<CreateAccountCommand> accountAndActions) {
+
+    final List<CreateAccountCommand> commands = new ArrayList<>(accountAndActions);
+
+    return fetchLookups(commands)
+      .thenCompose(r -> r.after(lookups -> allResultsOf(commands,
+          command -> createAccount(command, lookups), CONCURRENT_ACCOUNTS_TO_CREATE)
+        .thenApply(results -> succeeded(resultsByLoan(commands, results)))))
+      .exceptionally(CommonFailures::failedDueToServerError);
+  }
+
+  private CompletableFuture<Result<AccountCreationLookups>> fetchLookups(
+    List<CreateAccountCommand> commands) {
+
+    return fetchStaffUsers(commands)
+      .thenCompose(r -> r.combineAfter(notUsed -> fetchCurrentServicePoints(commands),
+        AccountCreationLookups::new));
+  }
+
+  private CompletableFuture<Result<Void>> createAccount(CreateAccountCommand creation,
+    AccountCreationLookups lookups) {
+
+    return lookups.populate(StoredFeeFineAction.builder(), creation)
+      .after(builder -> accountRepository.create(toStoredAccount(creation))
+        .thenCompose(r -> r.after(createdAccount ->
+          createAccountCreatedAction(createdAccount, builder))));
+  }
+
+  private StoredAccount toStoredAccount(CreateAccountCommand creation) {
+    return new StoredAccount(
       creation.getLoan(),
       creation.getItem(),
       creation.getFeeFineOwner(),
       creation.getFeeFine(),
       creation.getAmount());
-
-    return accountRepository.create(account)
-      .thenCompose(r -> r.after(createdAccount -> createAccountCreatedAction(createdAccount, creation)));
   }
 
   private CompletableFuture<Result<Void>> createAccountCreatedAction(
-    Account createdAccount, CreateAccountCommand creation) {
+    Account createdAccount, StoredFeeFineActionBuilder builder) {
 
-    final StoredFeeFineActionBuilder builder = StoredFeeFineAction.builder();
-    return populateCreatedBy(builder, creation)
-      .thenCompose(r -> r.after(updatedBuilder -> populateCreatedAt(updatedBuilder, creation)))
-      .thenApply(r -> r.map(updatedBuilder -> updatedBuilder
+    return feeFineActionRepository.create(builder
         .withBalance(createdAccount.getRemaining())
         .withAmount(createdAccount.getAmount())
         .withUserId(createdAccount.getUserId())
         .withAction(createdAccount.getFeeFineType())
         .withAccountId(createdAccount.getId())
-        .build()))
-      .thenCompose(r -> r.after(feeFineActionRepository::create))
+        .build())
       .thenApply(r -> r.map(notUsed -> null));
   }
 
-  public CompletableFuture<Result<Void>> refundAndCloseAccounts(List<RefundAccountCommand> accounts) {
-    return allOf(accounts, this::refundAndCloseAccount)
-      .thenApply(r -> r.<Void>map(list -> null))
-      .exceptionally(CommonFailures::failedDueToServerError);
+  private CompletableFuture<Result<Map<String, User>>> fetchStaffUsers(
+    List<CreateAccountCommand> commands) {
+
+    return fetchUsers(uniqueIds(notCreatedByAutomatedProcess(commands),
+      CreateAccountCommand::getStaffUserId));
+  }
+
+  private CompletableFuture<Result<Map<String, ServicePoint>>> fetchCurrentServicePoints(
+    List<CreateAccountCommand> commands) {
+
+    return fetchServicePoints(uniqueIds(notCreatedByAutomatedProcess(commands),
+      CreateAccountCommand::getCurrentServicePointId));
+  }
+
+  private CompletableFuture<Result<Map<String, User>>> fetchUsers(Set<String> userIds) {
+    return userIds.isEmpty()
+      ? completedFuture(succeeded(emptyMap()))
+      : userRepository.getUsersForUserIds(userIds);
+  }
+
+  private CompletableFuture<Result<Map<String, ServicePoint>>> fetchServicePoints(
+    Set<String> servicePointIds) {
+
+    return servicePointIds.isEmpty()
+      ? completedFuture(succeeded(emptyMap()))
+      : servicePointRepository.findServicePointsByIds(servicePointIds);
+  }
+
+  private static List<CreateAccountCommand> notCreatedByAutomatedProcess(
+    List<CreateAccountCommand> commands) {
+
+    return commands.stream()
+      .filter(command -> !command.isCreatedByAutomatedProcess())
+      .collect(Collectors.toList());
+  }
+
+  private static <T> Set<String> uniqueIds(Collection<T> records,
+    Function<T, String> idMapper) {
+
+    return records.stream()
+      .map(idMapper)
+      .filter(Objects::nonNull)
+      .collect(Collectors.toSet());
+  }
+
+  private static Map<String, Result<Void>> resultsByLoan(
+    List<CreateAccountCommand> commands, List<Result<Void>> results) {
+
+    final Map<String, Result<Void>> resultsByLoan = new LinkedHashMap<>();
+
+    for (int index = 0; index < commands.size(); index++) {
+      // the first failure for a loan is kept
+      resultsByLoan.merge(commands.get(index).getLoan().getId(), results.get(index),
+        (first, second) -> first.failed() ? first : second);
+    }
+
+    return resultsByLoan;
   }
 
-  private CompletableFuture<Result<Void>> refundAndCloseAccount(RefundAccountCommand refund) {
-    val context = new AccountRefundContext(refund.getAccountToRefund(),
-      refund.getCancellationReason());
+  /**
+   * Refunds and closes the accounts together, the staff users and service points
+   * of the refunds are fetched once for all of the accounts
+   *
+   * The refund and close actions for all of the accounts are saved before
+   * any of the accounts are updated, with a bounded number of records
+   * being saved at once
+   */
+  public CompletableFuture<Result<Void>> refundAndCloseAccounts(List<RefundAccountCommand> refunds) {
+    if (refunds.isEmpty()) {
+      return completedFuture(succeeded(null));
+    }
 
-    return fetchUser(refund.getStaffUserId())
-      .thenApply(r -> r.map(context::withUser))
-      .thenComposeAsync(r -> r.after(notUsed -> fetchServicePoint(refund.getServicePointId())))
-      .thenApply(r -> r.map(context::withServicePoint))
-      .thenCompose(r -> r.after(this::processRefundAndClose));
+    return fetchUsers(uniqueIds(refunds, RefundAccountCommand::getStaffUserId))
+      .thenCompose(r -> r.combineAfter(notUsed -> fetchServicePoints(
+          uniqueIds(refunds, RefundAccountCommand::getServicePointId)),
+        (staffUsers, servicePoints) -> prepareRefunds(refunds, staffUsers, servicePoints)))
+      .thenApply(r -> r.next(Function.identity()))
+      .thenCompose(r -> r.after(this::saveRefunds))
+      .exceptionally(CommonFailures::failedDueToServerError);
   }
 
-  private CompletableFuture<Result<Void>> processRefundAndClose(AccountRefundContext context) {
-    if (!lostItemRefundProcessor.canHandleAccountRefund(context.getAccount())) {
-      return completedFuture(noRefundProcessorForFeeType(context.getAccount().getFeeFineType()));
+  private Result<List<AccountRefundContext>> prepareRefunds(List<RefundAccountCommand> refunds,
+    Map<String, User> staffUsers, Map<String, ServicePoint> servicePoints) {
+
+    final List<AccountRefundContext> contexts = new ArrayList<>();
+
+    for (RefundAccountCommand refund : refunds) {
+      final Account account = refund.getAccountToRefund();
+
+      if (!lostItemRefundProcessor.canHandleAccountRefund(account)) {
+        return noRefundProcessorForFeeType(account.getFeeFineType());
+      }
+
+      val context = new AccountRefundContext(account, refund.getCancellationReason())
+        .withUser(staffUsers.get(refund.getStaffUserId()))
+        .withServicePoint(servicePoints.get(refund.getServicePointId()));
+
+      addRefundAndCloseActions(context);
+
+      contexts.add(context);
     }
 
-    return createRefundAndCloseActions(context)
-      .thenCompose(r -> r.after(notUsed -> updateAccount(context)));
+    return succeeded(contexts);
+  }
+
+  private CompletableFuture<Result<Void>> saveRefunds(List<AccountRefundContext> contexts) {
+    final List<StoredFeeFineAction> actions = contexts.stream()
+      .map(AccountRefundContext::getActions)
+      .flatMap(Collection::stream)
+      .collect(Collectors.toList());
+
+    return feeFineActionRepository.createAll(actions)
+      .thenCompose(r -> r.after(notUsed -> allOf(contexts, this::updateAccount,
+        CONCURRENT_REFUND_RECORDS_TO_SAVE)))
+      .thenApply(r -> r.<Void>map(list -> null));
   }
 
-  private Result<Void> noRefundProcessorForFeeType(String feeFineType) {
+  private <T> Result<T> noRefundProcessorForFeeType(String feeFineType) {
     return failed(new ServerErrorFailure(
       "No refund processor available for fee/fine of type: " + feeFineType));
   }
@@ -131,9 +280,7 @@ public class FeeFineFacade {
     return accountRepository.update(StoredAccount.fromAccount(context.getAccount()));
   }
 
-  private CompletableFuture<Result<Void>> createRefundAndCloseActions(
-    AccountRefundContext context) {
-
+  private void addRefundAndCloseActions(AccountRefundContext context) {
     final Account account = context.getAccount();
     if (account.hasTransferredAmount()) {
       lostItemRefundProcessor.onHasTransferAmount(context);
@@ -146,37 +293,34 @@ public class FeeFineFacade {
     if (account.hasRemainingAmount()) {
       lostItemRefundProcessor.onHasRemainingAmount(context);
     }
-
-    return feeFineActionRepository.createAll(context.getActions());
   }
 
-  private CompletableFuture<Result<StoredFeeFineActionBuilder>> populateCreatedBy(
-    StoredFeeFineActionBuilder builder, CreateAccountCommand command) {
+  private static class AccountCreationLookups {
+    private final Map<String, User> staffUsers;
+    private final Map<String, ServicePoint> servicePoints;
 
-    if (command.isCreatedByAutomatedProcess()) {
-      return completedFuture(succeeded(builder.createdByAutomatedProcess()));
+    private AccountCreationLookups(Map<String, User> staffUsers,
+      Map<String, ServicePoint> servicePoints) {
+
+      this.staffUsers = staffUsers;
+      this.servicePoints = servicePoints;
     }
 
-    return userRepository.getUser(command.getStaffUserId())
-      .thenApply(r -> r.map(builder::withCreatedBy));
-  }
+    private Result<StoredFeeFineActionBuilder> populate(StoredFeeFineActionBuilder builder,
+      CreateAccountCommand command) {
 
-  private CompletableFuture<Result<User>> fetchUser(String userId) {
-    return userRepository.getUser(userId);
-  }
+      if (command.isCreatedByAutomatedProcess()) {
+        return succeeded(builder.createdByAutomatedProcess());
+      }
 
-  private CompletableFuture<Result<ServicePoint>> fetchServicePoint(String servicePointId) {
-    return servicePointRepository.getServicePointById(servicePointId);
-  }
+      final User staffUser = staffUsers.get(command.getStaffUserId());
 
-  private CompletableFuture<Result<StoredFeeFineActionBuilder>> populateCreatedAt(
-    StoredFeeFineActionBuilder builder, CreateAccountCommand command) {
+      if (staffUser == null) {
+        return failedDueToServerError("Staff user not found: " + command.getStaffUserId());
+      }
 
-    if (command.isCreatedByAutomatedProcess()) {
-      return completedFuture(succeeded(builder));
+      return succeeded(builder.withCreatedBy(staffUser)
+        .withCreatedAt(servicePoints.get(command.getCurrentServicePointId())));
     }
-
-    return fetchServicePoint(command.getCurrentServicePointId())
-      .thenApply(r -> r.map(builder::withCreatedAt));
   }
 }
@@ -9,8 +9,10 @@ import static org.folio.circulation.support.http.client.CqlQuery.exactMatch;
 import static org.folio.circulation.support.http.client.CqlQuery.exactMatchAny;
 import static org.folio.circulation.support.results.Result.failed;
 import static org.folio.circulation.support.results.Result.succeeded;
+import static org.folio.circulation.support.utils.SchedulingUtil.runLater;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.folio.circulation.domain.CheckInContext;
 import org.folio.circulation.domain.Loan;
@@ -25,19 +27,63 @@ import org.folio.circulation.support.results.Result;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Refunds the lost item fees for an item that has been returned or renewed
+ *
+ * The loan for the lost item is always found before responding, as it is
+ * needed by the rest of the check in or renewal. When refunds are completed
+ * asynchronously, the policy, accounts and refunds are processed after the
+ * response has been sent. A refund that fails before any of its records are
+ * saved is attempted again with an increasing delay. A refund that fails
+ * whilst its records are being saved is not attempted again, as that could
+ * refund the same fee twice, so it is logged as needing to be checked.
+ */
 public class LostItemFeeRefundService {
   private static final Logger log = LoggerFactory.getLogger(LostItemFeeRefundService.class);
 
+  private static final int DEFAULT_MAXIMUM_ATTEMPTS = 3;
+  private static final long DEFAULT_FIRST_RETRY_DELAY_MILLISECONDS = 1000;
+
+  private static volatile boolean refundAsynchronously = false;
+  private static volatile int maximumAttempts = DEFAULT_MAXIMUM_ATTEMPTS;
+  private static volatile long firstRetryDelayMilliseconds
+    = DEFAULT_FIRST_RETRY_DELAY_MILLISECONDS;
+
   private final LostItemPolicyRepository lostItemPolicyRepository;
   private final FeeFineFacade feeFineFacade;
   private final AccountRepository accountRepository;
   private final LoanRepository loanRepository;
+  private final boolean asynchronous;
 
   public LostItemFeeRefundService(Clients clients) {
+    this(clients, refundAsynchronously);
+  }
+
+  LostItemFeeRefundService(Clients clients, boolean asynchronous) {
     this.lostItemPolicyRepository = new LostItemPolicyRepository(clients);
     this.feeFineFacade = new FeeFineFacade(clients);
     this.accountRepository = new AccountRepository(clients);
     this.loanRepository = new LoanRepository(clients);
+    this.asynchronous = asynchronous;
+  }
+
+  /**
+   * Sets whether refunds are completed after the response has been sent,
+   * refunds are completed before responding when the setting is not present,
+   * and how many times a refund completed after responding is attempted
+   *
+   * Should only be used during start up
+   */
+  public static void configure(JsonObject configuration) {
+    refundAsynchronously = configuration.getBoolean("asynchronous", false);
+    maximumAttempts = configuration.getInteger("maximumAttempts",
+      DEFAULT_MAXIMUM_ATTEMPTS);
+    firstRetryDelayMilliseconds = configuration.getLong("firstRetryDelayMilliseconds",
+      DEFAULT_FIRST_RETRY_DELAY_MILLISECONDS);
   }
 
   public CompletableFuture<Result<CheckInContext>> refundLostItemFees(
@@ -62,7 +108,63 @@ public class LostItemFeeRefundService {
     }
 
     return lookupLoan(succeeded(refundFeeContext))
-      .thenCompose(this::fetchLostItemPolicy)
+      .thenCompose(r -> r.after(this::refundLostItemFeesForLoan));
+  }
+
+  private CompletableFuture<Result<LostItemFeeRefundContext>> refundLostItemFeesForLoan(
+    LostItemFeeRefundContext context) {
+
+    if (!asynchronous) {
+      return refundAccountsForLoan(context, () -> {});
+    }
+
+    refundAfterResponding(context, Vertx.currentContext(), 1);
+
+    return completedFuture(succeeded(context));
+  }
+
+  private void refundAfterResponding(LostItemFeeRefundContext context,
+    Context vertxContext, int attempt) {
+
+    final AtomicBoolean savingRefunds = new AtomicBoolean(false);
+
+    refundAccountsForLoan(context, () -> savingRefunds.set(true))
+      .whenComplete((result, throwable) -> {
+        if (throwable == null && result.succeeded()) {
+          return;
+        }
+
+        final Object cause = throwable != null ? throwable : result.cause();
+        final String loanId = context.getLoan().getId();
+
+        if (savingRefunds.get()) {
+          log.error("Failed to save refunds of lost item fees for loan [{}], " +
+            "the fees for the loan need to be checked: {}", loanId, cause);
+        }
+        else if (attempt < maximumAttempts) {
+          final long delay = firstRetryDelayMilliseconds << (attempt - 1);
+
+          log.warn("Failed to refund lost item fees for loan [{}] (attempt {} of {}), " +
+            "trying again in {} ms: {}", loanId, attempt, maximumAttempts, delay, cause);
+
+          runLater(vertxContext, delay,
+            () -> refundAfterResponding(context, vertxContext, attempt + 1));
+        }
+        else {
+          log.error("Failed to refund lost item fees for loan [{}] after {} attempts: {}",
+            loanId, attempt, cause);
+        }
+      });
+  }
+
+  /**
+   * @param beforeSavingRefunds run once the accounts to refund have been found,
+   * before any of the refunds are saved
+   */
+  private CompletableFuture<Result<LostItemFeeRefundContext>> refundAccountsForLoan(
+    LostItemFeeRefundContext refundFeeContext, Runnable beforeSavingRefunds) {
+
+    return fetchLostItemPolicy(succeeded(refundFeeContext))
       .thenCompose(contextResult -> contextResult.after(context -> {
         final LostItemPolicy lostItemPolicy = context.getLostItemPolicy();
 
@@ -72,7 +174,11 @@ public class LostItemFeeRefundService {
         }
 
         return fetchAccountsAndActionsForLoan(contextResult)
-          .thenCompose(r -> r.after(this::refundAccounts));
+          .thenCompose(r -> r.after(contextWithAccounts -> {
+            beforeSavingRefunds.run();
+
+            return refundAccounts(contextWithAccounts);
+          }));
       }));
   }
 
@@ -10,21 +10,26 @@ import static org.folio.circulation.domain.representations.LoanProperties.DATE_L
 import static org.folio.circulation.domain.representations.LoanProperties.ITEM_STATUS;
 import static org.folio.circulation.domain.representations.LoanProperties.LOST_ITEM_HAS_BEEN_BILLED;
 import static org.folio.circulation.support.AsyncCoordinationUtil.allOf;
+import static org.folio.circulation.support.AsyncCoordinationUtil.allResultsOf;
+import static org.folio.circulation.support.BoundedConcurrency.atMost;
 import static org.folio.circulation.support.ClockManager.getClockManager;
 import static org.folio.circulation.support.CqlSortBy.ascending;
 import static org.folio.circulation.support.ValidationErrorFailure.singleValidationError;
 import static org.folio.circulation.support.http.client.CqlQuery.exactMatch;
+import static org.folio.circulation.support.http.client.CqlQuery.greaterThan;
 import static org.folio.circulation.support.http.client.CqlQuery.lessThanOrEqualTo;
-import static org.folio.circulation.support.http.client.PageLimit.oneThousand;
+import static org.folio.circulation.support.http.client.PageLimit.limit;
 import static org.folio.circulation.support.results.Result.failed;
 import static org.folio.circulation.support.results.Result.succeeded;
 import static org.folio.circulation.support.utils.CollectionUtil.uniqueSetOf;
 import static org.folio.circulation.support.utils.CommonUtils.pair;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
@@ -32,12 +37,14 @@ import java.util.stream.Stream;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.folio.circulation.StoreLoanAndItem;
+import org.folio.circulation.domain.Account;
 import org.folio.circulation.domain.FeeFine;
 import org.folio.circulation.domain.FeeFineOwner;
 import org.folio.circulation.domain.Loan;
 import org.folio.circulation.domain.MultipleRecords;
 import org.folio.circulation.domain.policy.lostitem.LostItemPolicy;
 import org.folio.circulation.domain.policy.lostitem.itemfee.AutomaticallyChargeableFee;
+import org.folio.circulation.infrastructure.storage.feesandfines.AccountRepository;
 import org.folio.circulation.infrastructure.storage.feesandfines.FeeFineOwnerRepository;
 import org.folio.circulation.infrastructure.storage.feesandfines.FeeFineRepository;
 import org.folio.circulation.infrastructure.storage.inventory.ItemRepository;
@@ -46,6 +53,7 @@ import org.folio.circulation.infrastructure.storage.loans.LostItemPolicyReposito
 import org.folio.circulation.services.EventPublisher;
 import org.folio.circulation.services.FeeFineFacade;
 import org.folio.circulation.services.support.CreateAccountCommand;
+import org.folio.circulation.support.BoundedConcurrency;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.http.client.CqlQuery;
 import org.folio.circulation.support.results.Result;
@@ -55,8 +63,21 @@ import org.slf4j.LoggerFactory;
 
 import lombok.val;
 
+/**
+ * Charges the lost item fees for aged to lost loans that are due to be billed,
+ * walking through those loans one page at a time, in order of id
+ *
+ * Before any accounts are created for a loan, the start of billing is recorded
+ * in the loan's aged to lost delayed billing information. Should a run stop
+ * part way through, the next run only creates the accounts for fee types
+ * that have not already been charged for those loans. A failure to charge
+ * one loan does not stop the remaining loans from being charged, those loans
+ * are charged again on the next run.
+ */
 public class ChargeLostFeesWhenAgedToLostService {
   private static final Logger log = LoggerFactory.getLogger(ChargeLostFeesWhenAgedToLostService.class);
+  private static final BoundedConcurrency CONCURRENT_LOANS_TO_PROCESS = atMost(10);
+  private static final int DEFAULT_PAGE_SIZE = 100;
 
   private final LostItemPolicyRepository lostItemPolicyRepository;
   private final FeeFineOwnerRepository feeFineOwnerRepository;
@@ -64,46 +85,184 @@ public class ChargeLostFeesWhenAgedToLostService {
   private final FeeFineFacade feeFineFacade;
   private final LoanRepository loanRepository;
   private final ItemRepository itemRepository;
+  private final AccountRepository accountRepository;
   private final StoreLoanAndItem storeLoanAndItem;
   private final EventPublisher eventPublisher;
+  private final int pageSize;
 
-  public ChargeLostFeesWhenAgedToLostService(Clients clients) {
+  public ChargeLostFeesWhenAgedToLostService(Clients clients, int pageSize) {
     this.lostItemPolicyRepository = new LostItemPolicyRepository(clients);
     this.feeFineOwnerRepository = new FeeFineOwnerRepository(clients);
     this.feeFineRepository = new FeeFineRepository(clients);
     this.feeFineFacade = new FeeFineFacade(clients);
     this.loanRepository = new LoanRepository(clients);
     this.itemRepository = new ItemRepository(clients, true, false, false);
+    this.accountRepository = new AccountRepository(clients);
     this.storeLoanAndItem = new StoreLoanAndItem(loanRepository, itemRepository);
     this.eventPublisher = new EventPublisher(clients.pubSubPublishingService());
+    this.pageSize = pageSize;
+  }
+
+  public ChargeLostFeesWhenAgedToLostService(Clients clients) {
+    this(clients, DEFAULT_PAGE_SIZE);
+  }
+
+  public CompletableFuture<Result<LostFeeChargingStatistics>> chargeFees() {
+    final LostFeeChargingStatistics statistics = new LostFeeChargingStatistics();
+
+    return processPages(fetchPageAfter(null), statistics)
+      .thenApply(r -> r.map(notUsed -> statistics.finish()))
+      .thenApply(r -> r.map(this::logStatistics));
   }
 
-  public CompletableFuture<Result<Void>> chargeFees() {
-    return fetchLoansAndItems()
-      .thenCompose(r -> r.after(allLoans -> {
-        if (allLoans.isEmpty()) {
+  private CompletableFuture<Result<Void>> processPages(
+    CompletableFuture<Result<MultipleRecords<Loan>>> pageFetch,
+    LostFeeChargingStatistics statistics) {
+
+    return pageFetch.thenCompose(r -> r.after(page -> {
+      if (page.isEmpty()) {
+        if (statistics.getLoansProcessed() == 0) {
           log.info("No aged to lost loans to charge lost fees");
-          return completedFuture(succeeded(null));
         }
 
-        log.debug("Loans to charge fees [{}]", allLoans.getRecords().size());
+        return completedFuture(succeeded(null));
+      }
+
+      log.debug("Loans to charge fees [{}]", page.getRecords().size());
+
+      final long pageStarted = System.nanoTime();
+
+      return processPage(page, statistics)
+        .thenCompose(processed -> processed.after(notUsed -> {
+          statistics.pageProcessed(System.nanoTime() - pageStarted);
+
+          return processPages(fetchNextPage(page), statistics);
+        }));
+    }));
+  }
+
+  private CompletableFuture<Result<MultipleRecords<Loan>>> fetchNextPage(
+    MultipleRecords<Loan> page) {
+
+    if (page.getRecords().size() < pageSize) {
+      return completedFuture(succeeded(MultipleRecords.empty()));
+    }
+
+    return fetchPageAfter(lastLoanOf(page));
+  }
+
+  private CompletableFuture<Result<Void>> processPage(MultipleRecords<Loan> page,
+    LostFeeChargingStatistics statistics) {
+
+    return itemRepository.fetchItemsFor(succeeded(page), Loan::withItem)
+      .thenComposeAsync(r -> r.after(lostItemPolicyRepository::findLostItemPoliciesForLoans))
+      .thenCompose(r -> r.after(this::findAccountsForResumedLoans))
+      .thenApply(r -> r.map(LoanToChargeFees::usingLoans))
+      .thenCompose(r -> r.after(this::fetchFeeFineOwners))
+      .thenComposeAsync(this::fetchFeeFineTypes)
+      .thenCompose(r -> r.after(this::chargeLostFeesForPage))
+      .thenApply(r -> r.map(results -> recordOutcomes(results, statistics)))
+      .thenCompose(this::publishClosedLoansLogEvents);
+  }
+
+  /**
+   * Loans whose billing was started on a previous run may already have some
+   * of their fees charged, so their accounts are needed to avoid charging again
+   */
+  private CompletableFuture<Result<MultipleRecords<Loan>>> findAccountsForResumedLoans(
+    MultipleRecords<Loan> page) {
+
+    final MultipleRecords<Loan> resumedLoans = page.filter(Loan::hasLostItemBillingStarted);
+
+    if (resumedLoans.isEmpty()) {
+      return completedFuture(succeeded(page));
+    }
 
-        return succeeded(LoanToChargeFees.usingLoans(allLoans))
-          .after(this::fetchFeeFineOwners)
-          .thenComposeAsync(this::fetchFeeFineTypes)
-          .thenCompose(this::chargeLostFeesForLoans)
-          .thenCompose(this::publishClosedLoansLogEvents);
-      }));
+    log.info("Resuming billing of {} aged to lost loans", resumedLoans.getRecords().size());
+
+    return accountRepository.findAccountsForLoans(resumedLoans)
+      .thenApply(r -> r.map(loansWithAccounts -> loansWithAccounts.toMap(Loan::getId)))
+      .thenApply(r -> r.map(loansWithAccounts -> page.mapRecords(
+        loan -> loansWithAccounts.getOrDefault(loan.getId(), loan))));
+  }
+
+  /**
+   * The accounts for all of the loans on the page are created together,
+   * so that the records they share are only fetched once. A failure to charge
+   * one loan does not stop the other loans on the page from being charged
+   */
+  private CompletableFuture<Result<List<Pair<Loan, Result<Loan>>>>> chargeLostFeesForPage(
+    List<LoanToChargeFees> page) {
+
+    final Map<String, Result<List<CreateAccountCommand>>> accountsForLoans = page.stream()
+      .filter(loanToChargeFees -> !loanToChargeFees.shouldCloseLoan())
+      .collect(Collectors.toMap(loanToChargeFees -> loanToChargeFees.getLoan().getId(),
+        this::createAccountsForLoan));
+
+    return allResultsOf(page, loanToChargeFees -> startBilling(loanToChargeFees,
+      accountsForLoans), CONCURRENT_LOANS_TO_PROCESS)
+      .thenApply(started -> startedAccountsByLoan(page, started))
+      .thenCompose(startedAccounts -> createAccountsAndUpdateLoans(page, startedAccounts));
   }
 
-  private CompletableFuture<Result<List<Loan>>> chargeLostFeesForLoans(
-    Result<List<LoanToChargeFees>> loansToChargeFeesResult) {
+  private CompletableFuture<Result<List<Pair<Loan, Result<Loan>>>>> createAccountsAndUpdateLoans(
+    List<LoanToChargeFees> page,
+    Map<String, Result<List<CreateAccountCommand>>> startedAccounts) {
+
+    final List<CreateAccountCommand> accountsToCreate = startedAccounts.values().stream()
+      .filter(result -> result.succeeded())
+      .map(Result::value)
+      .flatMap(Collection::stream)
+      .collect(Collectors.toList());
 
-    return loansToChargeFeesResult
-      .after(loansToChargeFees -> allOf(loansToChargeFees, this::chargeLostFeesForLoan));
+    return feeFineFacade.createAccountsForLoans(accountsToCreate)
+      .thenCompose(r -> r.after(createdAccounts -> allResultsOf(page,
+        loanToChargeFees -> chargeLostFeesForLoan(loanToChargeFees,
+          startedAccounts, createdAccounts), CONCURRENT_LOANS_TO_PROCESS)
+        .thenApply(results -> succeeded(pairWithLoans(page, results)))));
   }
 
-  private CompletableFuture<Result<Loan>> chargeLostFeesForLoan(LoanToChargeFees loanToChargeFees) {
+  private Map<String, Result<List<CreateAccountCommand>>> startedAccountsByLoan(
+    List<LoanToChargeFees> page, List<Result<List<CreateAccountCommand>>> started) {
+
+    final Map<String, Result<List<CreateAccountCommand>>> startedAccounts = new HashMap<>();
+
+    for (int index = 0; index < page.size(); index++) {
+      if (!page.get(index).shouldCloseLoan()) {
+        startedAccounts.put(page.get(index).getLoan().getId(), started.get(index));
+      }
+    }
+
+    return startedAccounts;
+  }
+
+  /**
+   * Records the start of billing in storage before any of the loan's accounts
+   * are created, unless it was already recorded by a previous run
+   */
+  private CompletableFuture<Result<List<CreateAccountCommand>>> startBilling(
+    LoanToChargeFees loanToChargeFees,
+    Map<String, Result<List<CreateAccountCommand>>> accountsForLoans) {
+
+    final Loan loan = loanToChargeFees.getLoan();
+    final Result<List<CreateAccountCommand>> accounts = accountsForLoans.get(loan.getId());
+
+    if (loanToChargeFees.shouldCloseLoan() || accounts.failed()
+      || loan.hasLostItemBillingStarted()) {
+
+      return completedFuture(accounts);
+    }
+
+    loan.startLostItemBilling(getClockManager().getDateTime());
+
+    return loanRepository.updateLoan(loan)
+      .thenApply(r -> r.next(notUsed -> accounts));
+  }
+
+  private CompletableFuture<Result<Loan>> chargeLostFeesForLoan(LoanToChargeFees loanToChargeFees,
+    Map<String, Result<List<CreateAccountCommand>>> accountsForLoans,
+    Map<String, Result<Void>> createdAccounts) {
+
     // we can close loans that have no fee to charge
     // and billed immediately
     if (loanToChargeFees.shouldCloseLoan()) {
@@ -113,9 +272,60 @@ public class ChargeLostFeesWhenAgedToLostService {
       return closeLoanAsLostAndPaid(loanToChargeFees);
     }
 
-    return createAccountsForLoan(loanToChargeFees)
-      .after(feeFineFacade::createAccounts)
-      .thenCompose(r -> r.after(notUsed -> updateLoanBillingInfo(loanToChargeFees)));
+    final String loanId = loanToChargeFees.getLoan().getId();
+
+    final Result<Void> charged = accountsForLoans.get(loanId)
+      .next(notUsed -> createdAccounts.getOrDefault(loanId, succeeded(null)));
+
+    if (charged.failed()) {
+      log.warn("Failed to charge lost fees for loan {}: {}", loanId, charged.cause());
+    }
+
+    return charged.after(notUsed -> updateLoanBillingInfo(loanToChargeFees));
+  }
+
+  private List<Pair<Loan, Result<Loan>>> pairWithLoans(List<LoanToChargeFees> page,
+    List<Result<Loan>> results) {
+
+    final List<Pair<Loan, Result<Loan>>> pairs = new ArrayList<>();
+
+    for (int index = 0; index < page.size(); index++) {
+      pairs.add(pair(page.get(index).getLoan(), results.get(index)));
+    }
+
+    return pairs;
+  }
+
+  private List<Loan> recordOutcomes(List<Pair<Loan, Result<Loan>>> outcomes,
+    LostFeeChargingStatistics statistics) {
+
+    final List<Loan> processedLoans = new ArrayList<>();
+
+    outcomes.forEach(outcome -> {
+      final Result<Loan> result = outcome.getValue();
+
+      if (result.failed()) {
+        statistics.loanFailed(outcome.getKey().getId(), result.cause());
+      }
+      else {
+        if (result.value().isClosed()) {
+          statistics.loanClosed();
+        }
+        else {
+          statistics.loanCharged();
+        }
+
+        processedLoans.add(result.value());
+      }
+    });
+
+    return processedLoans;
+  }
+
+  private LostFeeChargingStatistics logStatistics(LostFeeChargingStatistics statistics) {
+    log.info("Aged to lost fee charging finished: {}", statistics.toJson().encode());
+
+    return statistics;
   }
 
   private CompletableFuture<Result<Loan>> updateLoanBillingInfo(LoanToChargeFees loanToChargeFees) {
@@ -143,7 +353,16 @@ public class ChargeLostFeesWhenAgedToLostService {
       loanToCharge.getLostItemProcessingFeeType());
 
     return Stream.of(setCostPair, processingFeePair)
-      .filter(pair -> pair.getKey().isChargeable());
+      .filter(pair -> pair.getKey().isChargeable())
+      .filter(pair -> hasNotBeenCharged(loanToCharge.getLoan(), pair.getValue()));
+  }
+
+  private boolean hasNotBeenCharged(Loan loan, FeeFine feeFineType) {
+    final Collection<Account> accounts = loan.getAccounts();
+
+    return accounts == null || accounts.stream()
+      .noneMatch(account -> Objects.equals(account.getFeeFineType(),
+        feeFineType.getFeeFineType()));
   }
 
   private CreateAccountCommand buildCreateAccountCommand(LoanToChargeFees loanToCharge,
@@ -200,11 +419,18 @@ public class ChargeLostFeesWhenAgedToLostService {
       .collect(Collectors.toList());
   }
 
-  private CompletableFuture<Result<MultipleRecords<Loan>>> fetchLoansAndItems() {
-    return loanFetchQuery()
-      .after(query -> loanRepository.findByQuery(query, oneThousand()))
-      .thenComposeAsync(loansResult -> itemRepository.fetchItemsFor(loansResult, Loan::withItem))
-      .thenComposeAsync(r -> r.after(lostItemPolicyRepository::findLostItemPoliciesForLoans));
+  /**
+   * Loans that are charged no longer match the query, and loans that could not
+   * be charged are skipped by only fetching loans after the last one processed
+   */
+  private CompletableFuture<Result<MultipleRecords<Loan>>> fetchPageAfter(Loan lastLoan) {
+    final Result<CqlQuery> afterLastLoanQuery = lastLoan == null
+      ? loanFetchQuery()
+      : loanFetchQuery().combine(greaterThan("id", lastLoan.getId()), CqlQuery::and);
+
+    return afterLastLoanQuery
+      .map(query -> query.sortBy(ascending("id")))
+      .after(query -> loanRepository.findByQuery(query, limit(pageSize)));
   }
 
   private Result<CqlQuery> loanFetchQuery() {
@@ -221,8 +447,7 @@ public class ChargeLostFeesWhenAgedToLostService {
       lostItemHasBeenBilled, "false");
 
     return billingDateQuery.combine(agedToLostQuery, CqlQuery::and)
-      .combine(hasNotBeenBilledQuery, CqlQuery::and)
-      .map(query -> query.sortBy(ascending(billingDateProperty)));
+      .combine(hasNotBeenBilledQuery, CqlQuery::and);
   }
 
   private Result<LoanToChargeFees> validateCanCreateAccountForLoan(LoanToChargeFees loanToChargeFees) {
@@ -267,7 +492,18 @@ public class ChargeLostFeesWhenAgedToLostService {
   }
 
   private CompletableFuture<Result<Void>> publishClosedLoansLogEvents(Result<List<Loan>> loansResult) {
-    return loansResult.after(loans -> allOf(loans, eventPublisher::publishClosedLoanEvent))
+    return loansResult.after(loans -> allOf(loans,
+      eventPublisher::publishClosedLoanEvent, CONCURRENT_LOANS_TO_PROCESS))
       .thenApply(r -> r.map(v -> null));
   }
+
+  private static Loan lastLoanOf(MultipleRecords<Loan> page) {
+    Loan last = null;
+
+    for (Loan loan : page.getRecords()) {
+      last = loan;
+    }
+
+    return last;
+  }
 }
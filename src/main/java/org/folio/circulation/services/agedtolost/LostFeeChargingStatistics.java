@@ -0,0 +1,116 @@
+package org.folio.circulation.services.agedtolost;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.circulation.support.HttpFailure;
+import org.folio.circulation.support.ServerErrorFailure;
+import org.folio.circulation.support.ValidationErrorFailure;
+import org.folio.circulation.support.http.server.ValidationError;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Throughput, latency and failures of a single run of aged to lost fee charging
+ *
+ * Only the first few failures are described, to keep the response
+ * to a reasonable size when many loans cannot be charged.
+ */
+public class LostFeeChargingStatistics {
+  private static final int MAXIMUM_FAILURES_TO_DESCRIBE = 50;
+
+  private final long startedNanos;
+  private final List<ValidationError> failures = new ArrayList<>();
+
+  private int pagesProcessed = 0;
+  private int loansCharged = 0;
+  private int loansClosed = 0;
+  private int loansFailed = 0;
+  private long totalPageNanos = 0;
+  private long maximumPageNanos = 0;
+  private long finishedNanos;
+
+  LostFeeChargingStatistics() {
+    this.startedNanos = System.nanoTime();
+    this.finishedNanos = startedNanos;
+  }
+
+  void pageProcessed(long pageNanos) {
+    pagesProcessed++;
+    totalPageNanos += pageNanos;
+    maximumPageNanos = Math.max(maximumPageNanos, pageNanos);
+  }
+
+  void loanCharged() {
+    loansCharged++;
+  }
+
+  void loanClosed() {
+    loansClosed++;
+  }
+
+  void loanFailed(String loanId, HttpFailure failure) {
+    loansFailed++;
+
+    if (failures.size() < MAXIMUM_FAILURES_TO_DESCRIBE) {
+      failures.addAll(describe(loanId, failure));
+    }
+  }
+
+  LostFeeChargingStatistics finish() {
+    finishedNanos = System.nanoTime();
+
+    return this;
+  }
+
+  int getLoansProcessed() {
+    return loansCharged + loansClosed + loansFailed;
+  }
+
+  int getLoansFailed() {
+    return loansFailed;
+  }
+
+  public JsonObject toJson() {
+    final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(finishedNanos - startedNanos);
+
+    final JsonArray errors = new JsonArray();
+    failures.forEach(failure -> errors.add(failure.toJson()));
+
+    return new JsonObject()
+      .put("pagesProcessed", pagesProcessed)
+      .put("loansProcessed", getLoansProcessed())
+      .put("loansCharged", loansCharged)
+      .put("loansClosed", loansClosed)
+      .put("loansFailed", loansFailed)
+      .put("elapsedMilliseconds", elapsedMillis)
+      .put("loansPerSecond", elapsedMillis > 0
+        ? getLoansProcessed() * 1000.0 / elapsedMillis
+        : 0.0)
+      .put("averagePageMilliseconds", pagesProcessed > 0
+        ? TimeUnit.NANOSECONDS.toMillis(totalPageNanos / pagesProcessed)
+        : 0L)
+      .put("maximumPageMilliseconds", TimeUnit.NANOSECONDS.toMillis(maximumPageNanos))
+      .put("errors", errors);
+  }
+
+  private static List<ValidationError> describe(String loanId, HttpFailure failure) {
+    final List<ValidationError> descriptions = new ArrayList<>();
+
+    if (failure instanceof ValidationErrorFailure) {
+      ((ValidationErrorFailure) failure).getErrors().forEach(error ->
+        descriptions.add(new ValidationError(error.getMessage(), "loanId", loanId)));
+    }
+    else if (failure instanceof ServerErrorFailure) {
+      descriptions.add(new ValidationError(((ServerErrorFailure) failure).getReason(),
+        "loanId", loanId));
+    }
+    else {
+      descriptions.add(new ValidationError(String.valueOf(failure), "loanId", loanId));
+    }
+
+    return descriptions;
+  }
+}
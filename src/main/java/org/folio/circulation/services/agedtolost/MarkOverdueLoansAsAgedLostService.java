@@ -1,17 +1,26 @@
 package org.folio.circulation.services.agedtolost;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.folio.circulation.domain.ItemStatus.AGED_TO_LOST;
 import static org.folio.circulation.domain.ItemStatus.CLAIMED_RETURNED;
+import static org.folio.circulation.domain.representations.LoanProperties.DUE_DATE;
 import static org.folio.circulation.infrastructure.storage.inventory.ItemRepository.noLocationMaterialTypeAndLoanTypeInstance;
 import static org.folio.circulation.support.AsyncCoordinationUtil.allOf;
+import static org.folio.circulation.support.BoundedConcurrency.atMost;
 import static org.folio.circulation.support.ClockManager.getClockManager;
 import static org.folio.circulation.support.CqlSortBy.ascending;
+import static org.folio.circulation.support.CqlSortBy.sortBy;
 import static org.folio.circulation.support.http.client.CqlQuery.exactMatch;
+import static org.folio.circulation.support.http.client.CqlQuery.greaterThan;
 import static org.folio.circulation.support.http.client.CqlQuery.lessThan;
 import static org.folio.circulation.support.http.client.CqlQuery.notEqual;
 import static org.folio.circulation.support.http.client.PageLimit.limit;
+import static org.folio.circulation.support.json.JsonPropertyFetcher.getProperty;
+import static org.folio.circulation.support.results.Result.succeeded;
 import static org.folio.circulation.support.results.ResultBinding.mapResult;
 
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -23,43 +32,108 @@ import org.folio.circulation.infrastructure.storage.inventory.ItemRepository;
 import org.folio.circulation.infrastructure.storage.loans.LoanRepository;
 import org.folio.circulation.infrastructure.storage.loans.LostItemPolicyRepository;
 import org.folio.circulation.services.EventPublisher;
+import org.folio.circulation.support.BoundedConcurrency;
 import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.CqlSortClause;
 import org.folio.circulation.support.http.client.CqlQuery;
 import org.folio.circulation.support.http.client.PageLimit;
 import org.folio.circulation.support.results.Result;
 import org.joda.time.DateTime;
-
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ages overdue loans to lost, walking through all of the overdue loans
+ * one page at a time, in order of due date and then id
+ *
+ * Pages are found using the due date and id of the last loan on the previous page,
+ * rather than an offset, as loans that are aged to lost no longer match the query.
+ * The next page is fetched whilst the current page is being processed,
+ * and no further pages are fetched once the time budget has been used up.
+ */
 public class MarkOverdueLoansAsAgedLostService {
-  private static final int DEFAULT_MAXIMUM_LOANS_TO_PROCESS = 1000;
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final int DEFAULT_PAGE_SIZE = 1000;
+  private static final Duration DEFAULT_TIME_BUDGET = Duration.ofMinutes(10);
+  private static final BoundedConcurrency CONCURRENT_LOANS_TO_PROCESS = atMost(10);
 
   private final LoanRepository loanRepository;
   private final LostItemPolicyRepository lostItemPolicyRepository;
   private final ItemRepository itemRepository;
   private final StoreLoanAndItem storeLoanAndItem;
-  private final PageLimit maximumNumberOfLoansToProcess;
+  private final int pageSize;
+  private final Duration timeBudget;
   private final EventPublisher eventPublisher;
 
-  public MarkOverdueLoansAsAgedLostService(Clients clients, int maximumNumberOfLoansToProcess) {
+  public MarkOverdueLoansAsAgedLostService(Clients clients, int pageSize,
+    Duration timeBudget) {
+
     this.loanRepository = new LoanRepository(clients);
     this.lostItemPolicyRepository = new LostItemPolicyRepository(clients);
     this.itemRepository = noLocationMaterialTypeAndLoanTypeInstance(clients);
     this.storeLoanAndItem = new StoreLoanAndItem(clients);
-    this.maximumNumberOfLoansToProcess = limit(maximumNumberOfLoansToProcess);
+    this.pageSize = pageSize;
+    this.timeBudget = timeBudget;
     this.eventPublisher = new EventPublisher(clients.pubSubPublishingService());
   }
 
   public MarkOverdueLoansAsAgedLostService(Clients clients) {
-    this(clients, DEFAULT_MAXIMUM_LOANS_TO_PROCESS);
+    this(clients, DEFAULT_PAGE_SIZE, DEFAULT_TIME_BUDGET);
   }
 
   public CompletableFuture<Result<Void>> processAgeToLost() {
-    return fetchOverdueLoans()
-      .thenCompose(r -> r.after(lostItemPolicyRepository::findLostItemPoliciesForLoans))
+    final long deadline = System.nanoTime() + timeBudget.toNanos();
+
+    return processPages(fetchFirstPage(), deadline, 1);
+  }
+
+  private CompletableFuture<Result<Void>> processPages(
+    CompletableFuture<Result<MultipleRecords<Loan>>> pageFetch, long deadline,
+    int pageNumber) {
+
+    return pageFetch.thenCompose(r -> r.after(page -> {
+      if (page.isEmpty()) {
+        return completedFuture(succeeded(null));
+      }
+
+      final CompletableFuture<Result<MultipleRecords<Loan>>> nextPageFetch =
+        fetchNextPage(page, deadline, pageNumber);
+
+      log.info("Processing {} overdue loans on page {} to age to lost",
+        page.getRecords().size(), pageNumber);
+
+      return processPage(page)
+        .thenCompose(processed -> processed.after(
+          v -> processPages(nextPageFetch, deadline, pageNumber + 1)));
+    }));
+  }
+
+  private CompletableFuture<Result<MultipleRecords<Loan>>> fetchNextPage(
+    MultipleRecords<Loan> page, long deadline, int pageNumber) {
+
+    if (page.getRecords().size() < pageSize) {
+      return completedFuture(succeeded(MultipleRecords.empty()));
+    }
+
+    if (System.nanoTime() - deadline > 0) {
+      log.info("Time budget of {} used up after {} pages, remaining overdue loans " +
+        "will be aged to lost on the next run", timeBudget, pageNumber);
+
+      return completedFuture(succeeded(MultipleRecords.empty()));
+    }
+
+    return fetchPageAfter(lastLoanOf(page));
+  }
+
+  private CompletableFuture<Result<Void>> processPage(MultipleRecords<Loan> page) {
+    return lostItemPolicyRepository.findLostItemPoliciesForLoans(page)
       .thenApply(this::getLoansThatHaveToBeAgedToLost)
       .thenCompose(loansResult -> itemRepository.fetchItemsFor(loansResult, Loan::withItem))
       .thenApply(this::markLoansAsAgedToLost)
       .thenCompose(this::updateLoansAndItemsInStorage)
-      .thenCompose(r -> r.after(loans -> allOf(loans, eventPublisher::publishAgedToLostEvent)))
+      .thenCompose(r -> r.after(loans -> allOf(loans,
+        eventPublisher::publishAgedToLostEvent, CONCURRENT_LOANS_TO_PROCESS)))
       .thenApply(mapResult(v -> null));
   }
 
@@ -85,12 +159,54 @@ public class MarkOverdueLoansAsAgedLostService {
 
     return loanRecordsResult
       .map(MultipleRecords::getRecords)
-      .after(loans -> allOf(loans, storeLoanAndItem::updateLoanAndItemInStorage));
+      .after(loans -> storeLoanAndItem.updateLoansAndItemsInStorage(loans)
+        .thenApply(Result::combineAll));
+  }
+
+  private CompletableFuture<Result<MultipleRecords<Loan>>> fetchFirstPage() {
+    return overdueLoansQuery()
+      .map(query -> query.sortBy(sortBy(
+        CqlSortClause.ascending(DUE_DATE), CqlSortClause.ascending("id"))))
+      .after(query -> loanRepository.findByQuery(query, limit(pageSize)));
   }
 
-  private CompletableFuture<Result<MultipleRecords<Loan>>> fetchOverdueLoans() {
-    return loanFetchQuery().after(
-      query -> loanRepository.findByQuery(query, maximumNumberOfLoansToProcess));
+  /**
+   * Fetches the loans that follow the last loan, first those with the same
+   * due date and a greater id, and then those with a later due date
+   */
+  private CompletableFuture<Result<MultipleRecords<Loan>>> fetchPageAfter(Loan lastLoan) {
+    final String lastDueDate = getProperty(lastLoan.asJson(), DUE_DATE);
+
+    final Result<CqlQuery> sameDueDateQuery = overdueLoansQuery()
+      .combine(exactMatch(DUE_DATE, lastDueDate), CqlQuery::and)
+      .combine(greaterThan("id", lastLoan.getId()), CqlQuery::and)
+      .map(query -> query.sortBy(ascending("id")));
+
+    final Result<CqlQuery> laterDueDateQuery = overdueLoansQuery()
+      .combine(greaterThan(DUE_DATE, lastDueDate), CqlQuery::and)
+      .map(query -> query.sortBy(sortBy(
+        CqlSortClause.ascending(DUE_DATE), CqlSortClause.ascending("id"))));
+
+    return sameDueDateQuery
+      .after(query -> loanRepository.findByQuery(query, limit(pageSize)))
+      .thenCompose(r -> r.after(sameDueDate ->
+        fetchRemainderOfPage(sameDueDate, laterDueDateQuery)));
+  }
+
+  private CompletableFuture<Result<MultipleRecords<Loan>>> fetchRemainderOfPage(
+    MultipleRecords<Loan> sameDueDate, Result<CqlQuery> laterDueDateQuery) {
+
+    final int remaining = pageSize - sameDueDate.getRecords().size();
+
+    if (remaining <= 0) {
+      return completedFuture(succeeded(sameDueDate));
+    }
+
+    final PageLimit remainingLimit = limit(remaining);
+
+    return laterDueDateQuery
+      .after(query -> loanRepository.findByQuery(query, remainingLimit))
+      .thenApply(mapResult(sameDueDate::combine));
   }
 
   private Result<MultipleRecords<Loan>> getLoansThatHaveToBeAgedToLost(
@@ -104,15 +220,24 @@ public class MarkOverdueLoansAsAgedLostService {
     return loan.getLostItemPolicy().canAgeLoanToLost(loan.getDueDate());
   }
 
-  private Result<CqlQuery> loanFetchQuery() {
+  private Result<CqlQuery> overdueLoansQuery() {
     final Result<CqlQuery> statusQuery = exactMatch("status.name", "Open");
-    final Result<CqlQuery> dueDateQuery = lessThan("dueDate", getClockManager().getDateTime());
+    final Result<CqlQuery> dueDateQuery = lessThan(DUE_DATE, getClockManager().getDateTime());
     final Result<CqlQuery> claimedReturnedQuery = notEqual("itemStatus", CLAIMED_RETURNED.getValue());
     final Result<CqlQuery> agedToLostQuery = notEqual("itemStatus", AGED_TO_LOST.getValue());
 
     return statusQuery.combine(dueDateQuery, CqlQuery::and)
       .combine(claimedReturnedQuery, CqlQuery::and)
-      .combine(agedToLostQuery, CqlQuery::and)
-      .map(query -> query.sortBy(ascending("dueDate")));
+      .combine(agedToLostQuery, CqlQuery::and);
+  }
+
+  private static Loan lastLoanOf(MultipleRecords<Loan> page) {
+    Loan last = null;
+
+    for (Loan loan : page.getRecords()) {
+      last = loan;
+    }
+
+    return last;
   }
 }
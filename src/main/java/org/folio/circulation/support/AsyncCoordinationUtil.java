@@ -1,13 +1,23 @@
 package org.folio.circulation.support;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
+import static org.folio.circulation.support.utils.SchedulingUtil.runLater;
+
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.folio.circulation.support.results.Result;
 
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+
 public class AsyncCoordinationUtil {
 
   private AsyncCoordinationUtil() {
@@ -25,6 +35,19 @@ public class AsyncCoordinationUtil {
       .thenApply(Result::combineAll);
   }
 
+  /**
+   * Applies {@code asyncAction} to all the elements in {@code collection},
+   * with no more than the window size of {@code concurrency} in progress at once,
+   * and combines results to list
+   */
+  public static <T, R> CompletableFuture<Result<List<R>>> allOf(
+    Collection<T> collection, Function<T, CompletableFuture<Result<R>>> asyncAction,
+    BoundedConcurrency concurrency) {
+
+    return allResultsOf(collection, asyncAction, concurrency)
+      .thenApply(Result::combineAll);
+  }
+
   /**
    * Applies {@code asyncAction} to all the elements in {@code collection}
    * and returns a CompletableFuture with a list of all results
@@ -40,4 +63,176 @@ public class AsyncCoordinationUtil {
       .thenApply(v -> futures.stream().map(CompletableFuture::join).collect(Collectors.toList()));
   }
 
+  /**
+   * Applies {@code asyncAction} to all the elements in {@code collection},
+   * starting the next action whenever an earlier one completes so that
+   * no more than the window size of {@code concurrency} are in progress at once,
+   * and returns a CompletableFuture with a list of all results in the same order
+   * as the elements
+   *
+   * When {@code concurrency} is fail fast, elements that have not been started
+   * when an action fails are not processed and are given that failure instead
+   */
+  public static <T, R> CompletableFuture<List<Result<R>>> allResultsOf(
+    Collection<T> collection,
+    Function<T, CompletableFuture<Result<R>>> asyncAction,
+    BoundedConcurrency concurrency) {
+
+    return new WindowedExecution<>(new ArrayList<>(collection), asyncAction,
+      concurrency).start();
+  }
+
+  private static class WindowedExecution<T, R> {
+    private final List<T> elements;
+    private final Function<T, CompletableFuture<Result<R>>> asyncAction;
+    private final BoundedConcurrency concurrency;
+    private final List<Result<R>> results;
+    private final CompletableFuture<List<Result<R>>> allCompleted;
+    // rate limited actions are started later on the caller's event loop
+    private final Context context;
+
+    private int nextIndex = 0;
+    private int completedCount = 0;
+    private int availableSlots = 0;
+    private boolean starting = false;
+    private long nextAllowedStart = System.nanoTime();
+    private Result<R> firstFailure;
+
+    private WindowedExecution(List<T> elements,
+      Function<T, CompletableFuture<Result<R>>> asyncAction,
+      BoundedConcurrency concurrency) {
+
+      this.elements = elements;
+      this.asyncAction = asyncAction;
+      this.concurrency = concurrency;
+      this.results = new ArrayList<>(Collections.nCopies(elements.size(), null));
+      this.allCompleted = new CompletableFuture<>();
+      this.context = Vertx.currentContext();
+    }
+
+    private CompletableFuture<List<Result<R>>> start() {
+      if (elements.isEmpty()) {
+        return completedFuture(results);
+      }
+
+      releaseSlots(Math.min(concurrency.getWindowSize(), elements.size()));
+
+      return allCompleted;
+    }
+
+    /**
+     * Starts an action for each released slot. Actions that complete
+     * synchronously release their slot while this loop is still running,
+     * so it is only ever entered once at a time to avoid deep recursion
+     */
+    private void releaseSlots(int slots) {
+      synchronized (this) {
+        availableSlots += slots;
+
+        if (starting) {
+          return;
+        }
+
+        starting = true;
+      }
+
+      while (true) {
+        final int index;
+        final long delay;
+
+        synchronized (this) {
+          if (availableSlots == 0 || nextIndex >= elements.size()) {
+            starting = false;
+            return;
+          }
+
+          availableSlots--;
+
+          if (firstFailure != null) {
+            skipRemaining();
+            index = -1;
+            delay = 0;
+          }
+          else {
+            index = nextIndex++;
+            delay = reserveStart();
+          }
+        }
+
+        if (index < 0) {
+          completeWhenAllDone();
+        }
+        else if (delay > 0) {
+          runLater(context, toMillisecondsRoundingUp(delay), () -> invoke(index));
+        }
+        else {
+          invoke(index);
+        }
+      }
+    }
+
+    private void invoke(int index) {
+      CompletableFuture<Result<R>> action;
+
+      try {
+        action = asyncAction.apply(elements.get(index));
+      }
+      catch (Exception e) {
+        action = completedFuture(failedDueToServerError(e));
+      }
+
+      action.whenComplete((result, error) -> completed(index,
+        error == null ? result : failedDueToServerError(error)));
+    }
+
+    private void completed(int index, Result<R> result) {
+      synchronized (this) {
+        results.set(index, result);
+        completedCount++;
+
+        if (concurrency.isFailFast() && result.failed() && firstFailure == null) {
+          firstFailure = result;
+        }
+      }
+
+      completeWhenAllDone();
+      releaseSlots(1);
+    }
+
+    private void skipRemaining() {
+      while (nextIndex < elements.size()) {
+        results.set(nextIndex++, firstFailure);
+        completedCount++;
+      }
+    }
+
+    private void completeWhenAllDone() {
+      final boolean allDone;
+
+      synchronized (this) {
+        allDone = completedCount == elements.size();
+      }
+
+      if (allDone) {
+        allCompleted.complete(results);
+      }
+    }
+
+    private long reserveStart() {
+      if (!concurrency.isRateLimited()) {
+        return 0;
+      }
+
+      final long now = System.nanoTime();
+      final long start = Math.max(now, nextAllowedStart);
+
+      nextAllowedStart = start + concurrency.getMinimumIntervalBetweenStarts().toNanos();
+
+      return start - now;
+    }
+
+    private static long toMillisecondsRoundingUp(long nanoseconds) {
+      return TimeUnit.NANOSECONDS.toMillis(nanoseconds + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+    }
+  }
 }
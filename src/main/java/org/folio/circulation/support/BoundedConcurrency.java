@@ -0,0 +1,71 @@
+package org.folio.circulation.support;
+
+import java.time.Duration;
+
+/**
+ * Describes how many asynchronous actions can be in progress at the same time
+ * when applying an action to many elements, see {@link AsyncCoordinationUtil}
+ */
+public class BoundedConcurrency {
+  private final int windowSize;
+  private final boolean failFast;
+  private final Duration minimumIntervalBetweenStarts;
+
+  private BoundedConcurrency(int windowSize, boolean failFast,
+    Duration minimumIntervalBetweenStarts) {
+
+    if (windowSize < 1) {
+      throw new IllegalArgumentException(
+        "Window size must be at least 1, but was " + windowSize);
+    }
+
+    this.windowSize = windowSize;
+    this.failFast = failFast;
+    this.minimumIntervalBetweenStarts = minimumIntervalBetweenStarts;
+  }
+
+  /**
+   * At most {@code windowSize} actions are in progress at once,
+   * all elements are processed even when some actions fail
+   */
+  public static BoundedConcurrency atMost(int windowSize) {
+    return new BoundedConcurrency(windowSize, false, Duration.ZERO);
+  }
+
+  /**
+   * No further actions are started once any action has failed
+   */
+  public BoundedConcurrency failingFast() {
+    return new BoundedConcurrency(windowSize, true, minimumIntervalBetweenStarts);
+  }
+
+  /**
+   * Limits how many actions can be started each second,
+   * regardless of how quickly earlier actions complete
+   */
+  public BoundedConcurrency startingAtMostPerSecond(int actionsPerSecond) {
+    if (actionsPerSecond < 1) {
+      throw new IllegalArgumentException(
+        "Rate must be at least 1 action per second, but was " + actionsPerSecond);
+    }
+
+    return new BoundedConcurrency(windowSize, failFast,
+      Duration.ofSeconds(1).dividedBy(actionsPerSecond));
+  }
+
+  public int getWindowSize() {
+    return windowSize;
+  }
+
+  public boolean isFailFast() {
+    return failFast;
+  }
+
+  public boolean isRateLimited() {
+    return !minimumIntervalBetweenStarts.isZero();
+  }
+
+  public Duration getMinimumIntervalBetweenStarts() {
+    return minimumIntervalBetweenStarts;
+  }
+}
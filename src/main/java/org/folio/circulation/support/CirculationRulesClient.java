@@ -2,25 +2,19 @@ package org.folio.circulation.support;
 
 import static org.folio.circulation.support.http.client.NamedQueryParameter.namedParameter;
 
-import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.concurrent.CompletableFuture;
 
 import org.folio.circulation.support.http.client.OkapiHttpClient;
 import org.folio.circulation.support.http.client.Response;
-import org.folio.circulation.support.http.server.WebContext;
 import org.folio.circulation.support.results.Result;
 
 public class CirculationRulesClient {
   private final URL root;
   private final OkapiHttpClient client;
 
-  CirculationRulesClient(OkapiHttpClient client,
-    WebContext context, String policyPath)
-
-    throws MalformedURLException {
-
-    root = context.getOkapiBasedUrl(policyPath);
+  CirculationRulesClient(OkapiHttpClient client, URL root) {
+    this.root = root;
     this.client = client;
   }
 
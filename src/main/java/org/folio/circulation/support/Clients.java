@@ -1,6 +1,9 @@
 package org.folio.circulation.support;
 
 import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.folio.circulation.rules.CirculationRulesProcessor;
 import org.folio.circulation.services.PubSubPublishingService;
@@ -9,679 +12,318 @@ import org.folio.circulation.support.http.server.WebContext;
 
 import io.vertx.core.http.HttpClient;
 
+/**
+ * The clients used to make requests to other modules whilst processing a request
+ *
+ * Most requests only use a handful of the clients, so each client is only
+ * created when it is first used and is then reused for the rest of the request.
+ * The URLs for the clients only depend upon the Okapi location (not the tenant),
+ * so are only built once and are shared between requests.
+ */
 public class Clients {
-  private final CollectionResourceClient requestsStorageClient;
-  private final CollectionResourceClient requestsBatchStorageClient;
-  private final CollectionResourceClient cancellationReasonStorageClient;
-  private final CollectionResourceClient itemsStorageClient;
-  private final CollectionResourceClient holdingsStorageClient;
-  private final CollectionResourceClient instancesStorageClient;
-  private final CollectionResourceClient usersStorageClient;
-  private final CollectionResourceClient addressTypesStorageClient;
-  private final CollectionResourceClient loansStorageClient;
-  private final CollectionResourceClient locationsStorageClient;
-  private final CollectionResourceClient institutionsStorageClient;
-  private final CollectionResourceClient campusesStorageClient;
-  private final CollectionResourceClient librariesStorageClient;
-  private final CollectionResourceClient materialTypesStorageClient;
-  private final CollectionResourceClient loanTypesStorageClient;
-  private final GetManyRecordsClient proxiesForClient;
-  private final CollectionResourceClient loanPoliciesStorageClient;
-  private final CollectionResourceClient overdueFinesPoliciesPoliciesStorageClient;
-  private final CollectionResourceClient lostItemPoliciesStorageClient;
-  private final GetManyRecordsClient fixedDueDateSchedulesStorageClient;
-  private final CirculationRulesClient circulationLoanRulesClient;
-  private final CirculationRulesClient circulationOverdueFinesRulesClient;
-  private final CirculationRulesClient circulationLostItemRulesClient;
-  private final CirculationRulesClient circulationRequestRulesClient;
-  private final CirculationRulesClient circulationNoticeRulesClient;
-  private final CollectionResourceClient circulationRulesStorageClient;
-  private final CollectionResourceClient requestPoliciesStorageClient;
-  private final CollectionResourceClient servicePointsStorageClient;
-  private final CollectionResourceClient calendarStorageClient;
-  private final CollectionResourceClient patronGroupsStorageClient;
-  private final CollectionResourceClient patronNoticePolicesStorageClient;
-  private final CollectionResourceClient patronNoticeClient;
-  private final GetManyRecordsClient configurationStorageClient;
-  private final CollectionResourceClient scheduledNoticesStorageClient;
-  private final CollectionResourceClient accountsStorageClient;
-  private final CollectionResourceClient feeFineActionsStorageClient;
-  private final CollectionResourceClient feeFineOwnerStorageClient;
-  private final CollectionResourceClient feeFineStorageClient;
-  private final CollectionResourceClient anonymizeStorageLoansClient;
-  private final CollectionResourceClient patronActionSessionsStorageClient;
-  private final CollectionResourceClient patronExpiredSessionsStorageClient;
-  private final GetManyRecordsClient userManualBlocksStorageClient;
-  private final CollectionResourceClient templateNoticeClient;
-  private final CollectionResourceClient checkInStorageClient;
-  private final CollectionResourceClient automatedPatronBlocksClient;
-  private final CollectionResourceClient notesClient;
-  private final CollectionResourceClient noteTypesClient;
-  private final PubSubPublishingService pubSubPublishingService;
-  private final CirculationRulesProcessor circulationRulesProcessor;
+  private final String tenantId;
+  private final OkapiHttpClient client;
+  private final WebContext context;
+  private final OkapiUrls okapiUrls;
+
+  private final Map<String, CollectionResourceClient> collectionClients
+    = new ConcurrentHashMap<>();
+  private final Map<String, CirculationRulesClient> rulesClients
+    = new ConcurrentHashMap<>();
+
+  private volatile PubSubPublishingService pubSubPublishingService;
+  private volatile CirculationRulesProcessor circulationRulesProcessor;
 
   public static Clients create(WebContext context, HttpClient httpClient) {
     return new Clients(context.createHttpClient(httpClient), context);
   }
 
-  private Clients(OkapiHttpClient client, WebContext context) {
-    try {
-      requestsStorageClient = createRequestsStorageClient(client, context);
-      requestsBatchStorageClient = createRequestsBatchStorageClient(client, context);
-      cancellationReasonStorageClient = createCancellationReasonStorageClient(client, context);
-      itemsStorageClient = createItemsStorageClient(client, context);
-      holdingsStorageClient = createHoldingsStorageClient(client, context);
-      instancesStorageClient = createInstanceStorageClient(client, context);
-      usersStorageClient = createUsersStorageClient(client, context);
-      addressTypesStorageClient = createAddressTypesStorageClient(client, context);
-      loansStorageClient = createLoansStorageClient(client, context);
-      overdueFinesPoliciesPoliciesStorageClient = createOverdueFinesPoliciesStorageClient(client, context);
-      lostItemPoliciesStorageClient = createLostItemPoliciesStorageClient(client, context);
-      locationsStorageClient = createLocationsStorageClient(client, context);
-      anonymizeStorageLoansClient = createAnonymizeStorageLoansClient(client, context);
-      institutionsStorageClient = createInstitutionsStorageClient(client, context);
-      campusesStorageClient = createCampusesStorageClient(client, context);
-      librariesStorageClient = createLibrariesStorageClient(client, context);
-      materialTypesStorageClient = createMaterialTypesStorageClient(client, context);
-      loanTypesStorageClient = createLoanTypesStorageClient(client, context);
-      proxiesForClient = createProxyUsersStorageClient(client, context);
-      circulationLoanRulesClient = createCirculationLoanRulesClient(client, context);
-      circulationRequestRulesClient = createCirculationRequestRulesClient(client, context);
-      circulationNoticeRulesClient = createCirculationNoticeRulesClient(client, context);
-      circulationOverdueFinesRulesClient = createCirculationOverdueFinesRulesClient(client, context);
-      circulationLostItemRulesClient = createCirculationLostItemRulesClient(client, context);
-      circulationRulesStorageClient = createCirculationRulesStorageClient(client, context);
-      loanPoliciesStorageClient = createLoanPoliciesStorageClient(client, context);
-      requestPoliciesStorageClient = createRequestPoliciesStorageClient(client, context);
-      fixedDueDateSchedulesStorageClient = createFixedDueDateSchedulesStorageClient(client, context);
-      servicePointsStorageClient = createServicePointsStorageClient(client, context);
-      patronGroupsStorageClient = createPatronGroupsStorageClient(client, context);
-      calendarStorageClient = createCalendarStorageClient(client, context);
-      patronNoticePolicesStorageClient = createPatronNoticePolicesStorageClient(client, context);
-      patronNoticeClient = createPatronNoticeClient(client, context);
-      configurationStorageClient = createConfigurationStorageClient(client, context);
-      scheduledNoticesStorageClient = createScheduledNoticesStorageClient(client, context);
-      accountsStorageClient = createAccountsStorageClient(client, context);
-      feeFineActionsStorageClient = createFeeFineActionsStorageClient(client,context);
-      feeFineOwnerStorageClient = createFeeFineOwnerStorageClient(client,context);
-      feeFineStorageClient = createFeeFineStorageClient(client,context);
-      patronActionSessionsStorageClient = createPatronActionSessionsStorageClient(client, context);
-      patronExpiredSessionsStorageClient = createPatronExpiredSessionsStorageClient(client, context);
-      userManualBlocksStorageClient = createUserManualBlocksStorageClient(client, context);
-      templateNoticeClient = createTemplateNoticeClient(client, context);
-      checkInStorageClient = createCheckInStorageClient(client, context);
-      automatedPatronBlocksClient = createAutomatedPatronBlocksClient(client, context);
-      notesClient = createNotesClient(client, context);
-      noteTypesClient = createNoteTypesClient(client, context);
-      pubSubPublishingService = createPubSubPublishingService(context);
-      circulationRulesProcessor = new CirculationRulesProcessor(context.getTenantId(),
-        circulationRulesStorageClient, locationsStorageClient);
-    }
-    catch(MalformedURLException e) {
-      throw new InvalidOkapiLocationException(context.getOkapiLocation(), e);
-    }
+  Clients(OkapiHttpClient client, WebContext context) {
+    this.tenantId = context.getTenantId();
+    this.client = client;
+    this.context = context;
+    this.okapiUrls = OkapiUrls.forLocation(context.getOkapiLocation());
+  }
+
+  public String getTenantId() {
+    return tenantId;
   }
 
   public CollectionResourceClient requestsStorage() {
-    return requestsStorageClient;
+    return collectionClient("/request-storage/requests");
   }
 
   public CollectionResourceClient requestsBatchStorage() {
-    return requestsBatchStorageClient;
+    return collectionClient("/request-storage-batch/requests");
   }
 
   public CollectionResourceClient cancellationReasonStorage() {
-    return cancellationReasonStorageClient;
+    return collectionClient("/cancellation-reason-storage/cancellation-reasons");
   }
 
   public CollectionResourceClient requestPoliciesStorage() {
-    return requestPoliciesStorageClient;
+    return collectionClient("/request-policy-storage/request-policies");
   }
 
   public CollectionResourceClient itemsStorage() {
-    return itemsStorageClient;
+    return collectionClient("/item-storage/items");
+  }
+
+  public CollectionResourceClient itemsBatchStorage() {
+    return collectionClient("/item-storage/batch/synchronous");
   }
 
   public CollectionResourceClient holdingsStorage() {
-    return holdingsStorageClient;
+    return collectionClient("/holdings-storage/holdings");
   }
 
   public CollectionResourceClient instancesStorage() {
-    return instancesStorageClient;
+    return collectionClient("/instance-storage/instances");
   }
 
   public CollectionResourceClient usersStorage() {
-    return usersStorageClient;
+    return collectionClient("/users");
   }
 
   public CollectionResourceClient addressTypesStorage() {
-    return addressTypesStorageClient;
+    return collectionClient("/addresstypes");
   }
 
   public CollectionResourceClient loansStorage() {
-    return loansStorageClient;
+    return collectionClient("/loan-storage/loans");
   }
 
   public CollectionResourceClient anonymizeStorageLoansClient() {
-    return anonymizeStorageLoansClient;
+    return collectionClient("/anonymize-storage-loans");
   }
 
   public CollectionResourceClient locationsStorage() {
-    return locationsStorageClient;
+    return collectionClient("/locations");
   }
 
   public CollectionResourceClient institutionsStorage() {
-    return institutionsStorageClient;
+    return collectionClient("/location-units/institutions");
   }
 
   public CollectionResourceClient campusesStorage() {
-    return campusesStorageClient;
+    return collectionClient("/location-units/campuses");
   }
 
   public CollectionResourceClient librariesStorage() {
-    return librariesStorageClient;
+    return collectionClient("/location-units/libraries");
   }
 
   public CollectionResourceClient materialTypesStorage() {
-    return materialTypesStorageClient;
+    return collectionClient("/material-types");
   }
 
   public CollectionResourceClient loanTypesStorage() {
-    return loanTypesStorageClient;
+    return collectionClient("/loan-types");
   }
 
   public CollectionResourceClient loanPoliciesStorage() {
-    return loanPoliciesStorageClient;
+    return collectionClient("/loan-policy-storage/loan-policies");
   }
 
   public CollectionResourceClient overdueFinesPoliciesStorage() {
-    return overdueFinesPoliciesPoliciesStorageClient;
+    return collectionClient("/overdue-fines-policies");
   }
 
   public CollectionResourceClient lostItemPoliciesStorage() {
-    return lostItemPoliciesStorageClient;
+    return collectionClient("/lost-item-fees-policies");
   }
 
   public GetManyRecordsClient fixedDueDateSchedules() {
-    return fixedDueDateSchedulesStorageClient;
+    return collectionClient("/fixed-due-date-schedule-storage/fixed-due-date-schedules");
   }
 
   public CollectionResourceClient servicePointsStorage() {
-    return servicePointsStorageClient;
+    return collectionClient("/service-points");
   }
 
   public CollectionResourceClient patronGroupsStorage() {
-    return patronGroupsStorageClient;
+    return collectionClient("/groups");
   }
 
   public CollectionResourceClient calendarStorageClient() {
-    return calendarStorageClient;
+    return collectionClient("/calendar/periods");
   }
 
   public GetManyRecordsClient configurationStorageClient() {
-    return configurationStorageClient;
+    return collectionClient("/configurations/entries");
   }
 
   public GetManyRecordsClient userProxies() {
-    return proxiesForClient;
+    return collectionClient("/proxiesfor");
   }
 
   public CirculationRulesClient circulationLoanRules() {
-    return circulationLoanRulesClient;
+    return rulesClient("/circulation/rules/loan-policy");
   }
 
   public CirculationRulesClient circulationOverdueFineRules() {
-    return circulationOverdueFinesRulesClient;
+    return rulesClient("/circulation/rules/overdue-fine-policy");
   }
 
   public CirculationRulesClient circulationLostItemRules() {
-    return circulationLostItemRulesClient;
+    return rulesClient("/circulation/rules/lost-item-policy");
   }
 
   public CirculationRulesClient circulationRequestRules(){
-    return circulationRequestRulesClient;
+    return rulesClient("/circulation/rules/request-policy");
   }
 
   public CirculationRulesClient circulationNoticeRules(){
-    return circulationNoticeRulesClient;
+    return rulesClient("/circulation/rules/notice-policy");
   }
 
   public CollectionResourceClient circulationRulesStorage() {
-    return circulationRulesStorageClient;
+    return collectionClient("/circulation-rules-storage");
   }
 
   public CollectionResourceClient patronNoticePolicesStorageClient() {
-    return patronNoticePolicesStorageClient;
+    return collectionClient("/patron-notice-policy-storage/patron-notice-policies");
   }
 
   public CollectionResourceClient patronNoticeClient() {
-    return patronNoticeClient;
+    return collectionClient("/patron-notice");
   }
 
   public CollectionResourceClient scheduledNoticesStorageClient() {
-    return scheduledNoticesStorageClient;
+    return collectionClient("/scheduled-notice-storage/scheduled-notices");
   }
 
   public CollectionResourceClient accountsStorageClient() {
-    return accountsStorageClient;
+    return collectionClient("/accounts");
   }
 
   public CollectionResourceClient feeFineActionsStorageClient() {
-    return feeFineActionsStorageClient;
+    return collectionClient("/feefineactions");
   }
 
   public CollectionResourceClient feeFineOwnerStorageClient() {
-    return feeFineOwnerStorageClient;
+    return collectionClient("/owners");
   }
 
   public CollectionResourceClient feeFineStorageClient() {
-    return feeFineStorageClient;
+    return collectionClient("/feefines");
   }
 
   public CollectionResourceClient patronActionSessionsStorageClient() {
-    return patronActionSessionsStorageClient;
+    return collectionClient("/patron-action-session-storage/patron-action-sessions");
   }
 
   public CollectionResourceClient patronExpiredSessionsStorageClient() {
-    return patronExpiredSessionsStorageClient;
+    return collectionClient("/patron-action-session-storage");
   }
 
   public GetManyRecordsClient userManualBlocksStorageClient() {
-    return userManualBlocksStorageClient;
+    return collectionClient("/manualblocks");
   }
 
   public CollectionResourceClient checkInStorageClient() {
-    return checkInStorageClient;
+    return collectionClient("/check-in-storage/check-ins");
   }
 
   public CollectionResourceClient automatedPatronBlocksClient() {
-    return automatedPatronBlocksClient;
+    return collectionClient("/automated-patron-blocks");
   }
 
   public CollectionResourceClient notesClient() {
-    return notesClient;
+    return collectionClient("/notes");
   }
 
   public CollectionResourceClient noteTypesClient() {
-    return noteTypesClient;
+    return collectionClient("/note-types");
   }
 
   public CirculationRulesProcessor circulationRulesProcessor() {
+    if (circulationRulesProcessor == null) {
+      circulationRulesProcessor = new CirculationRulesProcessor(tenantId,
+        circulationRulesStorage(), locationsStorage());
+    }
+
     return circulationRulesProcessor;
   }
 
   public PubSubPublishingService pubSubPublishingService() {
-    return pubSubPublishingService;
-  }
-
-  private static CollectionResourceClient getCollectionResourceClient(
-    OkapiHttpClient client, WebContext context,
-    String path)
-    throws MalformedURLException {
+    if (pubSubPublishingService == null) {
+      pubSubPublishingService = new PubSubPublishingService(context);
+    }
 
-    return new CollectionResourceClient(client, context.getOkapiBasedUrl(path));
+    return pubSubPublishingService;
   }
 
   public CollectionResourceClient templateNoticeClient() {
-    return templateNoticeClient;
-  }
-
-  private static CirculationRulesClient createCirculationLoanRulesClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return new CirculationRulesClient(client, context,
-      "/circulation/rules/loan-policy");
-  }
-
-  private static CirculationRulesClient createCirculationOverdueFinesRulesClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return new CirculationRulesClient(client, context,
-      "/circulation/rules/overdue-fine-policy");
-  }
-
-  private static CirculationRulesClient createCirculationLostItemRulesClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return new CirculationRulesClient(client, context,
-      "/circulation/rules/lost-item-policy");
-  }
-
-  private static CirculationRulesClient createCirculationRequestRulesClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return new CirculationRulesClient(client, context,
-      "/circulation/rules/request-policy");
-  }
-
-  private static CirculationRulesClient createCirculationNoticeRulesClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return new CirculationRulesClient(client, context,
-      "/circulation/rules/notice-policy");
-  }
-
-  private static CollectionResourceClient createRequestsStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/request-storage/requests");
-  }
-
-  private static CollectionResourceClient createRequestsBatchStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/request-storage-batch/requests");
-  }
-
-  private static CollectionResourceClient createCancellationReasonStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/cancellation-reason-storage/cancellation-reasons");
-  }
-
-  private static CollectionResourceClient createItemsStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/item-storage/items");
-  }
-
-  private static CollectionResourceClient createHoldingsStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/holdings-storage/holdings");
-  }
-
-  private static CollectionResourceClient createInstanceStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/instance-storage/instances");
-  }
-
-  private static CollectionResourceClient createUsersStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/users");
-  }
-
-  private static CollectionResourceClient createAddressTypesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/addresstypes");
-  }
-
-  private static CollectionResourceClient createLoansStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/loan-storage/loans");
-  }
-
-  private static CollectionResourceClient createAnonymizeStorageLoansClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/anonymize-storage-loans");
-  }
-
-  private static CollectionResourceClient createLocationsStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/locations");
-  }
-
-  private static CollectionResourceClient createInstitutionsStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/location-units/institutions");
-  }
-
-  private static CollectionResourceClient createCampusesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/location-units/campuses");
-  }
-
-  private static CollectionResourceClient createLibrariesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/location-units/libraries");
-  }
-
-  private GetManyRecordsClient createProxyUsersStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/proxiesfor");
-  }
-
-  private CollectionResourceClient createMaterialTypesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/material-types");
+    return collectionClient("/templates");
   }
 
-  private CollectionResourceClient createLoanTypesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/loan-types");
+  private CollectionResourceClient collectionClient(String path) {
+    return collectionClients.computeIfAbsent(path,
+      key -> new CollectionResourceClient(client, okapiUrls.urlFor(key)));
   }
 
-  private CollectionResourceClient createLoanPoliciesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/loan-policy-storage/loan-policies");
+  private CirculationRulesClient rulesClient(String path) {
+    return rulesClients.computeIfAbsent(path,
+      key -> new CirculationRulesClient(client, okapiUrls.urlFor(key)));
   }
 
-  private CollectionResourceClient createOverdueFinesPoliciesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
+  /**
+   * URLs for paths relative to an Okapi location, built when first needed
+   */
+  static class OkapiUrls {
+    // Usually there is only a single Okapi location, this is only a safeguard
+    private static final int MAXIMUM_LOCATIONS = 10;
 
-    return getCollectionResourceClient(client, context,
-            "/overdue-fines-policies");
-  }
+    private static final Map<String, OkapiUrls> byLocation = new ConcurrentHashMap<>();
 
-  private CollectionResourceClient createLostItemPoliciesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-            "/lost-item-fees-policies");
-  }
+    private final URL okapiLocation;
+    private final Map<String, URL> urls = new ConcurrentHashMap<>();
 
-  private CollectionResourceClient createRequestPoliciesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/request-policy-storage/request-policies");
-  }
-
-  private GetManyRecordsClient createFixedDueDateSchedulesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/fixed-due-date-schedule-storage/fixed-due-date-schedules");
-  }
-
-
-  private CollectionResourceClient createCirculationRulesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/circulation-rules-storage");
-  }
-
-  private CollectionResourceClient createServicePointsStorageClient(
-    OkapiHttpClient client, WebContext context)
-      throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/service-points");
-  }
-
-  private CollectionResourceClient createPatronGroupsStorageClient(
-    OkapiHttpClient client, WebContext context)
-      throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/groups");
-  }
-
-  private CollectionResourceClient createCalendarStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/calendar/periods");
-  }
-
-  private CollectionResourceClient createPatronNoticePolicesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/patron-notice-policy-storage/patron-notice-policies");
-  }
-
-  private CollectionResourceClient createPatronNoticeClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/patron-notice");
-  }
-
-  private GetManyRecordsClient createConfigurationStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/configurations/entries");
-  }
-
-  private CollectionResourceClient createScheduledNoticesStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/scheduled-notice-storage/scheduled-notices");
-  }
-
-  private CollectionResourceClient createAccountsStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/accounts");
-  }
-
-  private CollectionResourceClient createFeeFineActionsStorageClient(
-    OkapiHttpClient client, WebContext context)
-      throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/feefineactions");
-  }
-
-  private CollectionResourceClient createFeeFineOwnerStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-    return getCollectionResourceClient(client, context, "/owners");
-  }
-
-  private CollectionResourceClient createFeeFineStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-    return getCollectionResourceClient(client, context, "/feefines");
-  }
-
-
-  private CollectionResourceClient createPatronActionSessionsStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/patron-action-session-storage/patron-action-sessions");
-  }
-
-  private CollectionResourceClient createPatronExpiredSessionsStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/patron-action-session-storage");
-  }
-
-  private static GetManyRecordsClient createUserManualBlocksStorageClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/manualblocks");
-  }
-
-  private CollectionResourceClient createTemplateNoticeClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/templates");
-  }
-
-  private CollectionResourceClient createCheckInStorageClient(
-    OkapiHttpClient client, WebContext context) throws MalformedURLException {
+    private OkapiUrls(URL okapiLocation) {
+      this.okapiLocation = okapiLocation;
+    }
 
-    return getCollectionResourceClient(client, context, "/check-in-storage/check-ins");
-  }
+    static OkapiUrls forLocation(String okapiLocation) {
+      if (okapiLocation == null) {
+        throw new InvalidOkapiLocationException(null,
+          new MalformedURLException("No Okapi location provided"));
+      }
 
-  private static CollectionResourceClient createAutomatedPatronBlocksClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
+      final OkapiUrls existing = byLocation.get(okapiLocation);
 
-    return getCollectionResourceClient(client, context, "/automated-patron-blocks");
-  }
+      if (existing != null) {
+        return existing;
+      }
 
-  private CollectionResourceClient createNotesClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
+      if (byLocation.size() >= MAXIMUM_LOCATIONS) {
+        byLocation.clear();
+      }
 
-    return getCollectionResourceClient(client, context, "/notes");
-  }
+      return byLocation.computeIfAbsent(okapiLocation, OkapiUrls::parse);
+    }
 
-  private CollectionResourceClient createNoteTypesClient(
-    OkapiHttpClient client, WebContext context)
-    throws MalformedURLException {
+    private static OkapiUrls parse(String okapiLocation) {
+      try {
+        return new OkapiUrls(new URL(okapiLocation));
+      }
+      catch (MalformedURLException e) {
+        throw new InvalidOkapiLocationException(okapiLocation, e);
+      }
+    }
 
-    return getCollectionResourceClient(client, context, "/note-types");
-  }
+    URL urlFor(String path) {
+      return urls.computeIfAbsent(path, this::buildUrl);
+    }
 
-  private PubSubPublishingService createPubSubPublishingService(WebContext context) {
-    return new PubSubPublishingService(context);
+    private URL buildUrl(String path) {
+      try {
+        return new URL(okapiLocation.getProtocol(), okapiLocation.getHost(),
+          okapiLocation.getPort(), path);
+      }
+      catch (MalformedURLException e) {
+        throw new InvalidOkapiLocationException(okapiLocation.toString(), e);
+      }
+    }
   }
 }
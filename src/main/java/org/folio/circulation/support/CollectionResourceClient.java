@@ -10,6 +10,7 @@ import org.folio.circulation.support.http.client.CqlQuery;
 import org.folio.circulation.support.http.client.PageLimit;
 import org.folio.circulation.support.http.client.Offset;
 import org.folio.circulation.support.http.client.OkapiHttpClient;
+import org.folio.circulation.support.http.client.QueryParameter;
 import org.folio.circulation.support.http.client.Response;
 import org.folio.circulation.support.results.Result;
 
@@ -28,6 +29,12 @@ public class CollectionResourceClient implements GetManyRecordsClient {
     return client.post(collectionRoot, representation);
   }
 
+  public CompletableFuture<Result<Response>> post(JsonObject representation,
+    QueryParameter... queryParameters) {
+
+    return client.post(collectionRoot, representation, queryParameters);
+  }
+
   public CompletableFuture<Result<Response>> put(JsonObject representation) {
     return client.put(collectionRoot, representation);
   }
@@ -6,46 +6,54 @@ import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.BodyHandler;
 import org.apache.commons.lang3.StringUtils;
+import org.folio.circulation.support.http.server.AdmissionControl;
+import org.folio.circulation.support.http.server.AdmissionControl.RequestClass;
 import org.folio.circulation.support.http.server.ServerErrorResponse;
 
 public class RouteRegistration {
   private final String rootPath;
   private final Router router;
+  private final Handler<RoutingContext> admission;
 
   public RouteRegistration(String rootPath, Router router) {
+    this(rootPath, router, RequestClass.INTERACTIVE);
+  }
+
+  public RouteRegistration(String rootPath, Router router, RequestClass requestClass) {
     this.rootPath = rootPath;
     this.router = router;
+    this.admission = AdmissionControl.admit(requestClass);
   }
 
   public void get(Handler<RoutingContext> handler) {
-    router.route(HttpMethod.GET, rootPath + "/:id").handler(handler)
+    router.route(HttpMethod.GET, rootPath + "/:id").handler(admission).handler(handler)
       .failureHandler(this::failureResponder);
   }
 
   public void replace(Handler<RoutingContext> handler) {
     this.router.put(rootPath + "*").handler(BodyHandler.create());
-    router.route(HttpMethod.PUT, rootPath + "/:id").handler(handler)
+    router.route(HttpMethod.PUT, rootPath + "/:id").handler(admission).handler(handler)
       .failureHandler(this::failureResponder);
   }
 
   public void delete(Handler<RoutingContext> handler) {
-    router.route(HttpMethod.DELETE, rootPath + "/:id").handler(handler)
+    router.route(HttpMethod.DELETE, rootPath + "/:id").handler(admission).handler(handler)
       .failureHandler(this::failureResponder);
   }
 
   public void deleteAll(Handler<RoutingContext> handler) {
-    router.delete(rootPath).handler(handler)
+    router.delete(rootPath).handler(admission).handler(handler)
       .failureHandler(this::failureResponder);
   }
 
   public void getMany(Handler<RoutingContext> handler) {
-    router.get(rootPath).handler(handler)
+    router.get(rootPath).handler(admission).handler(handler)
       .failureHandler(this::failureResponder);
   }
 
   public void create(Handler<RoutingContext> handler) {
     router.post(rootPath + "*").handler(BodyHandler.create());
-    router.post(rootPath).handler(handler)
+    router.post(rootPath).handler(admission).handler(handler)
       .failureHandler(this::failureResponder);
   }
 
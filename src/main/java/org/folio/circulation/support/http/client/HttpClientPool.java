@@ -0,0 +1,261 @@
+package org.folio.circulation.support.http.client;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.results.Result.failed;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.folio.circulation.support.ServerErrorFailure;
+import org.folio.circulation.support.results.Result;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.http.HttpClient;
+
+/**
+ * Limits the number of requests sent at once using a single HTTP client
+ *
+ * Requests beyond the capacity of the pool wait for an earlier request to complete,
+ * rather than waiting inside of the HTTP client, so that the number of requests
+ * waiting and how long they wait for can be measured. When the wait queue
+ * is full, requests fail straight away.
+ */
+public class HttpClientPool {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(20);
+
+  private final String name;
+  private final HttpClient client;
+  private final int capacity;
+  private final int maximumWaitQueueSize;
+  private final long slowAcquireMilliseconds;
+  private final Duration defaultTimeout;
+
+  private final Deque<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+  private int inUse = 0;
+
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong rejected = new AtomicLong();
+  private final AtomicLong totalAcquireNanos = new AtomicLong();
+  private final LongAccumulator maximumAcquireNanos = new LongAccumulator(Math::max, 0);
+
+  /**
+   * @param capacity maximum number of requests sent at once, less than one for no limit
+   * @param maximumWaitQueueSize maximum number of requests waiting to be sent,
+   * less than zero for no limit
+   */
+  HttpClientPool(String name, HttpClient client, int capacity,
+    int maximumWaitQueueSize, long slowAcquireMilliseconds) {
+
+    this(name, client, capacity, maximumWaitQueueSize, slowAcquireMilliseconds,
+      DEFAULT_TIMEOUT);
+  }
+
+  /**
+   * @param defaultTimeout how long to wait for a response to requests sent
+   * without their own timeout
+   */
+  HttpClientPool(String name, HttpClient client, int capacity,
+    int maximumWaitQueueSize, long slowAcquireMilliseconds, Duration defaultTimeout) {
+
+    this.name = name;
+    this.client = client;
+    this.capacity = capacity;
+    this.maximumWaitQueueSize = maximumWaitQueueSize;
+    this.slowAcquireMilliseconds = slowAcquireMilliseconds;
+    this.defaultTimeout = defaultTimeout;
+  }
+
+  /**
+   * A pool without a limit, for clients that are not managed by any pools
+   */
+  static HttpClientPool unlimited(HttpClient client) {
+    return new HttpClientPool("unmanaged", client, 0, -1, Long.MAX_VALUE);
+  }
+
+  public HttpClient getClient() {
+    return client;
+  }
+
+  public Duration getDefaultTimeout() {
+    return defaultTimeout;
+  }
+
+  /**
+   * Sends the request once there is room in the pool
+   *
+   * @return a future that completes with the response to the request, or with
+   * a failed result if the wait queue is full
+   */
+  public <T> CompletableFuture<Result<T>> submit(
+    Supplier<CompletableFuture<Result<T>>> request) {
+
+    final long queuedAt = System.nanoTime();
+    final CompletableFuture<Void> acquired;
+
+    synchronized (this) {
+      if (capacity < 1 || inUse < capacity) {
+        inUse++;
+        acquired = completedFuture(null);
+      }
+      else if (maximumWaitQueueSize >= 0 && waiting.size() >= maximumWaitQueueSize) {
+        acquired = null;
+      }
+      else {
+        acquired = new CompletableFuture<>();
+        waiting.add(acquired);
+      }
+    }
+
+    if (acquired == null) {
+      rejected.incrementAndGet();
+
+      log.warn("HTTP client pool {} is full, {} requests are waiting", name,
+        maximumWaitQueueSize);
+
+      return completedFuture(failed(new ServerErrorFailure(
+        "Too many requests are waiting to be sent to other modules")));
+    }
+
+    return acquired.thenCompose(notUsed -> send(request, queuedAt));
+  }
+
+  private <T> CompletableFuture<Result<T>> send(
+    Supplier<CompletableFuture<Result<T>>> request, long queuedAt) {
+
+    recordAcquired(queuedAt);
+
+    CompletableFuture<Result<T>> response;
+
+    try {
+      response = request.get();
+    }
+    catch (Exception e) {
+      response = CompletableFuture.failedFuture(e);
+    }
+
+    return response.whenComplete((result, error) -> release());
+  }
+
+  private void release() {
+    final CompletableFuture<Void> next;
+
+    synchronized (this) {
+      next = waiting.poll();
+
+      // the slot is handed over to the next request, rather than released
+      if (next == null) {
+        inUse--;
+      }
+    }
+
+    if (next != null) {
+      next.complete(null);
+    }
+  }
+
+  private void recordAcquired(long queuedAt) {
+    final long acquireNanos = System.nanoTime() - queuedAt;
+
+    requests.incrementAndGet();
+    totalAcquireNanos.addAndGet(acquireNanos);
+    maximumAcquireNanos.accumulate(acquireNanos);
+
+    final long acquireMilliseconds = TimeUnit.NANOSECONDS.toMillis(acquireNanos);
+
+    if (acquireMilliseconds > slowAcquireMilliseconds) {
+      log.warn("Request waited {} ms to be sent using HTTP client pool {}",
+        acquireMilliseconds, name);
+    }
+  }
+
+  public synchronized Metrics getMetrics() {
+    final long requestCount = requests.get();
+
+    return new Metrics(name, capacity, inUse, waiting.size(), requestCount,
+      rejected.get(),
+      requestCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(
+        totalAcquireNanos.get() / requestCount),
+      TimeUnit.NANOSECONDS.toMillis(maximumAcquireNanos.get()));
+  }
+
+  public static class Metrics {
+    private final String name;
+    private final int capacity;
+    private final int inUse;
+    private final int waiting;
+    private final long requests;
+    private final long rejected;
+    private final long averageAcquireMilliseconds;
+    private final long maximumAcquireMilliseconds;
+
+    private Metrics(String name, int capacity, int inUse, int waiting, long requests,
+      long rejected, long averageAcquireMilliseconds, long maximumAcquireMilliseconds) {
+
+      this.name = name;
+      this.capacity = capacity;
+      this.inUse = inUse;
+      this.waiting = waiting;
+      this.requests = requests;
+      this.rejected = rejected;
+      this.averageAcquireMilliseconds = averageAcquireMilliseconds;
+      this.maximumAcquireMilliseconds = maximumAcquireMilliseconds;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public int getCapacity() {
+      return capacity;
+    }
+
+    public int getInUse() {
+      return inUse;
+    }
+
+    public int getWaiting() {
+      return waiting;
+    }
+
+    public long getRequests() {
+      return requests;
+    }
+
+    public long getRejected() {
+      return rejected;
+    }
+
+    public long getAverageAcquireMilliseconds() {
+      return averageAcquireMilliseconds;
+    }
+
+    public long getMaximumAcquireMilliseconds() {
+      return maximumAcquireMilliseconds;
+    }
+
+    @Override
+    public String toString() {
+      return new ToStringBuilder(this)
+        .append("name", name)
+        .append("capacity", capacity)
+        .append("inUse", inUse)
+        .append("waiting", waiting)
+        .append("requests", requests)
+        .append("rejected", rejected)
+        .append("averageAcquireMilliseconds", averageAcquireMilliseconds)
+        .append("maximumAcquireMilliseconds", maximumAcquireMilliseconds)
+        .toString();
+    }
+  }
+}
@@ -0,0 +1,255 @@
+package org.folio.circulation.support.http.client;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * The HTTP clients used to send requests to other modules, with a separate pool
+ * of connections for each class of request
+ *
+ * Requests made whilst processing scheduled work or producing reports use
+ * the background pool, so that they cannot use up the connections needed by
+ * check outs, check ins and other interactive requests. Tenants can also be given
+ * their own pools, either every tenant or only those which are configured,
+ * so that one tenant cannot use up the connections needed by others.
+ *
+ * Settings for a pool are taken from the top level of the configuration,
+ * then from the section for the class of request, then from the section
+ * for the tenant, with later settings taking precedence.
+ */
+public class HttpClientPools {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  public enum PoolClass {
+    INTERACTIVE("interactive"),
+    BACKGROUND("background");
+
+    private final String name;
+
+    PoolClass(String name) {
+      this.name = name;
+    }
+
+    public String getName() {
+      return name;
+    }
+  }
+
+  private static final int DEFAULT_MAXIMUM_POOL_SIZE = 100;
+  private static final int DEFAULT_HTTP2_MULTIPLEXING_LIMIT = 100;
+  private static final int DEFAULT_PIPELINING_LIMIT = 10;
+  private static final int DEFAULT_KEEP_ALIVE_TIMEOUT_SECONDS = 60;
+  private static final long DEFAULT_SLOW_ACQUIRE_MILLISECONDS = 1000;
+
+  private static volatile HttpClientPools instance;
+
+  private final Function<HttpClientOptions, HttpClient> clientFactory;
+  private final JsonObject configuration;
+  private final boolean poolPerTenant;
+
+  /** shared pools, used by tenants without their own pools */
+  private final Map<PoolClass, HttpClientPool> sharedPools;
+  /** the class of request each of the shared clients is used for */
+  private final Map<HttpClient, PoolClass> sharedClientClasses = new IdentityHashMap<>();
+  /** pools by tenant ID and class of request, created when first needed */
+  private final Map<Pair<String, PoolClass>, HttpClientPool> tenantPools
+    = new ConcurrentHashMap<>();
+
+  HttpClientPools(Function<HttpClientOptions, HttpClient> clientFactory,
+    JsonObject configuration) {
+
+    this.clientFactory = clientFactory;
+    this.configuration = configuration;
+    this.poolPerTenant = configuration.getBoolean("poolPerTenant", false);
+
+    this.sharedPools = new EnumMap<>(PoolClass.class);
+
+    for (PoolClass poolClass : PoolClass.values()) {
+      final HttpClientPool pool = createPool(poolClass.getName(),
+        settings(poolClass, null));
+
+      sharedPools.put(poolClass, pool);
+      sharedClientClasses.put(pool.getClient(), poolClass);
+    }
+  }
+
+  /**
+   * Creates the pools using the settings in the configuration,
+   * any setting that is not present uses the default value
+   */
+  public static HttpClientPools configure(Vertx vertx, JsonObject configuration) {
+    instance = new HttpClientPools(vertx::createHttpClient, configuration);
+
+    return instance;
+  }
+
+  public static HttpClientPools getInstance() {
+    return instance;
+  }
+
+  /**
+   * @return the shared HTTP client for the class of request
+   */
+  public HttpClient getClient(PoolClass poolClass) {
+    return sharedPools.get(poolClass).getClient();
+  }
+
+  /**
+   * Chooses the pool for a request made by a tenant
+   *
+   * @param client the shared client given to the resource handling the request,
+   * which determines the class of the request
+   * @return the tenant's own pool for that class of request, if it has one,
+   * otherwise the shared pool for the client
+   */
+  public HttpClientPool poolFor(HttpClient client, String tenantId) {
+    final PoolClass poolClass = sharedClientClasses.get(client);
+
+    if (poolClass == null) {
+      return HttpClientPool.unlimited(client);
+    }
+
+    if (tenantId == null || !hasOwnPools(tenantId)) {
+      return sharedPools.get(poolClass);
+    }
+
+    return tenantPools.computeIfAbsent(Pair.of(tenantId, poolClass),
+      key -> createPool(poolClass.getName() + "-" + tenantId,
+        settings(poolClass, tenantId)));
+  }
+
+  /**
+   * Chooses the pool for a request, using the shared pools when the client
+   * is managed by the pools that have been configured
+   */
+  public static HttpClientPool choosePool(HttpClient client, String tenantId) {
+    final HttpClientPools pools = instance;
+
+    return pools == null
+      ? HttpClientPool.unlimited(client)
+      : pools.poolFor(client, tenantId);
+  }
+
+  public List<HttpClientPool.Metrics> getMetrics() {
+    final List<HttpClientPool.Metrics> metrics = new ArrayList<>();
+
+    sharedPools.values().forEach(pool -> metrics.add(pool.getMetrics()));
+    tenantPools.values().forEach(pool -> metrics.add(pool.getMetrics()));
+
+    return metrics;
+  }
+
+  private boolean hasOwnPools(String tenantId) {
+    return poolPerTenant || tenantsConfiguration().containsKey(tenantId);
+  }
+
+  private JsonObject tenantsConfiguration() {
+    return configuration.getJsonObject("tenants", new JsonObject());
+  }
+
+  private JsonObject settings(PoolClass poolClass, String tenantId) {
+    final JsonObject settings = withoutSections(configuration);
+
+    settings.mergeIn(configuration.getJsonObject(poolClass.getName(), new JsonObject()));
+
+    if (tenantId != null) {
+      final JsonObject tenantSettings = tenantsConfiguration()
+        .getJsonObject(tenantId, new JsonObject());
+
+      settings.mergeIn(withoutSections(tenantSettings));
+      settings.mergeIn(tenantSettings.getJsonObject(poolClass.getName(), new JsonObject()));
+    }
+
+    return settings;
+  }
+
+  private static JsonObject withoutSections(JsonObject configuration) {
+    final JsonObject settings = configuration.copy();
+
+    settings.remove("tenants");
+
+    for (PoolClass poolClass : PoolClass.values()) {
+      settings.remove(poolClass.getName());
+    }
+
+    return settings;
+  }
+
+  private HttpClientPool createPool(String name, JsonObject settings) {
+    final HttpClientOptions options = toOptions(settings);
+
+    final int capacity = settings.getInteger("maxConcurrentRequests",
+      defaultCapacity(options));
+
+    log.info("Creating HTTP client pool {} for {} concurrent requests " +
+        "using {} with up to {} connections", name, capacity,
+      options.getProtocolVersion(), options.getProtocolVersion() == HttpVersion.HTTP_2
+        ? options.getHttp2MaxPoolSize()
+        : options.getMaxPoolSize());
+
+    return new HttpClientPool(name, clientFactory.apply(options), capacity,
+      settings.getInteger("maxWaitQueueSize", -1),
+      settings.getLong("slowAcquireMilliseconds", DEFAULT_SLOW_ACQUIRE_MILLISECONDS),
+      Duration.ofMillis(settings.getLong("timeoutMilliseconds",
+        HttpClientPool.DEFAULT_TIMEOUT.toMillis())));
+  }
+
+  static HttpClientOptions toOptions(JsonObject settings) {
+    final int maximumPoolSize = settings.getInteger("maxPoolSize",
+      DEFAULT_MAXIMUM_POOL_SIZE);
+
+    final HttpClientOptions options = new HttpClientOptions()
+      .setMaxPoolSize(maximumPoolSize)
+      .setKeepAlive(settings.getBoolean("keepAlive", true))
+      .setKeepAliveTimeout(settings.getInteger("keepAliveTimeoutSeconds",
+        DEFAULT_KEEP_ALIVE_TIMEOUT_SECONDS))
+      .setPipelining(settings.getBoolean("pipelining", false))
+      .setPipeliningLimit(settings.getInteger("pipeliningLimit",
+        DEFAULT_PIPELINING_LIMIT));
+
+    if (settings.getBoolean("http2", false)) {
+      options
+        .setProtocolVersion(HttpVersion.HTTP_2)
+        .setHttp2MaxPoolSize(settings.getInteger("http2MaxPoolSize", 1))
+        .setHttp2MultiplexingLimit(settings.getInteger("http2MultiplexingLimit",
+          DEFAULT_HTTP2_MULTIPLEXING_LIMIT))
+        .setHttp2KeepAliveTimeout(settings.getInteger("keepAliveTimeoutSeconds",
+          DEFAULT_KEEP_ALIVE_TIMEOUT_SECONDS));
+    }
+
+    return options;
+  }
+
+  /**
+   * The number of requests that can be sent at once without waiting
+   * inside of the client for a connection
+   */
+  private static int defaultCapacity(HttpClientOptions options) {
+    if (options.getProtocolVersion() == HttpVersion.HTTP_2) {
+      return options.getHttp2MultiplexingLimit() > 0
+        ? options.getHttp2MaxPoolSize() * options.getHttp2MultiplexingLimit()
+        : 0;
+    }
+
+    return options.isPipelining()
+      ? options.getMaxPoolSize() * options.getPipeliningLimit()
+      : options.getMaxPoolSize();
+  }
+}
@@ -9,12 +9,13 @@ import org.folio.circulation.support.results.Result;
 import io.vertx.core.json.JsonObject;
 
 public interface OkapiHttpClient {
-  CompletableFuture<Result<Response>> post(URL url, JsonObject body);
+  CompletableFuture<Result<Response>> post(URL url, JsonObject body,
+      QueryParameter... queryParameters);
 
   CompletableFuture<Result<Response>> post(String url, JsonObject body);
 
   CompletableFuture<Result<Response>> post(String url,
-      JsonObject body, Duration timeout);
+      JsonObject body, Duration timeout, QueryParameter... queryParameters);
 
   CompletableFuture<Result<Response>> get(String url,
       Duration timeout, QueryParameter... queryParameters);
@@ -0,0 +1,95 @@
+package org.folio.circulation.support.http.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * A single request sent to another module whilst processing an incoming request
+ */
+public class OutboundCall {
+  private static final Pattern IDENTIFIER_SEGMENT = Pattern.compile(
+    "/([0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|\\d+)(?=/|$)");
+
+  private final String method;
+  private final String pathTemplate;
+  private final int statusCode;
+  private final long responseBytes;
+  private final long startedAtNanos;
+  private final long durationNanos;
+
+  /**
+   * @param statusCode the status code of the response, 0 when no response was received
+   */
+  public OutboundCall(String method, String pathTemplate, int statusCode,
+    long responseBytes, long startedAtNanos, long durationNanos) {
+
+    this.method = method;
+    this.pathTemplate = pathTemplate;
+    this.statusCode = statusCode;
+    this.responseBytes = responseBytes;
+    this.startedAtNanos = startedAtNanos;
+    this.durationNanos = durationNanos;
+  }
+
+  /**
+   * The path of the URL without the query and with any record IDs replaced,
+   * so that requests for different records can be grouped together,
+   * e.g. /item-storage/items/{id}
+   */
+  public static String pathTemplateOf(String url) {
+    return IDENTIFIER_SEGMENT.matcher(pathOf(url)).replaceAll("/{id}");
+  }
+
+  static String pathOf(String url) {
+    final int startOfHost = url.indexOf("://");
+    final int startOfPath = url.indexOf('/', startOfHost < 0 ? 0 : startOfHost + 3);
+
+    if (startOfPath < 0) {
+      return "/";
+    }
+
+    final int endOfPath = url.indexOf('?', startOfPath);
+
+    return endOfPath < 0
+      ? url.substring(startOfPath)
+      : url.substring(startOfPath, endOfPath);
+  }
+
+  public String getMethod() {
+    return method;
+  }
+
+  public String getPathTemplate() {
+    return pathTemplate;
+  }
+
+  public int getStatusCode() {
+    return statusCode;
+  }
+
+  public long getResponseBytes() {
+    return responseBytes;
+  }
+
+  public long getStartedAtNanos() {
+    return startedAtNanos;
+  }
+
+  public long getFinishedAtNanos() {
+    return startedAtNanos + durationNanos;
+  }
+
+  public long getDurationNanos() {
+    return durationNanos;
+  }
+
+  public long getDurationMilliseconds() {
+    return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s %s %s %sms", method, pathTemplate, statusCode,
+      getDurationMilliseconds());
+  }
+}
@@ -0,0 +1,116 @@
+package org.folio.circulation.support.http.client;
+
+import static java.util.Comparator.comparingLong;
+import static java.util.stream.Collectors.joining;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * The requests sent to other modules whilst processing a single incoming request
+ *
+ * The time spent waiting for other modules is the time during which at least
+ * one request was in progress, so requests sent at the same time are only
+ * counted once. The rest of the total time was spent within this module.
+ */
+public class OutboundCallTrace {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  public static final String TIMING_HEADER = "X-Circulation-Timing";
+
+  private static final int SLOWEST_CALLS_IN_SUMMARY = 3;
+
+  private static volatile boolean timingHeaderEnabled = false;
+
+  private final String requestId;
+  private final long startedAtNanos;
+  private final List<OutboundCall> calls = new ArrayList<>();
+
+  public OutboundCallTrace(String requestId, long startedAtNanos) {
+    this.requestId = requestId;
+    this.startedAtNanos = startedAtNanos;
+  }
+
+  /**
+   * Whether a summary of the trace is included in each response,
+   * in the {@value #TIMING_HEADER} header, false by default
+   */
+  public static void configure(JsonObject configuration) {
+    timingHeaderEnabled = configuration.getBoolean("timingHeader", false);
+  }
+
+  public static boolean isTimingHeaderEnabled() {
+    return timingHeaderEnabled;
+  }
+
+  public String getRequestId() {
+    return requestId;
+  }
+
+  public synchronized void record(OutboundCall call) {
+    calls.add(call);
+  }
+
+  public synchronized List<OutboundCall> getCalls() {
+    return new ArrayList<>(calls);
+  }
+
+  public long getOutboundMilliseconds() {
+    final List<OutboundCall> callsByStart = getCalls();
+
+    callsByStart.sort(comparingLong(OutboundCall::getStartedAtNanos));
+
+    long outboundNanos = 0;
+    long coveredUntil = Long.MIN_VALUE;
+
+    for (OutboundCall call : callsByStart) {
+      final long from = Math.max(call.getStartedAtNanos(), coveredUntil);
+
+      if (call.getFinishedAtNanos() > from) {
+        outboundNanos += call.getFinishedAtNanos() - from;
+        coveredUntil = call.getFinishedAtNanos();
+      }
+    }
+
+    return TimeUnit.NANOSECONDS.toMillis(outboundNanos);
+  }
+
+  /**
+   * e.g. total=120ms; outbound=95ms; calls=14; slowest=GET /item-storage/items 200 40ms,
+   * PUT /loan-storage/loans/{id} 204 20ms
+   */
+  public String summary(long nowNanos) {
+    final List<OutboundCall> slowestCalls = getCalls();
+
+    slowestCalls.sort(comparingLong(OutboundCall::getDurationNanos).reversed());
+
+    return String.format("total=%sms; outbound=%sms; calls=%s; slowest=%s",
+      TimeUnit.NANOSECONDS.toMillis(nowNanos - startedAtNanos),
+      getOutboundMilliseconds(), slowestCalls.size(),
+      slowestCalls.stream()
+        .limit(SLOWEST_CALLS_IN_SUMMARY)
+        .map(OutboundCall::toString)
+        .collect(joining(", ")));
+  }
+
+  public void logSummary(String method, String path) {
+    if (!log.isDebugEnabled()) {
+      return;
+    }
+
+    log.debug("{} {} (request {}): {}", method, path, requestId,
+      summary(System.nanoTime()));
+
+    getCalls().forEach(call -> log.debug("{} {} (request {}) +{}ms: {} {} bytes",
+      method, path, requestId,
+      TimeUnit.NANOSECONDS.toMillis(call.getStartedAtNanos() - startedAtNanos),
+      call, call.getResponseBytes()));
+  }
+}
@@ -0,0 +1,157 @@
+package org.folio.circulation.support.http.client;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograms of how long requests to other modules take, by method
+ * and path template, in the Prometheus text exposition format,
+ * so that they can be scraped directly from the module
+ */
+public class OutboundRequestHistograms {
+  private static final long[] BUCKET_BOUNDARY_MILLISECONDS = {
+    5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000 };
+
+  // Path templates replace record IDs, so this is only a safeguard
+  private static final int MAXIMUM_PATHS = 500;
+  private static final String OTHER_PATHS = "other";
+
+  private static final OutboundRequestHistograms instance = new OutboundRequestHistograms();
+
+  private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+  OutboundRequestHistograms() { }
+
+  public static OutboundRequestHistograms getInstance() {
+    return instance;
+  }
+
+  public void record(OutboundCall call) {
+    final String pathTemplate = histograms.size() < MAXIMUM_PATHS
+      ? call.getPathTemplate()
+      : OTHER_PATHS;
+
+    histograms.computeIfAbsent(key(call.getMethod(), pathTemplate),
+      key -> new Histogram(call.getMethod(), pathTemplate))
+      .record(call);
+  }
+
+  public void reset() {
+    histograms.clear();
+  }
+
+  public String toPrometheusText() {
+    final StringBuilder text = new StringBuilder();
+
+    text.append("# HELP circulation_outbound_request_duration_seconds ")
+      .append("Duration of requests to other modules\n")
+      .append("# TYPE circulation_outbound_request_duration_seconds histogram\n");
+
+    sorted().values().forEach(histogram -> histogram.writeDurations(text));
+
+    text.append("# HELP circulation_outbound_response_bytes_total ")
+      .append("Bytes received in responses from other modules\n")
+      .append("# TYPE circulation_outbound_response_bytes_total counter\n");
+
+    sorted().values().forEach(histogram -> histogram.writeCounter(text,
+      "circulation_outbound_response_bytes_total", histogram.responseBytes));
+
+    text.append("# HELP circulation_outbound_request_failures_total ")
+      .append("Requests to other modules that received no response or a server error\n")
+      .append("# TYPE circulation_outbound_request_failures_total counter\n");
+
+    sorted().values().forEach(histogram -> histogram.writeCounter(text,
+      "circulation_outbound_request_failures_total", histogram.failures));
+
+    return text.toString();
+  }
+
+  private Map<String, Histogram> sorted() {
+    return new TreeMap<>(histograms);
+  }
+
+  private static String key(String method, String pathTemplate) {
+    return pathTemplate + " " + method;
+  }
+
+  private static class Histogram {
+    private final String labels;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDARY_MILLISECONDS.length];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    Histogram(String method, String pathTemplate) {
+      this.labels = String.format("method=\"%s\",path=\"%s\"", escape(method),
+        escape(pathTemplate));
+
+      for (int index = 0; index < buckets.length; index++) {
+        buckets[index] = new LongAdder();
+      }
+    }
+
+    void record(OutboundCall call) {
+      final long durationMilliseconds = call.getDurationMilliseconds();
+
+      // buckets are cumulative, so only the first bucket that fits is counted
+      for (int index = 0; index < buckets.length; index++) {
+        if (durationMilliseconds <= BUCKET_BOUNDARY_MILLISECONDS[index]) {
+          buckets[index].increment();
+          break;
+        }
+      }
+
+      count.increment();
+      totalNanos.add(call.getDurationNanos());
+      responseBytes.add(call.getResponseBytes());
+
+      if (call.getStatusCode() == 0 || call.getStatusCode() >= 500) {
+        failures.increment();
+      }
+    }
+
+    void writeDurations(StringBuilder text) {
+      long cumulativeCount = 0;
+
+      for (int index = 0; index < buckets.length; index++) {
+        cumulativeCount += buckets[index].sum();
+
+        text.append("circulation_outbound_request_duration_seconds_bucket{")
+          .append(labels)
+          .append(",le=\"").append(seconds(BUCKET_BOUNDARY_MILLISECONDS[index]))
+          .append("\"} ").append(cumulativeCount).append('\n');
+      }
+
+      text.append("circulation_outbound_request_duration_seconds_bucket{")
+        .append(labels).append(",le=\"+Inf\"} ").append(count.sum()).append('\n');
+
+      text.append("circulation_outbound_request_duration_seconds_sum{")
+        .append(labels).append("} ")
+        .append(String.format(Locale.ROOT, "%.6f",
+          totalNanos.sum() / (double) TimeUnit.SECONDS.toNanos(1)))
+        .append('\n');
+
+      text.append("circulation_outbound_request_duration_seconds_count{")
+        .append(labels).append("} ").append(count.sum()).append('\n');
+    }
+
+    void writeCounter(StringBuilder text, String name, LongAdder counter) {
+      text.append(name).append('{').append(labels).append("} ")
+        .append(counter.sum()).append('\n');
+    }
+
+    private static String seconds(long milliseconds) {
+      return String.format(Locale.ROOT, "%.3f", milliseconds / 1000.0);
+    }
+
+    private static String escape(String value) {
+      return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+  }
+}
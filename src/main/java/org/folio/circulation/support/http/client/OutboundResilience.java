@@ -0,0 +1,464 @@
+package org.folio.circulation.support.http.client;
+
+import static org.folio.circulation.support.results.Result.failed;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.folio.circulation.support.ServerErrorFailure;
+import org.folio.circulation.support.results.Result;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.HttpResponse;
+
+/**
+ * Protects requests to other modules from brief outages and slow responses
+ *
+ * Idempotent requests (GET, PUT and DELETE) that fail because the other module
+ * could not be reached or was unavailable (502, 503 or 504 responses) are
+ * retried after an exponential back off with jitter. Requests that time out
+ * are not retried, as that would only add to the load on a slow module.
+ *
+ * When too many requests in a row to a module fail, further requests to it
+ * fail straight away for a while, after which a single trial request is allowed
+ * through to find out if the module has recovered. Modules are identified by
+ * the first segment of the path, e.g. /item-storage.
+ *
+ * GET requests for latency critical paths (by default, items) send a second
+ * request when the first has not responded after a short delay, and use
+ * whichever response arrives first.
+ */
+public class OutboundResilience {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final int DEFAULT_MAXIMUM_RETRIES = 2;
+  private static final long DEFAULT_INITIAL_BACK_OFF_MILLISECONDS = 100;
+  private static final long DEFAULT_MAXIMUM_BACK_OFF_MILLISECONDS = 2000;
+  private static final int DEFAULT_FAILURE_THRESHOLD = 5;
+  private static final long DEFAULT_OPEN_CIRCUIT_MILLISECONDS = 30000;
+  private static final long DEFAULT_HEDGE_DELAY_MILLISECONDS = 1000;
+  private static final JsonArray DEFAULT_HEDGED_PATHS = new JsonArray()
+    .add("/item-storage/items");
+
+  private static volatile OutboundResilience instance = new OutboundResilience(
+    new JsonObject(), OutboundResilience::schedule, System::nanoTime);
+
+  private final int maximumRetries;
+  private final long initialBackOffMilliseconds;
+  private final long maximumBackOffMilliseconds;
+  private final int failureThreshold;
+  private final long openCircuitNanos;
+  private final long hedgeDelayMilliseconds;
+  private final List<String> hedgedPaths = new ArrayList<>();
+
+  private final Scheduler scheduler;
+  private final LongSupplier clock;
+
+  private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+  OutboundResilience(JsonObject configuration, Scheduler scheduler, LongSupplier clock) {
+    this.maximumRetries = configuration.getInteger("maxRetries",
+      DEFAULT_MAXIMUM_RETRIES);
+    this.initialBackOffMilliseconds = configuration.getLong(
+      "initialBackOffMilliseconds", DEFAULT_INITIAL_BACK_OFF_MILLISECONDS);
+    this.maximumBackOffMilliseconds = configuration.getLong(
+      "maxBackOffMilliseconds", DEFAULT_MAXIMUM_BACK_OFF_MILLISECONDS);
+    this.failureThreshold = configuration.getInteger("failureThreshold",
+      DEFAULT_FAILURE_THRESHOLD);
+    this.openCircuitNanos = TimeUnit.MILLISECONDS.toNanos(configuration.getLong(
+      "openCircuitMilliseconds", DEFAULT_OPEN_CIRCUIT_MILLISECONDS));
+    this.hedgeDelayMilliseconds = configuration.getLong("hedgeDelayMilliseconds",
+      DEFAULT_HEDGE_DELAY_MILLISECONDS);
+
+    configuration.getJsonArray("hedgedPaths", DEFAULT_HEDGED_PATHS)
+      .forEach(path -> hedgedPaths.add(path.toString()));
+
+    this.scheduler = scheduler;
+    this.clock = clock;
+  }
+
+  public static OutboundResilience getInstance() {
+    return instance;
+  }
+
+  /**
+   * Replaces the settings with those in the configuration,
+   * any setting that is not present uses the default value
+   */
+  public static void configure(JsonObject configuration) {
+    instance = new OutboundResilience(configuration, OutboundResilience::schedule,
+      System::nanoTime);
+  }
+
+  /**
+   * Closes every circuit, forgetting any failures
+   */
+  public void reset() {
+    circuitBreakers.clear();
+  }
+
+  /**
+   * Sends a request, retrying or hedging it when appropriate
+   *
+   * @param attempt sends the request once, a failed result means the request
+   * could not be sent (rather than the other module failing)
+   */
+  CompletableFuture<Result<AsyncResult<HttpResponse<Buffer>>>> send(
+    HttpMethod method, String url,
+    Supplier<CompletableFuture<Result<AsyncResult<HttpResponse<Buffer>>>>> attempt) {
+
+    final String modulePath = modulePathOf(url);
+    final CircuitBreaker circuitBreaker = circuitBreakers.computeIfAbsent(
+      modulePath, CircuitBreaker::new);
+
+    final CompletableFuture<Result<AsyncResult<HttpResponse<Buffer>>>> response
+      = new CompletableFuture<>();
+
+    final Supplier<CompletableFuture<Result<AsyncResult<HttpResponse<Buffer>>>>> hedgedAttempt
+      = method == HttpMethod.GET && isHedged(url)
+      ? () -> hedge(attempt, circuitBreaker)
+      : attempt;
+
+    sendAttempt(method, url, hedgedAttempt, circuitBreaker, 0, response);
+
+    return response;
+  }
+
+  private void sendAttempt(HttpMethod method, String url,
+    Supplier<CompletableFuture<Result<AsyncResult<HttpResponse<Buffer>>>>> attempt,
+    CircuitBreaker circuitBreaker, int retries,
+    CompletableFuture<Result<AsyncResult<HttpResponse<Buffer>>>> response) {
+
+    if (!circuitBreaker.allowRequest()) {
+      response.complete(failed(new ServerErrorFailure(String.format(
+        "Requests to %s are failing, %s %s was not sent",
+        circuitBreaker.modulePath, method, url))));
+
+      return;
+    }
+
+    attempt.get().whenComplete((result, error) -> {
+      final Outcome outcome = outcomeOf(result, error);
+
+      circuitBreaker.record(outcome);
+
+      if (outcome == Outcome.UNAVAILABLE && isIdempotent(method)
+        && retries < maximumRetries) {
+
+        final long backOff = backOffMilliseconds(retries);
+
+        circuitBreaker.retries.incrementAndGet();
+
+        log.warn("{} {} failed, retrying in {} ms", method, url, backOff);
+
+        scheduler.schedule(backOff, () -> sendAttempt(method, url, attempt,
+          circuitBreaker, retries + 1, response));
+      }
+      else if (error != null) {
+        response.completeExceptionally(error);
+      }
+      else {
+        response.complete(result);
+      }
+    });
+  }
+
+  private CompletableFuture<Result<AsyncResult<HttpResponse<Buffer>>>> hedge(
+    Supplier<CompletableFuture<Result<AsyncResult<HttpResponse<Buffer>>>>> attempt,
+    CircuitBreaker circuitBreaker) {
+
+    final CompletableFuture<Result<AsyncResult<HttpResponse<Buffer>>>> firstResponse
+      = new CompletableFuture<>();
+
+    attempt.get().whenComplete(completeWith(firstResponse));
+
+    scheduler.schedule(hedgeDelayMilliseconds, () -> {
+      if (!firstResponse.isDone()) {
+        circuitBreaker.hedged.incrementAndGet();
+
+        attempt.get().whenComplete(completeWith(firstResponse));
+      }
+    });
+
+    return firstResponse;
+  }
+
+  private static <T> BiConsumer<T, Throwable> completeWith(
+    CompletableFuture<T> future) {
+
+    return (result, error) -> {
+      if (error != null) {
+        future.completeExceptionally(error);
+      }
+      else {
+        future.complete(result);
+      }
+    };
+  }
+
+  private long backOffMilliseconds(int retries) {
+    final long exponentialBackOff = Math.min(maximumBackOffMilliseconds,
+      initialBackOffMilliseconds << Math.min(retries, 20));
+
+    // full jitter, so that requests that failed together are not retried together
+    return ThreadLocalRandom.current().nextLong(exponentialBackOff + 1);
+  }
+
+  private boolean isHedged(String url) {
+    final String path = OutboundCall.pathOf(url);
+
+    return hedgedPaths.stream().anyMatch(path::startsWith);
+  }
+
+  private static boolean isIdempotent(HttpMethod method) {
+    return method == HttpMethod.GET || method == HttpMethod.PUT
+      || method == HttpMethod.DELETE;
+  }
+
+  private static Outcome outcomeOf(Result<AsyncResult<HttpResponse<Buffer>>> result,
+    Throwable error) {
+
+    // the request was never sent, so says nothing about the other module
+    if (error != null || result.failed()) {
+      return Outcome.NOT_SENT;
+    }
+
+    final AsyncResult<HttpResponse<Buffer>> asyncResult = result.value();
+
+    if (asyncResult.failed()) {
+      return asyncResult.cause() instanceof TimeoutException
+        ? Outcome.TIMED_OUT
+        : Outcome.UNAVAILABLE;
+    }
+
+    final int statusCode = asyncResult.result().statusCode();
+
+    return statusCode == 502 || statusCode == 503 || statusCode == 504
+      ? Outcome.UNAVAILABLE
+      : Outcome.SUCCEEDED;
+  }
+
+  static String modulePathOf(String url) {
+    final String path = OutboundCall.pathOf(url);
+    final int endOfFirstSegment = path.indexOf('/', 1);
+
+    return endOfFirstSegment < 0 ? path : path.substring(0, endOfFirstSegment);
+  }
+
+  /**
+   * Runs the task on the event loop the request was sent from,
+   * when there is one
+   */
+  private static void schedule(long delayMilliseconds, Runnable task) {
+    final Context context = Vertx.currentContext();
+
+    if (context == null) {
+      FallbackScheduler.EXECUTOR.schedule(task, delayMilliseconds,
+        TimeUnit.MILLISECONDS);
+    }
+    else {
+      context.owner().setTimer(Math.max(1, delayMilliseconds), id -> task.run());
+    }
+  }
+
+  public List<Metrics> getMetrics() {
+    final List<Metrics> metrics = new ArrayList<>();
+
+    circuitBreakers.values().forEach(breaker -> metrics.add(breaker.getMetrics()));
+
+    return metrics;
+  }
+
+  @FunctionalInterface
+  interface Scheduler {
+    void schedule(long delayMilliseconds, Runnable task);
+  }
+
+  private static class FallbackScheduler {
+    private static final ScheduledExecutorService EXECUTOR
+      = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "outbound-request-retries");
+        thread.setDaemon(true);
+        return thread;
+      });
+  }
+
+  private enum Outcome {
+    SUCCEEDED,
+    UNAVAILABLE,
+    TIMED_OUT,
+    NOT_SENT
+  }
+
+  enum CircuitState {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private class CircuitBreaker {
+    private final String modulePath;
+
+    private CircuitState state = CircuitState.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+    private boolean trialInProgress = false;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong hedged = new AtomicLong();
+    private final AtomicLong shortCircuited = new AtomicLong();
+
+    CircuitBreaker(String modulePath) {
+      this.modulePath = modulePath;
+    }
+
+    synchronized boolean allowRequest() {
+      if (state == CircuitState.OPEN && clock.getAsLong() - openedAt >= openCircuitNanos) {
+        state = CircuitState.HALF_OPEN;
+        trialInProgress = false;
+      }
+
+      final boolean allowed = state == CircuitState.CLOSED
+        || (state == CircuitState.HALF_OPEN && !trialInProgress);
+
+      if (allowed) {
+        requests.incrementAndGet();
+
+        if (state == CircuitState.HALF_OPEN) {
+          trialInProgress = true;
+        }
+      }
+      else {
+        shortCircuited.incrementAndGet();
+      }
+
+      return allowed;
+    }
+
+    synchronized void record(Outcome outcome) {
+      switch (outcome) {
+        case SUCCEEDED:
+          if (state != CircuitState.CLOSED) {
+            log.info("Requests to {} are succeeding again", modulePath);
+          }
+
+          state = CircuitState.CLOSED;
+          consecutiveFailures = 0;
+          break;
+
+        case UNAVAILABLE:
+        case TIMED_OUT:
+          failures.incrementAndGet();
+          consecutiveFailures++;
+
+          if (state == CircuitState.HALF_OPEN
+            || consecutiveFailures >= failureThreshold && state == CircuitState.CLOSED) {
+
+            log.warn("{} requests in a row to {} have failed, " +
+              "not sending further requests for a while", consecutiveFailures, modulePath);
+
+            state = CircuitState.OPEN;
+            openedAt = clock.getAsLong();
+          }
+          break;
+
+        default:
+          break;
+      }
+
+      trialInProgress = false;
+    }
+
+    synchronized Metrics getMetrics() {
+      return new Metrics(modulePath, state, requests.get(), failures.get(),
+        retries.get(), hedged.get(), shortCircuited.get());
+    }
+  }
+
+  public static class Metrics {
+    private final String modulePath;
+    private final CircuitState state;
+    private final long requests;
+    private final long failures;
+    private final long retries;
+    private final long hedged;
+    private final long shortCircuited;
+
+    private Metrics(String modulePath, CircuitState state, long requests,
+      long failures, long retries, long hedged, long shortCircuited) {
+
+      this.modulePath = modulePath;
+      this.state = state;
+      this.requests = requests;
+      this.failures = failures;
+      this.retries = retries;
+      this.hedged = hedged;
+      this.shortCircuited = shortCircuited;
+    }
+
+    public String getModulePath() {
+      return modulePath;
+    }
+
+    public String getState() {
+      return state.name();
+    }
+
+    public long getRequests() {
+      return requests;
+    }
+
+    public long getFailures() {
+      return failures;
+    }
+
+    public long getRetries() {
+      return retries;
+    }
+
+    public long getHedged() {
+      return hedged;
+    }
+
+    public long getShortCircuited() {
+      return shortCircuited;
+    }
+
+    @Override
+    public String toString() {
+      return new ToStringBuilder(this)
+        .append("modulePath", modulePath)
+        .append("state", state)
+        .append("requests", requests)
+        .append("failures", failures)
+        .append("retries", retries)
+        .append("hedged", hedged)
+        .append("shortCircuited", shortCircuited)
+        .toString();
+    }
+  }
+}
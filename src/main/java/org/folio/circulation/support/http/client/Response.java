@@ -2,9 +2,15 @@ package org.folio.circulation.support.http.client;
 
 import static io.vertx.core.MultiMap.caseInsensitiveMultiMap;
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.ArrayList;
+import java.util.function.Function;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpHeaders;
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.support.json.JsonRecordsParser;
 
 import io.vertx.core.MultiMap;
 import io.vertx.core.buffer.Buffer;
@@ -12,8 +18,17 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.client.HttpResponse;
 import lombok.val;
 
+/**
+ * A response from another module
+ *
+ * Responses received from other modules keep the body as received, it is only
+ * decoded to a string when it is needed. JSON is parsed directly from the bytes
+ * of the body, and collections of records can be mapped one record at a time
+ * without parsing the whole collection first.
+ */
 public class Response {
-  protected final String body;
+  private final Buffer bodyBuffer;
+  private String body;
   private final int statusCode;
   private final String contentType;
   private final MultiMap headers;
@@ -27,23 +42,45 @@ public class Response {
     MultiMap headers, String fromUrl) {
 
     this.statusCode = statusCode;
+    this.bodyBuffer = null;
     this.body = body;
     this.contentType = contentType;
     this.headers = headers;
     this.fromUrl = fromUrl;
   }
 
+  public Response(int statusCode, Buffer body, String contentType,
+    MultiMap headers, String fromUrl) {
+
+    this.statusCode = statusCode;
+    this.bodyBuffer = body;
+    this.body = null;
+    this.contentType = contentType;
+    this.headers = headers;
+    this.fromUrl = fromUrl;
+  }
+
   static Response responseFrom(String url, HttpResponse<Buffer> response) {
     val headers = caseInsensitiveMultiMap();
 
     headers.addAll(response.headers());
 
-    return new Response(response.statusCode(), response.bodyAsString(),
+    return new Response(response.statusCode(), response.body(),
       headers.get(HttpHeaders.CONTENT_TYPE), headers, url);
   }
 
   public boolean hasBody() {
-    return StringUtils.isNotBlank(getBody());
+    if (bodyBuffer == null) {
+      return StringUtils.isNotBlank(body);
+    }
+
+    for (int index = 0; index < bodyBuffer.length(); index++) {
+      if (!Character.isWhitespace(bodyBuffer.getByte(index))) {
+        return true;
+      }
+    }
+
+    return false;
   }
 
   public int getStatusCode() {
@@ -51,16 +88,37 @@ public class Response {
   }
 
   public String getBody() {
+    if (body == null && bodyBuffer != null) {
+      body = bodyBuffer.toString(UTF_8);
+    }
+
     return body;
   }
 
   public JsonObject getJson() {
-    if(hasBody()) {
-      return new JsonObject(getBody());
-    }
-    else {
+    if(!hasBody()) {
       return new JsonObject();
     }
+
+    return bodyBuffer != null
+      ? new JsonObject(bodyBuffer)
+      : new JsonObject(body);
+  }
+
+  /**
+   * Maps each of the records in the array property of a JSON body, without
+   * parsing the whole body into a single JSON object first
+   */
+  public <T> MultipleRecords<T> mapRecords(String recordsPropertyName,
+    Function<JsonObject, T> mapper) {
+
+    if (!hasBody()) {
+      return new MultipleRecords<>(new ArrayList<>(), null);
+    }
+
+    return bodyBuffer != null
+      ? JsonRecordsParser.parse(bodyBuffer, recordsPropertyName, mapper)
+      : JsonRecordsParser.parse(Buffer.buffer(body), recordsPropertyName, mapper);
   }
 
   public String getContentType() {
@@ -1,6 +1,5 @@
 package org.folio.circulation.support.http.client;
 
-import static java.time.temporal.ChronoUnit.SECONDS;
 import static org.apache.http.HttpHeaders.ACCEPT;
 import static org.folio.circulation.support.results.Result.failed;
 import static org.folio.circulation.support.results.Result.succeeded;
@@ -14,23 +13,27 @@ import static org.folio.circulation.support.http.client.Response.responseFrom;
 import java.net.URL;
 import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 import java.util.stream.Stream;
 
 import org.folio.circulation.support.results.Result;
 import org.folio.circulation.support.ServerErrorFailure;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.client.HttpRequest;
 import io.vertx.ext.web.client.HttpResponse;
 import io.vertx.ext.web.client.WebClient;
 
 public class VertxWebClientOkapiHttpClient implements OkapiHttpClient {
-  private static final Duration DEFAULT_TIMEOUT = Duration.of(20, SECONDS);
-
   private final WebClient webClient;
+  private final HttpClientPool pool;
+  private final OutboundResilience resilience;
+  private final OutboundCallTrace trace;
   private final URL okapiUrl;
   private final String tenantId;
   private final String token;
@@ -40,14 +43,36 @@ public class VertxWebClientOkapiHttpClient implements OkapiHttpClient {
   public static OkapiHttpClient createClientUsing(HttpClient httpClient,
     URL okapiUrl, String tenantId, String token, String userId, String requestId) {
 
-    return new VertxWebClientOkapiHttpClient(WebClient.wrap(httpClient),
-      okapiUrl, tenantId, token, userId, requestId);
+    return createClientUsingPool(HttpClientPool.unlimited(httpClient), okapiUrl,
+      tenantId, token, userId, requestId);
+  }
+
+  public static OkapiHttpClient createClientUsingPool(HttpClientPool pool,
+    URL okapiUrl, String tenantId, String token, String userId, String requestId) {
+
+    return createClientUsingPool(pool, okapiUrl, tenantId, token, userId,
+      requestId, null);
+  }
+
+  /**
+   * @param trace records each request sent by the client, can be null
+   */
+  public static OkapiHttpClient createClientUsingPool(HttpClientPool pool,
+    URL okapiUrl, String tenantId, String token, String userId, String requestId,
+    OutboundCallTrace trace) {
+
+    return new VertxWebClientOkapiHttpClient(WebClient.wrap(pool.getClient()), pool,
+      trace, okapiUrl, tenantId, token, userId, requestId);
   }
 
-  private VertxWebClientOkapiHttpClient(WebClient webClient, URL okapiUrl,
-    String tenantId, String token, String userId, String requestId) {
+  private VertxWebClientOkapiHttpClient(WebClient webClient, HttpClientPool pool,
+    OutboundCallTrace trace, URL okapiUrl, String tenantId, String token,
+    String userId, String requestId) {
 
     this.webClient = webClient;
+    this.pool = pool;
+    this.resilience = OutboundResilience.getInstance();
+    this.trace = trace;
     this.okapiUrl = okapiUrl;
     this.tenantId = tenantId;
     this.token = token;
@@ -56,52 +81,42 @@ public class VertxWebClientOkapiHttpClient implements OkapiHttpClient {
   }
 
   @Override
-  public CompletableFuture<Result<Response>> post(URL url, JsonObject body) {
-    return post(url.toString(), body, DEFAULT_TIMEOUT);
+  public CompletableFuture<Result<Response>> post(URL url, JsonObject body,
+    QueryParameter... queryParameters) {
+
+    return post(url.toString(), body, pool.getDefaultTimeout(), queryParameters);
   }
 
   @Override
   public CompletableFuture<Result<Response>> post(String url, JsonObject body) {
-    return post(url, body, DEFAULT_TIMEOUT);
+    return post(url, body, pool.getDefaultTimeout());
   }
 
   @Override
   public CompletableFuture<Result<Response>> post(String url,
-    JsonObject body, Duration timeout) {
-
-    final CompletableFuture<AsyncResult<HttpResponse<Buffer>>> futureResponse
-      = new CompletableFuture<>();
+    JsonObject body, Duration timeout, QueryParameter... queryParameters) {
 
     final HttpRequest<Buffer> request = withStandardHeaders(
       webClient.postAbs(url));
 
-    request
-      .timeout(timeout.toMillis())
-      .sendJsonObject(body, futureResponse::complete);
+    Stream.of(queryParameters)
+      .forEach(parameter -> parameter.consume(request::addQueryParam));
 
-    return futureResponse
-      .thenApply(asyncResult -> mapAsyncResultToResult(url, asyncResult));
+    return send(HttpMethod.POST, url, request, timeout,
+      (timedRequest, handler) -> timedRequest.sendJsonObject(body, handler));
   }
 
   @Override
   public CompletableFuture<Result<Response>> get(String url,
     Duration timeout, QueryParameter... queryParameters) {
 
-    final CompletableFuture<AsyncResult<HttpResponse<Buffer>>> futureResponse
-      = new CompletableFuture<>();
-
     final HttpRequest<Buffer> request = withStandardHeaders(
       webClient.getAbs(url));
 
     Stream.of(queryParameters)
       .forEach(parameter -> parameter.consume(request::addQueryParam));
 
-    request
-      .timeout(timeout.toMillis())
-      .send(futureResponse::complete);
-
-    return futureResponse
-      .thenApply(asyncResult -> mapAsyncResultToResult(url, asyncResult));
+    return send(HttpMethod.GET, url, request, timeout, HttpRequest::send);
   }
 
   @Override
@@ -115,35 +130,28 @@ public class VertxWebClientOkapiHttpClient implements OkapiHttpClient {
   public CompletableFuture<Result<Response>> get(String url,
     QueryParameter... queryParameters) {
 
-    return get(url, DEFAULT_TIMEOUT, queryParameters);
+    return get(url, pool.getDefaultTimeout(), queryParameters);
   }
 
   @Override
   public CompletableFuture<Result<Response>> put(URL url, JsonObject body) {
-    return put(url.toString(), body, DEFAULT_TIMEOUT);
+    return put(url.toString(), body, pool.getDefaultTimeout());
   }
 
   @Override
   public CompletableFuture<Result<Response>> put(String url, JsonObject body) {
-    return put(url, body, DEFAULT_TIMEOUT);
+    return put(url, body, pool.getDefaultTimeout());
   }
 
   @Override
   public CompletableFuture<Result<Response>> put(String url, JsonObject body,
     Duration timeout) {
 
-    final CompletableFuture<AsyncResult<HttpResponse<Buffer>>> futureResponse
-      = new CompletableFuture<>();
-
     final HttpRequest<Buffer> request = withStandardHeaders(
       webClient.putAbs(url));
 
-    request
-      .timeout(timeout.toMillis())
-      .sendJsonObject(body, futureResponse::complete);
-
-    return futureResponse
-      .thenApply(asyncResult -> mapAsyncResultToResult(url, asyncResult));
+    return send(HttpMethod.PUT, url, request, timeout,
+      (timedRequest, handler) -> timedRequest.sendJsonObject(body, handler));
   }
 
   @Override
@@ -157,28 +165,65 @@ public class VertxWebClientOkapiHttpClient implements OkapiHttpClient {
   public CompletableFuture<Result<Response>> delete(String url,
     QueryParameter... queryParameters) {
 
-    return delete(url, DEFAULT_TIMEOUT, queryParameters);
+    return delete(url, pool.getDefaultTimeout(), queryParameters);
   }
 
   @Override
   public CompletableFuture<Result<Response>> delete(String url,
     Duration timeout, QueryParameter... queryParameters) {
 
-    final CompletableFuture<AsyncResult<HttpResponse<Buffer>>> futureResponse
-      = new CompletableFuture<>();
-
     final HttpRequest<Buffer> request = withStandardHeaders(
       webClient.deleteAbs(url));
 
     Stream.of(queryParameters)
       .forEach(parameter -> parameter.consume(request::addQueryParam));
 
-    request
-      .timeout(timeout.toMillis())
-      .send(futureResponse::complete);
+    return send(HttpMethod.DELETE, url, request, timeout, HttpRequest::send);
+  }
+
+  /**
+   * Sends the request once there is room in the pool, the timeout only starts
+   * once the request has been sent. Failed requests may be sent again,
+   * see {@link OutboundResilience}
+   */
+  private CompletableFuture<Result<Response>> send(HttpMethod method, String url,
+    HttpRequest<Buffer> request, Duration timeout,
+    BiConsumer<HttpRequest<Buffer>, Handler<AsyncResult<HttpResponse<Buffer>>>> sender) {
+
+    return resilience.send(method, url, () -> pool.submit(() -> {
+        final CompletableFuture<AsyncResult<HttpResponse<Buffer>>> futureResponse
+          = new CompletableFuture<>();
+
+        final long startedAt = System.nanoTime();
+
+        sender.accept(request.timeout(timeout.toMillis()), futureResponse::complete);
+
+        return futureResponse
+          .whenComplete((asyncResult, error) -> record(method, url, startedAt, asyncResult))
+          .thenApply(Result::succeeded);
+      }))
+      .thenApply(result -> result.next(
+        asyncResult -> mapAsyncResultToResult(url, asyncResult)));
+  }
+
+  private void record(HttpMethod method, String url, long startedAt,
+    AsyncResult<HttpResponse<Buffer>> asyncResult) {
+
+    final HttpResponse<Buffer> response = asyncResult != null && asyncResult.succeeded()
+      ? asyncResult.result()
+      : null;
+
+    final Buffer body = response == null ? null : response.body();
+
+    final OutboundCall call = new OutboundCall(method.name(),
+      OutboundCall.pathTemplateOf(url), response == null ? 0 : response.statusCode(),
+      body == null ? 0 : body.length(), startedAt, System.nanoTime() - startedAt);
+
+    OutboundRequestHistograms.getInstance().record(call);
 
-    return futureResponse
-      .thenApply(asyncResult -> mapAsyncResultToResult(url, asyncResult));
+    if (trace != null) {
+      trace.record(call);
+    }
   }
 
   private HttpRequest<Buffer> withStandardHeaders(HttpRequest<Buffer> request) {
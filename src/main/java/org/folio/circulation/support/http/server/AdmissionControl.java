@@ -0,0 +1,293 @@
+package org.folio.circulation.support.http.server;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Limits how many incoming requests of each class are processed at once
+ *
+ * Scheduled processing (notices, anonymization, aging to lost etc.) is triggered
+ * by timers and can take a long time, so is limited to a few requests at once,
+ * so that it cannot hold up check outs, check ins and other interactive requests
+ * handled by the same event loops. Requests beyond the limit wait for an earlier
+ * request to finish, when too many are waiting, requests are refused with
+ * a 429 (Too Many Requests) response.
+ *
+ * By default, interactive requests are not limited, only counted.
+ */
+public class AdmissionControl {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  public enum RequestClass {
+    INTERACTIVE("interactive", 0, -1),
+    BATCH("batch", 4, 20);
+
+    private final String name;
+    private final int defaultMaximumConcurrentRequests;
+    private final int defaultMaximumQueuedRequests;
+
+    RequestClass(String name, int defaultMaximumConcurrentRequests,
+      int defaultMaximumQueuedRequests) {
+
+      this.name = name;
+      this.defaultMaximumConcurrentRequests = defaultMaximumConcurrentRequests;
+      this.defaultMaximumQueuedRequests = defaultMaximumQueuedRequests;
+    }
+
+    public String getName() {
+      return name;
+    }
+  }
+
+  private static final int DEFAULT_RETRY_AFTER_SECONDS = 60;
+
+  private static volatile AdmissionControl instance = new AdmissionControl(new JsonObject());
+
+  private final Map<RequestClass, Gate> gates = new EnumMap<>(RequestClass.class);
+
+  AdmissionControl(JsonObject configuration) {
+    for (RequestClass requestClass : RequestClass.values()) {
+      final JsonObject settings = configuration.getJsonObject(
+        requestClass.getName(), new JsonObject());
+
+      gates.put(requestClass, new Gate(requestClass,
+        settings.getInteger("maxConcurrentRequests",
+          requestClass.defaultMaximumConcurrentRequests),
+        settings.getInteger("maxQueuedRequests",
+          requestClass.defaultMaximumQueuedRequests),
+        settings.getInteger("retryAfterSeconds", DEFAULT_RETRY_AFTER_SECONDS)));
+    }
+  }
+
+  public static AdmissionControl getInstance() {
+    return instance;
+  }
+
+  /**
+   * Replaces the limits with those in the configuration,
+   * any setting that is not present uses the default value
+   *
+   * Requests already admitted or waiting are still released by the previous limits
+   */
+  public static void configure(JsonObject configuration) {
+    instance = new AdmissionControl(configuration);
+  }
+
+  /**
+   * @return a route handler that continues to the next handler once the
+   * request is admitted, using the limits in effect when the request is received
+   */
+  public static Handler<RoutingContext> admit(RequestClass requestClass) {
+    return routingContext -> instance.gates.get(requestClass).admit(routingContext);
+  }
+
+  void admit(RequestClass requestClass, RoutingContext routingContext) {
+    gates.get(requestClass).admit(routingContext);
+  }
+
+  public List<Metrics> getMetrics() {
+    final List<Metrics> metrics = new ArrayList<>();
+
+    gates.values().forEach(gate -> metrics.add(gate.getMetrics()));
+
+    return metrics;
+  }
+
+  private static class Gate {
+    private final RequestClass requestClass;
+    private final int maximumConcurrentRequests;
+    private final int maximumQueuedRequests;
+    private final int retryAfterSeconds;
+
+    private final Deque<QueuedRequest> queued = new ArrayDeque<>();
+    private int inProgress = 0;
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * @param maximumConcurrentRequests less than one for no limit
+     * @param maximumQueuedRequests less than zero for no limit
+     */
+    Gate(RequestClass requestClass, int maximumConcurrentRequests,
+      int maximumQueuedRequests, int retryAfterSeconds) {
+
+      this.requestClass = requestClass;
+      this.maximumConcurrentRequests = maximumConcurrentRequests;
+      this.maximumQueuedRequests = maximumQueuedRequests;
+      this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    void admit(RoutingContext routingContext) {
+      final boolean start;
+      final boolean reject;
+
+      synchronized (this) {
+        start = maximumConcurrentRequests < 1 || inProgress < maximumConcurrentRequests;
+        reject = !start && maximumQueuedRequests >= 0
+          && queued.size() >= maximumQueuedRequests;
+
+        if (start) {
+          inProgress++;
+        }
+        else if (!reject) {
+          queued.add(new QueuedRequest(routingContext, Vertx.currentContext()));
+        }
+      }
+
+      if (reject) {
+        rejected.incrementAndGet();
+
+        log.warn("Refusing {} request {}, {} requests are already waiting",
+          requestClass.getName(), routingContext.request().path(), maximumQueuedRequests);
+
+        ClientErrorResponse.tooManyRequests(routingContext.response(), retryAfterSeconds,
+          String.format("Too many %s requests, please try again later",
+            requestClass.getName()));
+      }
+      else if (start) {
+        start(routingContext);
+      }
+    }
+
+    private void start(RoutingContext routingContext) {
+      admitted.incrementAndGet();
+
+      // the connection may have been closed whilst the request was waiting
+      if (routingContext.response().closed()) {
+        release();
+        return;
+      }
+
+      final AtomicBoolean released = new AtomicBoolean(false);
+
+      final Handler<Void> releaseOnce = notUsed -> {
+        if (released.compareAndSet(false, true)) {
+          release();
+        }
+      };
+
+      routingContext.addBodyEndHandler(releaseOnce);
+      routingContext.response().closeHandler(releaseOnce);
+
+      routingContext.next();
+    }
+
+    private void release() {
+      final QueuedRequest next;
+
+      synchronized (this) {
+        next = queued.poll();
+
+        // the place is handed over to the next request, rather than released
+        if (next == null) {
+          inProgress--;
+        }
+      }
+
+      if (next != null) {
+        next.start(this::start);
+      }
+    }
+
+    synchronized Metrics getMetrics() {
+      return new Metrics(requestClass.getName(), maximumConcurrentRequests,
+        inProgress, queued.size(), admitted.get(), rejected.get());
+    }
+  }
+
+  private static class QueuedRequest {
+    private final RoutingContext routingContext;
+    private final Context context;
+
+    QueuedRequest(RoutingContext routingContext, Context context) {
+      this.routingContext = routingContext;
+      this.context = context;
+    }
+
+    /**
+     * Continues the request on the event loop it was received on
+     */
+    void start(Handler<RoutingContext> starter) {
+      if (context == null) {
+        starter.handle(routingContext);
+      }
+      else {
+        context.runOnContext(notUsed -> starter.handle(routingContext));
+      }
+    }
+  }
+
+  public static class Metrics {
+    private final String requestClass;
+    private final int maximumConcurrentRequests;
+    private final int inProgress;
+    private final int queued;
+    private final long admitted;
+    private final long rejected;
+
+    private Metrics(String requestClass, int maximumConcurrentRequests, int inProgress,
+      int queued, long admitted, long rejected) {
+
+      this.requestClass = requestClass;
+      this.maximumConcurrentRequests = maximumConcurrentRequests;
+      this.inProgress = inProgress;
+      this.queued = queued;
+      this.admitted = admitted;
+      this.rejected = rejected;
+    }
+
+    public String getRequestClass() {
+      return requestClass;
+    }
+
+    public int getMaximumConcurrentRequests() {
+      return maximumConcurrentRequests;
+    }
+
+    public int getInProgress() {
+      return inProgress;
+    }
+
+    public int getQueued() {
+      return queued;
+    }
+
+    public long getAdmitted() {
+      return admitted;
+    }
+
+    public long getRejected() {
+      return rejected;
+    }
+
+    @Override
+    public String toString() {
+      return new ToStringBuilder(this)
+        .append("requestClass", requestClass)
+        .append("maximumConcurrentRequests", maximumConcurrentRequests)
+        .append("inProgress", inProgress)
+        .append("queued", queued)
+        .append("admitted", admitted)
+        .append("rejected", rejected)
+        .toString();
+    }
+  }
+}
@@ -21,4 +21,13 @@ public class ClientErrorResponse {
     response.putHeader("content-type", ContentType.TEXT_PLAIN.toString());
     response.end(reason);
   }
+
+  public static void tooManyRequests(HttpServerResponse response,
+    int retryAfterSeconds, String reason) {
+
+    response.setStatusCode(429);
+    response.putHeader("retry-after", String.valueOf(retryAfterSeconds));
+    response.putHeader("content-type", ContentType.TEXT_PLAIN.toString());
+    response.end(reason);
+  }
 }
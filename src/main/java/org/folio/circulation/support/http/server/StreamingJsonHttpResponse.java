@@ -0,0 +1,168 @@
+package org.folio.circulation.support.http.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.jackson.DatabindCodec;
+
+/**
+ * Writes a collection of records to the response one record at a time,
+ * rather than building a single JSON representation of the whole collection
+ * in memory first
+ *
+ * Records are only mapped to JSON as they are written and the writing pauses
+ * whenever the response write queue is full, resuming when it drains.
+ * The total number of records is written after the records.
+ *
+ * @param <T> type of record being written
+ */
+public class StreamingJsonHttpResponse<T> implements HttpResponse {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final String TOTAL_RECORDS_PROPERTY_NAME = "totalRecords";
+  private static final int DEFAULT_CHUNK_SIZE = 16 * 1024;
+
+  private final String recordsPropertyName;
+  private final Collection<T> records;
+  private final Function<T, JsonObject> mapper;
+  private final Integer totalRecords;
+  private final int chunkSize;
+
+  public static <T> HttpResponse ok(String recordsPropertyName,
+    Collection<T> records, Function<T, JsonObject> mapper, Integer totalRecords) {
+
+    return new StreamingJsonHttpResponse<>(recordsPropertyName, records, mapper,
+      totalRecords, DEFAULT_CHUNK_SIZE);
+  }
+
+  StreamingJsonHttpResponse(String recordsPropertyName, Collection<T> records,
+    Function<T, JsonObject> mapper, Integer totalRecords, int chunkSize) {
+
+    this.recordsPropertyName = recordsPropertyName;
+    this.records = records;
+    this.mapper = mapper;
+    this.totalRecords = totalRecords;
+    this.chunkSize = chunkSize;
+  }
+
+  @Override
+  public void writeTo(HttpServerResponse response) {
+    response.setStatusCode(200);
+    response.putHeader("content-type", "application/json; charset=utf-8");
+    response.setChunked(true);
+
+    new RecordWriter(response).start();
+  }
+
+  private class RecordWriter {
+    private final HttpServerResponse response;
+    private final Iterator<T> remainingRecords;
+    private final ByteArrayOutputStream pending;
+    private final JsonGenerator generator;
+
+    private RecordWriter(HttpServerResponse response) {
+      this.response = response;
+      this.remainingRecords = records.iterator();
+      this.pending = new ByteArrayOutputStream(chunkSize);
+      this.generator = createGenerator(pending);
+    }
+
+    private void start() {
+      try {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart(recordsPropertyName);
+
+        writeRemainingRecords();
+      }
+      catch (Exception e) {
+        abort(e);
+      }
+    }
+
+    private void writeRemainingRecords() {
+      try {
+        while (remainingRecords.hasNext()) {
+          if (response.closed()) {
+            log.warn("Response closed before all {} were written", recordsPropertyName);
+            return;
+          }
+
+          generator.writeObject(mapper.apply(remainingRecords.next()));
+
+          if (pendingBytes() >= chunkSize) {
+            flushPending();
+
+            if (response.writeQueueFull()) {
+              response.drainHandler(v -> writeRemainingRecords());
+              return;
+            }
+          }
+        }
+
+        finish();
+      }
+      catch (Exception e) {
+        abort(e);
+      }
+    }
+
+    private void finish() throws IOException {
+      generator.writeEndArray();
+      generator.writeFieldName(TOTAL_RECORDS_PROPERTY_NAME);
+      generator.writeObject(totalRecords);
+      generator.writeEndObject();
+      generator.close();
+
+      flushPending();
+      response.end();
+    }
+
+    private int pendingBytes() throws IOException {
+      generator.flush();
+
+      return pending.size();
+    }
+
+    private void flushPending() {
+      if (pending.size() > 0) {
+        response.write(Buffer.buffer(pending.toByteArray()));
+        pending.reset();
+      }
+    }
+
+    private void abort(Exception e) {
+      // The status and part of the body may already have been sent,
+      // so the only way to signal the failure is to drop the connection
+      log.error("Failed to write {} to response", recordsPropertyName, e);
+
+      if (!response.closed()) {
+        response.close();
+      }
+    }
+  }
+
+  private static JsonGenerator createGenerator(ByteArrayOutputStream output) {
+    try {
+      return DatabindCodec.prettyMapper().getFactory()
+        .createGenerator(output, JsonEncoding.UTF8)
+        .useDefaultPrettyPrinter();
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -13,19 +13,33 @@ import java.util.Map;
 
 import org.folio.circulation.support.InvalidOkapiLocationException;
 import org.folio.circulation.support.results.Result;
+import org.folio.circulation.support.http.client.HttpClientPools;
 import org.folio.circulation.support.http.client.OkapiHttpClient;
+import org.folio.circulation.support.http.client.OutboundCallTrace;
 import org.folio.circulation.support.http.client.VertxWebClientOkapiHttpClient;
 
 import io.vertx.core.http.HttpClient;
 import io.vertx.ext.web.RoutingContext;
 
 public class WebContext {
+  private static final String OUTBOUND_CALL_TRACE = "outboundCallTrace";
+  private static final String ARRIVED_AT = "arrivedAtNanos";
+
   private final RoutingContext routingContext;
 
   public WebContext(RoutingContext routingContext) {
     this.routingContext = routingContext;
   }
 
+  /**
+   * Route handler that records when the request arrived, so that the time
+   * taken includes everything before the first client is created
+   */
+  public static void recordArrival(RoutingContext routingContext) {
+    routingContext.put(ARRIVED_AT, System.nanoTime());
+    routingContext.next();
+  }
+
   public String getTenantId() {
     return getHeader(TENANT);
   }
@@ -85,9 +99,39 @@ public class WebContext {
       throw new InvalidOkapiLocationException(getOkapiLocation(), e);
     }
 
-    return VertxWebClientOkapiHttpClient.createClientUsing(httpClient,
+    return VertxWebClientOkapiHttpClient.createClientUsingPool(
+      HttpClientPools.choosePool(httpClient, getTenantId()),
       okapiUrl, getTenantId(), getOkapiToken(), getUserId(),
-      getRequestId());
+      getRequestId(), getOutboundCallTrace());
+  }
+
+  /**
+   * The trace of requests sent to other modules whilst processing this request,
+   * shared by every client created for the request
+   */
+  public OutboundCallTrace getOutboundCallTrace() {
+    final OutboundCallTrace existingTrace = routingContext.get(OUTBOUND_CALL_TRACE);
+
+    if (existingTrace != null) {
+      return existingTrace;
+    }
+
+    final Long arrivedAt = routingContext.get(ARRIVED_AT);
+
+    final OutboundCallTrace trace = new OutboundCallTrace(getRequestId(),
+      arrivedAt != null ? arrivedAt : System.nanoTime());
+
+    routingContext.put(OUTBOUND_CALL_TRACE, trace);
+
+    if (OutboundCallTrace.isTimingHeaderEnabled()) {
+      routingContext.addHeadersEndHandler(notUsed -> routingContext.response()
+        .putHeader(OutboundCallTrace.TIMING_HEADER, trace.summary(System.nanoTime())));
+    }
+
+    routingContext.addBodyEndHandler(notUsed -> trace.logSummary(
+      routingContext.request().rawMethod(), routingContext.request().path()));
+
+    return trace;
   }
 
   public void write(HttpResponse response) {
@@ -0,0 +1,103 @@
+package org.folio.circulation.support.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.folio.circulation.domain.MultipleRecords;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import io.netty.buffer.ByteBufInputStream;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.jackson.DatabindCodec;
+
+/**
+ * Maps the records in a JSON collection representation one record at a time,
+ * reading directly from the bytes of the representation
+ *
+ * Only a single record is held as JSON at once, rather than the whole
+ * collection. Entries in the records array which are not objects are ignored,
+ * as are any other properties of the representation, other than the total number
+ * of records.
+ */
+public class JsonRecordsParser {
+  private static final String TOTAL_RECORDS_PROPERTY_NAME = "totalRecords";
+
+  private JsonRecordsParser() { }
+
+  public static <T> MultipleRecords<T> parse(Buffer representation,
+    String recordsPropertyName, Function<JsonObject, T> mapper) {
+
+    try (InputStream input = new ByteBufInputStream(representation.getByteBuf());
+         JsonParser parser = DatabindCodec.mapper().getFactory().createParser(input)) {
+
+      return parse(parser, recordsPropertyName, mapper);
+    }
+    catch (IOException e) {
+      throw new DecodeException("Failed to decode: " + e.getMessage(), e);
+    }
+  }
+
+  private static <T> MultipleRecords<T> parse(JsonParser parser,
+    String recordsPropertyName, Function<JsonObject, T> mapper) throws IOException {
+
+    final List<T> records = new ArrayList<>();
+    Integer totalRecords = null;
+
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new DecodeException("Expected a JSON object");
+    }
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String propertyName = parser.getCurrentName();
+      final JsonToken value = parser.nextToken();
+
+      if (propertyName.equals(recordsPropertyName) && value == JsonToken.START_ARRAY) {
+        readRecords(parser, mapper, records);
+      }
+      else if (propertyName.equals(TOTAL_RECORDS_PROPERTY_NAME)
+        && value == JsonToken.VALUE_NUMBER_INT) {
+
+        totalRecords = parser.getIntValue();
+      }
+      else {
+        parser.skipChildren();
+      }
+    }
+
+    if (parser.currentToken() != JsonToken.END_OBJECT) {
+      throw new DecodeException("Unexpected end of JSON object");
+    }
+
+    return new MultipleRecords<>(records, totalRecords);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> void readRecords(JsonParser parser, Function<JsonObject, T> mapper,
+    List<T> records) throws IOException {
+
+    JsonToken entry;
+
+    while ((entry = parser.nextToken()) != JsonToken.END_ARRAY) {
+      if (entry == null) {
+        throw new DecodeException("Unexpected end of records array");
+      }
+
+      if (entry == JsonToken.START_OBJECT) {
+        final Map<String, Object> record = parser.readValueAs(Map.class);
+
+        records.add(mapper.apply(new JsonObject(record)));
+      }
+      else {
+        parser.skipChildren();
+      }
+    }
+  }
+}
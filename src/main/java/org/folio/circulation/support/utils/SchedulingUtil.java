@@ -0,0 +1,64 @@
+package org.folio.circulation.support.utils;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+
+/**
+ * Runs work later on a Vert.x context, so that any requests it makes to other
+ * modules are sent from that context's event loop rather than a pooled thread
+ *
+ * When there is no context (e.g. in unit tests that do not use Vert.x),
+ * the work is run on a single daemon thread instead
+ */
+public final class SchedulingUtil {
+  private SchedulingUtil() {}
+
+  /**
+   * Runs the task on the context as soon as possible,
+   * never on the calling thread
+   */
+  public static void runOnContext(Context context, Runnable task) {
+    if (context == null) {
+      FallbackScheduler.EXECUTOR.execute(task);
+    }
+    else {
+      context.runOnContext(notUsed -> task.run());
+    }
+  }
+
+  /**
+   * Runs the task on the context once the delay has passed
+   */
+  public static void runLater(Context context, long delayMilliseconds, Runnable task) {
+    if (context == null) {
+      FallbackScheduler.EXECUTOR.schedule(task, delayMilliseconds, TimeUnit.MILLISECONDS);
+    }
+    else if (context == Vertx.currentContext()) {
+      // timers fire on the context they are set from
+      context.owner().setTimer(Math.max(1, delayMilliseconds), id -> task.run());
+    }
+    else {
+      context.runOnContext(notUsed -> runLater(context, delayMilliseconds, task));
+    }
+  }
+
+  /**
+   * Runs the task on the caller's context once the delay has passed
+   */
+  public static void runLater(long delayMilliseconds, Runnable task) {
+    runLater(Vertx.currentContext(), delayMilliseconds, task);
+  }
+
+  private static class FallbackScheduler {
+    private static final ScheduledExecutorService EXECUTOR
+      = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "circulation-scheduled-work");
+        thread.setDaemon(true);
+        return thread;
+      });
+  }
+}
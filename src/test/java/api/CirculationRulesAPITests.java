@@ -16,6 +16,7 @@ import api.support.builders.LoanPolicyBuilder;
 import api.support.builders.LostItemFeePolicyBuilder;
 import api.support.builders.NoticePolicyBuilder;
 import api.support.builders.OverdueFinePolicyBuilder;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
 public class CirculationRulesAPITests extends APITests {
@@ -427,6 +428,60 @@ public class CirculationRulesAPITests extends APITests {
     assertThat(json.getInteger("column"), is(2));
   }
 
+  @Test
+  public void canAnalyseImpactOfChangingRulesOnOpenLoans() {
+    final UUID rollingLoanPolicyId = loanPoliciesFixture.canCirculateRolling().getId();
+    final UUID fixedLoanPolicyId = loanPoliciesFixture.canCirculateFixed().getId();
+    final UUID requestPolicyId = requestPoliciesFixture.allowAllRequestPolicy().getId();
+    final UUID noticePolicyId = noticePoliciesFixture.activeNotice().getId();
+    final UUID overdueFinePolicyId = overdueFinePoliciesFixture.facultyStandard().getId();
+    final UUID lostItemFeePolicyId = lostItemFeePoliciesFixture.facultyStandard().getId();
+
+    final String currentRules = circulationRulesFixture.soleFallbackPolicyRule(
+      rollingLoanPolicyId, requestPolicyId, noticePolicyId, overdueFinePolicyId,
+      lostItemFeePolicyId);
+
+    setRules(currentRules);
+
+    checkOutFixture.checkOutByBarcode(itemsFixture.basedUponSmallAngryPlanet(),
+      usersFixture.steve());
+    checkOutFixture.checkOutByBarcode(itemsFixture.basedUponDunkirk(),
+      usersFixture.jessica());
+
+    final String candidateRules = currentRules + String.format(
+      "m %s: l %s r %s n %s o %s i %s\n", materialTypesFixture.book().getId(),
+      fixedLoanPolicyId, requestPolicyId, noticePolicyId, overdueFinePolicyId,
+      lostItemFeePolicyId);
+
+    final JsonObject impact = circulationRulesFixture.analyseImpactOfRules(candidateRules);
+
+    assertThat(impact.getInteger("openLoans"), is(2));
+    assertThat(impact.getInteger("openRequests"), is(0));
+    assertThat(impact.getJsonObject("notAnalysed").getInteger("openLoans"), is(0));
+
+    final JsonArray policyChanges = impact.getJsonArray("policyChanges");
+
+    assertThat(policyChanges.size(), is(1));
+
+    final JsonObject change = policyChanges.getJsonObject(0);
+
+    assertThat(change.getString("policyType"), is("loanPolicy"));
+    assertThat(change.getString("currentPolicyId"), is(rollingLoanPolicyId.toString()));
+    assertThat(change.getString("candidatePolicyId"), is(fixedLoanPolicyId.toString()));
+    assertThat(change.getInteger("openLoans"), is(1));
+
+    assertThat("rules should not be changed by analysis", getRulesText(),
+      is(currentRules));
+  }
+
+  @Test
+  public void canReportValidationErrorWhenAnalysingImpactOfRules() {
+    final Response response = circulationRulesFixture.attemptToAnalyseImpactOfRules("\t");
+
+    assertThat(response.getJson().getString("message"),
+      is("Tabulator character is not allowed, use spaces instead."));
+  }
+
   /** @return rulesAsText field */
   private String getRulesText() {
     Response response = circulationRulesFixture.getRules();
@@ -350,6 +350,182 @@ public class CirculationRulesEngineAPITests extends APITests {
     matchesNoticePolicy(matches, 2, np1, 2);
   }
 
+  @Test
+  public void canApplyRulesToBatchOfParameters() {
+    setRules(rules1);
+
+    JsonArray results = circulationRulesFixture.applyRulesForEachInBatch(
+      "/loan-policy", new JsonArray()
+        .add(batchParameters(m2, t2, g2, s2))
+        .add(batchParameters(m2, t2, g1, s2))
+        .add(batchParameters(m1, t2, g1, s1)));
+
+    assertThat(results.size(), is(3));
+
+    assertThat(results.getJsonObject(0).getString("loanPolicyId"), is(lp4.id));
+    assertThat(results.getJsonObject(1).getString("loanPolicyId"), is(lp3.id));
+    assertThat(results.getJsonObject(2).getString("loanPolicyId"), is(lp2.id));
+  }
+
+  @Test
+  public void canApplyRulesToBatchOfParametersForEachPolicyType() {
+    setRules(rulesWithInstitution);
+
+    final JsonArray parameters = new JsonArray()
+      .add(batchParameters(m1, t2, g2, s2))
+      .add(batchParameters(m1, t2, g2, s1));
+
+    JsonArray requestResults = circulationRulesFixture.applyRulesForEachInBatch(
+      "/request-policy", parameters);
+
+    assertThat(requestResults.getJsonObject(0).getString("requestPolicyId"), is(rp1.id));
+    assertThat(requestResults.getJsonObject(1).getString("requestPolicyId"), is(rp2.id));
+
+    JsonArray noticeResults = circulationRulesFixture.applyRulesForEachInBatch(
+      "/notice-policy", parameters);
+
+    assertThat(noticeResults.getJsonObject(0).getString("noticePolicyId"), is(np1.id));
+    assertThat(noticeResults.getJsonObject(1).getString("noticePolicyId"), is(np2.id));
+
+    JsonArray overdueResults = circulationRulesFixture.applyRulesForEachInBatch(
+      "/overdue-fine-policy", parameters);
+
+    assertThat(overdueResults.getJsonObject(0).getString("overdueFinePolicyId"), is(op1.id));
+    assertThat(overdueResults.getJsonObject(1).getString("overdueFinePolicyId"), is(op2.id));
+
+    JsonArray lostItemResults = circulationRulesFixture.applyRulesForEachInBatch(
+      "/lost-item-policy", parameters);
+
+    assertThat(lostItemResults.getJsonObject(0).getString("lostItemPolicyId"), is(lip1.id));
+    assertThat(lostItemResults.getJsonObject(1).getString("lostItemPolicyId"), is(lip2.id));
+  }
+
+  @Test
+  public void cannotApplyRulesToBatchWithoutParameters() {
+    final Response response = circulationRulesFixture
+      .attemptToApplyRulesInBatch("/loan-policy", new JsonObject());
+
+    assertThat(response.getBody(), containsString("parameters"));
+  }
+
+  @Test
+  public void cannotApplyRulesToBatchWithMalformedBody() {
+    final Response response = circulationRulesFixture
+      .attemptToApplyRulesInBatch("/loan-policy", "{\"parameters\": [");
+
+    assertThat(response.getBody(), containsString("JSON object"));
+  }
+
+  @Test
+  public void cannotApplyRulesToBatchWhenParametersAreNotAnArray() {
+    final Response response = circulationRulesFixture
+      .attemptToApplyRulesInBatch("/loan-policy",
+        new JsonObject().put("parameters", "not an array"));
+
+    assertThat(response.getBody(), containsString("parameters"));
+  }
+
+  @Test
+  public void cannotApplyAllRulesForEachCombinationWithMalformedBody() {
+    final Response response = circulationRulesFixture
+      .attemptToApplyAllRulesForEachCombination("/loan-policy-all", "not json");
+
+    assertThat(response.getBody(), containsString("JSON object"));
+  }
+
+  @Test
+  public void cannotApplyRulesToBatchWithInvalidUuid() {
+    final Response response = circulationRulesFixture
+      .attemptToApplyRulesInBatch("/loan-policy", new JsonObject()
+        .put("parameters", new JsonArray()
+          .add(batchParameters(m1, t1, g1, s1))
+          .add(batchParameters(m1, t1, g1, s1).put("loan_type_id", "0"))));
+
+    assertThat(response.getBody(), containsString("uuid"));
+    assertThat(response.getBody(), containsString("index 1"));
+  }
+
+  @Test
+  public void canDetermineAllLoanPolicyMatchesForEachCombination() {
+    setRules(rules1);
+
+    JsonArray results = circulationRulesFixture.applyAllRulesForEachCombination(
+      "/loan-policy-all", new JsonObject()
+        .put("item_type_ids", new JsonArray().add(m1.id).add(m2.id))
+        .put("loan_type_ids", new JsonArray().add(t2.id))
+        .put("patron_type_ids", new JsonArray().add(g1.id).add(g2.id))
+        .put("location_ids", new JsonArray().add(s2.id)));
+
+    assertThat(results.size(), is(4));
+
+    final JsonObject lastCombination = results.getJsonObject(3);
+
+    assertThat(lastCombination.getString("item_type_id"), is(m2.id));
+    assertThat(lastCombination.getString("loan_type_id"), is(t2.id));
+    assertThat(lastCombination.getString("patron_type_id"), is(g2.id));
+    assertThat(lastCombination.getString("location_id"), is(s2.id));
+
+    JsonArray matches = lastCombination.getJsonArray("circulationRuleMatches");
+
+    assertThat(matches.size(), is(3));
+
+    matchesLoanPolicy(matches, 0, lp4, 4);
+    matchesLoanPolicy(matches, 1, lp3, 3);
+    matchesLoanPolicy(matches, 2, lp2, 2);
+
+    assertThat(results.getJsonObject(0).getJsonArray("circulationRuleMatches"),
+      is(circulationRulesFixture.applyAllRulesForLoanPolicy(m1, t2, g1, s2)));
+  }
+
+  @Test
+  public void canDetermineAllRequestPolicyMatchesForEachCombination() {
+    setRules(rules1);
+
+    JsonArray results = circulationRulesFixture.applyAllRulesForEachCombination(
+      "/request-policy-all", new JsonObject()
+        .put("item_type_ids", new JsonArray().add(m2.id))
+        .put("loan_type_ids", new JsonArray().add(t2.id))
+        .put("patron_type_ids", new JsonArray().add(g2.id))
+        .put("location_ids", new JsonArray().add(s2.id)));
+
+    assertThat(results.size(), is(1));
+
+    JsonArray matches = results.getJsonObject(0).getJsonArray("circulationRuleMatches");
+
+    matchesRequestPolicy(matches, 0, rp1, 4);
+    matchesRequestPolicy(matches, 1, rp1, 3);
+    matchesRequestPolicy(matches, 2, rp1, 2);
+  }
+
+  @Test
+  public void cannotDetermineAllMatchesWithoutIdsForEachCriterium() {
+    final Response response = circulationRulesFixture
+      .attemptToApplyAllRulesForEachCombination("/loan-policy-all", new JsonObject()
+        .put("item_type_ids", new JsonArray().add(m1.id))
+        .put("loan_type_ids", new JsonArray().add(t1.id))
+        .put("patron_type_ids", new JsonArray()));
+
+    assertThat(response.getBody(), containsString("patron_type_ids"));
+  }
+
+  @Test
+  public void cannotDetermineAllMatchesForTooManyCombinations() {
+    final JsonArray itemTypeIds = new JsonArray();
+
+    for (int i = 0; i < 10001; i++) {
+      itemTypeIds.add(UUID.randomUUID().toString());
+    }
+
+    final Response response = circulationRulesFixture
+      .attemptToApplyAllRulesForEachCombination("/loan-policy-all", new JsonObject()
+        .put("item_type_ids", itemTypeIds)
+        .put("loan_type_ids", new JsonArray().add(t1.id))
+        .put("patron_type_ids", new JsonArray().add(g1.id))
+        .put("location_ids", new JsonArray().add(s1.id)));
+
+    assertThat(response.getBody(), containsString("combinations"));
+  }
+
   @Test
   public void setRulesInvalidatesCache() {
     setRules(rulesFallback);
@@ -390,6 +566,13 @@ public class CirculationRulesEngineAPITests extends APITests {
       .until(() -> applyRulesForLoanPolicy(m1, t1, g1, s1), is(lp7));
   }
 
+  private JsonObject batchParameters(ItemType itemType, LoanType loanType,
+      PatronGroup patronGroup, ItemLocation location) {
+
+    return circulationRulesFixture.batchParameters(itemType, loanType,
+      patronGroup, location);
+  }
+
   private Policy applyRulesForLoanPolicy(ItemType itemType, LoanType loanType,
       PatronGroup patronGroup, ItemLocation location) {
 
@@ -0,0 +1,101 @@
+package api;
+
+import static api.support.APITestContext.circulationModuleUrl;
+import static api.support.APITestContext.getOkapiHeadersFromContext;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.folio.circulation.support.http.client.Response;
+import org.junit.Test;
+
+import api.support.APITests;
+import api.support.RestAssuredClient;
+
+public class OutboundRequestMetricsAPITests extends APITests {
+  private final RestAssuredClient restAssuredClient = new RestAssuredClient(
+    getOkapiHeadersFromContext());
+
+  @Test
+  public void metricsIncludeRequestsMadeToOtherModules() {
+    checkOutFixture.checkOutByBarcode(itemsFixture.basedUponSmallAngryPlanet(),
+      usersFixture.jessica());
+
+    final Response response = restAssuredClient.get(
+      circulationModuleUrl("/admin/metrics"), 200, "get-metrics-request");
+
+    assertThat(response.getBody(), containsString(
+      "circulation_outbound_request_duration_seconds_count" +
+        "{method=\"GET\",path=\"/item-storage/items\"}"));
+
+    assertThat(response.getBody(), containsString(
+      "circulation_outbound_request_duration_seconds_bucket" +
+        "{method=\"PUT\",path=\"/item-storage/items/{id}\",le=\"+Inf\"}"));
+  }
+
+  @Test
+  public void metricsIncludeEventPublishingQueue() {
+    final Response response = restAssuredClient.get(
+      circulationModuleUrl("/admin/metrics"), 200, "get-metrics-request");
+
+    assertThat(response.getBody(), containsString("\ncirculation_event_queue_depth "));
+    assertThat(response.getBody(), containsString("\ncirculation_events_published_total "));
+    assertThat(response.getBody(), containsString("\ncirculation_events_failed_total "));
+    assertThat(response.getBody(), containsString(
+      "\ncirculation_event_average_latency_seconds "));
+  }
+
+  @Test
+  public void metricsIncludeRulesExecution() {
+    final Response response = restAssuredClient.get(
+      circulationModuleUrl("/admin/metrics"), 200, "get-metrics-request");
+
+    assertThat(response.getBody(), containsString(
+      "\ncirculation_rules_execution_queue_depth "));
+    assertThat(response.getBody(), containsString(
+      "\ncirculation_rules_execution_average_queueing_seconds "));
+    assertThat(response.getBody(), containsString(
+      "\ncirculation_rules_execution_average_seconds "));
+  }
+
+  @Test
+  public void metricsIncludeHttpClientPools() {
+    final Response response = restAssuredClient.get(
+      circulationModuleUrl("/admin/metrics"), 200, "get-metrics-request");
+
+    assertThat(response.getBody(), containsString(
+      "\ncirculation_http_client_pool_in_use{pool=\"interactive\"} "));
+    assertThat(response.getBody(), containsString(
+      "\ncirculation_http_client_pool_waiting{pool=\"background\"} "));
+    assertThat(response.getBody(), containsString(
+      "\ncirculation_http_client_pool_average_acquire_seconds{pool=\"interactive\"} "));
+  }
+
+  @Test
+  public void metricsIncludeAdmissionControl() {
+    final Response response = restAssuredClient.get(
+      circulationModuleUrl("/admin/metrics"), 200, "get-metrics-request");
+
+    assertThat(response.getBody(), containsString(
+      "\ncirculation_admission_in_progress{class=\"batch\"} "));
+    assertThat(response.getBody(), containsString(
+      "\ncirculation_admission_queued{class=\"interactive\"} "));
+  }
+
+  @Test
+  public void metricsIncludeOutboundResilience() {
+    checkOutFixture.checkOutByBarcode(itemsFixture.basedUponSmallAngryPlanet(),
+      usersFixture.jessica());
+
+    final Response response = restAssuredClient.get(
+      circulationModuleUrl("/admin/metrics"), 200, "get-metrics-request");
+
+    assertThat(response.getBody(), containsString(
+      "\ncirculation_outbound_circuit_state{path=\"/item-storage\"} 0\n"));
+    assertThat(response.getBody(), containsString(
+      "\ncirculation_outbound_retries_total{path=\"/item-storage\"} "));
+    assertThat(response.getBody(), containsString(
+      "\ncirculation_outbound_hedged_total{path=\"/item-storage\"} "));
+    assertThat(response.getBody(), containsString(
+      "\ncirculation_outbound_short_circuited_total{path=\"/item-storage\"} "));
+  }
+}
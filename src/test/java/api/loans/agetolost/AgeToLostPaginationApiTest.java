@@ -0,0 +1,120 @@
+package api.loans.agetolost;
+
+import static api.support.APITestContext.createClients;
+import static api.support.matchers.ItemMatchers.isAgedToLost;
+import static api.support.matchers.ItemMatchers.isCheckedOut;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.joda.time.DateTime.now;
+import static org.joda.time.DateTimeZone.UTC;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.folio.circulation.services.agedtolost.MarkOverdueLoansAsAgedLostService;
+import org.folio.circulation.support.results.Result;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+
+import api.support.APITests;
+import api.support.builders.CheckOutByBarcodeRequestBuilder;
+import api.support.builders.ItemBuilder;
+import api.support.http.IndividualResource;
+import lombok.val;
+
+public class AgeToLostPaginationApiTest extends APITests {
+  private static final int PAGE_SIZE = 2;
+
+  private final DateTime loanDate = now(UTC).minusWeeks(3).minusMinutes(2);
+
+  @Before
+  public void activateLostItemFeePolicy() {
+    useLostItemPolicy(lostItemFeePoliciesFixture.ageToLostAfterOneMinute().getId());
+  }
+
+  @Test
+  public void shouldAgeToLostAllLoansWithTheSameDueDateAcrossPages() {
+    val items = checkOutItems(5, loanDate);
+
+    assertThat(processAgeToLost(Duration.ofMinutes(1)).succeeded(), is(true));
+
+    items.forEach(item -> assertThat(itemsClient.get(item).getJson(), isAgedToLost()));
+  }
+
+  @Test
+  public void shouldAgeToLostLoansAfterAPageOfLoansThatNeverAgeToLost() {
+    val neverAgedToLostPolicy = lostItemFeePoliciesFixture.ageToLostAfterOneMinutePolicy()
+      .withName("Aged to lost disabled")
+      .withItemAgedToLostAfterOverdue(null);
+
+    useLostItemPolicy(lostItemFeePoliciesFixture.create(neverAgedToLostPolicy).getId());
+
+    // due earlier, so these loans fill the first page
+    val notAgedToLostItems = checkOutItems(PAGE_SIZE, loanDate.minusMinutes(1));
+
+    useLostItemPolicy(lostItemFeePoliciesFixture.ageToLostAfterOneMinute().getId());
+
+    val agedToLostItems = checkOutItems(PAGE_SIZE, loanDate);
+
+    assertThat(processAgeToLost(Duration.ofMinutes(1)).succeeded(), is(true));
+
+    notAgedToLostItems.forEach(item ->
+      assertThat(itemsClient.get(item).getJson(), isCheckedOut()));
+
+    agedToLostItems.forEach(item ->
+      assertThat(itemsClient.get(item).getJson(), isAgedToLost()));
+  }
+
+  @Test
+  public void shouldStopFetchingPagesOnceTimeBudgetIsUsedUp() {
+    val firstPageItems = checkOutItems(PAGE_SIZE, loanDate.minusMinutes(1));
+    val laterPageItems = checkOutItems(PAGE_SIZE, loanDate);
+
+    assertThat(processAgeToLost(Duration.ZERO).succeeded(), is(true));
+
+    firstPageItems.forEach(item ->
+      assertThat(itemsClient.get(item).getJson(), isAgedToLost()));
+
+    laterPageItems.forEach(item ->
+      assertThat(itemsClient.get(item).getJson(), isCheckedOut()));
+
+    // the remaining loans are aged to lost on the next run
+    assertThat(processAgeToLost(Duration.ofMinutes(1)).succeeded(), is(true));
+
+    laterPageItems.forEach(item ->
+      assertThat(itemsClient.get(item).getJson(), isAgedToLost()));
+  }
+
+  private Result<Void> processAgeToLost(Duration timeBudget) {
+    try {
+      return new MarkOverdueLoansAsAgedLostService(createClients(), PAGE_SIZE, timeBudget)
+        .processAgeToLost()
+        .get(10, SECONDS);
+    }
+    catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private List<IndividualResource> checkOutItems(int numberOfItems, DateTime loanDate) {
+    final List<IndividualResource> items = new ArrayList<>();
+
+    for (int i = 0; i < numberOfItems; i++) {
+      final IndividualResource item = itemsFixture.basedUponNod(ItemBuilder::withRandomBarcode);
+
+      checkOutFixture.checkOutByBarcode(
+        new CheckOutByBarcodeRequestBuilder()
+          .forItem(item)
+          .at(servicePointsFixture.cd1())
+          .to(usersFixture.charlotte())
+          .on(loanDate));
+
+      items.add(item);
+    }
+
+    return items;
+  }
+}
@@ -11,6 +11,7 @@ import static org.folio.circulation.support.json.JsonPropertyFetcher.getDateTime
 import static org.hamcrest.CoreMatchers.allOf;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.iterableWithSize;
 import static org.hamcrest.Matchers.not;
@@ -30,6 +31,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import api.support.MultipleJsonRecords;
 import api.support.builders.CheckOutByBarcodeRequestBuilder;
 import api.support.builders.ItemBuilder;
+import api.support.fakes.FakeStorageModule;
 import api.support.http.IndividualResource;
 import api.support.spring.SpringApiTest;
 import api.support.spring.clients.ScheduledJobClient;
@@ -82,6 +84,22 @@ public class ScheduledAgeToLostApiTest extends SpringApiTest {
     assertThatPublishedLoanLogRecordEventsAreValid();
   }
 
+  @Test
+  public void shouldStoreAllAgedToLostItemsInOneBatchRequest() {
+    val loanToItemMap = checkOutTenItems();
+
+    FakeStorageModule.clearBatchUpdates();
+
+    scheduledAgeToLostClient.triggerJob();
+
+    // the ten items and the one checked out before each test
+    assertThat(FakeStorageModule.getBatchUpdateSizes(
+      "/item-storage/batch/synchronous"), contains(11));
+
+    loanToItemMap.values().forEach(item ->
+      assertThat(itemsClient.get(item).getJson(), isAgedToLost()));
+  }
+
   @Test
   public void shouldIgnoreOverdueLoansWhenItemIsClaimedReturned() {
     claimItemReturnedFixture.claimItemReturned(overdueLoan.getId());
@@ -16,6 +16,7 @@ import static api.support.matchers.ValidationErrorMatchers.hasErrorWith;
 import static api.support.matchers.ValidationErrorMatchers.hasMessage;
 import static api.support.PubsubPublisherTestUtils.assertThatPublishedLoanLogRecordEventsAreValid;
 import static java.lang.Boolean.TRUE;
+import static org.folio.circulation.support.ClockManager.getClockManager;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.iterableWithSize;
@@ -30,6 +31,7 @@ import org.hamcrest.Matcher;
 import org.junit.Before;
 import org.junit.Test;
 
+import api.support.builders.AccountBuilder;
 import api.support.builders.FeeFineOwnerBuilder;
 import api.support.builders.ItemBuilder;
 import api.support.builders.LostItemFeePolicyBuilder;
@@ -185,7 +187,12 @@ public class ScheduledAgeToLostFeeChargingApiTest extends SpringApiTest {
     feeFineOwnerFixture.delete(firstOwner);
     feeFineOwnerFixture.delete(secondOwner);
 
-    ageToLostFixture.ageToLostAndAttemptChargeFees();
+    val response = ageToLostFixture.ageToLostAndAttemptChargeFees();
+
+    assertThat(response.getJson(), allOf(
+      hasJsonPath("loansProcessed", 10),
+      hasJsonPath("loansCharged", 8),
+      hasJsonPath("loansFailed", 2)));
 
     loansExpectedToBeFailed.forEach((loan, fee) ->
         assertThat(loansStorageClient.get(loan).getJson(), isLostItemHasNotBeenBilled()));
@@ -273,6 +280,42 @@ public class ScheduledAgeToLostFeeChargingApiTest extends SpringApiTest {
     assertThatPublishedLoanLogRecordEventsAreValid();
   }
 
+  @Test
+  public void shouldOnlyChargeRemainingFeesWhenBillingWasStartedByPreviousRun() {
+    val policy = lostItemFeePoliciesFixture
+      .ageToLostAfterOneMinutePolicy()
+      .withSetCost(11.00)
+      .chargeProcessingFeeWhenAgedToLost(5.00);
+
+    val result = ageToLostFixture.createAgedToLostLoan(policy);
+
+    // a previous run that stopped after charging the lost item fee
+    val loan = result.getLoan().getJson();
+    loan.getJsonObject("agedToLostDelayedBilling")
+      .put("lostItemBillingStartedDate", getClockManager().getDateTime().toString());
+
+    loansStorageClient.replace(result.getLoanId(), loan);
+
+    accountsClient.create(new AccountBuilder()
+      .withLoan(result.getLoan())
+      .withAmount(11.00)
+      .withRemainingFeeFine(11.00)
+      .feeFineStatusOpen()
+      .withFeeFineType("Lost item fee"));
+
+    val response = ageToLostFixture.chargeFees();
+
+    assertThat(response.getJson(), allOf(
+      hasJsonPath("loansCharged", 1),
+      hasJsonPath("loansFailed", 0)));
+
+    val loanFromStorage = loansStorageClient.get(result.getLoanId());
+
+    assertThat(loanFromStorage.getJson(), isLostItemHasBeenBilled());
+    assertThat(loanFromStorage, hasLostItemFees(iterableWithSize(1)));
+    assertThat(loanFromStorage, hasLostItemProcessingFee(isOpen(5.00)));
+  }
+
   @Test
   public void shouldCloseLoanWhenNoFeesToCharge() {
     val policy = lostItemFeePoliciesFixture
@@ -2,6 +2,7 @@ package api.loans.scenarios;
 
 import static api.support.matchers.AccountActionsMatchers.arePaymentRefundActionsCreated;
 import static api.support.matchers.AccountActionsMatchers.isCancelledItemReturnedActionCreated;
+import static api.support.matchers.AccountMatchers.isClosedCancelled;
 import static api.support.matchers.AccountMatchers.isOpen;
 import static api.support.matchers.AccountMatchers.isRefundedFully;
 import static api.support.matchers.ItemMatchers.isAvailable;
@@ -11,17 +12,21 @@ import static api.support.matchers.ValidationErrorMatchers.hasErrorWith;
 import static api.support.matchers.ValidationErrorMatchers.hasMessage;
 import static api.support.matchers.ValidationErrorMatchers.hasParameter;
 import static api.support.PubsubPublisherTestUtils.assertThatPublishedLoanLogRecordEventsAreValid;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.CoreMatchers.allOf;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.joda.time.DateTime.now;
 
+import org.awaitility.Awaitility;
+import org.folio.circulation.services.LostItemFeeRefundService;
 import org.folio.circulation.support.http.client.Response;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.junit.Test;
 
 import api.support.builders.CheckInByBarcodeRequestBuilder;
+import api.support.fakes.FakeStorageModule;
 import api.support.http.IndividualResource;
 import io.vertx.core.json.JsonObject;
 
@@ -40,6 +45,53 @@ public class CheckInDeclaredLostItemTest extends RefundDeclaredLostFeesTestBase
       .on(actionDate));
   }
 
+  @Test
+  public void shouldCancelItemFeeAfterRespondingWhenRefundingAsynchronously() {
+    final double setCostFee = 15.00;
+
+    LostItemFeeRefundService.configure(new JsonObject().put("asynchronous", true));
+
+    try {
+      declareItemLost(setCostFee);
+
+      performActionThatRequiresRefund();
+
+      Awaitility.await()
+        .atMost(1, SECONDS)
+        .untilAsserted(() -> assertThat(loan, hasLostItemFee(
+          isClosedCancelled("Cancelled item returned", setCostFee))));
+    }
+    finally {
+      LostItemFeeRefundService.configure(new JsonObject());
+    }
+  }
+
+  @Test
+  public void shouldAttemptRefundAgainWhenItFailsAfterResponding() {
+    final double setCostFee = 15.00;
+
+    LostItemFeeRefundService.configure(new JsonObject()
+      .put("asynchronous", true)
+      .put("firstRetryDelayMilliseconds", 100));
+
+    try {
+      declareItemLost(setCostFee);
+
+      // the first two attempts to refund fail before anything is saved
+      FakeStorageModule.failNextRequests("/lost-item-fees-policies", 2);
+
+      performActionThatRequiresRefund();
+
+      Awaitility.await()
+        .atMost(5, SECONDS)
+        .untilAsserted(() -> assertThat(loan, hasLostItemFee(
+          isClosedCancelled("Cancelled item returned", setCostFee))));
+    }
+    finally {
+      LostItemFeeRefundService.configure(new JsonObject());
+    }
+  }
+
   @Test
   public void shouldRefundOnlyLastLoanForLostAndPaidItem() {
     final double firstFee = 20.00;
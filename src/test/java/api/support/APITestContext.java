@@ -5,6 +5,7 @@ import static org.folio.rest.tools.utils.NetworkUtils.nextFreePort;
 import java.lang.invoke.MethodHandles;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -13,9 +14,13 @@ import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import org.folio.circulation.Launcher;
+import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.VertxAssistant;
+import org.folio.circulation.support.http.OkapiHeader;
 import org.folio.circulation.support.http.client.OkapiHttpClient;
+import org.folio.circulation.support.http.client.OutboundCallTrace;
 import org.folio.circulation.support.http.client.VertxWebClientOkapiHttpClient;
+import org.folio.circulation.support.http.server.WebContext;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.slf4j.Logger;
@@ -102,6 +107,57 @@ public class APITestContext {
       TENANT_ID, TOKEN, USER_ID, REQUEST_ID);
   }
 
+  /**
+   * Clients for using services directly, rather than via the module's API,
+   * sending requests to storage as if on behalf of a request to the module
+   */
+  public static Clients createClients() {
+    final WebContext context = new WebContext(null) {
+      @Override
+      public String getTenantId() {
+        return TENANT_ID;
+      }
+
+      @Override
+      public String getOkapiToken() {
+        return TOKEN;
+      }
+
+      @Override
+      public String getUserId() {
+        return USER_ID;
+      }
+
+      @Override
+      public String getOkapiLocation() {
+        return okapiUrl().toString();
+      }
+
+      @Override
+      public String getRequestId() {
+        return REQUEST_ID;
+      }
+
+      @Override
+      public Map<String, String> getHeaders() {
+        return Map.of(
+          OkapiHeader.OKAPI_URL.toLowerCase(), getOkapiLocation(),
+          OkapiHeader.TENANT.toLowerCase(), TENANT_ID,
+          OkapiHeader.TOKEN.toLowerCase(), TOKEN,
+          OkapiHeader.USER_ID.toLowerCase(), USER_ID,
+          OkapiHeader.REQUEST_ID.toLowerCase(), REQUEST_ID);
+      }
+
+      @Override
+      public OutboundCallTrace getOutboundCallTrace() {
+        return new OutboundCallTrace(REQUEST_ID, System.nanoTime());
+      }
+    };
+
+    return Clients.create(context,
+      vertxAssistant.createUsingVertx(Vertx::createHttpClient));
+  }
+
   static void deployVerticles()
     throws InterruptedException,
     ExecutionException,
@@ -18,7 +18,12 @@ import java.time.ZoneOffset;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
 
+import org.folio.circulation.infrastructure.storage.OpeningDaysCache;
+import org.folio.circulation.infrastructure.storage.OpeningTimelineCache;
+import org.folio.circulation.infrastructure.storage.feesandfines.FeeFineReferenceDataCache;
+import org.folio.circulation.infrastructure.storage.inventory.LocationIndex;
 import org.folio.circulation.support.ClockManager;
+import org.folio.circulation.support.http.client.OutboundResilience;
 import api.support.http.IndividualResource;
 import org.joda.time.DateTime;
 import org.junit.After;
@@ -27,6 +32,7 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 
 import api.support.fakes.FakePubSub;
+import api.support.fakes.FakeStorageModule;
 import api.support.fixtures.AddressTypesFixture;
 import api.support.fixtures.AgeToLostFixture;
 import api.support.fixtures.AutomatedPatronBlocksFixture;
@@ -309,7 +315,13 @@ public abstract class APITests {
 
   @After
   public void afterEach() {
+    FakeStorageModule.clearFailingRequests();
     forTenantStorage().deleteAll();
+    FeeFineReferenceDataCache.getInstance().dropCache();
+    LocationIndex.getInstance().dropIndex();
+    OpeningTimelineCache.getInstance().dropCache();
+    OpeningDaysCache.getInstance().dropCache();
+    OutboundResilience.getInstance().reset();
 
     mockClockManagerToReturnDefaultDateTime();
   }
@@ -73,4 +73,8 @@ public class AccountBuilder extends JsonBuilder implements Builder {
   public AccountBuilder manualFeeFine() {
     return new AccountBuilder(loanId, amount, remainingAmount, status, "Manual fee fine");
   }
+
+  public AccountBuilder withFeeFineType(String feeFineType) {
+    return new AccountBuilder(loanId, amount, remainingAmount, status, feeFineType);
+  }
 }
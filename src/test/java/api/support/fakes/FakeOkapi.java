@@ -109,6 +109,8 @@ public class FakeOkapi extends AbstractVerticle {
         StorageRecordPreProcessors::setItemStatusDateForItem,
         StorageRecordPreProcessors::setEffectiveCallNumberComponents))
       .validateRecordsWith(validatorForStorageItemSchema())
+      .withBatchUpdate("/item-storage/batch/synchronous")
+      .requireUpsertForBatchUpdate()
       .create().register(router);
 
     new FakeStorageModuleBuilder()
@@ -258,6 +260,7 @@ public class FakeOkapi extends AbstractVerticle {
       .withCollectionPropertyName("locations")
       .withRequiredProperties("name", "code", "institutionId", "campusId",
         "libraryId", "primaryServicePoint")
+      .withChangeMetadata()
       .create()
       .register(router);
 
@@ -5,6 +5,7 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.folio.circulation.support.http.server.JsonHttpResponse.created;
 import static org.folio.circulation.support.http.server.NoContentResponse.noContent;
 import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
+import static org.folio.circulation.support.ValidationErrorFailure.singleValidationError;
 
 import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
@@ -17,6 +18,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -49,6 +51,9 @@ import io.vertx.ext.web.handler.BodyHandler;
 public class FakeStorageModule extends AbstractVerticle {
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
   private static final Set<String> queries = Collections.synchronizedSet(new HashSet<>());
+  private static final List<JsonObject> batchUpdates = Collections.synchronizedList(new ArrayList<>());
+  /** the number of requests still to fail, by root path */
+  private static final Map<String, Integer> failingRequests = new ConcurrentHashMap<>();
 
   private final String rootPath;
   private final String collectionPropertyName;
@@ -67,11 +72,41 @@ public class FakeStorageModule extends AbstractVerticle {
   private final Function<JsonObject, JsonObject> batchUpdatePreProcessor;
   private final List<BiFunction<JsonObject, JsonObject, JsonObject>> recordPreProcessors;
   private final Collection<String> additionalQueryParameters;
+  private final boolean batchUpdateRequiresUpsert;
 
   public static Stream<String> getQueries() {
     return queries.stream();
   }
 
+  /**
+   * @return the number of records in each successful batch update
+   * to the path, in the order they were made
+   */
+  public static List<Integer> getBatchUpdateSizes(String path) {
+    synchronized (batchUpdates) {
+      return batchUpdates.stream()
+        .filter(batchUpdate -> batchUpdate.getString("path").equals(path))
+        .map(batchUpdate -> batchUpdate.getInteger("size"))
+        .collect(Collectors.toList());
+    }
+  }
+
+  public static void clearBatchUpdates() {
+    batchUpdates.clear();
+  }
+
+  /**
+   * The next requests to the root path fail with a server error,
+   * e.g. to check that failed requests are made again
+   */
+  public static void failNextRequests(String rootPath, int numberOfRequests) {
+    failingRequests.put(rootPath, numberOfRequests);
+  }
+
+  public static void clearFailingRequests() {
+    failingRequests.clear();
+  }
+
   FakeStorageModule(
     String rootPath,
     String collectionPropertyName,
@@ -87,7 +122,8 @@ public class FakeStorageModule extends AbstractVerticle {
     String batchUpdatePath,
     Function<JsonObject, JsonObject> batchUpdatePreProcessor,
     List<BiFunction<JsonObject, JsonObject, JsonObject>> recordPreProcessors,
-    Collection<String> queryParameters) {
+    Collection<String> queryParameters,
+    boolean batchUpdateRequiresUpsert) {
 
     this.rootPath = rootPath;
     this.collectionPropertyName = collectionPropertyName;
@@ -106,6 +142,7 @@ public class FakeStorageModule extends AbstractVerticle {
     this.batchUpdatePath = batchUpdatePath;
     this.batchUpdatePreProcessor = batchUpdatePreProcessor;
     this.recordPreProcessors = recordPreProcessors;
+    this.batchUpdateRequiresUpsert = batchUpdateRequiresUpsert;
 
     this.storage = Storage.getStorage();
   }
@@ -113,6 +150,8 @@ public class FakeStorageModule extends AbstractVerticle {
   void register(Router router) {
     String pathTree = rootPath + "/*";
 
+    router.route(rootPath).handler(this::failWhenRequested);
+    router.route(pathTree).handler(this::failWhenRequested);
     router.route(rootPath).handler(this::checkTokenHeader);
     router.route(pathTree).handler(this::checkTokenHeader);
     router.route(rootPath).handler(this::checkRequestIdHeader);
@@ -164,22 +203,59 @@ public class FakeStorageModule extends AbstractVerticle {
     }
 
     JsonArray entities = body.getJsonArray(collectionPropertyName);
-    Result<Void> lastResult = Result.succeeded(null);
+    Result<Void> lastResult = checkBatchUpdateDoesNotReplaceWithoutUpsert(
+      routingContext, context, entities);
 
     for (int entityIndex = 0; entityIndex < entities.size(); entityIndex++) {
       JsonObject entity = entities.getJsonObject(entityIndex);
       String id = entity.getString("id");
 
-      lastResult = lastResult.next(notUsed -> replaceSingleItem(context, id, entity));
+      lastResult = lastResult
+        .next(notUsed -> validateBatchEntity(entity))
+        .next(notUsed -> replaceSingleItem(context, id, entity));
     }
 
     if (lastResult.failed()) {
       lastResult.cause().writeTo(routingContext.response());
     } else {
+      batchUpdates.add(new JsonObject()
+        .put("path", batchUpdatePath)
+        .put("size", entities.size()));
+
       routingContext.response().setStatusCode(201).end();
     }
   }
 
+  private Result<Void> checkBatchUpdateDoesNotReplaceWithoutUpsert(
+    RoutingContext routingContext, WebContext context, JsonArray entities) {
+
+    final boolean upsert = Boolean.parseBoolean(
+      routingContext.request().getParam("upsert"));
+
+    if (!batchUpdateRequiresUpsert || upsert) {
+      return Result.succeeded(null);
+    }
+
+    final Map<String, JsonObject> resourcesForTenant = getResourcesForTenant(context);
+
+    return entities.stream()
+      .map(JsonObject.class::cast)
+      .map(entity -> entity.getString("id"))
+      .filter(resourcesForTenant::containsKey)
+      .findFirst()
+      .map(id -> Result.<Void>failed(singleValidationError(
+        format("%s %s already exists", recordTypeName, id), "id", id)))
+      .orElse(Result.succeeded(null));
+  }
+
+  private Result<Void> validateBatchEntity(JsonObject entity) {
+    if (recordValidator == null) {
+      return Result.succeeded(null);
+    }
+
+    return recordValidator.validate(entity.encode()).map(notUsed -> null);
+  }
+
   private void create(RoutingContext routingContext) {
     WebContext context = new WebContext(routingContext);
 
@@ -444,6 +520,22 @@ public class FakeStorageModule extends AbstractVerticle {
     return StringUtils.isNotBlank(routingContext.getBodyAsString());
   }
 
+  private void failWhenRequested(RoutingContext routingContext) {
+    // the path is removed once enough requests have failed
+    final Integer remaining = failingRequests.computeIfPresent(rootPath,
+      (path, count) -> count > 0 ? count - 1 : null);
+
+    if (remaining != null) {
+      routingContext.response()
+        .setStatusCode(500)
+        .putHeader("content-type", "text/plain")
+        .end(format("Failing request to %s as requested", rootPath));
+    }
+    else {
+      routingContext.next();
+    }
+  }
+
   private void checkTokenHeader(RoutingContext routingContext) {
     WebContext context = new WebContext(routingContext);
 
@@ -31,6 +31,7 @@ public class FakeStorageModuleBuilder {
   private final Function<JsonObject, JsonObject> batchUpdatePreProcessor;
   private final List<BiFunction<JsonObject, JsonObject, JsonObject>> recordPreProcessors;
   private final Collection<String> queryParameters;
+  private final Boolean batchUpdateRequiresUpsert;
 
   FakeStorageModuleBuilder() {
     this(
@@ -49,7 +50,8 @@ public class FakeStorageModuleBuilder {
       null,
       null,
       null,
-      null);
+      null,
+      false);
   }
 
   private FakeStorageModuleBuilder(
@@ -68,7 +70,8 @@ public class FakeStorageModuleBuilder {
     String updateBatchPath,
     Function<JsonObject, JsonObject> batchUpdatePreProcessor,
     List<BiFunction<JsonObject, JsonObject, JsonObject>> recordPreProcessors,
-    Collection<String> queryParameters) {
+    Collection<String> queryParameters,
+    Boolean batchUpdateRequiresUpsert) {
 
     this.rootPath = rootPath;
     this.collectionPropertyName = collectionPropertyName;
@@ -86,6 +89,7 @@ public class FakeStorageModuleBuilder {
     this.updateBatchPath = updateBatchPath;
     this.batchUpdatePreProcessor = batchUpdatePreProcessor;
     this.recordPreProcessors = recordPreProcessors;
+    this.batchUpdateRequiresUpsert = batchUpdateRequiresUpsert;
   }
 
   public FakeStorageModule create() {
@@ -93,7 +97,7 @@ public class FakeStorageModuleBuilder {
       recordValidator, requiredProperties, hasCollectionDelete, hasDeleteByQuery,
       recordName, uniqueProperties, disallowedProperties, includeChangeMetadata,
       constraint, updateBatchPath, batchUpdatePreProcessor, recordPreProcessors,
-      queryParameters);
+      queryParameters, batchUpdateRequiresUpsert);
   }
 
   FakeStorageModuleBuilder withRootPath(String rootPath) {
@@ -117,7 +121,8 @@ public class FakeStorageModuleBuilder {
       this.updateBatchPath,
       this.batchUpdatePreProcessor,
       this.recordPreProcessors,
-      this.queryParameters);
+      this.queryParameters,
+      this.batchUpdateRequiresUpsert);
   }
 
   FakeStorageModuleBuilder withCollectionPropertyName(
@@ -139,7 +144,8 @@ public class FakeStorageModuleBuilder {
       this.updateBatchPath,
       this.batchUpdatePreProcessor,
       this.recordPreProcessors,
-      this.queryParameters);
+      this.queryParameters,
+      this.batchUpdateRequiresUpsert);
 
   }
 
@@ -160,7 +166,8 @@ public class FakeStorageModuleBuilder {
       this.updateBatchPath,
       this.batchUpdatePreProcessor,
       this.recordPreProcessors,
-      this.queryParameters);
+      this.queryParameters,
+      this.batchUpdateRequiresUpsert);
   }
 
   FakeStorageModuleBuilder validateRecordsWith(JsonSchemaValidator validator) {
@@ -180,7 +187,8 @@ public class FakeStorageModuleBuilder {
       this.updateBatchPath,
       this.batchUpdatePreProcessor,
       this.recordPreProcessors,
-      this.queryParameters);
+      this.queryParameters,
+      this.batchUpdateRequiresUpsert);
   }
 
   @Deprecated()
@@ -207,7 +215,8 @@ public class FakeStorageModuleBuilder {
       this.updateBatchPath,
       this.batchUpdatePreProcessor,
       this.recordPreProcessors,
-      this.queryParameters);
+      this.queryParameters,
+      this.batchUpdateRequiresUpsert);
   }
 
   @Deprecated()
@@ -238,7 +247,8 @@ public class FakeStorageModuleBuilder {
       this.updateBatchPath,
       this.batchUpdatePreProcessor,
       this.recordPreProcessors,
-      this.queryParameters);
+      this.queryParameters,
+      this.batchUpdateRequiresUpsert);
   }
 
   FakeStorageModuleBuilder withUniqueProperties(String... uniqueProperties) {
@@ -269,7 +279,8 @@ public class FakeStorageModuleBuilder {
       this.updateBatchPath,
       this.batchUpdatePreProcessor,
       this.recordPreProcessors,
-      this.queryParameters);
+      this.queryParameters,
+      this.batchUpdateRequiresUpsert);
   }
 
   @Deprecated()
@@ -298,7 +309,8 @@ public class FakeStorageModuleBuilder {
       this.updateBatchPath,
       this.batchUpdatePreProcessor,
       this.recordPreProcessors,
-      this.queryParameters);
+      this.queryParameters,
+      this.batchUpdateRequiresUpsert);
   }
 
   FakeStorageModuleBuilder allowDeleteByQuery() {
@@ -318,7 +330,8 @@ public class FakeStorageModuleBuilder {
       this.updateBatchPath,
       this.batchUpdatePreProcessor,
       this.recordPreProcessors,
-      this.queryParameters);
+      this.queryParameters,
+      this.batchUpdateRequiresUpsert);
   }
 
   FakeStorageModuleBuilder withChangeMetadata() {
@@ -338,7 +351,8 @@ public class FakeStorageModuleBuilder {
       this.updateBatchPath,
       this.batchUpdatePreProcessor,
       this.recordPreProcessors,
-      this.queryParameters);
+      this.queryParameters,
+      this.batchUpdateRequiresUpsert);
   }
 
   FakeStorageModuleBuilder withRecordConstraint(
@@ -360,7 +374,8 @@ public class FakeStorageModuleBuilder {
       this.updateBatchPath,
       this.batchUpdatePreProcessor,
       this.recordPreProcessors,
-      this.queryParameters);
+      this.queryParameters,
+      this.batchUpdateRequiresUpsert);
   }
 
   FakeStorageModuleBuilder withQueryParameters(String... queryParameters) {
@@ -384,7 +399,8 @@ public class FakeStorageModuleBuilder {
       this.updateBatchPath,
       this.batchUpdatePreProcessor,
       this.recordPreProcessors,
-      parameters);
+      parameters,
+      this.batchUpdateRequiresUpsert);
   }
 
   FakeStorageModuleBuilder withBatchUpdate(String path) {
@@ -404,7 +420,8 @@ public class FakeStorageModuleBuilder {
       path,
       this.batchUpdatePreProcessor,
       this.recordPreProcessors,
-      this.queryParameters);
+      this.queryParameters,
+      this.batchUpdateRequiresUpsert);
   }
 
   FakeStorageModuleBuilder withBatchUpdatePreProcessor(Function<JsonObject, JsonObject> preProcessor) {
@@ -424,7 +441,8 @@ public class FakeStorageModuleBuilder {
       this.updateBatchPath,
       preProcessor,
       this.recordPreProcessors,
-      this.queryParameters);
+      this.queryParameters,
+      this.batchUpdateRequiresUpsert);
   }
 
   FakeStorageModuleBuilder withRecordPreProcessor(
@@ -446,6 +464,32 @@ public class FakeStorageModuleBuilder {
       this.updateBatchPath,
       this.batchUpdatePreProcessor,
       recordPreProcessor,
-      this.queryParameters);
+      this.queryParameters,
+      this.batchUpdateRequiresUpsert);
+  }
+
+  /**
+   * Batch updates only replace existing records when the request asks to
+   * upsert them, otherwise they are rejected as duplicates
+   */
+  FakeStorageModuleBuilder requireUpsertForBatchUpdate() {
+    return new FakeStorageModuleBuilder(
+      this.rootPath,
+      this.collectionPropertyName,
+      this.tenantId,
+      this.requiredProperties,
+      this.disallowedProperties,
+      this.hasCollectionDelete,
+      this.recordName,
+      this.uniqueProperties,
+      this.hasDeleteByQuery,
+      this.includeChangeMetadata,
+      this.constraint,
+      this.recordValidator,
+      this.updateBatchPath,
+      this.batchUpdatePreProcessor,
+      this.recordPreProcessors,
+      this.queryParameters,
+      true);
   }
 }
@@ -112,13 +112,15 @@ public final class AgeToLostFixture {
     getClockManager().setDefaultClock();
   }
 
-  public void chargeFees() {
+  public Response chargeFees() {
     moveTimeForwardForChargeFee();
 
-    timedTaskClient.start(scheduledAgeToLostFeeChargingUrl(), 204,
+    final Response response = timedTaskClient.start(scheduledAgeToLostFeeChargingUrl(), 200,
       "scheduled-age-to-lost-fee-charging");
 
     getClockManager().setDefaultClock();
+
+    return response;
   }
 
   public void ageToLostAndChargeFees() {
@@ -189,6 +189,68 @@ public class CirculationRulesFixture {
     return response.getJson().getJsonArray("circulationRuleMatches");
   }
 
+  public JsonArray applyRulesForEachInBatch(String policyPath,
+    JsonArray parameters) {
+
+    final Response response = restAssuredClient.post(
+      new JsonObject().put("parameters", parameters),
+      circulationRulesUrl(policyPath + "/batch"), 200,
+      "apply-rules-to-batch-of-parameters");
+
+    return response.getJson().getJsonArray("results");
+  }
+
+  public Response attemptToApplyRulesInBatch(String policyPath,
+    Object representation) {
+
+    return restAssuredClient.post(representation,
+      circulationRulesUrl(policyPath + "/batch"), 400,
+      "attempt-to-apply-rules-to-batch-of-parameters");
+  }
+
+  public JsonArray applyAllRulesForEachCombination(String policyAllPath,
+    JsonObject combinations) {
+
+    final Response response = restAssuredClient.post(combinations,
+      circulationRulesUrl(policyAllPath + "/batch"), 200,
+      "apply-all-rules-to-each-combination");
+
+    return response.getJson().getJsonArray("results");
+  }
+
+  public Response attemptToApplyAllRulesForEachCombination(String policyAllPath,
+    Object combinations) {
+
+    return restAssuredClient.post(combinations,
+      circulationRulesUrl(policyAllPath + "/batch"), 400,
+      "attempt-to-apply-all-rules-to-each-combination");
+  }
+
+  public JsonObject analyseImpactOfRules(String rules) {
+    final Response response = restAssuredClient.post(
+      new JsonObject().put("rulesAsText", rules),
+      circulationRulesUrl("/impact-analysis"), 200,
+      "analyse-impact-of-circulation-rules");
+
+    return response.getJson();
+  }
+
+  public Response attemptToAnalyseImpactOfRules(String rules) {
+    return restAssuredClient.post(new JsonObject().put("rulesAsText", rules),
+      circulationRulesUrl("/impact-analysis"), 422,
+      "attempt-to-analyse-impact-of-circulation-rules");
+  }
+
+  public JsonObject batchParameters(ItemType itemType, LoanType loanType,
+    PatronGroup patronGroup, ItemLocation location) {
+
+    return new JsonObject()
+      .put("item_type_id", itemType.id)
+      .put("loan_type_id", loanType.id)
+      .put("patron_type_id", patronGroup.id)
+      .put("location_id", location.id);
+  }
+
   private Response applyRulesForPolicy(ItemType itemType, LoanType loanType,
       PatronGroup patronGroup, ItemLocation location, String policyPath,
       String requestId) {
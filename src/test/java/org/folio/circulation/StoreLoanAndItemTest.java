@@ -0,0 +1,111 @@
+package org.folio.circulation;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
+import static org.folio.circulation.support.results.Result.failed;
+import static org.folio.circulation.support.results.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.folio.circulation.domain.Item;
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.infrastructure.storage.inventory.ItemRepository;
+import org.folio.circulation.infrastructure.storage.loans.LoanRepository;
+import org.folio.circulation.support.ForwardOnFailure;
+import org.folio.circulation.support.http.client.Response;
+import org.folio.circulation.support.results.Result;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vertx.core.json.JsonObject;
+
+public class StoreLoanAndItemTest {
+  private LoanRepository loanRepository;
+  private ItemRepository itemRepository;
+  private StoreLoanAndItem storeLoanAndItem;
+
+  @Before
+  public void createStoreWithMockedRepositories() {
+    loanRepository = mock(LoanRepository.class);
+    itemRepository = mock(ItemRepository.class);
+
+    when(loanRepository.updateLoan(any(Loan.class)))
+      .then(invocation -> completedFuture(succeeded(invocation.getArgument(0))));
+
+    when(itemRepository.updateItem(any(Item.class)))
+      .then(invocation -> completedFuture(succeeded(null)));
+
+    storeLoanAndItem = new StoreLoanAndItem(loanRepository, itemRepository);
+  }
+
+  @Test
+  public void itemsAreStoredInBatchesBeforeEachLoan() throws Exception {
+    when(itemRepository.batchUpdate(anyCollection()))
+      .then(invocation -> completedFuture(succeeded(invocation.getArgument(0))));
+
+    final List<Result<Loan>> results = storeLoanAndItem
+      .updateLoansAndItemsInStorage(loans(120)).get(5, SECONDS);
+
+    assertThat(results.size(), is(120));
+    assertThat(results.stream().allMatch(result -> result.succeeded()), is(true));
+
+    verify(itemRepository, times(3)).batchUpdate(anyCollection());
+    verify(itemRepository, never()).updateItem(any(Item.class));
+    verify(loanRepository, times(120)).updateLoan(any(Loan.class));
+  }
+
+  @Test
+  public void loansAndItemsAreStoredSeparatelyWhenBatchConflicts() throws Exception {
+    final List<Loan> loans = loans(3);
+    final Loan conflictingLoan = loans.get(1);
+
+    when(itemRepository.batchUpdate(anyCollection()))
+      .thenReturn(completedFuture(failedWithStatus(409)));
+
+    when(loanRepository.updateLoan(any(Loan.class))).then(invocation ->
+      completedFuture(invocation.getArgument(0) == conflictingLoan
+        ? failedWithStatus(409)
+        : succeeded(invocation.getArgument(0))));
+
+    final List<Result<Loan>> results = storeLoanAndItem
+      .updateLoansAndItemsInStorage(loans).get(5, SECONDS);
+
+    assertThat(results.get(0).succeeded(), is(true));
+    assertThat(results.get(1).failed(), is(true));
+    assertThat(results.get(2).succeeded(), is(true));
+
+    // the conflicting batch is not retried with the same representations
+    verify(itemRepository, times(1)).batchUpdate(anyCollection());
+    // each item is only stored once
+    verify(itemRepository, times(3)).updateItem(any(Item.class));
+    verify(loanRepository, times(3)).updateLoan(any(Loan.class));
+  }
+
+  private static <T> Result<T> failedWithStatus(int statusCode) {
+    return failed(new ForwardOnFailure(
+      new Response(statusCode, "failed", "text/plain")));
+  }
+
+  private static List<Loan> loans(int count) {
+    return IntStream.range(0, count)
+      .mapToObj(index -> Loan.from(new JsonObject()
+          .put("id", UUID.randomUUID().toString()))
+        .withItem(Item.from(new JsonObject()
+          .put("id", UUID.randomUUID().toString())))
+        .ageOverdueItemToLost(DateTime.now()))
+      .collect(toList());
+  }
+}
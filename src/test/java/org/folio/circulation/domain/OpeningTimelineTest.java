@@ -0,0 +1,78 @@
+package org.folio.circulation.domain;
+
+import static api.support.fixtures.OpeningHourExamples.afternoon;
+import static api.support.fixtures.OpeningHourExamples.morning;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.joda.time.DateTimeZone.UTC;
+
+import java.util.List;
+
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalTime;
+import org.junit.Test;
+
+public class OpeningTimelineTest {
+  private static final OpeningTimeline timeline = OpeningTimeline.from(List.of(
+    openingDay(new LocalDate(2020, 4, 8), morning(), afternoon()),
+    openingDay(new LocalDate(2020, 4, 9), morning(), afternoon()),
+    openingDay(new LocalDate(2020, 4, 10), morning(), afternoon())));
+
+  @Test
+  public void allOpeningHoursBetweenTimesAreCounted() {
+    assertThat(timeline.openMinutesBetween(dateTime(8, 0, 0), dateTime(11, 0, 0)),
+      is(30 * 60));
+  }
+
+  @Test
+  public void openingHoursAreCutShortAtEitherEnd() {
+    // 1 hour on the first afternoon, 10 hours on the second day, 2 hours on the last morning
+    assertThat(timeline.openMinutesBetween(dateTime(8, 17, 30), dateTime(10, 9, 0)),
+      is(13 * 60));
+  }
+
+  @Test
+  public void openingHoursWithinASingleIntervalAreCounted() {
+    assertThat(timeline.openMinutesBetween(dateTime(9, 8, 15), dateTime(9, 10, 45)),
+      is(150));
+  }
+
+  @Test
+  public void partsOfAMinuteAreIgnored() {
+    assertThat(timeline.openMinutesBetween(dateTime(9, 8, 0).plusSeconds(30),
+      dateTime(9, 8, 10)), is(9));
+  }
+
+  @Test
+  public void noMinutesWhenClosedBetweenTimes() {
+    assertThat(timeline.openMinutesBetween(dateTime(9, 12, 0), dateTime(9, 13, 30)),
+      is(0));
+    assertThat(timeline.openMinutesBetween(dateTime(10, 19, 0), dateTime(11, 9, 0)),
+      is(0));
+  }
+
+  @Test
+  public void noMinutesWhenEndIsBeforeStart() {
+    assertThat(timeline.openMinutesBetween(dateTime(10, 9, 0), dateTime(8, 9, 0)),
+      is(0));
+  }
+
+  @Test
+  public void overlappingOpeningHoursAreOnlyCountedOnce() {
+    final OpeningTimeline overlapping = OpeningTimeline.from(List.of(
+      openingDay(new LocalDate(2020, 4, 8), morning(),
+        new OpeningHour(new LocalTime(11, 0), new LocalTime(14, 0)))));
+
+    assertThat(overlapping.openMinutesBetween(dateTime(8, 0, 0), dateTime(9, 0, 0)),
+      is(7 * 60));
+  }
+
+  private static OpeningDay openingDay(LocalDate date, OpeningHour... openingHours) {
+    return OpeningDay.createOpeningDay(List.of(openingHours), date, false, true, UTC);
+  }
+
+  private static DateTime dateTime(int dayOfMonth, int hour, int minute) {
+    return new DateTime(2020, 4, dayOfMonth, hour, minute, UTC);
+  }
+}
@@ -0,0 +1,102 @@
+package org.folio.circulation.domain.policy.library;
+
+import static org.folio.circulation.domain.OpeningDay.createOpeningDay;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.joda.time.DateTimeZone.UTC;
+
+import java.util.List;
+
+import org.folio.circulation.AdjacentOpeningDays;
+import org.folio.circulation.domain.OpeningDay;
+import org.folio.circulation.domain.OpeningHour;
+import org.joda.time.DateTime;
+import org.joda.time.Interval;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalTime;
+import org.junit.Test;
+
+public class LibraryTimetableTest {
+  private static final DateTime MONDAY = new DateTime(2020, 4, 6, 0, 0, UTC);
+
+  @Test
+  public void intervalContainingDateIsFound() {
+    final LibraryTimetable timetable = timetable(
+      interval(9, 12, true), interval(12, 13, false), interval(13, 17, true));
+
+    assertThat(timetable.findInterval(at(9)), sameInstance(timetable.getHead()));
+    assertThat(timetable.findInterval(at(12)).isOpen(), is(false));
+    assertThat(timetable.findInterval(at(16, 59)), sameInstance(timetable.getTail()));
+  }
+
+  @Test
+  public void noIntervalIsFoundOutsideOfTimetable() {
+    final LibraryTimetable timetable = timetable(
+      interval(9, 12, true), interval(12, 13, false), interval(13, 17, true));
+
+    assertThat(timetable.findInterval(at(8, 59)), is(nullValue()));
+    assertThat(timetable.findInterval(at(17)), is(nullValue()));
+    assertThat(new LibraryTimetable().findInterval(at(12)), is(nullValue()));
+  }
+
+  @Test
+  public void intervalsCanBeNavigatedInOrder() {
+    final LibraryTimetable timetable = timetable(
+      interval(9, 12, true), interval(12, 13, false), interval(13, 17, true));
+
+    final LibraryInterval closed = timetable.findInterval(at(12, 30));
+
+    assertThat(closed.getPrevious(), sameInstance(timetable.getHead()));
+    assertThat(closed.getNext(), sameInstance(timetable.getTail()));
+    assertThat(timetable.getHead().getPrevious(), is(nullValue()));
+    assertThat(timetable.getTail().getNext(), is(nullValue()));
+  }
+
+  @Test
+  public void firstIntervalIsFoundWhenIntervalsOverlap() {
+    final LibraryTimetable timetable = timetable(
+      interval(9, 14, true), interval(13, 17, true));
+
+    assertThat(timetable.findInterval(at(13, 30)), sameInstance(timetable.getHead()));
+    assertThat(timetable.findInterval(at(14)), sameInstance(timetable.getTail()));
+  }
+
+  @Test
+  public void timetableIsReusedForTheSameOpeningDays() {
+    final OpeningDay openDay = createOpeningDay(
+      List.of(new OpeningHour(new LocalTime(9, 0), new LocalTime(17, 0))),
+      new LocalDate(2020, 4, 6), false, true);
+
+    final AdjacentOpeningDays openingDays = new AdjacentOpeningDays(
+      openDay, openDay, openDay);
+
+    final LibraryTimetable timetable = LibraryTimetableConverter
+      .convertToLibraryTimetable(openingDays, UTC);
+
+    assertThat(LibraryTimetableConverter.convertToLibraryTimetable(openingDays, UTC),
+      sameInstance(timetable));
+
+    assertThat(LibraryTimetableConverter.convertToLibraryTimetable(
+      new AdjacentOpeningDays(openDay, openDay, openDay), UTC),
+      not(sameInstance(timetable)));
+  }
+
+  private static LibraryTimetable timetable(LibraryInterval... intervals) {
+    return new LibraryTimetable(List.of(intervals));
+  }
+
+  private static LibraryInterval interval(int startHour, int endHour, boolean open) {
+    return new LibraryInterval(new Interval(at(startHour), at(endHour)), open);
+  }
+
+  private static DateTime at(int hour) {
+    return at(hour, 0);
+  }
+
+  private static DateTime at(int hour, int minute) {
+    return MONDAY.withTime(hour, minute, 0, 0);
+  }
+}
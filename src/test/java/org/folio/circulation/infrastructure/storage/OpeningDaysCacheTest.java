@@ -0,0 +1,134 @@
+package org.folio.circulation.infrastructure.storage;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.folio.circulation.domain.OpeningDay.createClosedDay;
+import static org.folio.circulation.support.results.Result.failed;
+import static org.folio.circulation.support.results.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.joda.time.DateTimeZone.UTC;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.folio.circulation.AdjacentOpeningDays;
+import org.folio.circulation.support.ServerErrorFailure;
+import org.folio.circulation.support.results.Result;
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OpeningDaysCacheTest {
+  private static final String TENANT_ID = "test_tenant";
+  private static final String SERVICE_POINT_ID = UUID.randomUUID().toString();
+  private static final LocalDate REQUESTED_DATE = new LocalDate(2020, 4, 8);
+
+  private final AdjacentOpeningDays closedDays = new AdjacentOpeningDays(
+    createClosedDay(), createClosedDay(), createClosedDay());
+
+  private Supplier<CompletableFuture<Result<AdjacentOpeningDays>>> fetcher;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    fetcher = mock(Supplier.class);
+
+    when(fetcher.get()).thenReturn(completedFuture(succeeded(closedDays)));
+  }
+
+  @Test
+  public void openingDaysAreOnlyFetchedOnceForTheSameDate() throws Exception {
+    final OpeningDaysCache cache = new OpeningDaysCache();
+
+    getOpeningDays(cache, SERVICE_POINT_ID, REQUESTED_DATE);
+
+    assertThat(getOpeningDays(cache, SERVICE_POINT_ID, REQUESTED_DATE),
+      sameInstance(closedDays));
+
+    verify(fetcher, times(1)).get();
+  }
+
+  @Test
+  public void concurrentLookupsShareTheSameFetch() throws Exception {
+    final OpeningDaysCache cache = new OpeningDaysCache();
+    final CompletableFuture<Result<AdjacentOpeningDays>> pending = new CompletableFuture<>();
+
+    when(fetcher.get()).thenReturn(pending);
+
+    final CompletableFuture<Result<AdjacentOpeningDays>> first = cache.getOpeningDays(
+      TENANT_ID, SERVICE_POINT_ID, REQUESTED_DATE, UTC, fetcher);
+
+    final CompletableFuture<Result<AdjacentOpeningDays>> second = cache.getOpeningDays(
+      TENANT_ID, SERVICE_POINT_ID, REQUESTED_DATE, UTC, fetcher);
+
+    pending.complete(succeeded(closedDays));
+
+    assertThat(first.get(1, SECONDS).value(), sameInstance(closedDays));
+    assertThat(second.get(1, SECONDS).value(), sameInstance(closedDays));
+
+    verify(fetcher, times(1)).get();
+  }
+
+  @Test
+  public void failedLookupsAreNotCached() throws Exception {
+    final OpeningDaysCache cache = new OpeningDaysCache();
+
+    when(fetcher.get())
+      .thenReturn(completedFuture(failed(new ServerErrorFailure("calendar failed"))))
+      .thenReturn(completedFuture(succeeded(closedDays)));
+
+    final Result<AdjacentOpeningDays> failedLookup = cache.getOpeningDays(
+      TENANT_ID, SERVICE_POINT_ID, REQUESTED_DATE, UTC, fetcher).get(1, SECONDS);
+
+    assertThat(failedLookup.failed(), is(true));
+    assertThat(getOpeningDays(cache, SERVICE_POINT_ID, REQUESTED_DATE),
+      sameInstance(closedDays));
+
+    verify(fetcher, times(2)).get();
+  }
+
+  @Test
+  public void openingDaysAreFetchedForEachDate() throws Exception {
+    final OpeningDaysCache cache = new OpeningDaysCache();
+
+    getOpeningDays(cache, SERVICE_POINT_ID, REQUESTED_DATE);
+    getOpeningDays(cache, SERVICE_POINT_ID, REQUESTED_DATE.plusDays(1));
+
+    verify(fetcher, times(2)).get();
+  }
+
+  @Test
+  public void openingDaysAreFetchedForEachServicePoint() throws Exception {
+    final OpeningDaysCache cache = new OpeningDaysCache();
+
+    getOpeningDays(cache, SERVICE_POINT_ID, REQUESTED_DATE);
+    getOpeningDays(cache, UUID.randomUUID().toString(), REQUESTED_DATE);
+
+    verify(fetcher, times(2)).get();
+  }
+
+  @Test
+  public void openingDaysAreFetchedAgainOnceCacheIsDropped() throws Exception {
+    final OpeningDaysCache cache = new OpeningDaysCache();
+
+    getOpeningDays(cache, SERVICE_POINT_ID, REQUESTED_DATE);
+    cache.dropCache();
+    getOpeningDays(cache, SERVICE_POINT_ID, REQUESTED_DATE);
+
+    verify(fetcher, times(2)).get();
+  }
+
+  private AdjacentOpeningDays getOpeningDays(OpeningDaysCache cache,
+    String servicePointId, LocalDate requestedDate) throws Exception {
+
+    return cache.getOpeningDays(TENANT_ID, servicePointId, requestedDate, UTC, fetcher)
+      .get(1, SECONDS).value();
+  }
+}
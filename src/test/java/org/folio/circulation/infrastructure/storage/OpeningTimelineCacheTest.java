@@ -0,0 +1,126 @@
+package org.folio.circulation.infrastructure.storage;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.folio.circulation.support.results.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.joda.time.DateTimeZone.UTC;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+
+import org.folio.circulation.domain.OpeningTimeline;
+import org.folio.circulation.support.results.Result;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OpeningTimelineCacheTest {
+  private static final String TENANT_ID = "test_tenant";
+  private static final String SERVICE_POINT_ID = UUID.randomUUID().toString();
+
+  private static final LocalDate FIRST_DATE = new LocalDate(2020, 4, 8);
+  private static final LocalDate LAST_DATE = new LocalDate(2020, 4, 11);
+
+  private BiFunction<LocalDate, LocalDate, CompletableFuture<Result<OpeningTimeline>>> fetcher;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    fetcher = mock(BiFunction.class);
+
+    when(fetcher.apply(any(), any()))
+      .thenReturn(completedFuture(succeeded(OpeningTimeline.from(List.of()))));
+  }
+
+  @Test
+  public void timelineIsOnlyFetchedOnceForCoveredDates() throws Exception {
+    final OpeningTimelineCache cache = new OpeningTimelineCache(60_000);
+
+    getTimeline(cache, UTC, FIRST_DATE, LAST_DATE);
+    getTimeline(cache, UTC, FIRST_DATE.plusDays(1), LAST_DATE.plusDays(7));
+
+    verify(fetcher).apply(FIRST_DATE, LAST_DATE.plusDays(7));
+    verify(fetcher, times(1)).apply(any(), any());
+  }
+
+  @Test
+  public void previousDatesAreFetchedAgainWhenDatesAreNotCovered() throws Exception {
+    final OpeningTimelineCache cache = new OpeningTimelineCache(60_000);
+
+    getTimeline(cache, UTC, FIRST_DATE, LAST_DATE);
+    getTimeline(cache, UTC, FIRST_DATE.minusDays(30), LAST_DATE);
+
+    verify(fetcher).apply(FIRST_DATE.minusDays(30), LAST_DATE.plusDays(7));
+  }
+
+  @Test
+  public void timelineIsFetchedAgainOnceTooOld() throws Exception {
+    final OpeningTimelineCache cache = new OpeningTimelineCache(0);
+
+    getTimeline(cache, UTC, FIRST_DATE, LAST_DATE);
+    getTimeline(cache, UTC, FIRST_DATE, LAST_DATE);
+
+    verify(fetcher, times(2)).apply(FIRST_DATE, LAST_DATE.plusDays(7));
+  }
+
+  @Test
+  public void timelineIsFetchedAgainForDifferentTimeZone() throws Exception {
+    final OpeningTimelineCache cache = new OpeningTimelineCache(60_000);
+
+    getTimeline(cache, UTC, FIRST_DATE, LAST_DATE);
+    getTimeline(cache, DateTimeZone.forID("America/New_York"), FIRST_DATE, LAST_DATE);
+
+    verify(fetcher, times(2)).apply(FIRST_DATE, LAST_DATE.plusDays(7));
+  }
+
+  @Test
+  public void timelineIsFetchedAgainOnceCacheIsDropped() throws Exception {
+    final OpeningTimelineCache cache = new OpeningTimelineCache(60_000);
+
+    getTimeline(cache, UTC, FIRST_DATE, LAST_DATE);
+    cache.dropCache();
+    getTimeline(cache, UTC, FIRST_DATE, LAST_DATE);
+
+    verify(fetcher, times(2)).apply(FIRST_DATE, LAST_DATE.plusDays(7));
+  }
+
+  @Test
+  public void timelineIsFetchedAgainOnceInvalidated() throws Exception {
+    final OpeningTimelineCache cache = new OpeningTimelineCache(60_000);
+
+    getTimeline(cache, UTC, FIRST_DATE, LAST_DATE);
+    cache.invalidate(TENANT_ID, SERVICE_POINT_ID);
+    getTimeline(cache, UTC, FIRST_DATE, LAST_DATE);
+
+    verify(fetcher, times(2)).apply(FIRST_DATE, LAST_DATE.plusDays(7));
+  }
+
+  @Test
+  public void timelinesAreCachedSeparatelyForEachTenant() throws Exception {
+    final OpeningTimelineCache cache = new OpeningTimelineCache(60_000);
+
+    getTimeline(cache, UTC, FIRST_DATE, LAST_DATE);
+
+    cache.getTimeline("other_tenant", SERVICE_POINT_ID, UTC, FIRST_DATE, LAST_DATE,
+      fetcher).get(5, SECONDS);
+
+    verify(fetcher, times(2)).apply(FIRST_DATE, LAST_DATE.plusDays(7));
+  }
+
+  private OpeningTimeline getTimeline(OpeningTimelineCache cache, DateTimeZone zone,
+    LocalDate firstDate, LocalDate lastDate) throws Exception {
+
+    return cache.getTimeline(TENANT_ID, SERVICE_POINT_ID, zone, firstDate, lastDate,
+      fetcher).get(5, SECONDS).value();
+  }
+}
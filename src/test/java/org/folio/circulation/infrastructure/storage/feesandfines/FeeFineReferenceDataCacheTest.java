@@ -0,0 +1,183 @@
+package org.folio.circulation.infrastructure.storage.feesandfines;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.folio.circulation.support.results.Result.failed;
+import static org.folio.circulation.support.results.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.folio.circulation.domain.FeeFine;
+import org.folio.circulation.domain.FeeFineOwner;
+import org.folio.circulation.support.ServerErrorFailure;
+import org.folio.circulation.support.results.Result;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FeeFineReferenceDataCacheTest {
+  private static final String TENANT_ID = "test_tenant";
+
+  private final FeeFineOwner owner = new FeeFineOwner("owner-id", "Main library",
+    asList("sp-1", "sp-2"));
+
+  private Function<Collection<String>, CompletableFuture<Result<Collection<FeeFineOwner>>>> ownerFetcher;
+  private Function<Collection<String>, CompletableFuture<Result<Collection<FeeFine>>>> feeFineFetcher;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    ownerFetcher = mock(Function.class);
+    feeFineFetcher = mock(Function.class);
+
+    when(ownerFetcher.apply(any()))
+      .thenReturn(completedFuture(succeeded(singletonList(owner))));
+  }
+
+  @Test
+  public void ownerIsOnlyFetchedOnceForTheSameServicePoint() throws Exception {
+    final FeeFineReferenceDataCache cache = new FeeFineReferenceDataCache(60_000, 60_000);
+
+    getOwners(cache, "sp-1");
+
+    assertThat(getOwners(cache, "sp-1"), is(singletonList(owner)));
+
+    verify(ownerFetcher, times(1)).apply(any());
+  }
+
+  @Test
+  public void onlyServicePointsWhichAreNotCachedAreFetched() throws Exception {
+    final FeeFineReferenceDataCache cache = new FeeFineReferenceDataCache(60_000, 60_000);
+
+    getOwners(cache, "sp-1");
+
+    // the same owner is only included once
+    assertThat(getOwners(cache, "sp-1", "sp-2"), is(singletonList(owner)));
+
+    verify(ownerFetcher).apply(Set.of("sp-1"));
+    verify(ownerFetcher).apply(Set.of("sp-2"));
+  }
+
+  @Test
+  public void servicePointWithoutOwnerIsCached() throws Exception {
+    final FeeFineReferenceDataCache cache = new FeeFineReferenceDataCache(60_000, 60_000);
+
+    assertThat(getOwners(cache, "sp-3").isEmpty(), is(true));
+    assertThat(getOwners(cache, "sp-3").isEmpty(), is(true));
+
+    verify(ownerFetcher, times(1)).apply(any());
+  }
+
+  @Test
+  public void servicePointWithoutOwnerIsFetchedAgainSooner() throws Exception {
+    final FeeFineReferenceDataCache cache = new FeeFineReferenceDataCache(60_000, 0);
+
+    getOwners(cache, "sp-1", "sp-3");
+    getOwners(cache, "sp-1", "sp-3");
+
+    verify(ownerFetcher, times(1)).apply(Set.of("sp-1", "sp-3"));
+    verify(ownerFetcher, times(1)).apply(Set.of("sp-3"));
+  }
+
+  @Test
+  public void concurrentLookupsShareTheSameFetch() throws Exception {
+    final FeeFineReferenceDataCache cache = new FeeFineReferenceDataCache(60_000, 60_000);
+    final CompletableFuture<Result<Collection<FeeFineOwner>>> fetch = new CompletableFuture<>();
+
+    when(ownerFetcher.apply(any())).thenReturn(fetch);
+
+    final CompletableFuture<Result<Collection<FeeFineOwner>>> first = cache
+      .getOwnersForServicePoints(TENANT_ID, singletonList("sp-1"), ownerFetcher);
+    final CompletableFuture<Result<Collection<FeeFineOwner>>> second = cache
+      .getOwnersForServicePoints(TENANT_ID, singletonList("sp-1"), ownerFetcher);
+
+    fetch.complete(succeeded(singletonList(owner)));
+
+    assertThat(first.get(1, SECONDS).value(), is(singletonList(owner)));
+    assertThat(second.get(1, SECONDS).value(), is(singletonList(owner)));
+
+    verify(ownerFetcher, times(1)).apply(any());
+  }
+
+  @Test
+  public void failedLookupIsNotCached() throws Exception {
+    final FeeFineReferenceDataCache cache = new FeeFineReferenceDataCache(60_000, 60_000);
+
+    when(ownerFetcher.apply(any()))
+      .thenReturn(completedFuture(failed(new ServerErrorFailure("Storage unavailable"))))
+      .thenReturn(completedFuture(succeeded(singletonList(owner))));
+
+    final Result<Collection<FeeFineOwner>> failedLookup = cache
+      .getOwnersForServicePoints(TENANT_ID, singletonList("sp-1"), ownerFetcher)
+      .get(1, SECONDS);
+
+    assertThat(failedLookup.failed(), is(true));
+    assertThat(getOwners(cache, "sp-1"), is(singletonList(owner)));
+
+    verify(ownerFetcher, times(2)).apply(any());
+  }
+
+  @Test
+  public void ownersAreCachedSeparatelyForEachTenant() throws Exception {
+    final FeeFineReferenceDataCache cache = new FeeFineReferenceDataCache(60_000, 60_000);
+
+    getOwners(cache, "sp-1");
+
+    cache.getOwnersForServicePoints("other_tenant", singletonList("sp-1"), ownerFetcher)
+      .get(1, SECONDS);
+
+    verify(ownerFetcher, times(2)).apply(any());
+  }
+
+  @Test
+  public void ownersAreFetchedAgainAfterInvalidation() throws Exception {
+    final FeeFineReferenceDataCache cache = new FeeFineReferenceDataCache(60_000, 60_000);
+
+    getOwners(cache, "sp-1");
+    cache.invalidate(TENANT_ID, "sp-1");
+    getOwners(cache, "sp-1");
+
+    verify(ownerFetcher, times(2)).apply(any());
+  }
+
+  @Test
+  public void automaticFeeFinesAreOnlyFetchedOnce() throws Exception {
+    final FeeFineReferenceDataCache cache = new FeeFineReferenceDataCache(60_000, 60_000);
+    final FeeFine lostItemFee = new FeeFine("fee-id", "owner-id", FeeFine.LOST_ITEM_FEE_TYPE);
+
+    when(feeFineFetcher.apply(any()))
+      .thenReturn(completedFuture(succeeded(singletonList(lostItemFee))));
+
+    final List<String> types = asList(FeeFine.LOST_ITEM_FEE_TYPE,
+      FeeFine.LOST_ITEM_PROCESSING_FEE_TYPE);
+
+    cache.getAutomaticFeeFines(TENANT_ID, types, feeFineFetcher).get(1, SECONDS);
+
+    final Result<Collection<FeeFine>> feeFines = cache
+      .getAutomaticFeeFines(TENANT_ID, types, feeFineFetcher).get(1, SECONDS);
+
+    assertThat(feeFines.value(), is(singletonList(lostItemFee)));
+
+    verify(feeFineFetcher, times(1)).apply(any());
+  }
+
+  private Collection<FeeFineOwner> getOwners(FeeFineReferenceDataCache cache,
+    String... servicePointIds) throws Exception {
+
+    return cache.getOwnersForServicePoints(TENANT_ID, asList(servicePointIds), ownerFetcher)
+      .get(1, SECONDS)
+      .value();
+  }
+}
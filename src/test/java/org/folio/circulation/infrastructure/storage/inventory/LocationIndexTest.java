@@ -0,0 +1,199 @@
+package org.folio.circulation.infrastructure.storage.inventory;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.folio.circulation.support.results.Result.succeeded;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.folio.circulation.domain.Location;
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.support.FindWithCqlQuery;
+import org.folio.circulation.support.FindWithMultipleCqlIndexValues;
+import org.folio.circulation.support.http.client.CqlQuery;
+import org.folio.circulation.support.http.client.PageLimit;
+import org.folio.circulation.support.results.Result;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vertx.core.json.JsonObject;
+
+public class LocationIndexTest {
+  private static final String TENANT_ID = "test_tenant";
+
+  private FindWithCqlQuery<JsonObject> pageFetcher;
+  private FindWithMultipleCqlIndexValues<Location> idFetcher;
+  private List<List<JsonObject>> pages;
+  private List<String> pageQueries;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    pageFetcher = mock(FindWithCqlQuery.class);
+    idFetcher = mock(FindWithMultipleCqlIndexValues.class);
+    pages = new ArrayList<>();
+    pageQueries = new ArrayList<>();
+
+    // each query gets the next page, or no locations once they have run out
+    when(pageFetcher.findByQuery(any(), any(PageLimit.class))).then(invocation -> {
+      final Result<CqlQuery> query = invocation.getArgument(0);
+
+      pageQueries.add(query.value().toString());
+
+      final List<JsonObject> page = pages.isEmpty() ? List.of() : pages.remove(0);
+
+      return completedFuture(succeeded(new MultipleRecords<>(page, page.size())));
+    });
+
+    // every requested location exists
+    when(idFetcher.findByIds(anyCollection())).then(invocation -> {
+      final Collection<String> ids = invocation.getArgument(0);
+
+      return completedFuture(succeeded(new MultipleRecords<>(ids.stream()
+        .map(LocationIndexTest::location)
+        .collect(Collectors.toList()), ids.size())));
+    });
+  }
+
+  @Test
+  public void allLocationsAreLoadedOnFirstUse() throws Exception {
+    final LocationIndex index = new LocationIndex(60_000, 10);
+    final String firstId = UUID.randomUUID().toString();
+    final String secondId = UUID.randomUUID().toString();
+
+    pages.add(List.of(representation(firstId, "2020-01-01T00:00:00.000+00:00"),
+      representation(secondId, "2020-01-02T00:00:00.000+00:00")));
+
+    index.getLocations(TENANT_ID, List.of(firstId), pageFetcher, idFetcher)
+      .get(5, SECONDS);
+
+    final Map<String, Location> locations = index
+      .getLocations(TENANT_ID, List.of(firstId, secondId), pageFetcher, idFetcher)
+      .get(5, SECONDS).value();
+
+    assertThat(locations.size(), is(2));
+    assertThat(locations.get(firstId).getLibraryId(), is("library-" + firstId));
+
+    assertThat(pageQueries.size(), is(1));
+    verify(idFetcher, never()).findByIds(anyCollection());
+  }
+
+  @Test
+  public void locationsAreLoadedPageByPage() throws Exception {
+    final LocationIndex index = new LocationIndex(60_000, 2);
+    final List<String> ids = List.of("1", "2", "3").stream()
+      .map(n -> n + UUID.randomUUID().toString().substring(1))
+      .collect(Collectors.toList());
+
+    pages.add(List.of(representation(ids.get(0), null), representation(ids.get(1), null)));
+    pages.add(List.of(representation(ids.get(2), null)));
+
+    final Map<String, Location> locations = index
+      .getLocations(TENANT_ID, ids, pageFetcher, idFetcher)
+      .get(5, SECONDS).value();
+
+    assertThat(locations.size(), is(3));
+    assertThat(pageQueries.size(), is(2));
+    assertThat(pageQueries.get(1), containsString("id>\"" + ids.get(1) + "\""));
+  }
+
+  @Test
+  public void onlyChangedLocationsAreFetchedOnceTooOld() throws Exception {
+    final LocationIndex index = new LocationIndex(0, 10);
+    final String locationId = UUID.randomUUID().toString();
+
+    pages.add(List.of(representation(locationId, "2020-01-01T00:00:00.000+00:00")));
+
+    index.getLocations(TENANT_ID, List.of(locationId), pageFetcher, idFetcher)
+      .get(5, SECONDS);
+
+    index.getLocations(TENANT_ID, List.of(locationId), pageFetcher, idFetcher)
+      .get(5, SECONDS);
+
+    assertThat(pageQueries.size(), is(2));
+    assertThat(pageQueries.get(0), not(containsString("metadata.updatedDate")));
+    assertThat(pageQueries.get(1),
+      containsString("metadata.updatedDate>\"2020-01-01T00:00:00.000+00:00\""));
+  }
+
+  @Test
+  public void locationsNotYetLoadedAreFetchedById() throws Exception {
+    final LocationIndex index = new LocationIndex(60_000, 10);
+    final String locationId = UUID.randomUUID().toString();
+
+    final Map<String, Location> locations = index
+      .getLocations(TENANT_ID, List.of(locationId), pageFetcher, idFetcher)
+      .get(5, SECONDS).value();
+
+    assertThat(locations.containsKey(locationId), is(true));
+
+    verify(idFetcher).findByIds(Set.of(locationId));
+  }
+
+  @Test
+  public void locationsAreLoadedSeparatelyForEachTenant() throws Exception {
+    final LocationIndex index = new LocationIndex(60_000, 10);
+    final String locationId = UUID.randomUUID().toString();
+
+    pages.add(List.of(representation(locationId, null)));
+
+    index.getLocations(TENANT_ID, List.of(locationId), pageFetcher, idFetcher)
+      .get(5, SECONDS);
+
+    final Map<String, Location> locations = index
+      .getLocations("other_tenant", List.of(locationId), pageFetcher, idFetcher)
+      .get(5, SECONDS).value();
+
+    assertThat(locations.containsKey(locationId), is(true));
+    assertThat(pageQueries.size(), is(2));
+    verify(idFetcher).findByIds(Set.of(locationId));
+  }
+
+  @Test
+  public void locationsIndexedElsewhereAreNotFetchedById() throws Exception {
+    final LocationIndex index = new LocationIndex(60_000, 10);
+    final String locationId = UUID.randomUUID().toString();
+
+    index.index(TENANT_ID, List.of(location(locationId)));
+
+    final Map<String, Location> locations = index
+      .getLocations(TENANT_ID, List.of(locationId), pageFetcher, idFetcher)
+      .get(5, SECONDS).value();
+
+    assertThat(locations.containsKey(locationId), is(true));
+
+    verify(idFetcher, never()).findByIds(anyCollection());
+  }
+
+  private static JsonObject representation(String id, String updatedDate) {
+    final JsonObject representation = new JsonObject()
+      .put("id", id)
+      .put("libraryId", "library-" + id);
+
+    if (updatedDate != null) {
+      representation.put("metadata", new JsonObject().put("updatedDate", updatedDate));
+    }
+
+    return representation;
+  }
+
+  private static Location location(String id) {
+    return Location.from(representation(id, null));
+  }
+}
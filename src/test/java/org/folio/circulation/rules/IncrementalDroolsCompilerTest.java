@@ -0,0 +1,183 @@
+package org.folio.circulation.rules;
+
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.ITEM_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOAN_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOCATION_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.PATRON_TYPE_ID_NAME;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.folio.circulation.domain.Location;
+import org.junit.Test;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.json.JsonObject;
+
+public class IncrementalDroolsCompilerTest {
+  private static final String HEADER = String.join("\n",
+    "priority: last-line",
+    "fallback-policy: l no-loan r no-hold n basic-notice o overdue i lost-item",
+    "");
+
+  private static final String BOOKS =
+    "m book: l policy-a r request-1 n notice-1 o overdue-1 i lost-item-1\n" +
+    "    g visitor: l policy-b r request-2 n notice-2 o overdue-2 i lost-item-2\n";
+
+  private static final String DVDS =
+    "m dvd: l policy-c r request-3 n notice-3 o overdue-3 i lost-item-3\n";
+
+  private static final String CHANGED_DVDS =
+    "m dvd: l policy-d r request-3 n notice-3 o overdue-3 i lost-item-3\n";
+
+  private static final String CDS =
+    "m cd: l policy-e r request-4 n notice-4 o overdue-4 i lost-item-4\n";
+
+  private static final List<String> ITEM_TYPES = List.of("book", "dvd", "cd");
+  private static final List<String> PATRON_GROUPS = List.of("undergrad", "visitor");
+
+  @Test
+  public void eachTopLevelLineIsInItsOwnPackage() {
+    final ConvertedRules rules = Text2Drools.convertToPackages(HEADER + BOOKS + DVDS);
+
+    assertThat(rules.getPackages().size(), is(3));
+    assertThat(Set.copyOf(rules.getPackageFirstLines().values()), is(Set.of(2, 3, 5)));
+  }
+
+  @Test
+  public void unchangedPackagesAreNotCompiledAgain() {
+    final IncrementalDroolsCompiler compiler = new IncrementalDroolsCompiler();
+
+    final ConvertedRules rules = Text2Drools.convertToPackages(HEADER + BOOKS + DVDS);
+
+    compiler.compile(rules);
+
+    final Object books = compiler.getCompiledPackage(packageStartingOn(rules, 3));
+    final Object dvds = compiler.getCompiledPackage(packageStartingOn(rules, 5));
+
+    final ConvertedRules changedRules = Text2Drools.convertToPackages(
+      HEADER + BOOKS + CHANGED_DVDS);
+
+    compiler.compile(changedRules);
+
+    assertThat(compiler.getCompiledPackage(packageStartingOn(changedRules, 3)),
+      sameInstance(books));
+    assertThat(compiler.getCompiledPackage(packageStartingOn(changedRules, 5)),
+      not(sameInstance(dvds)));
+  }
+
+  @Test
+  public void insertingALineAtTheTopOnlyCompilesOnePackage() {
+    final IncrementalDroolsCompiler compiler = new IncrementalDroolsCompiler();
+
+    final ConvertedRules rules = Text2Drools.convertToPackages(HEADER + BOOKS + DVDS);
+
+    compiler.compile(rules);
+
+    final Map<String, Object> previouslyCompiled = new HashMap<>();
+
+    rules.getPackages().keySet().forEach(name ->
+      previouslyCompiled.put(name, compiler.getCompiledPackage(name)));
+
+    final String insertedRules = HEADER + CDS + BOOKS + DVDS;
+
+    final ConvertedRules insertedLineRules = Text2Drools.convertToPackages(insertedRules);
+
+    final Drools incremental = compiler.compile(insertedLineRules);
+
+    final Set<String> newPackages = new HashSet<>(insertedLineRules.getPackages().keySet());
+
+    newPackages.removeAll(previouslyCompiled.keySet());
+
+    assertThat(newPackages, is(Set.of(packageStartingOn(insertedLineRules, 3))));
+
+    previouslyCompiled.forEach((name, compiled) ->
+      assertThat(compiler.getCompiledPackage(name), sameInstance(compiled)));
+
+    matchesAreTheSame(incremental, new Drools(Text2Drools.convert(insertedRules)));
+  }
+
+  @Test
+  public void removedPackagesAreNotKept() {
+    final IncrementalDroolsCompiler compiler = new IncrementalDroolsCompiler();
+
+    final ConvertedRules rules = Text2Drools.convertToPackages(HEADER + BOOKS + DVDS);
+
+    compiler.compile(rules);
+    compiler.compile(Text2Drools.convertToPackages(HEADER + BOOKS));
+
+    assertThat(compiler.getCompiledPackage(packageStartingOn(rules, 5)), is(nullValue()));
+  }
+
+  @Test
+  public void matchesAreTheSameAsCompilingAllOfTheRules() {
+    final IncrementalDroolsCompiler compiler = new IncrementalDroolsCompiler();
+
+    final Drools previous = compiler.compile(
+      Text2Drools.convertToPackages(HEADER + BOOKS + DVDS));
+
+    final String changedRules = HEADER + BOOKS + CHANGED_DVDS;
+
+    final Drools incremental = compiler.compile(
+      Text2Drools.convertToPackages(changedRules));
+
+    matchesAreTheSame(incremental, new Drools(Text2Drools.convert(changedRules)));
+
+    // rules compiled previously can still be used
+    matchesAreTheSame(previous, new Drools(Text2Drools.convert(HEADER + BOOKS + DVDS)));
+  }
+
+  @Test
+  public void matchesAreTheSameWhenEarlierLinesHavePriority() {
+    final IncrementalDroolsCompiler compiler = new IncrementalDroolsCompiler();
+
+    // the same block twice, so the packages need different names
+    final String rules = "priority: first-line\n" + DVDS + BOOKS + CHANGED_DVDS + BOOKS
+      + "fallback-policy: l no-loan r no-hold n basic-notice o overdue i lost-item\n";
+
+    final ConvertedRules convertedRules = Text2Drools.convertToPackages(rules);
+
+    assertThat(convertedRules.getPackages().size(), is(5));
+
+    matchesAreTheSame(compiler.compile(convertedRules),
+      new Drools(Text2Drools.convert(rules)));
+  }
+
+  private static String packageStartingOn(ConvertedRules rules, int line) {
+    return rules.getPackageFirstLines().entrySet().stream()
+      .filter(entry -> entry.getValue() == line)
+      .map(Map.Entry::getKey)
+      .findFirst()
+      .orElse(null);
+  }
+
+  private static void matchesAreTheSame(Drools actual, Drools expected) {
+    final Location location = Location.from(new JsonObject());
+
+    for (String itemType : ITEM_TYPES) {
+      for (String patronGroup : PATRON_GROUPS) {
+        final MultiMap params = MultiMap.caseInsensitiveMultiMap()
+          .add(ITEM_TYPE_ID_NAME, itemType)
+          .add(LOAN_TYPE_ID_NAME, "regular")
+          .add(PATRON_TYPE_ID_NAME, patronGroup)
+          .add(LOCATION_ID_NAME, "main-shelf");
+
+        assertThat(params.entries().toString(),
+          actual.loanPolicy(params, location).getPolicyId(),
+          is(expected.loanPolicy(params, location).getPolicyId()));
+        assertThat(params.entries().toString(), actual.loanPolicies(params, location),
+          is(expected.loanPolicies(params, location)));
+        assertThat(params.entries().toString(), actual.requestPolicies(params, location),
+          is(expected.requestPolicies(params, location)));
+      }
+    }
+  }
+}
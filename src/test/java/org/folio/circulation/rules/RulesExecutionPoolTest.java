@@ -0,0 +1,123 @@
+package org.folio.circulation.rules;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.folio.circulation.support.results.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import org.folio.circulation.support.results.Result;
+import org.junit.Test;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+
+public class RulesExecutionPoolTest {
+  @Test
+  public void workIsRunOnPoolThread() throws Exception {
+    final RulesExecutionPool pool = new RulesExecutionPool(1, 10, 5000);
+
+    final Result<String> result = pool
+      .execute(() -> succeeded(Thread.currentThread().getName()))
+      .get(5, SECONDS);
+
+    assertThat(result.value(), startsWith("circulation-rules-"));
+    assertThat(result.value(), is(not(Thread.currentThread().getName())));
+    assertThat(pool.getMetrics().getCompleted(), is(1L));
+  }
+
+  @Test
+  public void outcomeIsHandedBackToSubmittingContext() throws Exception {
+    final Vertx vertx = Vertx.vertx();
+
+    try {
+      final RulesExecutionPool pool = new RulesExecutionPool(1, 10, 5000);
+      final Context context = vertx.getOrCreateContext();
+      final CompletableFuture<Boolean> continuedOnContext = new CompletableFuture<>();
+
+      context.runOnContext(notUsed -> pool.execute(() -> succeeded(true))
+        .thenAccept(result -> continuedOnContext.complete(
+          Vertx.currentContext() == context)));
+
+      assertThat(continuedOnContext.get(5, SECONDS), is(true));
+    }
+    finally {
+      vertx.close();
+    }
+  }
+
+  @Test
+  public void workIsRejectedWhenQueueIsFull() throws Exception {
+    final RulesExecutionPool pool = new RulesExecutionPool(1, 1, 5000);
+    final CountDownLatch holdUp = new CountDownLatch(1);
+
+    // occupies the only thread, so the next piece of work fills the queue
+    final CompletableFuture<Result<Boolean>> running = pool.execute(() -> {
+      await(holdUp);
+      return succeeded(true);
+    });
+
+    final CompletableFuture<Result<Boolean>> queued = pool.execute(() -> succeeded(true));
+    final CompletableFuture<Result<Boolean>> rejected = pool.execute(() -> succeeded(true));
+
+    assertThat(rejected.get(5, SECONDS).failed(), is(true));
+    assertThat(pool.getMetrics().getRejected(), is(1L));
+
+    holdUp.countDown();
+
+    assertThat(running.get(5, SECONDS).value(), is(true));
+    assertThat(queued.get(5, SECONDS).value(), is(true));
+  }
+
+  @Test
+  public void futureCompletesExceptionallyWhenWorkThrowsException() {
+    final RulesExecutionPool pool = new RulesExecutionPool(1, 10, 5000);
+
+    final CompletableFuture<Result<Boolean>> future = pool.execute(() -> {
+      throw new CirculationRulesException("Invalid rules", 1, 1);
+    });
+
+    assertThat(future.handle((result, throwable) -> throwable != null).join(), is(true));
+  }
+
+  @Test
+  public void metricsIncludeQueueingAndExecutionTime() throws Exception {
+    final RulesExecutionPool pool = new RulesExecutionPool(1, 10, 5000);
+
+    final CompletableFuture<Result<Boolean>> first = pool.execute(() -> {
+      sleep(50);
+      return succeeded(true);
+    });
+
+    final CompletableFuture<Result<Boolean>> second = pool.execute(() -> succeeded(true));
+
+    CompletableFuture.allOf(first, second).get(5, SECONDS);
+
+    final RulesExecutionPool.Metrics metrics = pool.getMetrics();
+
+    assertThat(metrics.getCompleted(), is(2L));
+    assertThat(metrics.getMaximumExecutionMilliseconds(), greaterThanOrEqualTo(50L));
+    assertThat(metrics.getMaximumQueueingMilliseconds(), greaterThanOrEqualTo(40L));
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package org.folio.circulation.rules;
+
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.ITEM_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOAN_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOCATION_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.PATRON_TYPE_ID_NAME;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.List;
+import java.util.Map;
+
+import org.folio.circulation.domain.Location;
+import org.junit.Test;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+public class RulesIndexTest {
+  private static final String FALLBACK =
+    "fallback-policy: l no-loan r no-hold n basic-notice o overdue i lost-item\n";
+
+  private static final String RULES = String.join("\n",
+    "m book cd: l policy-a r request-1 n notice-1 o overdue-1 i lost-item-1",
+    "    g !visitor: l policy-b r request-2 n notice-2 o overdue-2 i lost-item-2",
+    "        t !special !reference: l policy-c r request-3 n notice-3 o overdue-3 i lost-item-3",
+    "m !book + g all: l policy-d r request-4 n notice-4 o overdue-4 i lost-item-4",
+    "s main-shelf: l policy-e r request-5 n notice-5 o overdue-5 i lost-item-5",
+    "    c law-library: l policy-f r request-6 n notice-6 o overdue-6 i lost-item-6",
+    "b north-campus + a university: l policy-g r request-7 n notice-7 o overdue-7 i lost-item-7",
+    "t special + m book: l policy-h r request-8 n notice-8 o overdue-8 i lost-item-8",
+    "    m cd: l policy-i r request-9 n notice-9 o overdue-9 i lost-item-9");
+
+  private static final List<String> ITEM_TYPES = List.of("book", "cd", "dvd");
+  private static final List<String> LOAN_TYPES = List.of("regular", "special", "reference");
+  private static final List<String> PATRON_GROUPS = List.of("undergrad", "visitor");
+  private static final List<String> LOCATIONS = List.of("main-shelf", "annex");
+
+  private static final List<Location> LIBRARIES = List.of(
+    location("university", "north-campus", "law-library"),
+    location("college", "south-campus", "main-library"),
+    location(null, null, null));
+
+  @Test
+  public void matchesAreTheSameAsDroolsForLastLinePriority() {
+    matchesAreTheSameAsDrools("priority: last-line\n" + FALLBACK + RULES);
+  }
+
+  @Test
+  public void matchesAreTheSameAsDroolsForFirstLinePriority() {
+    matchesAreTheSameAsDrools("priority: first-line\n" + RULES + "\n" + FALLBACK);
+  }
+
+  @Test
+  public void matchesAreTheSameAsDroolsForCriteriumPriority() {
+    matchesAreTheSameAsDrools("priority: t, s, c, b, a, m, g\n" + FALLBACK + RULES);
+  }
+
+  @Test
+  public void matchesAreTheSameAsDroolsForNumberOfCriteriaPriority() {
+    matchesAreTheSameAsDrools(
+      "priority: number-of-criteria, criterium(g, m, t, s, c, b, a), last-line\n"
+        + FALLBACK + RULES);
+  }
+
+  @Test
+  public void fallbackPolicyIsLastMatch() {
+    final RulesIndex index = Text2Drools.index("priority: last-line\n" + FALLBACK + RULES);
+
+    final JsonArray matches = index.loanPolicies(params("dvd", "regular", "visitor", "annex"),
+      location("college", "south-campus", "main-library"));
+
+    assertThat(matches.size(), is(2));
+    assertThat(matches.getJsonObject(0).getString("loanPolicyId"), is("policy-d"));
+    assertThat(matches.getJsonObject(1).getString("loanPolicyId"), is("no-loan"));
+    assertThat(matches.getJsonObject(1).getInteger("circulationRuleLine"), is(2));
+  }
+
+  @Test
+  public void appliedPoliciesAreThoseOfFirstMatch() {
+    final RulesIndex index = Text2Drools.index("priority: last-line\n" + FALLBACK + RULES);
+
+    final Map<String, String> policies = index.appliedPolicies(
+      params("book", "regular", "undergrad", "annex"),
+      location("college", "south-campus", "main-library"));
+
+    assertThat(policies.get("l"), is("policy-c"));
+    assertThat(policies.get("r"), is("request-3"));
+    assertThat(policies.get("n"), is("notice-3"));
+    assertThat(policies.get("o"), is("overdue-3"));
+    assertThat(policies.get("i"), is("lost-item-3"));
+  }
+
+  private void matchesAreTheSameAsDrools(String rules) {
+    final Drools drools = new Drools(Text2Drools.convert(rules));
+    final RulesIndex index = Text2Drools.index(rules);
+
+    for (String itemType : ITEM_TYPES) {
+      for (String loanType : LOAN_TYPES) {
+        for (String patronGroup : PATRON_GROUPS) {
+          for (String locationId : LOCATIONS) {
+            for (Location location : LIBRARIES) {
+              final MultiMap params = params(itemType, loanType, patronGroup, locationId);
+              final String reason = params.entries() + " " + location.getLibraryId();
+
+              assertThat(reason, index.loanPolicies(params, location),
+                is(drools.loanPolicies(params, location)));
+              assertThat(reason, index.requestPolicies(params, location),
+                is(drools.requestPolicies(params, location)));
+              assertThat(reason, index.noticePolicies(params, location),
+                is(drools.noticePolicies(params, location)));
+              assertThat(reason, index.overduePolicies(params, location),
+                is(drools.overduePolicies(params, location)));
+              assertThat(reason, index.lostItemPolicies(params, location),
+                is(drools.lostItemPolicies(params, location)));
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private static MultiMap params(String itemTypeId, String loanTypeId,
+    String patronGroupId, String locationId) {
+
+    return MultiMap.caseInsensitiveMultiMap()
+      .add(ITEM_TYPE_ID_NAME, itemTypeId)
+      .add(LOAN_TYPE_ID_NAME, loanTypeId)
+      .add(PATRON_TYPE_ID_NAME, patronGroupId)
+      .add(LOCATION_ID_NAME, locationId);
+  }
+
+  private static Location location(String institutionId, String campusId, String libraryId) {
+    return Location.from(new JsonObject()
+      .put("institutionId", institutionId)
+      .put("campusId", campusId)
+      .put("libraryId", libraryId));
+  }
+}
@@ -607,9 +607,12 @@ public class Text2DroolsTest {
    */
   private void testLoanPolicies(String circulationRules, String [][] cases) {
     Drools drools = new Drools(Text2Drools.convert(circulationRules));
+    RulesIndex index = Text2Drools.index(circulationRules);
     for (String [] s : cases) {
       JsonArray array = drools.loanPolicies(params(s[0], s[1], s[2], s[3]),
         createLocation(s[3], SECOND_LIBRARY_ID, SECOND_CAMPUS_ID));
+      assertThat(first4(s), index.loanPolicies(params(s[0], s[1], s[2], s[3]),
+        createLocation(s[3], SECOND_LIBRARY_ID, SECOND_CAMPUS_ID)), is(array));
       String [] policies = new String[array.size()];
       for (int i=0; i<array.size(); i++) {
         policies[i] = array.getJsonObject(i).getString("loanPolicyId");
@@ -620,9 +623,12 @@ public class Text2DroolsTest {
 
   private void testRequestPolicies(String circulationRules, String[][] cases) {
     Drools drools = new Drools(Text2Drools.convert(circulationRules));
+    RulesIndex index = Text2Drools.index(circulationRules);
     for (String [] s : cases) {
       JsonArray array = drools.requestPolicies(params(s[0], s[1], s[2], s[3]),
         createLocation(s[3], SECOND_LIBRARY_ID, SECOND_CAMPUS_ID));
+      assertThat(first4(s), index.requestPolicies(params(s[0], s[1], s[2], s[3]),
+        createLocation(s[3], SECOND_LIBRARY_ID, SECOND_CAMPUS_ID)), is(array));
       String [] policies = new String[array.size()];
       for (int i=0; i<array.size(); i++) {
         policies[i] = array.getJsonObject(i).getString("requestPolicyId");
@@ -633,9 +639,12 @@ public class Text2DroolsTest {
 
   private void testOverdueFinePolicies(String circulationRules, String[][] cases) {
     Drools drools = new Drools(Text2Drools.convert(circulationRules));
+    RulesIndex index = Text2Drools.index(circulationRules);
     for (String [] s : cases) {
       JsonArray array = drools.overduePolicies(params(s[0], s[1], s[2], s[3]),
         createLocation(s[3], SECOND_LIBRARY_ID, SECOND_CAMPUS_ID));
+      assertThat(first4(s), index.overduePolicies(params(s[0], s[1], s[2], s[3]),
+        createLocation(s[3], SECOND_LIBRARY_ID, SECOND_CAMPUS_ID)), is(array));
       String [] policies = new String[array.size()];
       for (int i=0; i<array.size(); i++) {
         policies[i] = array.getJsonObject(i).getString("overduePolicyId");
@@ -646,9 +655,12 @@ public class Text2DroolsTest {
 
   private void testLostItemFeePolicies(String circulationRules, String[][] cases) {
     Drools drools = new Drools(Text2Drools.convert(circulationRules));
+    RulesIndex index = Text2Drools.index(circulationRules);
     for (String [] s : cases) {
       JsonArray array = drools.lostItemPolicies(params(s[0], s[1], s[2], s[3]),
         createLocation(s[3], SECOND_LIBRARY_ID, SECOND_CAMPUS_ID));
+      assertThat(first4(s), index.lostItemPolicies(params(s[0], s[1], s[2], s[3]),
+        createLocation(s[3], SECOND_LIBRARY_ID, SECOND_CAMPUS_ID)), is(array));
       String [] policies = new String[array.size()];
       for (int i=0; i<array.size(); i++) {
         policies[i] = array.getJsonObject(i).getString("lostItemPolicyId");
@@ -0,0 +1,243 @@
+package org.folio.circulation.services;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
+import org.folio.circulation.services.EventPublishingQueue.OverflowPolicy;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+
+public class EventPublishingQueueTest {
+  private static final Duration NEVER = Duration.ofHours(1);
+
+  private PubSubPublishingService publishingService;
+
+  @Before
+  public void setUp() {
+    publishingService = mock(PubSubPublishingService.class);
+
+    when(publishingService.publishEvent(anyString(), anyString()))
+      .thenReturn(completedFuture(true));
+  }
+
+  @Test
+  public void eventsArePublishedWhenBatchIsFull() {
+    final EventPublishingQueue queue = new EventPublishingQueue(3, NEVER, 10,
+      OverflowPolicy.DISCARD_NEWEST, 1, Duration.ZERO, null);
+
+    queue.publish(publishingService, "LOG_RECORD", "first");
+    queue.publish(publishingService, "LOG_RECORD", "second");
+
+    verify(publishingService, never()).publishEvent(anyString(), anyString());
+
+    final CompletableFuture<Boolean> third = queue.publish(
+      publishingService, "LOG_RECORD", "third");
+
+    Awaitility.await()
+      .atMost(1, TimeUnit.SECONDS)
+      .until(third::isDone);
+
+    verify(publishingService, times(3)).publishEvent(anyString(), anyString());
+    assertThat(queue.getMetrics().getPublished(), is(3L));
+    assertThat(queue.getMetrics().getQueueDepth(), is(0));
+  }
+
+  @Test
+  public void eventsArePublishedAfterLingerTime() {
+    final EventPublishingQueue queue = new EventPublishingQueue(100,
+      Duration.ofMillis(10), 1000, OverflowPolicy.DISCARD_NEWEST, 1, Duration.ZERO,
+      null);
+
+    final CompletableFuture<Boolean> published = queue.publish(
+      publishingService, "LOG_RECORD", "payload");
+
+    Awaitility.await()
+      .atMost(1, TimeUnit.SECONDS)
+      .until(published::isDone);
+
+    assertThat(published.join(), is(true));
+  }
+
+  @Test
+  public void eventsArePublishedAndRetriedOnConfiguredContext() {
+    final Vertx vertx = Vertx.vertx();
+
+    try {
+      final Context context = vertx.getOrCreateContext();
+      final List<Boolean> publishedOnContext = new CopyOnWriteArrayList<>();
+
+      when(publishingService.publishEvent(anyString(), anyString())).then(invocation -> {
+        publishedOnContext.add(Vertx.currentContext() == context);
+
+        return publishedOnContext.size() == 1
+          ? failedFuture(new RuntimeException("Pub-sub unavailable"))
+          : completedFuture(true);
+      });
+
+      final EventPublishingQueue queue = new EventPublishingQueue(100,
+        Duration.ofMillis(10), 1000, OverflowPolicy.DISCARD_NEWEST, 2,
+        Duration.ofMillis(10), context);
+
+      final CompletableFuture<Boolean> published = queue.publish(
+        publishingService, "LOG_RECORD", "payload");
+
+      Awaitility.await()
+        .atMost(1, TimeUnit.SECONDS)
+        .until(published::isDone);
+
+      assertThat(published.join(), is(true));
+      assertThat(publishedOnContext, contains(true, true));
+    }
+    finally {
+      vertx.close();
+    }
+  }
+
+  @Test
+  public void failedEventIsRetried() {
+    when(publishingService.publishEvent(anyString(), anyString()))
+      .thenReturn(failedFuture(new RuntimeException("Pub-sub unavailable")))
+      .thenReturn(completedFuture(true));
+
+    final EventPublishingQueue queue = new EventPublishingQueue(1, NEVER, 10,
+      OverflowPolicy.DISCARD_NEWEST, 3, Duration.ofMillis(10), null);
+
+    final CompletableFuture<Boolean> published = queue.publish(
+      publishingService, "LOG_RECORD", "payload");
+
+    Awaitility.await()
+      .atMost(1, TimeUnit.SECONDS)
+      .until(published::isDone);
+
+    assertThat(published.join(), is(true));
+    assertThat(queue.getMetrics().getRetried(), is(1L));
+    assertThat(queue.getMetrics().getFailed(), is(0L));
+  }
+
+  @Test
+  public void failedEventIsRetriedBeforeLaterEventsArePublished() {
+    final List<String> attemptedPayloads = new CopyOnWriteArrayList<>();
+
+    when(publishingService.publishEvent(anyString(), anyString())).then(invocation -> {
+      attemptedPayloads.add(invocation.getArgument(1));
+
+      return attemptedPayloads.size() == 1
+        ? failedFuture(new RuntimeException("Pub-sub unavailable"))
+        : completedFuture(true);
+    });
+
+    final EventPublishingQueue queue = new EventPublishingQueue(1, NEVER, 10,
+      OverflowPolicy.DISCARD_NEWEST, 3, Duration.ofMillis(10), null);
+
+    queue.publish(publishingService, "ITEM_CHECKED_OUT", "check out");
+
+    final CompletableFuture<Boolean> checkIn = queue.publish(
+      publishingService, "ITEM_CHECKED_IN", "check in");
+
+    Awaitility.await()
+      .atMost(1, TimeUnit.SECONDS)
+      .until(checkIn::isDone);
+
+    assertThat(attemptedPayloads, contains("check out", "check out", "check in"));
+  }
+
+  @Test
+  public void eventFailsWhenAllAttemptsFail() {
+    when(publishingService.publishEvent(anyString(), anyString()))
+      .thenReturn(failedFuture(new RuntimeException("Pub-sub unavailable")));
+
+    final EventPublishingQueue queue = new EventPublishingQueue(1, NEVER, 10,
+      OverflowPolicy.DISCARD_NEWEST, 2, Duration.ofMillis(10), null);
+
+    final CompletableFuture<Boolean> published = queue.publish(
+      publishingService, "LOG_RECORD", "payload");
+
+    Awaitility.await()
+      .atMost(1, TimeUnit.SECONDS)
+      .until(published::isCompletedExceptionally);
+
+    verify(publishingService, times(2)).publishEvent(anyString(), anyString());
+    assertThat(queue.getMetrics().getFailed(), is(1L));
+  }
+
+  @Test
+  public void newestEventIsDiscardedWhenQueueIsFull() {
+    final EventPublishingQueue queue = new EventPublishingQueue(2, NEVER, 2,
+      OverflowPolicy.DISCARD_NEWEST, 1, Duration.ZERO, null);
+
+    // the first batch fills the queue and starts publishing,
+    // publishing is held up so that later events stay queued
+    final CompletableFuture<Boolean> holdUp = new CompletableFuture<>();
+
+    when(publishingService.publishEvent(anyString(), anyString()))
+      .thenReturn(holdUp);
+
+    queue.publish(publishingService, "LOG_RECORD", "first");
+    queue.publish(publishingService, "LOG_RECORD", "second");
+
+    Awaitility.await()
+      .atMost(1, TimeUnit.SECONDS)
+      .until(() -> queue.getMetrics().getQueueDepth() == 0);
+
+    queue.publish(publishingService, "LOG_RECORD", "third");
+    queue.publish(publishingService, "LOG_RECORD", "fourth");
+
+    final CompletableFuture<Boolean> discarded = queue.publish(
+      publishingService, "LOG_RECORD", "fifth");
+
+    assertThat(discarded.join(), is(false));
+    assertThat(queue.getMetrics().getDiscarded(), is(1L));
+
+    holdUp.complete(true);
+  }
+
+  @Test
+  public void eventIsPublishedImmediatelyWhenQueueIsFull() {
+    final EventPublishingQueue queue = new EventPublishingQueue(2, NEVER, 2,
+      OverflowPolicy.PUBLISH_IMMEDIATELY, 1, Duration.ZERO, null);
+
+    final CompletableFuture<Boolean> holdUp = new CompletableFuture<>();
+
+    when(publishingService.publishEvent(anyString(), anyString()))
+      .thenReturn(holdUp)
+      .thenReturn(holdUp)
+      .thenReturn(completedFuture(true));
+
+    queue.publish(publishingService, "LOG_RECORD", "first");
+    queue.publish(publishingService, "LOG_RECORD", "second");
+
+    Awaitility.await()
+      .atMost(1, TimeUnit.SECONDS)
+      .until(() -> queue.getMetrics().getQueueDepth() == 0);
+
+    queue.publish(publishingService, "LOG_RECORD", "third");
+    queue.publish(publishingService, "LOG_RECORD", "fourth");
+
+    final CompletableFuture<Boolean> overflowed = queue.publish(
+      publishingService, "LOG_RECORD", "fifth");
+
+    assertThat(overflowed.join(), is(true));
+    assertThat(queue.getMetrics().getPublishedImmediately(), is(1L));
+
+    holdUp.complete(true);
+  }
+}
@@ -12,9 +12,13 @@ import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
@@ -31,6 +35,8 @@ import org.folio.circulation.services.support.RefundAccountCommand;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.ServerErrorFailure;
+import org.folio.circulation.support.http.client.CqlQuery;
+import org.folio.circulation.support.http.client.PageLimit;
 import org.folio.circulation.support.http.client.Response;
 import org.folio.circulation.support.results.Result;
 import org.junit.Before;
@@ -41,6 +47,7 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.mockito.stubbing.Answer;
 
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -65,17 +72,14 @@ public class FeeFineFacadeTest {
     when(clients.servicePointsStorage()).thenReturn(servicePointClient);
 
     feeFineFacade = new FeeFineFacade(clients);
-
-    when(userClient.get(anyString()))
-      .thenReturn(completedFuture(succeeded(emptyJsonResponse(200))));
-    when(servicePointClient.get(anyString()))
-      .thenReturn(completedFuture(succeeded(emptyJsonResponse(200))));
   }
 
   @Test
   public void shouldForwardFailureIfAnAccountIsNotCreated() {
     final String expectedError = "Fee fine account failed to be created";
 
+    stubStaffUserAndServicePoint("cd1-id");
+
     when(accountClient.post(any())).thenAnswer(postRespondWithRequestAndFail());
 
     when(accountActionsClient.post(any(JsonObject.class)))
@@ -93,10 +97,35 @@ public class FeeFineFacadeTest {
     assertThat(((ServerErrorFailure) result.cause()).getReason(), is(expectedError));
   }
 
+  @Test
+  public void staffUserAndServicePointAreFetchedOnceForAllAccounts() throws Exception {
+    stubStaffUserAndServicePoint("cd1-id");
+
+    when(accountClient.post(any(JsonObject.class)))
+      .thenAnswer(invocation -> completedFuture(succeeded(
+        jsonResponse(201, invocation.getArgument(0)))));
+    when(accountActionsClient.post(any(JsonObject.class)))
+      .thenReturn(completedFuture(succeeded(emptyJsonResponse(201))));
+
+    final Result<Void> result = feeFineFacade.createAccounts(Arrays.asList(
+      createCommandBuilder().build(), createCommandBuilder().build()))
+      .get(5, TimeUnit.SECONDS);
+
+    assertThat(result.succeeded(), is(true));
+
+    verify(userClient, times(1)).getMany(any(CqlQuery.class), any(PageLimit.class));
+    verify(servicePointClient, times(1)).getMany(any(CqlQuery.class), any(PageLimit.class));
+    verify(userClient, never()).get(anyString());
+    verify(servicePointClient, never()).get(anyString());
+    verify(accountActionsClient, times(2)).post(any(JsonObject.class));
+  }
+
   @Test
   public void shouldForwardFailureIfAnAccountIsNotRefunded() throws Exception {
     final String expectedError = "Fee fine account failed to be refunded";
 
+    stubStaffUserAndServicePoint("sp-id");
+
     when(accountClient.put(anyString(), any())).thenAnswer(putRespondAndFail());
 
     when(accountActionsClient.post(any(JsonObject.class)))
@@ -112,6 +141,75 @@ public class FeeFineFacadeTest {
     assertThat(((ServerErrorFailure) result.cause()).getReason(), is(expectedError));
   }
 
+  @Test
+  public void staffUserAndServicePointAreFetchedOnceForBatchOfAccounts() throws Exception {
+    stubStaffUserAndServicePoint("cd1-id");
+
+    when(accountClient.post(any(JsonObject.class)))
+      .thenAnswer(invocation -> completedFuture(succeeded(
+        jsonResponse(201, invocation.getArgument(0)))));
+    when(accountActionsClient.post(any(JsonObject.class)))
+      .thenReturn(completedFuture(succeeded(emptyJsonResponse(201))));
+
+    final Result<Map<String, Result<Void>>> result = feeFineFacade.createAccountsForLoans(
+      Arrays.asList(createCommandBuilder().build(), createCommandBuilder().build(),
+        createCommandBuilder().build()))
+      .get(5, TimeUnit.SECONDS);
+
+    assertThat(result.succeeded(), is(true));
+    assertThat(result.value().size(), is(3));
+    assertThat(result.value().values().stream().allMatch(r -> r.succeeded()), is(true));
+
+    verify(userClient, times(1)).getMany(any(CqlQuery.class), any(PageLimit.class));
+    verify(servicePointClient, times(1)).getMany(any(CqlQuery.class), any(PageLimit.class));
+    verify(userClient, never()).get(anyString());
+    verify(accountActionsClient, times(3)).post(any(JsonObject.class));
+  }
+
+  @Test
+  public void staffUserAndServicePointAreFetchedOnceForRefundOfManyAccounts() throws Exception {
+    stubStaffUserAndServicePoint("sp-id");
+
+    when(accountClient.put(anyString(), any()))
+      .thenReturn(completedFuture(succeeded(emptyJsonResponse(204))));
+    when(accountActionsClient.post(any(JsonObject.class)))
+      .thenReturn(completedFuture(succeeded(emptyJsonResponse(201))));
+
+    final Result<Void> result = feeFineFacade.refundAndCloseAccounts(Arrays.asList(
+      refundCommand(), refundCommand(), refundCommand())).get(5, TimeUnit.SECONDS);
+
+    assertThat(result.succeeded(), is(true));
+
+    verify(userClient, times(1)).getMany(any(CqlQuery.class), any(PageLimit.class));
+    verify(servicePointClient, times(1)).getMany(any(CqlQuery.class), any(PageLimit.class));
+    verify(userClient, never()).get(anyString());
+    verify(servicePointClient, never()).get(anyString());
+    verify(accountActionsClient, times(3)).post(any(JsonObject.class));
+    verify(accountClient, times(3)).put(anyString(), any());
+  }
+
+  @Test
+  public void failureToCreateAccountIsReportedForEachLoan() throws Exception {
+    when(accountClient.post(any())).thenAnswer(postRespondWithRequestAndFail());
+    when(accountActionsClient.post(any(JsonObject.class)))
+      .thenReturn(completedFuture(succeeded(emptyJsonResponse(201))));
+
+    final CreateAccountCommand failingCommand = createCommandBuilder()
+      .withCreatedByAutomatedProcess(true).build();
+    final CreateAccountCommand succeedingCommand = createCommandBuilder()
+      .withCreatedByAutomatedProcess(true).build();
+
+    final Result<Map<String, Result<Void>>> result = feeFineFacade.createAccountsForLoans(
+      Arrays.asList(failingCommand, succeedingCommand))
+      .get(5, TimeUnit.SECONDS);
+
+    assertThat(result.succeeded(), is(true));
+    assertThat(result.value().get(failingCommand.getLoan().getId()).failed(), is(true));
+    assertThat(result.value().get(succeedingCommand.getLoan().getId()).succeeded(), is(true));
+
+    verify(userClient, never()).getMany(any(CqlQuery.class), any(PageLimit.class));
+  }
+
   private CreateAccountCommand.CreateAccountCommandBuilder createCommandBuilder() {
     final Item item = Item.from(new JsonObject())
       .withLocation(Location.from(new JsonObject().put("name", "Main library")));
@@ -137,6 +235,27 @@ public class FeeFineFacadeTest {
       .withFeeFineActions(emptyList()), "user-id", "sp-id", CANCELLED_ITEM_RETURNED);
   }
 
+  private void stubStaffUserAndServicePoint(String servicePointId) {
+    when(userClient.getMany(any(CqlQuery.class), any(PageLimit.class)))
+      .thenReturn(completedFuture(succeeded(multipleRecordsResponse("users",
+        new JsonObject()
+          .put("id", "user-id")
+          .put("personal", new JsonObject()
+            .put("firstName", "Rebecca")
+            .put("lastName", "Stuart"))))));
+    when(servicePointClient.getMany(any(CqlQuery.class), any(PageLimit.class)))
+      .thenReturn(completedFuture(succeeded(multipleRecordsResponse("servicepoints",
+        new JsonObject()
+          .put("id", servicePointId)
+          .put("name", "Circ Desk 1")))));
+  }
+
+  private Response multipleRecordsResponse(String recordsProperty, JsonObject... records) {
+    return jsonResponse(200, new JsonObject()
+      .put(recordsProperty, new JsonArray(Arrays.asList(records)))
+      .put("totalRecords", records.length));
+  }
+
   private Response jsonResponse(int status, JsonObject json) {
     return new Response(status, json.toString(), "application/json");
   }
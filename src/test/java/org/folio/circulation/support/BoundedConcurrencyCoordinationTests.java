@@ -0,0 +1,175 @@
+package org.folio.circulation.support;
+
+import static api.support.matchers.FailureMatcher.isErrorFailureContaining;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
+import static org.folio.circulation.support.AsyncCoordinationUtil.allOf;
+import static org.folio.circulation.support.AsyncCoordinationUtil.allResultsOf;
+import static org.folio.circulation.support.BoundedConcurrency.atMost;
+import static org.folio.circulation.support.results.Result.failed;
+import static org.folio.circulation.support.results.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.folio.circulation.support.results.Result;
+import org.junit.Test;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+
+public class BoundedConcurrencyCoordinationTests {
+  @Test
+  public void shouldApplyActionToAllElementsInOrder() throws Exception {
+    final Result<List<Integer>> result = allOf(numbers(5),
+      number -> supplyAsync(() -> succeeded(number * 2)), atMost(2))
+      .get(5, SECONDS);
+
+    assertThat(result.succeeded(), is(true));
+    assertThat(result.value(), contains(0, 2, 4, 6, 8));
+  }
+
+  @Test
+  public void shouldSucceedForEmptyCollection() throws Exception {
+    final Result<List<Integer>> result = allOf(new ArrayList<Integer>(),
+      number -> completedFuture(succeeded(number)), atMost(2))
+      .get(5, SECONDS);
+
+    assertThat(result.succeeded(), is(true));
+    assertThat(result.value().isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldNotExceedWindowSize() throws Exception {
+    final AtomicInteger inProgress = new AtomicInteger();
+    final AtomicInteger mostInProgress = new AtomicInteger();
+
+    allOf(numbers(50), number -> {
+      mostInProgress.accumulateAndGet(inProgress.incrementAndGet(), Math::max);
+
+      return supplyAsync(() -> {
+        sleep(5);
+        inProgress.decrementAndGet();
+        return succeeded(number);
+      });
+    }, atMost(3)).get(10, SECONDS);
+
+    assertThat(mostInProgress.get(), lessThanOrEqualTo(3));
+  }
+
+  @Test
+  public void shouldNotOverflowStackWhenActionsCompleteImmediately() throws Exception {
+    final List<Result<Integer>> results = allResultsOf(numbers(100000),
+      number -> completedFuture(succeeded(number)), atMost(1))
+      .get(10, SECONDS);
+
+    assertThat(results.size(), is(100000));
+  }
+
+  @Test
+  public void shouldProcessAllElementsWhenCollectingAllResults() throws Exception {
+    final AtomicInteger started = new AtomicInteger();
+
+    final List<Result<Integer>> results = allResultsOf(numbers(10), number -> {
+      started.incrementAndGet();
+
+      return completedFuture(number == 2
+        ? failed(new ServerErrorFailure("Failed for 2"))
+        : succeeded(number));
+    }, atMost(2)).get(5, SECONDS);
+
+    assertThat(started.get(), is(10));
+    assertThat(results.get(2), isErrorFailureContaining("Failed for 2"));
+    assertThat(results.get(3).value(), is(3));
+  }
+
+  @Test
+  public void shouldStopStartingActionsAfterFailureWhenFailingFast() throws Exception {
+    final AtomicInteger started = new AtomicInteger();
+
+    final Result<List<Integer>> result = allOf(numbers(10), number -> {
+      started.incrementAndGet();
+
+      return completedFuture(number == 2
+        ? failed(new ServerErrorFailure("Failed for 2"))
+        : succeeded(number));
+    }, atMost(1).failingFast()).get(5, SECONDS);
+
+    assertThat(started.get(), is(3));
+    assertThat(result, isErrorFailureContaining("Failed for 2"));
+  }
+
+  @Test
+  public void shouldFailWhenActionThrowsException() throws Exception {
+    final Result<List<Integer>> result = allOf(numbers(3), number -> {
+      if (number == 1) {
+        throw new RuntimeException("Something went wrong");
+      }
+
+      return completedFuture(succeeded(number));
+    }, atMost(2)).get(5, SECONDS);
+
+    assertThat(result, isErrorFailureContaining("Something went wrong"));
+  }
+
+  @Test
+  public void shouldLimitRateOfStartingActions() throws Exception {
+    final long start = System.nanoTime();
+
+    allOf(numbers(6), number -> completedFuture(succeeded(number)),
+      atMost(6).startingAtMostPerSecond(20)).get(5, SECONDS);
+
+    final long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+    // five intervals of 50 milliseconds between six starts
+    assertThat(elapsedMillis, greaterThanOrEqualTo(250L));
+  }
+
+  @Test
+  public void shouldStartRateLimitedActionsOnCallersContext() throws Exception {
+    final Vertx vertx = Vertx.vertx();
+
+    try {
+      final Context context = vertx.getOrCreateContext();
+      final List<Boolean> startedOnContext = new CopyOnWriteArrayList<>();
+      final CompletableFuture<List<Result<Integer>>> results = new CompletableFuture<>();
+
+      context.runOnContext(notUsed -> allResultsOf(numbers(3), number -> {
+        startedOnContext.add(Vertx.currentContext() == context);
+
+        return completedFuture(succeeded(number));
+      }, atMost(3).startingAtMostPerSecond(20))
+        .thenAccept(results::complete));
+
+      results.get(5, SECONDS);
+
+      assertThat(startedOnContext, contains(true, true, true));
+    }
+    finally {
+      vertx.close();
+    }
+  }
+
+  private static List<Integer> numbers(int count) {
+    return IntStream.range(0, count).boxed().collect(toList());
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package org.folio.circulation.support;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Consumer;
+
+import org.folio.circulation.support.http.client.OkapiHttpClient;
+import org.folio.circulation.support.http.server.WebContext;
+import org.junit.Test;
+
+import com.sun.management.ThreadMXBean;
+
+public class ClientsTests {
+  private static final String OKAPI_LOCATION = "http://okapi:9130";
+
+  @Test
+  public void clientIsReusedForTheRestOfTheRequest() {
+    final Clients clients = clients("tenant_a");
+
+    assertThat(clients.itemsStorage(), sameInstance(clients.itemsStorage()));
+    assertThat(clients.circulationLoanRules(),
+      sameInstance(clients.circulationLoanRules()));
+    assertThat(clients.circulationRulesProcessor(),
+      sameInstance(clients.circulationRulesProcessor()));
+  }
+
+  @Test
+  public void clientsAreNotSharedBetweenRequests() {
+    assertThat(clients("tenant_a").itemsStorage(),
+      not(sameInstance(clients("tenant_a").itemsStorage())));
+  }
+
+  @Test
+  public void urlsAreSharedBetweenTenants() {
+    final Clients.OkapiUrls urls = Clients.OkapiUrls.forLocation(OKAPI_LOCATION);
+
+    assertThat(Clients.OkapiUrls.forLocation(OKAPI_LOCATION), sameInstance(urls));
+    assertThat(urls.urlFor("/item-storage/items").toString(),
+      is("http://okapi:9130/item-storage/items"));
+    assertThat(urls.urlFor("/item-storage/items"),
+      sameInstance(urls.urlFor("/item-storage/items")));
+  }
+
+  @Test(expected = InvalidOkapiLocationException.class)
+  public void cannotCreateClientsForInvalidOkapiLocation() {
+    final WebContext context = mock(WebContext.class);
+
+    when(context.getOkapiLocation()).thenReturn("not a location");
+
+    new Clients(mock(OkapiHttpClient.class), context);
+  }
+
+  @Test
+  public void requestUsingFewClientsAllocatesLessThanUsingAllOfThem() {
+    final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    assumeTrue(threads.isThreadAllocatedMemorySupported()
+      && threads.isThreadAllocatedMemoryEnabled());
+
+    final Consumer<Clients> typicalRequest = clients -> {
+      clients.itemsStorage();
+      clients.loansStorage();
+      clients.usersStorage();
+    };
+
+    // warm up so that class loading is not included in the measurements
+    for (int i = 0; i < 1000; i++) {
+      typicalRequest.accept(clients("tenant_a"));
+      useAllClients(clients("tenant_a"));
+    }
+
+    // only what is allocated beyond constructing the clients is compared,
+    // so that changes to the construction cost do not affect the outcome
+    final long constructionBytes = allocatedBytes(threads, clients -> {});
+    final long typicalRequestBytes = allocatedBytes(threads, typicalRequest)
+      - constructionBytes;
+    final long allClientsBytes = allocatedBytes(threads, ClientsTests::useAllClients)
+      - constructionBytes;
+
+    assertThat(typicalRequestBytes * 4, lessThan(allClientsBytes));
+  }
+
+  /**
+   * @return the fewest bytes allocated by several measurements, so that
+   * allocations made by something else running on the thread are ignored
+   */
+  private static long allocatedBytes(ThreadMXBean threads, Consumer<Clients> request) {
+    long fewestBytes = Long.MAX_VALUE;
+
+    for (int attempt = 0; attempt < 5; attempt++) {
+      fewestBytes = Math.min(fewestBytes, measureAllocatedBytes(threads, request));
+    }
+
+    return fewestBytes;
+  }
+
+  private static long measureAllocatedBytes(ThreadMXBean threads,
+    Consumer<Clients> request) {
+
+    final long threadId = Thread.currentThread().getId();
+    // mocks record every call, so would dwarf what is being measured
+    final WebContext context = new WebContext(null) {
+      @Override
+      public String getTenantId() {
+        return "tenant_a";
+      }
+
+      @Override
+      public String getOkapiLocation() {
+        return OKAPI_LOCATION;
+      }
+    };
+
+    final OkapiHttpClient client = mock(OkapiHttpClient.class);
+
+    final long before = threads.getThreadAllocatedBytes(threadId);
+
+    for (int i = 0; i < 100; i++) {
+      request.accept(new Clients(client, context));
+    }
+
+    return threads.getThreadAllocatedBytes(threadId) - before;
+  }
+
+  private static void useAllClients(Clients clients) {
+    for (Method method : Clients.class.getDeclaredMethods()) {
+      if (Modifier.isPublic(method.getModifiers())
+        && !Modifier.isStatic(method.getModifiers())
+        && method.getParameterCount() == 0
+        && !method.getName().equals("pubSubPublishingService")) {
+
+        try {
+          method.invoke(clients);
+        }
+        catch (ReflectiveOperationException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    }
+  }
+
+  private static Clients clients(String tenantId) {
+    return new Clients(mock(OkapiHttpClient.class), webContext(tenantId));
+  }
+
+  private static WebContext webContext(String tenantId) {
+    final WebContext context = mock(WebContext.class);
+
+    when(context.getTenantId()).thenReturn(tenantId);
+    when(context.getOkapiLocation()).thenReturn(OKAPI_LOCATION);
+
+    return context;
+  }
+}
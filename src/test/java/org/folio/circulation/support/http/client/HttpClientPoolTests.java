@@ -0,0 +1,85 @@
+package org.folio.circulation.support.http.client;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.folio.circulation.support.results.Result.succeeded;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.folio.circulation.support.ServerErrorFailure;
+import org.folio.circulation.support.results.Result;
+import org.junit.Test;
+
+import io.vertx.core.http.HttpClient;
+
+public class HttpClientPoolTests {
+  @Test
+  public void requestsWithinCapacityAreSentStraightAway() throws Exception {
+    final HttpClientPool pool = pool(2, -1);
+
+    final Result<String> result = pool.submit(() -> completedFuture(succeeded("sent")))
+      .get(1, SECONDS);
+
+    assertThat(result.value(), is("sent"));
+    assertThat(pool.getMetrics().getRequests(), is(1L));
+    assertThat(pool.getMetrics().getInUse(), is(0));
+  }
+
+  @Test
+  public void requestsBeyondCapacityWaitForEarlierRequestToComplete() throws Exception {
+    final HttpClientPool pool = pool(1, -1);
+    final CompletableFuture<Result<String>> firstResponse = new CompletableFuture<>();
+
+    pool.submit(() -> firstResponse);
+
+    final CompletableFuture<Result<String>> second = pool.submit(
+      () -> completedFuture(succeeded("second")));
+
+    assertThat(second.isDone(), is(false));
+    assertThat(pool.getMetrics().getInUse(), is(1));
+    assertThat(pool.getMetrics().getWaiting(), is(1));
+
+    firstResponse.complete(succeeded("first"));
+
+    assertThat(second.get(1, SECONDS).value(), is("second"));
+    assertThat(pool.getMetrics().getInUse(), is(0));
+    assertThat(pool.getMetrics().getWaiting(), is(0));
+  }
+
+  @Test
+  public void requestFailsWhenWaitQueueIsFull() throws Exception {
+    final HttpClientPool pool = pool(1, 0);
+
+    pool.submit(CompletableFuture::new);
+
+    final Result<String> result = pool.<String>submit(
+      () -> completedFuture(succeeded("rejected"))).get(1, SECONDS);
+
+    assertThat(result.failed(), is(true));
+    assertThat(result.cause(), instanceOf(ServerErrorFailure.class));
+    assertThat(pool.getMetrics().getRejected(), is(1L));
+  }
+
+  @Test
+  public void requestThatThrowsAnExceptionReleasesItsPlace() throws Exception {
+    final HttpClientPool pool = pool(1, -1);
+
+    final CompletableFuture<Result<String>> failed = pool.submit(() -> {
+      throw new IllegalStateException("Cannot send request");
+    });
+
+    assertThat(failed.isCompletedExceptionally(), is(true));
+
+    assertThat(pool.submit(() -> completedFuture(succeeded("sent")))
+      .get(1, SECONDS).value(), is("sent"));
+  }
+
+  private static HttpClientPool pool(int capacity, int maximumWaitQueueSize) {
+    return new HttpClientPool("test", mock(HttpClient.class), capacity,
+      maximumWaitQueueSize, 1000);
+  }
+}
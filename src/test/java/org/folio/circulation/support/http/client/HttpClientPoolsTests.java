@@ -0,0 +1,118 @@
+package org.folio.circulation.support.http.client;
+
+import static org.folio.circulation.support.http.client.HttpClientPools.PoolClass.BACKGROUND;
+import static org.folio.circulation.support.http.client.HttpClientPools.PoolClass.INTERACTIVE;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.json.JsonObject;
+
+public class HttpClientPoolsTests {
+  private final List<HttpClientOptions> createdClients = new ArrayList<>();
+
+  @Test
+  public void interactiveAndBackgroundRequestsUseSeparateClients() {
+    final HttpClientPools pools = pools(new JsonObject());
+
+    assertThat(pools.getClient(INTERACTIVE), not(sameInstance(pools.getClient(BACKGROUND))));
+    assertThat(createdClients.size(), is(2));
+    assertThat(createdClients.get(0).getMaxPoolSize(), is(100));
+  }
+
+  @Test
+  public void tenantsShareThePoolsByDefault() {
+    final HttpClientPools pools = pools(new JsonObject());
+    final HttpClient client = pools.getClient(INTERACTIVE);
+
+    assertThat(pools.poolFor(client, "tenant_a"),
+      sameInstance(pools.poolFor(client, "tenant_b")));
+  }
+
+  @Test
+  public void configuredTenantHasItsOwnPools() {
+    final HttpClientPools pools = pools(new JsonObject()
+      .put("maxPoolSize", 50)
+      .put("background", new JsonObject().put("maxPoolSize", 10))
+      .put("tenants", new JsonObject()
+        .put("tenant_a", new JsonObject()
+          .put("keepAlive", false)
+          .put("background", new JsonObject().put("maxPoolSize", 5)))));
+
+    final HttpClient backgroundClient = pools.getClient(BACKGROUND);
+
+    final HttpClientPool tenantPool = pools.poolFor(backgroundClient, "tenant_a");
+
+    assertThat(tenantPool, not(sameInstance(pools.poolFor(backgroundClient, "tenant_b"))));
+    assertThat(tenantPool, sameInstance(pools.poolFor(backgroundClient, "tenant_a")));
+    assertThat(tenantPool.getMetrics().getCapacity(), is(5));
+
+    final HttpClientOptions tenantOptions = createdClients.get(2);
+
+    assertThat(tenantOptions.getMaxPoolSize(), is(5));
+    assertThat(tenantOptions.isKeepAlive(), is(false));
+    assertThat(createdClients.get(0).getMaxPoolSize(), is(50));
+    assertThat(createdClients.get(1).getMaxPoolSize(), is(10));
+  }
+
+  @Test
+  public void everyTenantCanHaveItsOwnPools() {
+    final HttpClientPools pools = pools(new JsonObject().put("poolPerTenant", true));
+    final HttpClient client = pools.getClient(INTERACTIVE);
+
+    assertThat(pools.poolFor(client, "tenant_a"),
+      not(sameInstance(pools.poolFor(client, "tenant_b"))));
+    assertThat(pools.getMetrics().size(), is(4));
+  }
+
+  @Test
+  public void unmanagedClientHasNoLimit() {
+    final HttpClientPools pools = pools(new JsonObject());
+
+    assertThat(pools.poolFor(mock(HttpClient.class), "tenant_a")
+      .getMetrics().getCapacity(), is(0));
+  }
+
+  @Test
+  public void http2CapacityIsBasedUponMultiplexing() {
+    final HttpClientPools pools = pools(new JsonObject()
+      .put("http2", true)
+      .put("http2MaxPoolSize", 2)
+      .put("http2MultiplexingLimit", 50));
+
+    final HttpClientOptions options = createdClients.get(0);
+
+    assertThat(options.getProtocolVersion(), is(HttpVersion.HTTP_2));
+    assertThat(pools.poolFor(pools.getClient(INTERACTIVE), null)
+      .getMetrics().getCapacity(), is(100));
+  }
+
+  @Test
+  public void eachClassOfRequestCanHaveItsOwnTimeout() {
+    final HttpClientPools pools = pools(new JsonObject()
+      .put("background", new JsonObject().put("timeoutMilliseconds", 60000)));
+
+    assertThat(pools.poolFor(pools.getClient(INTERACTIVE), null)
+      .getDefaultTimeout(), is(Duration.ofSeconds(20)));
+    assertThat(pools.poolFor(pools.getClient(BACKGROUND), null)
+      .getDefaultTimeout(), is(Duration.ofSeconds(60)));
+  }
+
+  private HttpClientPools pools(JsonObject configuration) {
+    return new HttpClientPools(options -> {
+      createdClients.add(options);
+      return mock(HttpClient.class);
+    }, configuration);
+  }
+}
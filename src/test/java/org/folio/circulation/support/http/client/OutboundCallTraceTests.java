@@ -0,0 +1,58 @@
+package org.folio.circulation.support.http.client;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class OutboundCallTraceTests {
+  @Test
+  public void requestsSentAtTheSameTimeAreOnlyCountedOnce() {
+    final OutboundCallTrace trace = new OutboundCallTrace("request-id", 0);
+
+    trace.record(call("GET", "/item-storage/items", 0, 40));
+    trace.record(call("GET", "/users/{id}", 10, 30));
+    trace.record(call("PUT", "/loan-storage/loans/{id}", 60, 20));
+
+    assertThat(trace.getOutboundMilliseconds(), is(60L));
+  }
+
+  @Test
+  public void summaryIncludesSlowestRequests() {
+    final OutboundCallTrace trace = new OutboundCallTrace("request-id", 0);
+
+    trace.record(call("GET", "/users/{id}", 0, 10));
+    trace.record(call("GET", "/item-storage/items", 10, 40));
+    trace.record(call("PUT", "/loan-storage/loans/{id}", 50, 20));
+    trace.record(call("GET", "/groups/{id}", 70, 5));
+
+    assertThat(trace.summary(TimeUnit.MILLISECONDS.toNanos(100)),
+      is("total=100ms; outbound=75ms; calls=4; slowest=" +
+        "GET /item-storage/items 200 40ms, PUT /loan-storage/loans/{id} 200 20ms, " +
+        "GET /users/{id} 200 10ms"));
+  }
+
+  @Test
+  public void pathTemplateReplacesRecordIdentifiers() {
+    assertThat(OutboundCall.pathTemplateOf(
+      "http://okapi:9130/loan-storage/loans/e2e6d6f2-4c1a-4b1e-8a3c-5d36a4a1e6a1"),
+      is("/loan-storage/loans/{id}"));
+
+    assertThat(OutboundCall.pathTemplateOf(
+      "http://okapi:9130/item-storage/items?query=barcode%3D%3D036000291452"),
+      is("/item-storage/items"));
+
+    assertThat(OutboundCall.pathTemplateOf("http://okapi:9130/calendar/periods/123/period"),
+      is("/calendar/periods/{id}/period"));
+  }
+
+  private static OutboundCall call(String method, String pathTemplate,
+    long startedAtMilliseconds, long durationMilliseconds) {
+
+    return new OutboundCall(method, pathTemplate, 200, 100,
+      TimeUnit.MILLISECONDS.toNanos(startedAtMilliseconds),
+      TimeUnit.MILLISECONDS.toNanos(durationMilliseconds));
+  }
+}
@@ -0,0 +1,39 @@
+package org.folio.circulation.support.http.client;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class OutboundRequestHistogramsTests {
+  @Test
+  public void durationsAreCountedInCumulativeBuckets() {
+    final OutboundRequestHistograms histograms = new OutboundRequestHistograms();
+
+    histograms.record(call(200, 3));
+    histograms.record(call(200, 30));
+    histograms.record(call(503, 3000));
+
+    final String text = histograms.toPrometheusText();
+
+    assertThat(text, containsString("circulation_outbound_request_duration_seconds_bucket" +
+      "{method=\"GET\",path=\"/users/{id}\",le=\"0.005\"} 1\n"));
+    assertThat(text, containsString("circulation_outbound_request_duration_seconds_bucket" +
+      "{method=\"GET\",path=\"/users/{id}\",le=\"0.050\"} 2\n"));
+    assertThat(text, containsString("circulation_outbound_request_duration_seconds_bucket" +
+      "{method=\"GET\",path=\"/users/{id}\",le=\"+Inf\"} 3\n"));
+    assertThat(text, containsString("circulation_outbound_request_duration_seconds_sum" +
+      "{method=\"GET\",path=\"/users/{id}\"} 3.033000\n"));
+    assertThat(text, containsString("circulation_outbound_response_bytes_total" +
+      "{method=\"GET\",path=\"/users/{id}\"} 300\n"));
+    assertThat(text, containsString("circulation_outbound_request_failures_total" +
+      "{method=\"GET\",path=\"/users/{id}\"} 1\n"));
+  }
+
+  private static OutboundCall call(int statusCode, long durationMilliseconds) {
+    return new OutboundCall("GET", "/users/{id}", statusCode, 100, 0,
+      TimeUnit.MILLISECONDS.toNanos(durationMilliseconds));
+  }
+}
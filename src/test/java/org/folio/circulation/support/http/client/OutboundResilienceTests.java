@@ -0,0 +1,251 @@
+package org.folio.circulation.support.http.client;
+
+import static io.vertx.core.http.HttpMethod.GET;
+import static io.vertx.core.http.HttpMethod.POST;
+import static io.vertx.core.http.HttpMethod.PUT;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.folio.circulation.support.results.Result.succeeded;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.folio.circulation.support.ServerErrorFailure;
+import org.folio.circulation.support.results.Result;
+import org.junit.Test;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.HttpResponse;
+
+public class OutboundResilienceTests {
+  private static final String ITEMS_URL = "http://okapi:9130/item-storage/items?query=barcode%3D%3D123";
+  private static final String LOANS_URL = "http://okapi:9130/loan-storage/loans/4b7f5b8e";
+
+  private final List<Runnable> scheduledTasks = new ArrayList<>();
+  private long now = 0;
+
+  @Test
+  public void idempotentRequestIsRetriedWhenModuleIsUnavailable() throws Exception {
+    final OutboundResilience resilience = resilience(new JsonObject());
+    final Attempts attempts = new Attempts(status(503), status(200));
+
+    final CompletableFuture<Result<AsyncResult<HttpResponse<Buffer>>>> response
+      = resilience.send(PUT, LOANS_URL, attempts);
+
+    runScheduledTasks();
+
+    assertThat(statusCode(response), is(200));
+    assertThat(attempts.sent.get(), is(2));
+    assertThat(metrics(resilience).getRetries(), is(1L));
+  }
+
+  @Test
+  public void requestIsOnlyRetriedUpToTheLimit() throws Exception {
+    final OutboundResilience resilience = resilience(new JsonObject().put("maxRetries", 1));
+    final Attempts attempts = new Attempts(status(502), status(504), status(200));
+
+    final CompletableFuture<Result<AsyncResult<HttpResponse<Buffer>>>> response
+      = resilience.send(GET, LOANS_URL, attempts);
+
+    runScheduledTasks();
+
+    assertThat(statusCode(response), is(504));
+    assertThat(attempts.sent.get(), is(2));
+  }
+
+  @Test
+  public void postIsNotRetried() throws Exception {
+    final OutboundResilience resilience = resilience(new JsonObject());
+    final Attempts attempts = new Attempts(status(503), status(201));
+
+    final CompletableFuture<Result<AsyncResult<HttpResponse<Buffer>>>> response
+      = resilience.send(POST, LOANS_URL, attempts);
+
+    runScheduledTasks();
+
+    assertThat(statusCode(response), is(503));
+    assertThat(attempts.sent.get(), is(1));
+  }
+
+  @Test
+  public void requestThatTimesOutIsNotRetried() throws Exception {
+    final OutboundResilience resilience = resilience(new JsonObject());
+    final Attempts attempts = new Attempts(
+      Future.failedFuture(new TimeoutException("timed out")), status(200));
+
+    final CompletableFuture<Result<AsyncResult<HttpResponse<Buffer>>>> response
+      = resilience.send(GET, LOANS_URL, attempts);
+
+    runScheduledTasks();
+
+    assertThat(response.get(1, SECONDS).value().failed(), is(true));
+    assertThat(attempts.sent.get(), is(1));
+  }
+
+  @Test
+  public void requestsFailStraightAwayWhenTooManyInARowHaveFailed() throws Exception {
+    final OutboundResilience resilience = resilience(new JsonObject()
+      .put("maxRetries", 0)
+      .put("failureThreshold", 2)
+      .put("openCircuitMilliseconds", 1000));
+
+    resilience.send(GET, LOANS_URL, new Attempts(status(503)));
+    resilience.send(GET, LOANS_URL, new Attempts(status(503)));
+
+    final Attempts notSent = new Attempts(status(200));
+
+    final Result<AsyncResult<HttpResponse<Buffer>>> shortCircuited
+      = resilience.send(GET, LOANS_URL, notSent).get(1, SECONDS);
+
+    assertThat(shortCircuited.failed(), is(true));
+    assertThat(shortCircuited.cause(), instanceOf(ServerErrorFailure.class));
+    assertThat(notSent.sent.get(), is(0));
+    assertThat(metrics(resilience).getState(), is("OPEN"));
+    assertThat(metrics(resilience).getShortCircuited(), is(1L));
+
+    // requests to other modules are not affected
+    assertThat(statusCode(resilience.send(GET, ITEMS_URL, new Attempts(status(200)))),
+      is(200));
+  }
+
+  @Test
+  public void circuitClosesWhenTrialRequestSucceeds() throws Exception {
+    final OutboundResilience resilience = resilience(new JsonObject()
+      .put("maxRetries", 0)
+      .put("failureThreshold", 1)
+      .put("openCircuitMilliseconds", 1000));
+
+    resilience.send(GET, LOANS_URL, new Attempts(status(503)));
+
+    now += 1_000_000_000L;
+
+    assertThat(statusCode(resilience.send(GET, LOANS_URL, new Attempts(status(200)))),
+      is(200));
+    assertThat(metrics(resilience).getState(), is("CLOSED"));
+  }
+
+  @Test
+  public void circuitOpensAgainWhenTrialRequestFails() throws Exception {
+    final OutboundResilience resilience = resilience(new JsonObject()
+      .put("maxRetries", 0)
+      .put("failureThreshold", 1)
+      .put("openCircuitMilliseconds", 1000));
+
+    resilience.send(GET, LOANS_URL, new Attempts(status(503)));
+
+    now += 1_000_000_000L;
+
+    resilience.send(GET, LOANS_URL, new Attempts(status(503)));
+
+    assertThat(resilience.send(GET, LOANS_URL, new Attempts(status(200)))
+      .get(1, SECONDS).failed(), is(true));
+  }
+
+  @Test
+  public void slowGetForHedgedPathIsSentAgain() throws Exception {
+    final OutboundResilience resilience = resilience(new JsonObject());
+
+    final CompletableFuture<Result<AsyncResult<HttpResponse<Buffer>>>> neverResponds
+      = new CompletableFuture<>();
+
+    final Queue<CompletableFuture<Result<AsyncResult<HttpResponse<Buffer>>>>> responses
+      = new LinkedList<>(List.of(neverResponds, completedFuture(succeeded(status(200)))));
+
+    final CompletableFuture<Result<AsyncResult<HttpResponse<Buffer>>>> response
+      = resilience.send(GET, ITEMS_URL, responses::poll);
+
+    assertThat(response.isDone(), is(false));
+
+    runScheduledTasks();
+
+    assertThat(statusCode(response), is(200));
+    assertThat(metrics(resilience).getHedged(), is(1L));
+  }
+
+  @Test
+  public void getForOtherPathIsNotHedged() {
+    final OutboundResilience resilience = resilience(new JsonObject()
+      .put("hedgedPaths", new JsonArray().add("/item-storage/items")));
+
+    resilience.send(GET, LOANS_URL, CompletableFuture::new);
+
+    assertThat(scheduledTasks.size(), is(0));
+  }
+
+  @Test
+  public void modulePathIsFirstSegmentOfPath() {
+    assertThat(OutboundResilience.modulePathOf(ITEMS_URL), is("/item-storage"));
+    assertThat(OutboundResilience.modulePathOf("http://okapi:9130/users?query=id"),
+      is("/users"));
+    assertThat(OutboundResilience.modulePathOf("http://okapi:9130"), is("/"));
+  }
+
+  private OutboundResilience resilience(JsonObject configuration) {
+    return new OutboundResilience(configuration,
+      (delay, task) -> scheduledTasks.add(task), () -> now);
+  }
+
+  private void runScheduledTasks() {
+    while (!scheduledTasks.isEmpty()) {
+      scheduledTasks.remove(0).run();
+    }
+  }
+
+  private static OutboundResilience.Metrics metrics(OutboundResilience resilience) {
+    return resilience.getMetrics().get(0);
+  }
+
+  private static int statusCode(
+    CompletableFuture<Result<AsyncResult<HttpResponse<Buffer>>>> response)
+    throws Exception {
+
+    return response.get(1, SECONDS).value().result().statusCode();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static AsyncResult<HttpResponse<Buffer>> status(int statusCode) {
+    final HttpResponse<Buffer> response = mock(HttpResponse.class);
+
+    when(response.statusCode()).thenReturn(statusCode);
+
+    return Future.succeededFuture(response);
+  }
+
+  /**
+   * Responds to each attempt with the next response, repeating the last response
+   */
+  private static class Attempts
+    implements Supplier<CompletableFuture<Result<AsyncResult<HttpResponse<Buffer>>>>> {
+
+    private final List<AsyncResult<HttpResponse<Buffer>>> responses;
+    private final AtomicInteger sent = new AtomicInteger();
+
+    @SafeVarargs
+    Attempts(AsyncResult<HttpResponse<Buffer>>... responses) {
+      this.responses = List.of(responses);
+    }
+
+    @Override
+    public CompletableFuture<Result<AsyncResult<HttpResponse<Buffer>>>> get() {
+      final int attempt = sent.getAndIncrement();
+
+      return completedFuture(succeeded(
+        responses.get(Math.min(attempt, responses.size() - 1))));
+    }
+  }
+}
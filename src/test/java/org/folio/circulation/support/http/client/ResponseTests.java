@@ -0,0 +1,70 @@
+package org.folio.circulation.support.http.client;
+
+import static io.vertx.core.MultiMap.caseInsensitiveMultiMap;
+import static org.apache.http.entity.ContentType.APPLICATION_JSON;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsEmptyCollection.empty;
+
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import lombok.val;
+
+public class ResponseTests {
+  @Test
+  public void bodyReceivedAsBufferIsAvailableAsString() {
+    val response = bufferResponse(Buffer.buffer("{\"name\": \"Café\"}"));
+
+    assertThat(response.hasBody(), is(true));
+    assertThat(response.getBody(), is("{\"name\": \"Café\"}"));
+    assertThat(response.getJson().getString("name"), is("Café"));
+  }
+
+  @Test
+  public void blankBodyReceivedAsBufferIsEmptyJson() {
+    val response = bufferResponse(Buffer.buffer(" \n"));
+
+    assertThat(response.hasBody(), is(false));
+    assertThat(response.getJson().isEmpty(), is(true));
+  }
+
+  @Test
+  public void missingBodyIsEmptyJson() {
+    val response = bufferResponse(null);
+
+    assertThat(response.hasBody(), is(false));
+    assertThat(response.getBody(), is(nullValue()));
+    assertThat(response.getJson().isEmpty(), is(true));
+    assertThat(response.mapRecords("records", Function.identity()).getRecords(),
+      is(empty()));
+  }
+
+  @Test
+  public void recordsAreMappedFromBufferAndStringBodiesAlike() {
+    val representation = new JsonObject()
+      .put("records", new JsonArray().add(new JsonObject().put("name", "Foo")))
+      .put("totalRecords", 1);
+
+    val fromBuffer = bufferResponse(representation.toBuffer())
+      .mapRecords("records", json -> json.getString("name"));
+
+    val fromString = new Response(200, representation.encode(),
+      APPLICATION_JSON.toString())
+      .mapRecords("records", json -> json.getString("name"));
+
+    assertThat(fromBuffer.getRecords(), is(fromString.getRecords()));
+    assertThat(fromBuffer.getTotalRecords(), is(1));
+    assertThat(fromString.getTotalRecords(), is(1));
+  }
+
+  private static Response bufferResponse(Buffer body) {
+    return new Response(200, body, APPLICATION_JSON.toString(),
+      caseInsensitiveMultiMap(), "http://localhost/records");
+  }
+}
@@ -11,7 +11,9 @@ import static com.github.tomakehurst.wiremock.client.WireMock.noContent;
 import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.put;
+import static com.github.tomakehurst.wiremock.client.WireMock.serviceUnavailable;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
 import static java.time.temporal.ChronoUnit.MILLIS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.folio.HttpStatus.HTTP_CREATED;
@@ -19,6 +21,7 @@ import static org.folio.HttpStatus.HTTP_NO_CONTENT;
 import static org.folio.HttpStatus.HTTP_OK;
 import static org.folio.circulation.support.http.client.NamedQueryParameter.namedParameter;
 import static org.folio.circulation.support.http.client.VertxWebClientOkapiHttpClient.createClientUsing;
+import static org.folio.circulation.support.http.client.VertxWebClientOkapiHttpClient.createClientUsingPool;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
@@ -202,6 +205,56 @@ public class VertxWebClientOkapiHttpClientTests {
     assertThat(response, hasStatus(HTTP_NO_CONTENT));
   }
 
+  @Test
+  public void canGetJsonWhenModuleIsBrieflyUnavailable()
+    throws InterruptedException, ExecutionException, TimeoutException {
+
+    fakeWebServer.stubFor(matchingFolioHeaders(get(urlPathEqualTo("/record")))
+      .inScenario("restarting").whenScenarioStateIs(STARTED)
+      .willReturn(serviceUnavailable())
+      .willSetStateTo("restarted"));
+
+    fakeWebServer.stubFor(matchingFolioHeaders(get(urlPathEqualTo("/record")))
+      .inScenario("restarting").whenScenarioStateIs("restarted")
+      .willReturn(okJson(dummyJsonResponseBody())));
+
+    OkapiHttpClient client = createClient();
+
+    CompletableFuture<Result<Response>> getCompleted
+      = client.get(fakeWebServer.url("/record"));
+
+    final Response response = getCompleted.get(5, SECONDS).value();
+
+    assertThat(response, hasStatus(HTTP_OK));
+    assertThat(response.getJson().getString("message"), is("hello"));
+  }
+
+  @Test
+  public void requestsAreRecordedInTrace()
+    throws InterruptedException, ExecutionException, TimeoutException {
+
+    fakeWebServer.stubFor(matchingFolioHeaders(get(urlPathEqualTo("/record/1234")))
+      .willReturn(okJson(dummyJsonResponseBody())));
+
+    final OutboundCallTrace trace = new OutboundCallTrace(requestId, System.nanoTime());
+
+    OkapiHttpClient client = createClientUsingPool(
+      HttpClientPool.unlimited(vertxAssistant.createUsingVertx(Vertx::createHttpClient)),
+      okapiUrl, tenantId, token, userId, requestId, trace);
+
+    client.get(fakeWebServer.url("/record/1234"), namedParameter("query", "id==1234"))
+      .get(2, SECONDS);
+
+    assertThat(trace.getCalls().size(), is(1));
+
+    final OutboundCall call = trace.getCalls().get(0);
+
+    assertThat(call.getMethod(), is("GET"));
+    assertThat(call.getPathTemplate(), is("/record/{id}"));
+    assertThat(call.getStatusCode(), is(200));
+    assertThat(call.getResponseBytes(), is((long) dummyJsonResponseBody().length()));
+  }
+
   @Test
   public void failsWhenGetTimesOut()
     throws InterruptedException, ExecutionException, TimeoutException {
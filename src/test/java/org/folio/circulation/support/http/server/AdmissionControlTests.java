@@ -0,0 +1,176 @@
+package org.folio.circulation.support.http.server;
+
+import static org.folio.circulation.support.http.server.AdmissionControl.RequestClass.BATCH;
+import static org.folio.circulation.support.http.server.AdmissionControl.RequestClass.INTERACTIVE;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.folio.circulation.support.http.server.AdmissionControl.Metrics;
+import org.folio.circulation.support.http.server.AdmissionControl.RequestClass;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
+
+public class AdmissionControlTests {
+  @Test
+  public void interactiveRequestsAreNotLimitedByDefault() {
+    final AdmissionControl admissionControl = new AdmissionControl(new JsonObject());
+
+    for (int i = 0; i < 50; i++) {
+      final RoutingContext request = request();
+
+      admissionControl.admit(INTERACTIVE, request);
+
+      verify(request).next();
+    }
+
+    assertThat(metrics(admissionControl, INTERACTIVE).getInProgress(), is(50));
+  }
+
+  @Test
+  public void batchRequestBeyondLimitWaitsForEarlierRequestToFinish() {
+    final AdmissionControl admissionControl = batchLimitedTo(1, 5);
+
+    final RoutingContext first = request();
+    final RoutingContext second = request();
+
+    admissionControl.admit(BATCH, first);
+    admissionControl.admit(BATCH, second);
+
+    verify(first).next();
+    verify(second, never()).next();
+    assertThat(metrics(admissionControl, BATCH).getQueued(), is(1));
+
+    finish(first);
+
+    verify(second).next();
+    assertThat(metrics(admissionControl, BATCH).getQueued(), is(0));
+    assertThat(metrics(admissionControl, BATCH).getInProgress(), is(1));
+
+    finish(second);
+
+    assertThat(metrics(admissionControl, BATCH).getInProgress(), is(0));
+    assertThat(metrics(admissionControl, BATCH).getAdmitted(), is(2L));
+  }
+
+  @Test
+  public void batchRequestIsRefusedWhenTooManyAreWaiting() {
+    final AdmissionControl admissionControl = batchLimitedTo(1, 0);
+
+    admissionControl.admit(BATCH, request());
+
+    final RoutingContext refused = request();
+
+    admissionControl.admit(BATCH, refused);
+
+    verify(refused, never()).next();
+    verify(refused.response()).setStatusCode(429);
+    verify(refused.response()).putHeader("retry-after", "60");
+    assertThat(metrics(admissionControl, BATCH).getRejected(), is(1L));
+  }
+
+  @Test
+  public void interactiveRequestsAreNotHeldUpByBatchRequests() {
+    final AdmissionControl admissionControl = batchLimitedTo(1, 5);
+
+    admissionControl.admit(BATCH, request());
+    admissionControl.admit(BATCH, request());
+
+    final RoutingContext interactive = request();
+
+    admissionControl.admit(INTERACTIVE, interactive);
+
+    verify(interactive).next();
+  }
+
+  @Test
+  public void requestIsOnlyReleasedOnceWhenConnectionIsClosedAfterResponse() {
+    final AdmissionControl admissionControl = batchLimitedTo(2, 5);
+
+    final RoutingContext request = request();
+
+    admissionControl.admit(BATCH, request);
+
+    finish(request);
+    close(request);
+
+    assertThat(metrics(admissionControl, BATCH).getInProgress(), is(0));
+  }
+
+  @Test
+  public void waitingRequestWhoseConnectionHasClosedIsNotProcessed() {
+    final AdmissionControl admissionControl = batchLimitedTo(1, 5);
+
+    final RoutingContext first = request();
+    final RoutingContext abandoned = request();
+
+    admissionControl.admit(BATCH, first);
+    admissionControl.admit(BATCH, abandoned);
+
+    when(abandoned.response().closed()).thenReturn(true);
+
+    finish(first);
+
+    verify(abandoned, never()).next();
+    assertThat(metrics(admissionControl, BATCH).getInProgress(), is(0));
+  }
+
+  private static AdmissionControl batchLimitedTo(int maximumConcurrentRequests,
+    int maximumQueuedRequests) {
+
+    return new AdmissionControl(new JsonObject()
+      .put("batch", new JsonObject()
+        .put("maxConcurrentRequests", maximumConcurrentRequests)
+        .put("maxQueuedRequests", maximumQueuedRequests)));
+  }
+
+  private static Metrics metrics(AdmissionControl admissionControl,
+    RequestClass requestClass) {
+
+    return admissionControl.getMetrics().stream()
+      .filter(metrics -> metrics.getRequestClass().equals(requestClass.getName()))
+      .findFirst()
+      .orElseThrow();
+  }
+
+  private static RoutingContext request() {
+    final RoutingContext routingContext = mock(RoutingContext.class);
+    final HttpServerRequest request = mock(HttpServerRequest.class);
+    final HttpServerResponse response = mock(HttpServerResponse.class);
+
+    when(routingContext.request()).thenReturn(request);
+    when(routingContext.response()).thenReturn(response);
+    when(request.path()).thenReturn("/circulation/scheduled-age-to-lost");
+    when(response.putHeader(anyString(), anyString())).thenReturn(response);
+
+    return routingContext;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void finish(RoutingContext request) {
+    final ArgumentCaptor<Handler<Void>> bodyEndHandler = ArgumentCaptor.forClass(Handler.class);
+
+    verify(request).addBodyEndHandler(bodyEndHandler.capture());
+
+    bodyEndHandler.getValue().handle(null);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void close(RoutingContext request) {
+    final ArgumentCaptor<Handler<Void>> closeHandler = ArgumentCaptor.forClass(Handler.class);
+
+    verify(request.response()).closeHandler(closeHandler.capture());
+
+    closeHandler.getValue().handle(null);
+  }
+}
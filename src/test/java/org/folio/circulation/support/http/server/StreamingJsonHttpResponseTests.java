@@ -0,0 +1,113 @@
+package org.folio.circulation.support.http.server;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonObject;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StreamingJsonHttpResponseTests {
+  @Mock
+  private HttpServerResponse response;
+
+  private final Buffer written = Buffer.buffer();
+
+  @Before
+  public void captureWrittenBody() {
+    when(response.write(any(Buffer.class))).then(invocation -> {
+      written.appendBuffer(invocation.getArgument(0));
+      return response;
+    });
+  }
+
+  @Test
+  public void writesAllRecordsFollowedByTotalRecords() {
+    final List<String> names = names(3);
+
+    StreamingJsonHttpResponse.ok("records", names, this::toJson, 5)
+      .writeTo(response);
+
+    final JsonObject body = new JsonObject(written);
+
+    assertThat(body.getJsonArray("records").size(), is(3));
+    assertThat(body.getJsonArray("records").getJsonObject(2).getString("name"), is("name-2"));
+    assertThat(body.getInteger("totalRecords"), is(5));
+
+    verify(response).setStatusCode(200);
+    verify(response).setChunked(true);
+    verify(response).end();
+  }
+
+  @Test
+  public void writesEmptyCollection() {
+    StreamingJsonHttpResponse.ok("records", names(0), this::toJson, 0)
+      .writeTo(response);
+
+    final JsonObject body = new JsonObject(written);
+
+    assertThat(body.getJsonArray("records").isEmpty(), is(true));
+    assertThat(body.getInteger("totalRecords"), is(0));
+    verify(response).end();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void waitsForResponseToDrainWhenWriteQueueIsFull() {
+    when(response.writeQueueFull()).thenReturn(true, false);
+
+    new StreamingJsonHttpResponse<>("records", names(50), this::toJson, 50, 10)
+      .writeTo(response);
+
+    verify(response, never()).end();
+
+    final ArgumentCaptor<Handler<Void>> drainHandler = ArgumentCaptor.forClass(Handler.class);
+
+    verify(response).drainHandler(drainHandler.capture());
+
+    drainHandler.getValue().handle(null);
+
+    final JsonObject body = new JsonObject(written);
+
+    assertThat(body.getJsonArray("records").size(), is(50));
+    assertThat(body.getInteger("totalRecords"), is(50));
+    verify(response).end();
+  }
+
+  @Test
+  public void closesResponseWhenRecordCannotBeMapped() {
+    StreamingJsonHttpResponse.ok("records", names(2), name -> {
+        throw new IllegalArgumentException("cannot map " + name);
+      }, 2).writeTo(response);
+
+    verify(response).close();
+    verify(response, never()).end();
+  }
+
+  private JsonObject toJson(String name) {
+    return new JsonObject().put("name", name);
+  }
+
+  private static List<String> names(int count) {
+    return IntStream.range(0, count)
+      .mapToObj(index -> "name-" + index)
+      .collect(toList());
+  }
+}
@@ -0,0 +1,57 @@
+package org.folio.circulation.support.http.server;
+
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.circulation.support.http.client.OutboundCallTrace;
+import org.junit.Test;
+
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.RoutingContext;
+
+public class WebContextTests {
+  @Test
+  public void traceStartsWhenTheRequestArrived() {
+    final RoutingContext routingContext = routingContext();
+
+    WebContext.recordArrival(routingContext);
+
+    verify(routingContext).next();
+
+    final long arrivedAt = routingContext.get("arrivedAtNanos");
+
+    final OutboundCallTrace trace = new WebContext(routingContext)
+      .getOutboundCallTrace();
+
+    assertThat(trace.summary(arrivedAt + TimeUnit.MILLISECONDS.toNanos(250)),
+      startsWith("total=250ms;"));
+  }
+
+  /**
+   * Routing context that keeps the data put into it
+   */
+  private static RoutingContext routingContext() {
+    final RoutingContext routingContext = mock(RoutingContext.class);
+    final HttpServerRequest request = mock(HttpServerRequest.class);
+    final Map<String, Object> data = new HashMap<>();
+
+    when(routingContext.request()).thenReturn(request);
+    when(routingContext.put(anyString(), any())).then(invocation -> {
+      data.put(invocation.getArgument(0), invocation.getArgument(1));
+      return routingContext;
+    });
+    when(routingContext.get(anyString())).then(
+      invocation -> data.get(invocation.<String>getArgument(0)));
+
+    return routingContext;
+  }
+}
@@ -0,0 +1,107 @@
+package org.folio.circulation.support.json;
+
+import static api.support.matchers.JsonObjectMatcher.hasJsonPath;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.collection.IsEmptyCollection.empty;
+
+import java.util.function.Function;
+
+import org.folio.circulation.domain.MultipleRecords;
+import org.hamcrest.Matcher;
+import org.junit.Test;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import lombok.val;
+
+public class JsonRecordsParserTests {
+  @Test
+  public void shouldMapEachRecordInArray() {
+    val representation = new JsonObject()
+      .put("records", new JsonArray()
+        .add(createObjectWithName("Foo"))
+        .add(createObjectWithName("Bar")))
+      .put("totalRecords", 2);
+
+    val records = parse(representation);
+
+    assertThat(records.getRecords(), contains(objectWithName("Foo"), objectWithName("Bar")));
+    assertThat(records.getTotalRecords(), is(2));
+  }
+
+  @Test
+  public void shouldMapNestedObjectsAndArraysWithinRecords() {
+    val representation = new JsonObject()
+      .put("records", new JsonArray()
+        .add(createObjectWithName("Foo")
+          .put("status", new JsonObject().put("name", "Available"))
+          .put("tags", new JsonArray().add("first").add("second"))));
+
+    val record = parse(representation).getRecords().iterator().next();
+
+    assertThat(record.getJsonObject("status").getString("name"), is("Available"));
+    assertThat(record.getJsonArray("tags").getString(1), is("second"));
+  }
+
+  @Test
+  public void shouldSkipNonObjectElementsAndOtherProperties() {
+    val representation = new JsonObject()
+      .put("resultInfo", new JsonObject()
+        .put("records", new JsonArray().add(createObjectWithName("Ignored"))))
+      .put("records", new JsonArray()
+        .add("Bar")
+        .add(createObjectWithName("Foo"))
+        .add(new JsonArray().add(createObjectWithName("Nested")))
+        .addNull())
+      .put("totalRecords", 1);
+
+    val records = parse(representation);
+
+    assertThat(records.getRecords(), contains(objectWithName("Foo")));
+    assertThat(records.getTotalRecords(), is(1));
+  }
+
+  @Test
+  public void shouldHaveNoRecordsWhenArrayIsMissing() {
+    val records = parse(new JsonObject().put("totalRecords", 0));
+
+    assertThat(records.getRecords(), is(empty()));
+    assertThat(records.getTotalRecords(), is(0));
+  }
+
+  @Test
+  public void shouldHaveNoTotalWhenTotalIsMissing() {
+    val records = parse(new JsonObject().put("records", new JsonArray()));
+
+    assertThat(records.getTotalRecords(), is(nullValue()));
+  }
+
+  @Test(expected = DecodeException.class)
+  public void shouldFailWhenRepresentationIsTruncated() {
+    JsonRecordsParser.parse(Buffer.buffer("{\"records\": [{\"name\": \"Foo\"},"),
+      "records", Function.identity());
+  }
+
+  @Test(expected = DecodeException.class)
+  public void shouldFailWhenRepresentationIsNotAnObject() {
+    JsonRecordsParser.parse(Buffer.buffer("[]"), "records", Function.identity());
+  }
+
+  private static MultipleRecords<JsonObject> parse(JsonObject representation) {
+    return JsonRecordsParser.parse(representation.toBuffer(), "records",
+      Function.identity());
+  }
+
+  private static JsonObject createObjectWithName(String name) {
+    return new JsonObject().put("name", name);
+  }
+
+  private static Matcher<JsonObject> objectWithName(String name) {
+    return hasJsonPath("name", name);
+  }
+}